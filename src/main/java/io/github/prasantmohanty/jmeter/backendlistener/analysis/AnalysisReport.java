@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.analysis;
+
+import io.github.prasantmohanty.jmeter.backendlistener.junit.transform.JtlRecord;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Results contributed by {@link SampleAnalyzer}s at the end of a run: synthetic test cases which
+ * are appended to the JUnit report and attributes which are attached to the ReportPortal launch.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public class AnalysisReport {
+
+  private final List<JtlRecord> testCases = new ArrayList<>();
+  private final Map<String, String> launchAttributes = new LinkedHashMap<>();
+
+  public synchronized void addTestCase(JtlRecord testCase) {
+    this.testCases.add(testCase);
+  }
+
+  /**
+   * Add a launch attribute. A later attribute with the same key replaces the earlier one.
+   *
+   * @param key attribute key
+   * @param value attribute value
+   */
+  public synchronized void addLaunchAttribute(String key, String value) {
+    this.launchAttributes.put(key, value);
+  }
+
+  public synchronized List<JtlRecord> getTestCases() {
+    return new ArrayList<>(this.testCases);
+  }
+
+  public synchronized Map<String, String> getLaunchAttributes() {
+    return new LinkedHashMap<>(this.launchAttributes);
+  }
+
+  public synchronized void clear() {
+    this.testCases.clear();
+    this.launchAttributes.clear();
+  }
+}
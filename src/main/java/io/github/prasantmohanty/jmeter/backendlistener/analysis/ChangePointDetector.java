@@ -0,0 +1,431 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.analysis;
+
+import io.github.prasantmohanty.jmeter.backendlistener.junit.transform.JtlRecord;
+import io.github.prasantmohanty.jmeter.backendlistener.metrics.LatencyHistogram;
+import io.github.prasantmohanty.jmeter.backendlistener.model.SampleDictionary;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import org.apache.jmeter.samplers.SampleResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Finds the moments within a run at which a label's performance shifted, such as a slow leak or a
+ * cache turning cold in a soak test, which fixed thresholds miss as long as they are not crossed.
+ *
+ * <p>Samples are aggregated into fixed windows per label. At the end of each window its median and
+ * 95th percentile (on a log scale, so that a shift is relative) and its error rate are fed to a
+ * two-sided CUSUM, standardised against the level of the first {@value #BASELINE_WINDOWS} windows.
+ * A shift is reported once the cumulative deviation exceeds the threshold, in standard deviations,
+ * dated back to the window where the deviation started to build up; the level after it becomes
+ * the reference for the next shift. Error rates are standardised with at least their binomial
+ * noise, so that one failure among few samples is not a shift.
+ *
+ * <p>A sample costs a histogram increment, a window a fixed number of histogram passes: memory is
+ * constant per label. Besides the labels, all samples are watched together as {@value
+ * #ALL_LABELS}.
+ *
+ * <p>Every shift becomes a test case at its time, failing when the label got slower or failed more
+ * and passing when it improved; the number of shifts, of degradations among them and the first
+ * degradation are added as launch attributes.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public class ChangePointDetector implements SampleAnalyzer {
+
+  private static final Logger logger = LoggerFactory.getLogger(ChangePointDetector.class);
+
+  public static final long DEFAULT_WINDOW_MILLIS = 10_000;
+
+  public static final double DEFAULT_THRESHOLD = 5;
+
+  static final String ALL_LABELS = "(all labels)";
+
+  /** Labels beyond which new ones are only watched as part of {@link #ALL_LABELS}. */
+  static final int MAX_LABELS = 1000;
+
+  /** Shifts kept for the report, later ones are only counted. */
+  static final int MAX_SHIFTS = 100;
+
+  /** Windows with fewer samples are left out, their percentiles are too noisy. */
+  static final long MIN_WINDOW_SAMPLES = 10;
+
+  /** Windows the first reference level and deviation are taken from. */
+  static final int BASELINE_WINDOWS = 6;
+
+  /** Deviation, in standard deviations, a window may have without adding to the CUSUM. */
+  static final double SLACK = 0.5;
+
+  /** Lowest deviation of the log latency, about 5%, for runs steadier than the histogram. */
+  static final double MIN_LOG_LATENCY_SIGMA = 0.05;
+
+  /** Lowest deviation of the error rate in percentage points. */
+  static final double MIN_ERROR_RATE_SIGMA = 0.1;
+
+  /** Shifts smaller than this are taken as the new level without being reported. */
+  static final long MIN_LATENCY_SHIFT_MILLIS = 10;
+
+  static final double MIN_ERROR_RATE_SHIFT = 1;
+
+  /** A detected shift of one series. */
+  static final class Shift {
+    final String label;
+    final String metric;
+    final long changeMillis;
+    final long detectedMillis;
+    final double before;
+    final double after;
+    final int beforeWindows;
+    final int afterWindows;
+
+    Shift(
+        String label,
+        String metric,
+        long changeMillis,
+        long detectedMillis,
+        double before,
+        double after,
+        int beforeWindows,
+        int afterWindows) {
+      this.label = label;
+      this.metric = metric;
+      this.changeMillis = changeMillis;
+      this.detectedMillis = detectedMillis;
+      this.before = before;
+      this.after = after;
+      this.beforeWindows = beforeWindows;
+      this.afterWindows = afterWindows;
+    }
+
+    boolean isDegradation() {
+      return after > before;
+    }
+
+    String describe() {
+      boolean latency = !ERROR_RATE.equals(metric);
+      String unit = latency ? " ms" : "%";
+      String change =
+          latency
+              ? String.format(Locale.ROOT, "%+.0f%%", 100 * (after / before - 1))
+              : String.format(Locale.ROOT, "%+.1f points", after - before);
+      return String.format(
+          Locale.ROOT,
+          "%s %s%s -> %s%s (%s) from %s",
+          metric,
+          format(before, latency),
+          unit,
+          format(after, latency),
+          unit,
+          change,
+          Instant.ofEpochMilli(changeMillis));
+    }
+  }
+
+  static final String P50 = "p50";
+
+  static final String P95 = "p95";
+
+  static final String ERROR_RATE = "error rate";
+
+  /** Two-sided CUSUM on the window values of one series. */
+  private final class Cusum {
+    final String metric;
+    final double minSigma;
+    int windows;
+    double sum;
+    double sumSquares;
+    double level;
+    double sigma;
+    double high;
+    long highStart;
+    int highWindows;
+    double highSum;
+    double low;
+    long lowStart;
+    int lowWindows;
+    double lowSum;
+
+    Cusum(String metric, double minSigma) {
+      this.metric = metric;
+      this.minSigma = minSigma;
+    }
+
+    /**
+     * @param value value of the window
+     * @param noise least standard deviation of the value, 0 if unknown
+     * @return the shift the window completed, null if none
+     */
+    Shift update(String label, long start, long end, double value, double noise) {
+      if (sigma == 0) {
+        windows++;
+        sum += value;
+        sumSquares += value * value;
+        if (windows == BASELINE_WINDOWS) {
+          level = sum / windows;
+          sigma = Math.max(minSigma, Math.sqrt(Math.max(0, sumSquares / windows - level * level)));
+        }
+        return null;
+      }
+      double z = (value - level) / Math.max(sigma, noise);
+      double nextHigh = high + z - SLACK;
+      if (nextHigh > 0) {
+        if (high == 0) {
+          highStart = start;
+          highWindows = 0;
+          highSum = 0;
+        }
+        highWindows++;
+        highSum += value;
+      }
+      high = Math.max(0, nextHigh);
+      double nextLow = low - z - SLACK;
+      if (nextLow > 0) {
+        if (low == 0) {
+          lowStart = start;
+          lowWindows = 0;
+          lowSum = 0;
+        }
+        lowWindows++;
+        lowSum += value;
+      }
+      low = Math.max(0, nextLow);
+      windows++;
+      if (high <= threshold && low <= threshold) {
+        return null;
+      }
+      boolean up = high > threshold;
+      int shifted = up ? highWindows : lowWindows;
+      double after = (up ? highSum : lowSum) / shifted;
+      Shift shift =
+          new Shift(
+              label,
+              metric,
+              up ? highStart : lowStart,
+              end,
+              level(level),
+              level(after),
+              windows - shifted,
+              shifted);
+      level = after;
+      windows = shifted;
+      high = 0;
+      low = 0;
+      return significant(shift) ? shift : null;
+    }
+
+    private double level(double value) {
+      return ERROR_RATE.equals(metric) ? value : Math.exp(value);
+    }
+
+    private boolean significant(Shift shift) {
+      double change = Math.abs(shift.after - shift.before);
+      return ERROR_RATE.equals(metric)
+          ? change >= MIN_ERROR_RATE_SHIFT
+          : change >= MIN_LATENCY_SHIFT_MILLIS;
+    }
+  }
+
+  /** The current window and the series of one label. */
+  private final class LabelState {
+    final String label;
+    final long[] histogram = new long[LatencyHistogram.bucketCount()];
+    final Cusum p50 = new Cusum(P50, MIN_LOG_LATENCY_SIGMA);
+    final Cusum p95 = new Cusum(P95, MIN_LOG_LATENCY_SIGMA);
+    final Cusum errorRate = new Cusum(ERROR_RATE, MIN_ERROR_RATE_SIGMA);
+    long window = Long.MIN_VALUE;
+    long samples;
+    long errors;
+
+    LabelState(String label) {
+      this.label = label;
+    }
+  }
+
+  private final long windowMillis;
+  private final double threshold;
+  private final SampleDictionary dictionary;
+  private final List<LabelState> labels = new ArrayList<>();
+  private LabelState[] statesByLabelId = new LabelState[16];
+  private final LabelState all = new LabelState(ALL_LABELS);
+  private final List<Shift> shifts = new ArrayList<>();
+  private long shiftCount;
+
+  /**
+   * @param windowMillis length of the windows the samples are aggregated in
+   * @param threshold cumulative deviation, in standard deviations, at which a shift is reported
+   */
+  public ChangePointDetector(long windowMillis, double threshold) {
+    this(windowMillis, threshold, new SampleDictionary());
+  }
+
+  /**
+   * @param windowMillis length of the windows the samples are aggregated in
+   * @param threshold cumulative deviation, in standard deviations, at which a shift is reported
+   * @param dictionary label ids shared with the other consumers of the samples
+   */
+  public ChangePointDetector(long windowMillis, double threshold, SampleDictionary dictionary) {
+    if (windowMillis <= 0 || threshold <= 0) {
+      throw new IllegalArgumentException(
+          "Change point window and threshold must be positive: "
+              + windowMillis
+              + " ms, "
+              + threshold);
+    }
+    this.windowMillis = windowMillis;
+    this.threshold = threshold;
+    this.dictionary = dictionary;
+  }
+
+  @Override
+  public void onSample(SampleResult sr) {
+    int id = dictionary.labelId(sr);
+    if (id >= statesByLabelId.length) {
+      statesByLabelId =
+          Arrays.copyOf(statesByLabelId, Math.max(id + 1, statesByLabelId.length * 2));
+    }
+    LabelState state = statesByLabelId[id];
+    if (state == null && labels.size() < MAX_LABELS) {
+      state = new LabelState(dictionary.label(id));
+      statesByLabelId[id] = state;
+      labels.add(state);
+    }
+    long window = Math.floorDiv(sr.getEndTime(), windowMillis);
+    record(all, sr, window);
+    if (state != null) {
+      record(state, sr, window);
+    }
+  }
+
+  private void record(LabelState state, SampleResult sr, long window) {
+    if (window > state.window) {
+      close(state);
+      state.window = window;
+    }
+    // a late sample of an earlier window counts in the current one
+    state.samples++;
+    if (!sr.isSuccessful()) {
+      state.errors++;
+    }
+    state.histogram[LatencyHistogram.indexOf(sr.getTime())]++;
+  }
+
+  private void close(LabelState state) {
+    if (state.samples >= MIN_WINDOW_SAMPLES) {
+      long start = state.window * windowMillis;
+      long end = start + windowMillis;
+      double errorRate = state.errors * 100d / state.samples;
+      double reference = Math.max(state.errorRate.level, 1) / 100;
+      double noise = 100 * Math.sqrt(reference * (1 - reference) / state.samples);
+      add(state.p50.update(state.label, start, end, logLatency(state.histogram, 50), 0));
+      add(state.p95.update(state.label, start, end, logLatency(state.histogram, 95), 0));
+      add(state.errorRate.update(state.label, start, end, errorRate, noise));
+    }
+    if (state.samples > 0) {
+      state.samples = 0;
+      state.errors = 0;
+      Arrays.fill(state.histogram, 0);
+    }
+  }
+
+  private static double logLatency(long[] histogram, double percentile) {
+    return Math.log(Math.max(1, LatencyHistogram.percentile(histogram, percentile)));
+  }
+
+  private void add(Shift shift) {
+    if (shift == null) {
+      return;
+    }
+    shiftCount++;
+    if (shifts.size() < MAX_SHIFTS) {
+      shifts.add(shift);
+    }
+    logger.warn("Change point in '{}': {}", shift.label, shift.describe());
+  }
+
+  @Override
+  public void contribute(AnalysisReport report) {
+    close(all);
+    for (LabelState state : labels) {
+      close(state);
+    }
+    if (all.p50.windows == 0) {
+      return;
+    }
+    Shift firstDegradation = null;
+    long degradations = 0;
+    for (Shift shift : shifts) {
+      report.addTestCase(toTestCase(shift));
+      if (shift.isDegradation()) {
+        degradations++;
+        // a label tells more than all of them together
+        boolean label = !ALL_LABELS.equals(shift.label);
+        if (firstDegradation == null
+            || shift.changeMillis < firstDegradation.changeMillis
+            || shift.changeMillis == firstDegradation.changeMillis
+                && label
+                && ALL_LABELS.equals(firstDegradation.label)) {
+          firstDegradation = shift;
+        }
+      }
+    }
+    report.addLaunchAttribute("changePoints", Long.toString(shiftCount));
+    report.addLaunchAttribute("changePointDegradations", Long.toString(degradations));
+    if (firstDegradation != null) {
+      report.addLaunchAttribute(
+          "changePointFirstDegradation",
+          firstDegradation.label + " " + firstDegradation.describe());
+    }
+  }
+
+  private JtlRecord toTestCase(Shift shift) {
+    String name =
+        "Change point "
+            + shift.label
+            + " "
+            + shift.metric
+            + " at "
+            + Instant.ofEpochMilli(shift.changeMillis);
+    String message =
+        String.format(
+            Locale.ROOT,
+            "%s, detected at %s; %d windows of %d ms before, %d after",
+            shift.describe(),
+            Instant.ofEpochMilli(shift.detectedMillis),
+            shift.beforeWindows,
+            windowMillis,
+            shift.afterWindows);
+    if (shift.isDegradation()) {
+      return new JtlRecord(name, false, message, shift.metric + " shifted up: " + message);
+    }
+    return new JtlRecord(name, true, message, "");
+  }
+
+  /** @return the shifts found so far, at most {@value #MAX_SHIFTS} */
+  List<Shift> getShifts() {
+    return shifts;
+  }
+
+  private static String format(double value, boolean latency) {
+    return String.format(Locale.ROOT, latency ? "%.0f" : "%.2f", value);
+  }
+}
@@ -0,0 +1,469 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.analysis;
+
+import io.github.prasantmohanty.jmeter.backendlistener.junit.transform.JtlRecord;
+import java.io.Closeable;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.jmeter.samplers.SampleResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches the injector while the test runs, so that a latency spike caused by JMeter itself is not
+ * blamed on the system under test. A daemon thread reads the CPU load, the garbage collection time,
+ * the heap occupancy and the JVM thread count every interval into a ring of the last {@value
+ * #RING} readings; the listener counts the samples ending in each interval in a ring of the same
+ * size, so both series line up interval by interval.
+ *
+ * <p>An interval in which the CPU load, the share of time spent collecting garbage or the heap
+ * occupancy reached its threshold is unhealthy; adjacent unhealthy intervals form a window. The
+ * windows are reported as a failed test case with the samples and the mean latency measured in
+ * them, which are unreliable, and the health of the injector is summarised as launch attributes
+ * named after its host.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public class InjectorHealthMonitor implements SampleAnalyzer, Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(InjectorHealthMonitor.class);
+
+  public static final String DEFAULT_THRESHOLDS = "cpu=90%;gc=20%;heap=90%";
+
+  public static final long DEFAULT_INTERVAL_MILLIS = 1000;
+
+  static final int RING = 3600;
+
+  static final int MAX_WINDOWS = 100;
+
+  static final int REPORTED_WINDOWS = 5;
+
+  private static final int CPU = 1;
+  private static final int GC = 2;
+  private static final int HEAP = 4;
+
+  /** One reading of the injector; loads are fractions, NaN when the JVM does not provide them. */
+  static final class Reading {
+    double processCpu = Double.NaN;
+    double systemCpu = Double.NaN;
+    /** collection time of all collectors since the JVM started */
+    long gcMillis;
+    long heapUsed;
+    long heapMax;
+    int threads;
+
+    double cpu() {
+      return Double.isNaN(systemCpu) ? processCpu : systemCpu;
+    }
+  }
+
+  /** Source of the readings. */
+  interface Probe {
+    void read(Reading reading);
+  }
+
+  /** Reads the platform MXBeans. */
+  static final class PlatformProbe implements Probe {
+    private final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+    private final List<GarbageCollectorMXBean> collectors =
+        ManagementFactory.getGarbageCollectorMXBeans();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void read(Reading reading) {
+      if (os instanceof com.sun.management.OperatingSystemMXBean) {
+        com.sun.management.OperatingSystemMXBean load =
+            (com.sun.management.OperatingSystemMXBean) os;
+        reading.processCpu = fraction(load.getProcessCpuLoad());
+        reading.systemCpu = fraction(load.getSystemCpuLoad());
+      } else {
+        double average = os.getSystemLoadAverage();
+        reading.systemCpu =
+            average < 0 ? Double.NaN : Math.min(1, average / os.getAvailableProcessors());
+      }
+      long gcMillis = 0;
+      for (GarbageCollectorMXBean collector : collectors) {
+        gcMillis += Math.max(0, collector.getCollectionTime());
+      }
+      reading.gcMillis = gcMillis;
+      MemoryUsage heap = memory.getHeapMemoryUsage();
+      reading.heapUsed = heap.getUsed();
+      reading.heapMax = heap.getMax() > 0 ? heap.getMax() : heap.getCommitted();
+      reading.threads = threads.getThreadCount();
+    }
+
+    private static double fraction(double load) {
+      return load < 0 ? Double.NaN : load;
+    }
+  }
+
+  /** Adjacent unhealthy intervals. */
+  static final class Window {
+    final long start;
+    long end;
+    int reasons;
+    double peakCpu;
+    double peakGc;
+    double peakHeap;
+    long samples;
+    long elapsedSum;
+
+    Window(long start) {
+      this.start = start;
+    }
+  }
+
+  private final String hostname;
+  private final long intervalMillis;
+  private final Probe probe;
+  private final double cpuThreshold;
+  private final double gcThreshold;
+  private final double heapThreshold;
+  private ScheduledExecutorService scheduler;
+
+  // written by the sampling thread, read once it has stopped
+  private final Reading reading = new Reading();
+  private final long[] readingTimes = new long[RING];
+  private final byte[] readingReasons = new byte[RING];
+  private long readings;
+  private long previousTime = -1;
+  private long previousGcMillis;
+  private double cpuSum;
+  private long cpuReadings;
+  private double peakCpu;
+  private long gcTotalMillis;
+  private double peakGc;
+  private double peakHeap;
+  private int peakThreads;
+  private final List<Window> windows = new ArrayList<>();
+  private long windowCount;
+  private Window open;
+
+  // written by the listener thread
+  private final long[] sampleIntervals = new long[RING];
+  private final int[] sampleCounts = new int[RING];
+  private final long[] sampleElapsedSums = new long[RING];
+  private long samples;
+  private long elapsedSum;
+
+  /**
+   * @param hostname name of the injector host
+   * @param thresholds thresholds such as {@value #DEFAULT_THRESHOLDS}, blank for the defaults
+   */
+  public InjectorHealthMonitor(String hostname, String thresholds) {
+    this(hostname, thresholds, DEFAULT_INTERVAL_MILLIS, new PlatformProbe());
+  }
+
+  InjectorHealthMonitor(String hostname, String thresholds, long intervalMillis, Probe probe) {
+    this.hostname = hostname;
+    this.intervalMillis = intervalMillis;
+    this.probe = probe;
+    double cpu = 90;
+    double gc = 20;
+    double heap = 90;
+    String spec =
+        thresholds == null || thresholds.trim().isEmpty() ? DEFAULT_THRESHOLDS : thresholds;
+    for (String entry : spec.split(";")) {
+      int eq = entry.indexOf('=');
+      if (eq <= 0) {
+        continue;
+      }
+      String key = entry.substring(0, eq).trim().toLowerCase(Locale.ROOT);
+      double percent = Double.parseDouble(entry.substring(eq + 1).replace("%", "").trim());
+      switch (key) {
+        case "cpu":
+          cpu = percent;
+          break;
+        case "gc":
+          gc = percent;
+          break;
+        case "heap":
+          heap = percent;
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown injector health threshold: " + key);
+      }
+    }
+    this.cpuThreshold = cpu / 100;
+    this.gcThreshold = gc / 100;
+    this.heapThreshold = heap / 100;
+    Arrays.fill(sampleIntervals, -1);
+  }
+
+  /** Start reading the injector every interval on a daemon thread. */
+  public synchronized void start() {
+    if (scheduler != null) {
+      return;
+    }
+    scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread t = new Thread(r, "reportportal-injector-health");
+              t.setDaemon(true);
+              return t;
+            });
+    long now = System.currentTimeMillis();
+    read(now);
+    // read on interval boundaries, so that a reading covers one interval of the sample ring
+    scheduler.scheduleAtFixedRate(
+        () -> {
+          try {
+            read(System.currentTimeMillis());
+          } catch (RuntimeException e) {
+            logger.debug("Unable to read the injector health", e);
+          }
+        },
+        intervalMillis - now % intervalMillis,
+        intervalMillis,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /** Stop reading the injector; the readings taken so far are kept. */
+  @Override
+  public synchronized void close() {
+    if (scheduler == null) {
+      return;
+    }
+    scheduler.shutdownNow();
+    try {
+      scheduler.awaitTermination(intervalMillis, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    scheduler = null;
+  }
+
+  /**
+   * Take one reading. The first one only sets the base of the collection time.
+   *
+   * @param now time of the reading in epoch milliseconds
+   */
+  void read(long now) {
+    probe.read(reading);
+    if (previousTime < 0 || now <= previousTime) {
+      previousTime = now;
+      previousGcMillis = reading.gcMillis;
+      return;
+    }
+    double cpu = reading.cpu();
+    double gc = Math.min(1, (double) (reading.gcMillis - previousGcMillis) / (now - previousTime));
+    double heap = reading.heapMax > 0 ? (double) reading.heapUsed / reading.heapMax : 0;
+    gcTotalMillis += reading.gcMillis - previousGcMillis;
+    if (!Double.isNaN(cpu)) {
+      cpuSum += cpu;
+      cpuReadings++;
+      peakCpu = Math.max(peakCpu, cpu);
+    }
+    peakGc = Math.max(peakGc, gc);
+    peakHeap = Math.max(peakHeap, heap);
+    peakThreads = Math.max(peakThreads, reading.threads);
+
+    int reasons = 0;
+    reasons |= cpu >= cpuThreshold ? CPU : 0;
+    reasons |= gc >= gcThreshold ? GC : 0;
+    reasons |= heap >= heapThreshold ? HEAP : 0;
+    int slot = (int) (readings++ % RING);
+    readingTimes[slot] = now;
+    readingReasons[slot] = (byte) reasons;
+    if (reasons == 0) {
+      open = null;
+    } else {
+      if (open == null || open.end != previousTime) {
+        open = new Window(previousTime);
+        windowCount++;
+        if (windows.size() < MAX_WINDOWS) {
+          windows.add(open);
+        }
+      }
+      open.end = now;
+      open.reasons |= reasons;
+      open.peakCpu = Double.isNaN(cpu) ? open.peakCpu : Math.max(open.peakCpu, cpu);
+      open.peakGc = Math.max(open.peakGc, gc);
+      open.peakHeap = Math.max(open.peakHeap, heap);
+    }
+    previousTime = now;
+    previousGcMillis = reading.gcMillis;
+  }
+
+  @Override
+  public void onSample(SampleResult sr) {
+    long interval = Math.floorDiv(sr.getEndTime(), intervalMillis);
+    int slot = (int) Math.floorMod(interval, (long) RING);
+    if (sampleIntervals[slot] != interval) {
+      sampleIntervals[slot] = interval;
+      sampleCounts[slot] = 0;
+      sampleElapsedSums[slot] = 0;
+    }
+    sampleCounts[slot]++;
+    sampleElapsedSums[slot] += sr.getTime();
+    samples++;
+    elapsedSum += sr.getTime();
+  }
+
+  @Override
+  public void contribute(AnalysisReport report) {
+    close();
+    if (readings == 0) {
+      return;
+    }
+    long unreliable = 0;
+    long unreliableElapsed = 0;
+    for (Window window : windows) {
+      align(window);
+      unreliable += window.samples;
+      unreliableElapsed += window.elapsedSum;
+    }
+    long healthy = 0;
+    long healthyElapsed = 0;
+    for (int i = 0; i < Math.min(readings, RING); i++) {
+      if (readingReasons[i] == 0) {
+        int slot = sampleSlot(intervalOf(readingTimes[i]) - 1);
+        if (slot >= 0) {
+          healthy += sampleCounts[slot];
+          healthyElapsed += sampleElapsedSums[slot];
+        }
+      }
+    }
+
+    String summary =
+        String.format(
+            Locale.ROOT,
+            "cpu %s avg %s max, gc %d ms %s max, heap %s max, threads %d max",
+            percent(cpuReadings == 0 ? Double.NaN : cpuSum / cpuReadings),
+            percent(cpuReadings == 0 ? Double.NaN : peakCpu),
+            gcTotalMillis,
+            percent(peakGc),
+            percent(peakHeap),
+            peakThreads);
+    report.addLaunchAttribute("injector." + hostname, summary);
+    report.addLaunchAttribute("injectorUnreliableWindows", Long.toString(windowCount));
+    if (windowCount > 0) {
+      report.addLaunchAttribute(
+          "injectorUnreliableSamples",
+          String.format(
+              Locale.ROOT,
+              "%d (%.1f%%)",
+              unreliable,
+              samples == 0 ? 0 : 100d * unreliable / samples));
+    }
+
+    StringBuilder message = new StringBuilder();
+    for (int i = 0; i < Math.min(REPORTED_WINDOWS, windows.size()); i++) {
+      Window window = windows.get(i);
+      message.append(i == 0 ? "" : "\n").append(describe(window));
+      if (window.samples > 0) {
+        message.append(
+            String.format(
+                Locale.ROOT,
+                ", %d samples at %.0f ms mean",
+                window.samples,
+                (double) window.elapsedSum / window.samples));
+        if (healthy > 0) {
+          message.append(
+              String.format(
+                  Locale.ROOT,
+                  " against %.0f ms while healthy",
+                  (double) healthyElapsed / healthy));
+        }
+      }
+    }
+    if (windowCount > REPORTED_WINDOWS) {
+      message.append("\nand ").append(windowCount - REPORTED_WINDOWS).append(" more windows");
+    }
+    String responseMessage =
+        windowCount == 0
+            ? "Healthy over " + readings + " readings: " + summary
+            : String.format(
+                Locale.ROOT,
+                "%d unhealthy windows, %d samples unreliable (%.0f ms mean): %s",
+                windowCount,
+                unreliable,
+                unreliable == 0 ? 0 : (double) unreliableElapsed / unreliable,
+                summary);
+    report.addTestCase(
+        new JtlRecord(
+            "Injector health " + hostname,
+            windowCount == 0,
+            responseMessage,
+            windowCount == 0 ? "" : message.toString()));
+  }
+
+  /** Count the samples of a window still held by the sample ring. */
+  private void align(Window window) {
+    long first = intervalOf(window.start);
+    long last = intervalOf(window.end) - 1;
+    for (long interval = Math.max(first, last - RING + 1); interval <= last; interval++) {
+      int slot = sampleSlot(interval);
+      if (slot >= 0) {
+        window.samples += sampleCounts[slot];
+        window.elapsedSum += sampleElapsedSums[slot];
+      }
+    }
+  }
+
+  /** @return the interval starting nearest to a reading time, which may lag a few milliseconds */
+  private long intervalOf(long readingTime) {
+    return Math.floorDiv(readingTime + intervalMillis / 2, intervalMillis);
+  }
+
+  /** @return the slot of the sample ring holding an interval, {@code -1} if it holds none */
+  private int sampleSlot(long interval) {
+    int slot = (int) Math.floorMod(interval, (long) RING);
+    return sampleIntervals[slot] == interval ? slot : -1;
+  }
+
+  private String describe(Window window) {
+    StringBuilder sb = new StringBuilder();
+    sb.append(Instant.ofEpochMilli(window.start)).append(" to ");
+    sb.append(Instant.ofEpochMilli(window.end)).append(':');
+    if ((window.reasons & CPU) != 0) {
+      sb.append(" cpu ").append(percent(window.peakCpu));
+    }
+    if ((window.reasons & GC) != 0) {
+      sb.append(" gc ").append(percent(window.peakGc));
+    }
+    if ((window.reasons & HEAP) != 0) {
+      sb.append(" heap ").append(percent(window.peakHeap));
+    }
+    return sb.toString();
+  }
+
+  /** @return the number of readings taken */
+  long getReadings() {
+    return readings;
+  }
+
+  private static String percent(double fraction) {
+    return Double.isNaN(fraction) ? "n/a" : String.format(Locale.ROOT, "%.0f%%", 100 * fraction);
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.analysis;
+
+import io.github.prasantmohanty.jmeter.backendlistener.junit.transform.JtlRecord;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.apache.jmeter.samplers.SampleResult;
+
+/**
+ * Splits response times into connect, server wait (time to first byte after connecting) and
+ * download (after the first byte) and aggregates the split per label, to tell at a glance whether
+ * a slow request is network, server or payload bound.
+ *
+ * <p>Samples with sub-results, transaction controllers and pages with embedded resources, are
+ * decomposed through their children: the parent gets the sum of the portions of its leaf requests
+ * and the rest of its time as {@code other} (timers, pre- and post-processing), and each child is
+ * aggregated under {@code parent / child}. Children fetched in parallel add up to more than the
+ * parent's time; their overlap is reported instead of {@code other}.
+ *
+ * <p>Every label becomes a test case, children named after their path so that they sort under
+ * their parent; the split of the labels taking the most time is added as launch attributes.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public class LatencyDecomposer implements SampleAnalyzer {
+
+  /** Labels, including child paths, beyond which new ones are not tracked. */
+  static final int MAX_LABELS = 1000;
+
+  /** Sub-result depth walked at most. */
+  static final int MAX_DEPTH = 8;
+
+  /** Top-level labels whose split is added as launch attributes. */
+  static final int ATTRIBUTE_LABELS = 10;
+
+  static final String SEPARATOR = " / ";
+
+  /** Portions of one sample or the sum of several, in milliseconds. */
+  static final class Split {
+    long samples;
+    long elapsed;
+    long connect;
+    long wait;
+    long download;
+    long other;
+    long overlap;
+
+    void add(Split split) {
+      samples += split.samples;
+      elapsed += split.elapsed;
+      connect += split.connect;
+      wait += split.wait;
+      download += split.download;
+      other += split.other;
+      overlap += split.overlap;
+    }
+
+    /** @return {@code network}, {@code server}, {@code payload} or {@code client} */
+    String boundBy() {
+      long max = Math.max(Math.max(connect, wait), Math.max(download, other));
+      if (max == wait) {
+        return "server";
+      } else if (max == connect) {
+        return "network";
+      } else if (max == download) {
+        return "payload";
+      }
+      return "client";
+    }
+
+    String describe() {
+      long total = Math.max(1, connect + wait + download + other);
+      String shares =
+          String.format(
+              Locale.ROOT,
+              "%s bound: connect %d%%, server %d%%, download %d%%, other %d%%, mean %.1f ms",
+              boundBy(),
+              Math.round(connect * 100d / total),
+              Math.round(wait * 100d / total),
+              Math.round(download * 100d / total),
+              Math.round(other * 100d / total),
+              samples == 0 ? 0d : (double) elapsed / samples);
+      return overlap > 0
+          ? shares
+              + String.format(
+                  Locale.ROOT, ", parallel overlap %.1f ms", (double) overlap / samples)
+          : shares;
+    }
+  }
+
+  private final Map<String, Split> labels = new LinkedHashMap<>();
+  private final Map<String, Integer> depths = new LinkedHashMap<>();
+
+  @Override
+  public void onSample(SampleResult sr) {
+    decompose(sr, sr.getSampleLabel(), 0);
+  }
+
+  /**
+   * Decompose a sample and its children, aggregating each under its path.
+   *
+   * @return the split of the sample
+   */
+  private Split decompose(SampleResult sr, String path, int depth) {
+    Split split = new Split();
+    split.samples = 1;
+    split.elapsed = sr.getTime();
+    SampleResult[] children = sr.getSubResults();
+    if (children.length == 0 || depth == MAX_DEPTH) {
+      long connect = Math.max(0, Math.min(sr.getConnectTime(), sr.getTime()));
+      long latency = Math.max(connect, Math.min(sr.getLatency(), sr.getTime()));
+      split.connect = connect;
+      split.wait = latency - connect;
+      split.download = sr.getTime() - latency;
+    } else {
+      long childTime = 0;
+      for (SampleResult child : children) {
+        Split childSplit = decompose(child, path + SEPARATOR + child.getSampleLabel(), depth + 1);
+        childTime += childSplit.elapsed;
+        split.connect += childSplit.connect;
+        split.wait += childSplit.wait;
+        split.download += childSplit.download;
+        split.other += childSplit.other;
+        split.overlap += childSplit.overlap;
+      }
+      if (childTime <= sr.getTime()) {
+        split.other += sr.getTime() - childTime;
+      } else {
+        split.overlap += childTime - sr.getTime();
+      }
+    }
+    Split total = labels.get(path);
+    if (total == null && labels.size() < MAX_LABELS) {
+      total = new Split();
+      labels.put(path, total);
+      depths.put(path, depth);
+    }
+    if (total != null) {
+      total.add(split);
+    }
+    return split;
+  }
+
+  @Override
+  public void contribute(AnalysisReport report) {
+    if (labels.isEmpty()) {
+      return;
+    }
+    List<String> paths = new ArrayList<>(labels.keySet());
+    Collections.sort(paths);
+    List<String> topLevel = new ArrayList<>();
+    for (String path : paths) {
+      Split split = labels.get(path);
+      int depth = depths.get(path);
+      if (depth == 0) {
+        topLevel.add(path);
+      }
+      StringBuilder children = new StringBuilder();
+      String prefix = path + SEPARATOR;
+      for (String child : paths) {
+        if (child.startsWith(prefix) && depths.get(child) == depth + 1) {
+          children.append(child.substring(prefix.length())).append(": ");
+          children.append(labels.get(child).describe()).append('\n');
+        }
+      }
+      report.addTestCase(
+          new JtlRecord(
+              "Latency " + path,
+              true,
+              split.describe(),
+              "",
+              null,
+              null,
+              null,
+              children.length() == 0 ? null : children.toString(),
+              ""));
+    }
+    topLevel.sort((a, b) -> Long.compare(labels.get(b).elapsed, labels.get(a).elapsed));
+    for (String label : topLevel.subList(0, Math.min(ATTRIBUTE_LABELS, topLevel.size()))) {
+      Split split = labels.get(label);
+      long total = Math.max(1, split.connect + split.wait + split.download + split.other);
+      report.addLaunchAttribute(
+          "latency." + label,
+          String.format(
+              Locale.ROOT,
+              "%s c%d/s%d/d%d/o%d%%",
+              split.boundBy(),
+              Math.round(split.connect * 100d / total),
+              Math.round(split.wait * 100d / total),
+              Math.round(split.download * 100d / total),
+              Math.round(split.other * 100d / total)));
+    }
+  }
+}
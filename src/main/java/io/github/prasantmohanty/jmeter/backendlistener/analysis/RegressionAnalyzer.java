@@ -0,0 +1,285 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.analysis;
+
+import io.github.prasantmohanty.jmeter.backendlistener.baseline.BaselineStore;
+import io.github.prasantmohanty.jmeter.backendlistener.baseline.LabelSummary;
+import io.github.prasantmohanty.jmeter.backendlistener.baseline.RunSummary;
+import io.github.prasantmohanty.jmeter.backendlistener.junit.transform.JtlRecord;
+import io.github.prasantmohanty.jmeter.backendlistener.metrics.SampleStatistics;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.apache.jmeter.samplers.SampleResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the run against a baseline taken from a {@link BaselineStore} at teardown and stores the
+ * summary of the run afterwards. The baseline is either a pinned build ({@code build:<number>}) or
+ * the median of the last N runs ({@code last:<n>}). A metric regresses when it is worse than the
+ * baseline by more than its relative threshold and, with three or more baseline runs, also by more
+ * than {@code sigma} robust standard deviations (1.4826 x MAD) of the baseline runs.
+ *
+ * <p>Thresholds are configured as {@code p95=10%;avg=10%;throughput=10%;errorRate=1;sigma=3;
+ * minSamples=50}: latency metrics ({@code avg}, {@code p50}, {@code p90}, {@code p95}, {@code p99})
+ * and {@code throughput} take a relative change in percent, {@code errorRate} an absolute increase
+ * in percentage points.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public class RegressionAnalyzer implements SampleAnalyzer {
+
+  private static final Logger logger = LoggerFactory.getLogger(RegressionAnalyzer.class);
+
+  public static final String DEFAULT_THRESHOLDS =
+      "p95=10%;throughput=10%;errorRate=1;sigma=3;minSamples=50";
+
+  private final BaselineStore store;
+  private final SampleStatistics statistics;
+  private final String testName;
+  private final String buildNumber;
+  private final String baselineMode;
+  private final Map<LabelSummary.Metric, Double> thresholds =
+      new EnumMap<>(LabelSummary.Metric.class);
+  private double sigma = 3d;
+  private long minSamples = 50;
+
+  /**
+   * @param store baseline store
+   * @param statistics live statistics of the current run
+   * @param testName test name the baseline is keyed by
+   * @param buildNumber build number of the current run
+   * @param baselineMode {@code last:<n>} or {@code build:<number>}
+   * @param thresholdSpec regression thresholds, see class documentation
+   */
+  public RegressionAnalyzer(
+      BaselineStore store,
+      SampleStatistics statistics,
+      String testName,
+      String buildNumber,
+      String baselineMode,
+      String thresholdSpec) {
+    this.store = store;
+    this.statistics = statistics;
+    this.testName = testName;
+    this.buildNumber = buildNumber;
+    this.baselineMode = baselineMode == null ? "last:5" : baselineMode.trim();
+    parseThresholds(thresholdSpec);
+  }
+
+  @Override
+  public void onSample(SampleResult sr) {
+    // the comparison works on the shared SampleStatistics which the listener updates itself
+  }
+
+  @Override
+  public void contribute(AnalysisReport report) {
+    RunSummary current = RunSummary.of(testName, buildNumber, statistics);
+    if (current.getLabels().isEmpty()) {
+      return;
+    }
+    try {
+      List<RunSummary> baselines = loadBaselines();
+      if (baselines.isEmpty()) {
+        logger.info(
+            "No baseline found for test '{}' ({}), skipping comparison", testName, baselineMode);
+        report.addLaunchAttribute("baseline", "none");
+      } else {
+        compare(current, baselines, report);
+      }
+    } catch (IOException e) {
+      logger.error("Unable to read baseline for test '{}'", testName, e);
+    }
+    try {
+      store.append(current);
+    } catch (IOException e) {
+      logger.error("Unable to store baseline of build {} for test '{}'", buildNumber, testName, e);
+    }
+  }
+
+  private List<RunSummary> loadBaselines() throws IOException {
+    if (baselineMode.startsWith("build:")) {
+      RunSummary pinned = store.find(testName, baselineMode.substring(6).trim());
+      return pinned == null
+          ? Collections.<RunSummary>emptyList()
+          : Collections.singletonList(pinned);
+    }
+    int count = 5;
+    if (baselineMode.startsWith("last:")) {
+      count = Integer.parseInt(baselineMode.substring(5).trim());
+    }
+    return store.findLatest(testName, count, buildNumber);
+  }
+
+  private void compare(RunSummary current, List<RunSummary> baselines, AnalysisReport report) {
+    List<String> builds = new ArrayList<>();
+    for (RunSummary baseline : baselines) {
+      builds.add(baseline.getBuildNumber());
+    }
+    int regressions = 0;
+    for (LabelSummary now : current.getLabels().values()) {
+      if (now.getSamples() < minSamples) {
+        continue;
+      }
+      List<LabelSummary> history = new ArrayList<>();
+      for (RunSummary baseline : baselines) {
+        LabelSummary then = baseline.getLabels().get(now.getLabel());
+        if (then != null && then.getSamples() >= minSamples) {
+          history.add(then);
+        }
+      }
+      if (history.isEmpty()) {
+        continue;
+      }
+      for (Map.Entry<LabelSummary.Metric, Double> threshold : thresholds.entrySet()) {
+        LabelSummary.Metric metric = threshold.getKey();
+        double[] values = new double[history.size()];
+        for (int i = 0; i < values.length; i++) {
+          values[i] = history.get(i).get(metric);
+        }
+        double base = median(values);
+        double spread = 1.4826d * mad(values, base);
+        double measured = now.get(metric);
+        if (isRegression(metric, measured, base, spread, threshold.getValue(), values.length)) {
+          regressions++;
+          String delta = delta(metric, measured, base);
+          report.addTestCase(
+              new JtlRecord(
+                  "Regression " + now.getLabel() + " " + name(metric),
+                  false,
+                  "",
+                  String.format(
+                      Locale.ROOT,
+                      "%s of '%s' is %.2f against baseline %.2f (%s, threshold %s) over builds %s",
+                      name(metric),
+                      now.getLabel(),
+                      measured,
+                      base,
+                      delta,
+                      describe(metric, threshold.getValue()),
+                      builds)));
+          report.addLaunchAttribute("regression." + now.getLabel() + "." + name(metric), delta);
+        }
+      }
+    }
+    if (regressions == 0) {
+      report.addTestCase(
+          new JtlRecord("Baseline comparison", true, "No regression against builds " + builds, ""));
+    }
+    report.addLaunchAttribute("baseline", String.join(",", builds));
+    report.addLaunchAttribute("regressions", Integer.toString(regressions));
+  }
+
+  private boolean isRegression(
+      LabelSummary.Metric metric,
+      double measured,
+      double base,
+      double spread,
+      double threshold,
+      int runs) {
+    boolean beyondNoise = runs < 3 || Math.abs(measured - base) > sigma * spread;
+    switch (metric) {
+      case THROUGHPUT:
+        return measured < base * (1 - threshold / 100d) && beyondNoise;
+      case ERROR_RATE:
+        return measured - base > threshold && beyondNoise;
+      default:
+        return measured > base * (1 + threshold / 100d) && beyondNoise;
+    }
+  }
+
+  private static String delta(LabelSummary.Metric metric, double measured, double base) {
+    if (metric == LabelSummary.Metric.ERROR_RATE) {
+      return String.format(Locale.ROOT, "%+.2fpp", measured - base);
+    }
+    if (base == 0) {
+      return "n/a";
+    }
+    return String.format(Locale.ROOT, "%+.1f%%", (measured - base) * 100d / base);
+  }
+
+  private static String describe(LabelSummary.Metric metric, double threshold) {
+    switch (metric) {
+      case THROUGHPUT:
+        return String.format(Locale.ROOT, "-%.1f%%", threshold);
+      case ERROR_RATE:
+        return String.format(Locale.ROOT, "+%.2fpp", threshold);
+      default:
+        return String.format(Locale.ROOT, "+%.1f%%", threshold);
+    }
+  }
+
+  private static String name(LabelSummary.Metric metric) {
+    switch (metric) {
+      case ERROR_RATE:
+        return "errorRate";
+      default:
+        return metric.name().toLowerCase(Locale.ROOT);
+    }
+  }
+
+  private void parseThresholds(String spec) {
+    String value = spec == null || spec.trim().isEmpty() ? DEFAULT_THRESHOLDS : spec;
+    for (String entry : value.split(";")) {
+      int eq = entry.indexOf('=');
+      if (eq <= 0) {
+        continue;
+      }
+      String key = entry.substring(0, eq).trim().toLowerCase(Locale.ROOT);
+      double number = Double.parseDouble(entry.substring(eq + 1).replace("%", "").trim());
+      switch (key) {
+        case "sigma":
+          this.sigma = number;
+          break;
+        case "minsamples":
+          this.minSamples = (long) number;
+          break;
+        case "errorrate":
+          this.thresholds.put(LabelSummary.Metric.ERROR_RATE, number);
+          break;
+        default:
+          try {
+            this.thresholds.put(LabelSummary.Metric.valueOf(key.toUpperCase(Locale.ROOT)), number);
+          } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown regression metric: " + key, e);
+          }
+      }
+    }
+  }
+
+  private static double median(double[] values) {
+    double[] sorted = values.clone();
+    Arrays.sort(sorted);
+    int mid = sorted.length / 2;
+    return sorted.length % 2 == 1 ? sorted[mid] : (sorted[mid - 1] + sorted[mid]) / 2d;
+  }
+
+  private static double mad(double[] values, double median) {
+    double[] deviations = new double[values.length];
+    for (int i = 0; i < values.length; i++) {
+      deviations[i] = Math.abs(values[i] - median);
+    }
+    return median(deviations);
+  }
+}
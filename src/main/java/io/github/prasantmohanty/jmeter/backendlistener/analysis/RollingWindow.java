@@ -0,0 +1,182 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.analysis;
+
+import io.github.prasantmohanty.jmeter.backendlistener.metrics.LatencyHistogram;
+import java.util.Arrays;
+
+/**
+ * Fixed-memory rolling window over sample end times, split into equally sized slots. Each slot
+ * keeps counters and a latency histogram; slots are recycled as time advances, so memory stays
+ * constant however long the test runs. Not thread-safe: it is meant to be fed from the listener
+ * thread only.
+ */
+final class RollingWindow {
+
+  /** Aggregated view of the slots of a window. */
+  static final class Snapshot {
+    final long count;
+    final long errors;
+    final long elapsedSum;
+    final long[] histogram;
+    final long startMillis;
+    final long endMillis;
+
+    Snapshot(
+        long count,
+        long errors,
+        long elapsedSum,
+        long[] histogram,
+        long startMillis,
+        long endMillis) {
+      this.count = count;
+      this.errors = errors;
+      this.elapsedSum = elapsedSum;
+      this.histogram = histogram;
+      this.startMillis = startMillis;
+      this.endMillis = endMillis;
+    }
+
+    double errorRatePercent() {
+      return count == 0 ? 0d : errors * 100d / count;
+    }
+
+    double meanElapsed() {
+      return count == 0 ? 0d : (double) elapsedSum / count;
+    }
+
+    double throughput() {
+      long span = endMillis - startMillis;
+      return span <= 0 ? 0d : count * 1000d / span;
+    }
+
+    long percentile(double percentile) {
+      return LatencyHistogram.percentile(histogram, percentile);
+    }
+  }
+
+  private final long slotMillis;
+  private final int slots;
+  private final long[] epochs;
+  private final long[] counts;
+  private final long[] errors;
+  private final long[] elapsedSums;
+  private final long[][] histograms;
+  private long firstEpoch = Long.MIN_VALUE;
+  private long latestEpoch = Long.MIN_VALUE;
+
+  /**
+   * @param windowMillis length of the whole window
+   * @param slots number of slots the window is split into
+   */
+  RollingWindow(long windowMillis, int slots) {
+    this.slots = slots;
+    this.slotMillis = Math.max(1, windowMillis / slots);
+    this.epochs = new long[slots];
+    Arrays.fill(this.epochs, Long.MIN_VALUE);
+    this.counts = new long[slots];
+    this.errors = new long[slots];
+    this.elapsedSums = new long[slots];
+    this.histograms = new long[slots][LatencyHistogram.bucketCount()];
+  }
+
+  /**
+   * Record one sample.
+   *
+   * @param timeMillis sample end time
+   * @param elapsedMillis sample response time
+   * @param success whether the sample succeeded
+   * @return true if the sample opened a new slot, i.e. the previous slot is complete
+   */
+  boolean record(long timeMillis, long elapsedMillis, boolean success) {
+    long epoch = timeMillis / slotMillis;
+    boolean advanced = false;
+    if (firstEpoch == Long.MIN_VALUE) {
+      firstEpoch = epoch;
+      latestEpoch = epoch;
+    } else if (epoch > latestEpoch) {
+      latestEpoch = epoch;
+      advanced = true;
+    } else if (epoch <= latestEpoch - slots) {
+      // too late for any slot still held
+      return false;
+    }
+    int index = (int) Math.floorMod(epoch, (long) slots);
+    if (epochs[index] != epoch) {
+      if (epochs[index] > epoch) {
+        return advanced;
+      }
+      epochs[index] = epoch;
+      counts[index] = 0;
+      errors[index] = 0;
+      elapsedSums[index] = 0;
+      Arrays.fill(histograms[index], 0);
+    }
+    counts[index]++;
+    if (!success) {
+      errors[index]++;
+    }
+    elapsedSums[index] += elapsedMillis;
+    histograms[index][LatencyHistogram.indexOf(elapsedMillis)]++;
+    return advanced;
+  }
+
+  /**
+   * Aggregate the completed slots, i.e. all slots of the window that ends before the slot of the
+   * latest sample.
+   */
+  Snapshot completed() {
+    return aggregate(latestEpoch - 1);
+  }
+
+  /** Aggregate the window ending with the slot of the latest sample. */
+  Snapshot current() {
+    return aggregate(latestEpoch);
+  }
+
+  /**
+   * @return true once the samples span at least one whole window before the latest slot
+   */
+  boolean isCompletedWindowFull() {
+    return firstEpoch != Long.MIN_VALUE && latestEpoch - slots >= firstEpoch;
+  }
+
+  long getWindowMillis() {
+    return slotMillis * slots;
+  }
+
+  private Snapshot aggregate(long lastEpoch) {
+    long count = 0;
+    long errorCount = 0;
+    long sum = 0;
+    long[] histogram = new long[LatencyHistogram.bucketCount()];
+    long first = Math.max(firstEpoch, lastEpoch - slots + 1);
+    for (int i = 0; i < slots; i++) {
+      if (epochs[i] >= first && epochs[i] <= lastEpoch) {
+        count += counts[i];
+        errorCount += errors[i];
+        sum += elapsedSums[i];
+        long[] slot = histograms[i];
+        for (int b = 0; b < slot.length; b++) {
+          histogram[b] += slot[b];
+        }
+      }
+    }
+    return new Snapshot(
+        count, errorCount, sum, histogram, first * slotMillis, (lastEpoch + 1) * slotMillis);
+  }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.analysis;
+
+import org.apache.jmeter.samplers.SampleResult;
+
+/**
+ * An in-stream analysis fed by the backend listener. {@link #onSample(SampleResult)} is called from
+ * the listener thread for every accepted sample, so implementations must do constant work per
+ * sample; {@link #contribute(AnalysisReport)} is called once at teardown.
+ */
+public interface SampleAnalyzer {
+
+  /**
+   * Account for one sample.
+   *
+   * @param sr the sample result
+   */
+  void onSample(SampleResult sr);
+
+  /**
+   * Add the outcome of the analysis to the report of the run.
+   *
+   * @param report destination for test cases and launch attributes
+   */
+  void contribute(AnalysisReport report);
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.analysis;
+
+import io.github.prasantmohanty.jmeter.backendlistener.junit.transform.JtlRecord;
+import io.github.prasantmohanty.jmeter.backendlistener.metrics.LatencyHistogram;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import org.apache.jmeter.samplers.SampleResult;
+
+/**
+ * Throughput versus concurrency for stepped-load tests. Samples are bucketed by the number of
+ * active threads when they ended; each level gets its throughput (samples per second spent at the
+ * level), mean and p95 latency. At the end of the run the curve is checked against Little's law
+ * and the saturation knee, the level beyond which added threads stop adding throughput, is located.
+ *
+ * <p>Little's law gives the concurrency implied by the measurements, {@code N = X * R}; threads
+ * with think time {@code Z} satisfy {@code N = X * (R + Z)}, so the implied think time is reported
+ * per level. A level where {@code X * R} exceeds the thread count by more than {@value
+ * #LITTLE_TOLERANCE} cannot be explained by any think time; it usually means samples are counted
+ * twice, e.g. transaction controllers reporting their children, and fails the check.
+ *
+ * <p>The knee is found Kneedle-style: with threads and throughput normalised to {@code [0, 1]} it
+ * is the level furthest above the straight line between the lowest and the highest level, provided
+ * it lies at least {@value #KNEE_SENSITIVITY} above it. A curve still rising linearly has no knee.
+ *
+ * <p>At most {@value #MAX_LEVELS} levels are kept; beyond that adjacent levels are merged into
+ * wider bins, so the memory used does not depend on the thread count.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public class SaturationAnalyzer implements SampleAnalyzer {
+
+  static final int MAX_LEVELS = 64;
+
+  static final double LITTLE_TOLERANCE = 0.1;
+
+  static final double KNEE_SENSITIVITY = 0.1;
+
+  /** Samples and time at one concurrency level or bin of levels. */
+  static final class Level {
+    long samples;
+    long elapsedSum;
+    long millis;
+    final LatencyHistogram histogram = new LatencyHistogram();
+
+    void add(Level other) {
+      samples += other.samples;
+      elapsedSum += other.elapsedSum;
+      millis += other.millis;
+      histogram.add(other.histogram.snapshot());
+    }
+
+    double throughput() {
+      return millis == 0 ? 0 : samples * 1000d / millis;
+    }
+
+    double mean() {
+      return samples == 0 ? 0 : (double) elapsedSum / samples;
+    }
+  }
+
+  private final long minSamples;
+  private final TreeMap<Integer, Level> levels = new TreeMap<>();
+  private int binWidth = 1;
+  private long lastEnd = -1;
+  private Level lastLevel;
+
+  /**
+   * @param minSamples samples a level needs to be part of the curve
+   */
+  public SaturationAnalyzer(long minSamples) {
+    this.minSamples = Math.max(1, minSamples);
+  }
+
+  @Override
+  public void onSample(SampleResult sr) {
+    int threads = sr.getAllThreads() > 0 ? sr.getAllThreads() : sr.getGroupThreads();
+    if (threads <= 0) {
+      return;
+    }
+    Level level = levels.get(bin(threads));
+    if (level == null) {
+      if (levels.size() == MAX_LEVELS) {
+        widen();
+      }
+      level = levels.computeIfAbsent(bin(threads), k -> new Level());
+    }
+    long end = sr.getEndTime();
+    // the time since the previous sample is spent at the level that sample was taken at
+    if (lastLevel != null && end > lastEnd) {
+      lastLevel.millis += end - lastEnd;
+    }
+    if (end > lastEnd) {
+      lastEnd = end;
+    }
+    lastLevel = level;
+    level.samples++;
+    level.elapsedSum += sr.getTime();
+    level.histogram.record(sr.getTime());
+  }
+
+  /** @return the bin a thread count falls in, keyed by its lowest thread count */
+  private int bin(int threads) {
+    return (threads - 1) / binWidth * binWidth + 1;
+  }
+
+  /** Double the bin width and merge the levels into the wider bins. */
+  private void widen() {
+    binWidth *= 2;
+    TreeMap<Integer, Level> merged = new TreeMap<>();
+    for (Map.Entry<Integer, Level> entry : levels.entrySet()) {
+      Level bin = merged.get(bin(entry.getKey()));
+      if (bin == null) {
+        merged.put(bin(entry.getKey()), entry.getValue());
+      } else {
+        bin.add(entry.getValue());
+        if (lastLevel == entry.getValue()) {
+          lastLevel = bin;
+        }
+      }
+    }
+    levels.clear();
+    levels.putAll(merged);
+  }
+
+  /** One point of the curve. */
+  static final class Point {
+    final int threads;
+    final Level level;
+
+    Point(int threads, Level level) {
+      this.threads = threads;
+      this.level = level;
+    }
+
+    /** @return the concurrency implied by Little's law */
+    double littleN() {
+      return level.throughput() * level.mean() / 1000d;
+    }
+
+    /** @return the think time implied by Little's law in milliseconds */
+    double thinkMillis() {
+      double throughput = level.throughput();
+      return throughput == 0 ? 0 : threads * 1000d / throughput - level.mean();
+    }
+  }
+
+  /** @return the levels with enough samples, by thread count */
+  List<Point> curve() {
+    List<Point> curve = new ArrayList<>();
+    for (Map.Entry<Integer, Level> entry : levels.entrySet()) {
+      Level level = entry.getValue();
+      if (level.samples >= minSamples && level.millis > 0) {
+        // a bin stands for its middle thread count
+        curve.add(new Point(entry.getKey() + (binWidth - 1) / 2, level));
+      }
+    }
+    return curve;
+  }
+
+  /**
+   * @param curve points by thread count
+   * @return the knee, null if the curve has fewer than three points or no knee
+   */
+  static Point knee(List<Point> curve) {
+    if (curve.size() < 3) {
+      return null;
+    }
+    Point first = curve.get(0);
+    Point last = curve.get(curve.size() - 1);
+    double maxThroughput = 0;
+    double minThroughput = Double.MAX_VALUE;
+    for (Point point : curve) {
+      maxThroughput = Math.max(maxThroughput, point.level.throughput());
+      minThroughput = Math.min(minThroughput, point.level.throughput());
+    }
+    if (maxThroughput <= minThroughput) {
+      return null;
+    }
+    double x0 = first.threads;
+    double xSpan = last.threads - x0;
+    double y0 = first.level.throughput();
+    double ySpan = last.level.throughput() - y0;
+    Point knee = null;
+    double best = KNEE_SENSITIVITY;
+    for (Point point : curve) {
+      double x = (point.threads - x0) / xSpan;
+      double y = (point.level.throughput() - minThroughput) / (maxThroughput - minThroughput);
+      double line = ((y0 - minThroughput) + x * ySpan) / (maxThroughput - minThroughput);
+      if (y - line > best) {
+        best = y - line;
+        knee = point;
+      }
+    }
+    return knee;
+  }
+
+  @Override
+  public void contribute(AnalysisReport report) {
+    List<Point> curve = curve();
+    if (curve.isEmpty()) {
+      return;
+    }
+    Point peak = curve.get(0);
+    StringBuilder table =
+        new StringBuilder("threads,samples,seconds,throughput,meanMs,p95Ms,littleN,thinkMs\n");
+    StringBuilder compact = new StringBuilder();
+    List<String> violations = new ArrayList<>();
+    for (Point point : curve) {
+      Level level = point.level;
+      if (level.throughput() > peak.level.throughput()) {
+        peak = point;
+      }
+      table.append(
+          String.format(
+              Locale.ROOT,
+              "%d,%d,%.1f,%.2f,%.1f,%d,%.2f,%.0f%n",
+              point.threads,
+              level.samples,
+              level.millis / 1000d,
+              level.throughput(),
+              level.mean(),
+              level.histogram.percentile(95),
+              point.littleN(),
+              point.thinkMillis()));
+      if (compact.length() > 0) {
+        compact.append(' ');
+      }
+      compact.append(String.format(Locale.ROOT, "%d:%.1f", point.threads, level.throughput()));
+      if (point.littleN() > point.threads * (1 + LITTLE_TOLERANCE)) {
+        violations.add(
+            String.format(
+                Locale.ROOT, "%d threads imply %.1f", point.threads, point.littleN()));
+      }
+    }
+    Point knee = knee(curve);
+    report.addLaunchAttribute("saturationCurve", compact.toString());
+    report.addLaunchAttribute(
+        "saturationPeak",
+        String.format(
+            Locale.ROOT, "%.1f/s at %d threads", peak.level.throughput(), peak.threads));
+    report.addLaunchAttribute(
+        "saturationKnee", knee == null ? "none" : Integer.toString(knee.threads));
+    if (knee != null) {
+      report.addLaunchAttribute(
+          "saturationKneeThroughput",
+          String.format(Locale.ROOT, "%.1f/s", knee.level.throughput()));
+    }
+    String summary =
+        knee == null
+            ? String.format(
+                Locale.ROOT,
+                "No saturation knee up to %d threads, peak %.1f/s at %d threads",
+                curve.get(curve.size() - 1).threads,
+                peak.level.throughput(),
+                peak.threads)
+            : String.format(
+                Locale.ROOT,
+                "Saturation knee at %d threads (%.1f/s, p95 %d ms), peak %.1f/s at %d threads",
+                knee.threads,
+                knee.level.throughput(),
+                knee.level.histogram.percentile(95),
+                peak.level.throughput(),
+                peak.threads);
+    report.addTestCase(
+        new JtlRecord(
+            "Saturation curve", true, summary, "", null, null, null, table.toString(), ""));
+    report.addTestCase(
+        new JtlRecord(
+            "Saturation Little's law",
+            violations.isEmpty(),
+            violations.isEmpty()
+                ? "Throughput x latency is consistent with the thread counts"
+                : "",
+            violations.isEmpty()
+                ? ""
+                : "Throughput x latency exceeds the thread count, are samples counted twice? "
+                    + String.join("; ", violations)));
+  }
+}
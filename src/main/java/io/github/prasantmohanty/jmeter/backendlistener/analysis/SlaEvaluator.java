@@ -0,0 +1,279 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.analysis;
+
+import io.github.prasantmohanty.jmeter.backendlistener.junit.transform.JtlRecord;
+import io.github.prasantmohanty.jmeter.backendlistener.model.SampleDictionary;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.apache.jmeter.samplers.SampleResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Evaluates {@link SlaRule}s incrementally over rolling windows while the test runs. Each time a
+ * window slot completes, the rules of the label are checked against the last full window; at the
+ * end of the run one test case per rule and label is contributed, failing with the measured values
+ * if the rule was breached in any window. Optionally the first breach triggers an abort action,
+ * typically stopping the JMeter engine.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public class SlaEvaluator implements SampleAnalyzer {
+
+  private static final Logger logger = LoggerFactory.getLogger(SlaEvaluator.class);
+
+  private static final int SLOTS = 6;
+
+  /** Outcome of one rule on one label. */
+  private static final class Outcome {
+    final SlaRule rule;
+    final String label;
+    long evaluatedWindows;
+    long breachedWindows;
+    double worst = Double.NaN;
+    double last = Double.NaN;
+    long firstBreachMillis;
+
+    Outcome(SlaRule rule, String label) {
+      this.rule = rule;
+      this.label = label;
+    }
+  }
+
+  private final List<SlaRule> rules;
+  private final long windowMillis;
+  private final long minSamples;
+  private final Runnable abortAction;
+  private final SampleDictionary dictionary;
+  /** rules applying to a label by label id, null until the label is first seen */
+  private List<SlaRule>[] rulesByLabelId = newRulesArray(16);
+  /** rolling window of a label by label id, null for labels no rule applies to */
+  private RollingWindow[] windowsByLabelId = new RollingWindow[16];
+  private final Map<String, Outcome> outcomes = new LinkedHashMap<>();
+  private boolean aborted;
+  private boolean finished;
+
+  /**
+   * @param rules rules to evaluate
+   * @param windowMillis length of the rolling window
+   * @param minSamples minimum number of samples in a window for latency and error rules to be
+   *     evaluated
+   * @param abortAction action run on the first breach, or null to never abort
+   */
+  public SlaEvaluator(
+      List<SlaRule> rules, long windowMillis, long minSamples, Runnable abortAction) {
+    this(rules, windowMillis, minSamples, abortAction, new SampleDictionary());
+  }
+
+  /**
+   * @param rules rules to evaluate
+   * @param windowMillis length of the rolling window
+   * @param minSamples minimum number of samples in a window for latency and error rules to be
+   *     evaluated
+   * @param abortAction action run on the first breach, or null to never abort
+   * @param dictionary label ids shared with the other consumers of the samples
+   */
+  public SlaEvaluator(
+      List<SlaRule> rules,
+      long windowMillis,
+      long minSamples,
+      Runnable abortAction,
+      SampleDictionary dictionary) {
+    this.dictionary = dictionary;
+    this.rules = new ArrayList<>(rules);
+    this.windowMillis = windowMillis;
+    this.minSamples = Math.max(1, minSamples);
+    this.abortAction = abortAction;
+  }
+
+  @Override
+  public void onSample(SampleResult sr) {
+    int id = dictionary.labelId(sr);
+    if (id >= rulesByLabelId.length) {
+      int capacity = Math.max(id + 1, rulesByLabelId.length * 2);
+      List<SlaRule>[] grown = newRulesArray(capacity);
+      System.arraycopy(rulesByLabelId, 0, grown, 0, rulesByLabelId.length);
+      rulesByLabelId = grown;
+      windowsByLabelId = Arrays.copyOf(windowsByLabelId, capacity);
+    }
+    List<SlaRule> labelRules = rulesByLabelId[id];
+    if (labelRules == null) {
+      String label = dictionary.label(id);
+      labelRules = new ArrayList<>();
+      for (SlaRule rule : rules) {
+        if (rule.appliesTo(label)) {
+          labelRules.add(rule);
+        }
+      }
+      labelRules = labelRules.isEmpty() ? Collections.<SlaRule>emptyList() : labelRules;
+      rulesByLabelId[id] = labelRules;
+      if (!labelRules.isEmpty()) {
+        windowsByLabelId[id] = new RollingWindow(windowMillis, SLOTS);
+      }
+    }
+    RollingWindow window = windowsByLabelId[id];
+    if (window != null && window.record(sr.getEndTime(), sr.getTime(), sr.isSuccessful())) {
+      evaluate(
+          dictionary.label(id), labelRules, window.completed(), window.isCompletedWindowFull());
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<SlaRule>[] newRulesArray(int length) {
+    return (List<SlaRule>[]) new List<?>[length];
+  }
+
+  @Override
+  public void contribute(AnalysisReport report) {
+    finished = true;
+    // evaluate the trailing window so that runs shorter than one window are covered as well
+    for (int id = 0; id < windowsByLabelId.length; id++) {
+      RollingWindow window = windowsByLabelId[id];
+      if (window != null) {
+        evaluate(dictionary.label(id), rulesByLabelId[id], window.current(), false);
+      }
+    }
+    long breached = 0;
+    for (Outcome outcome : outcomes.values()) {
+      report.addTestCase(toTestCase(outcome));
+      if (outcome.breachedWindows > 0) {
+        breached++;
+      }
+    }
+    if (!outcomes.isEmpty()) {
+      report.addLaunchAttribute("sla", breached > 0 ? "breached" : "passed");
+      report.addLaunchAttribute("slaBreaches", Long.toString(breached));
+    }
+    if (aborted) {
+      report.addLaunchAttribute("slaAborted", "true");
+    }
+  }
+
+  /**
+   * @return true if any rule was breached so far
+   */
+  public boolean isBreached() {
+    for (Outcome outcome : outcomes.values()) {
+      if (outcome.breachedWindows > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void evaluate(
+      String label, List<SlaRule> labelRules, RollingWindow.Snapshot snapshot, boolean full) {
+    for (SlaRule rule : labelRules) {
+      double measured;
+      if (rule.getMetric() == SlaRule.Metric.THROUGHPUT) {
+        // throughput is only meaningful over a completely covered window
+        if (!full) {
+          continue;
+        }
+        measured = snapshot.throughput();
+      } else {
+        if (snapshot.count < minSamples) {
+          continue;
+        }
+        measured = measure(rule, snapshot);
+      }
+      String key = label + '\u0000' + rule;
+      Outcome outcome = outcomes.get(key);
+      if (outcome == null) {
+        outcome = new Outcome(rule, label);
+        outcomes.put(key, outcome);
+      }
+      outcome.evaluatedWindows++;
+      outcome.last = measured;
+      if (!rule.isSatisfiedBy(measured)) {
+        if (outcome.breachedWindows == 0) {
+          outcome.firstBreachMillis = snapshot.endMillis;
+          logger.warn(
+              "SLA {} breached by label '{}': measured {}", rule, label, format(rule, measured));
+        }
+        outcome.breachedWindows++;
+        if (Double.isNaN(outcome.worst)
+            || (rule.isUpperBound() ? measured > outcome.worst : measured < outcome.worst)) {
+          outcome.worst = measured;
+        }
+        abortOnce();
+      }
+    }
+  }
+
+  private void abortOnce() {
+    if (abortAction != null && !aborted && !finished) {
+      aborted = true;
+      logger.warn("Stopping the test early because an SLA was breached");
+      try {
+        abortAction.run();
+      } catch (Exception e) {
+        logger.error("Unable to stop the test after SLA breach", e);
+      }
+    }
+  }
+
+  private static double measure(SlaRule rule, RollingWindow.Snapshot snapshot) {
+    switch (rule.getMetric()) {
+      case PERCENTILE:
+        return snapshot.percentile(rule.getPercentile());
+      case AVERAGE:
+        return snapshot.meanElapsed();
+      case ERROR_RATE:
+        return snapshot.errorRatePercent();
+      default:
+        return snapshot.throughput();
+    }
+  }
+
+  private JtlRecord toTestCase(Outcome outcome) {
+    String name = "SLA " + outcome.label + " " + outcome.rule.getExpression();
+    String summary =
+        String.format(
+            Locale.ROOT,
+            "%s of '%s' measured %s in the last %d s window (%d of %d windows breached)",
+            outcome.rule.getExpression(),
+            outcome.label,
+            format(outcome.rule, outcome.last),
+            windowMillis / 1000,
+            outcome.breachedWindows,
+            outcome.evaluatedWindows);
+    if (outcome.breachedWindows == 0) {
+      return new JtlRecord(name, true, summary, "");
+    }
+    String failure =
+        summary
+            + String.format(
+                Locale.ROOT,
+                "; first breach in window ending %s, worst %s",
+                Instant.ofEpochMilli(outcome.firstBreachMillis),
+                format(outcome.rule, outcome.worst));
+    return new JtlRecord(name, false, summary, failure);
+  }
+
+  private static String format(SlaRule rule, double value) {
+    return String.format(Locale.ROOT, "%.2f %s", value, rule.getMetric().getUnit());
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.analysis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A declarative service level agreement on one label, e.g. {@code Login:p95<800}, {@code
+ * *:errorRate<=1%} or {@code Search:throughput>=20}.
+ *
+ * <ul>
+ *   <li>{@code pNN} - latency percentile in milliseconds, e.g. {@code p95} or {@code p99.9}
+ *   <li>{@code avg} - mean latency in milliseconds
+ *   <li>{@code errorRate} - failed samples in percent
+ *   <li>{@code throughput} - samples per second
+ * </ul>
+ *
+ * The label {@code *} applies the rule to every label individually.
+ */
+public final class SlaRule {
+
+  public enum Metric {
+    PERCENTILE("ms"),
+    AVERAGE("ms"),
+    ERROR_RATE("%"),
+    THROUGHPUT("/s");
+
+    private final String unit;
+
+    Metric(String unit) {
+      this.unit = unit;
+    }
+
+    public String getUnit() {
+      return unit;
+    }
+  }
+
+  public static final String ANY_LABEL = "*";
+
+  private static final Pattern CONDITION =
+      Pattern.compile("(?i)\\s*(p\\d+(?:\\.\\d+)?|avg|errorRate|throughput)\\s*(<=|>=|<|>)\\s*"
+          + "(\\d+(?:\\.\\d+)?)\\s*(%|ms)?\\s*");
+
+  private final String label;
+  private final Metric metric;
+  private final double percentile;
+  private final String operator;
+  private final double threshold;
+  private final String expression;
+
+  private SlaRule(
+      String label,
+      Metric metric,
+      double percentile,
+      String operator,
+      double threshold,
+      String expression) {
+    this.label = label;
+    this.metric = metric;
+    this.percentile = percentile;
+    this.operator = operator;
+    this.threshold = threshold;
+    this.expression = expression;
+  }
+
+  /**
+   * Parse a semicolon separated list of rules.
+   *
+   * @param spec rules such as {@code Login:p95<800;*:errorRate<1}
+   * @return the parsed rules, empty if the specification is blank
+   * @throws IllegalArgumentException if a rule cannot be parsed
+   */
+  public static List<SlaRule> parseAll(String spec) {
+    List<SlaRule> rules = new ArrayList<>();
+    if (spec == null) {
+      return rules;
+    }
+    for (String entry : spec.split(";")) {
+      if (!entry.trim().isEmpty()) {
+        rules.add(parse(entry.trim()));
+      }
+    }
+    return rules;
+  }
+
+  /**
+   * Parse one rule.
+   *
+   * @param rule rule such as {@code Login:p95<800}
+   * @return the parsed rule
+   * @throws IllegalArgumentException if the rule cannot be parsed
+   */
+  public static SlaRule parse(String rule) {
+    int colon = rule.lastIndexOf(':');
+    if (colon <= 0) {
+      throw new IllegalArgumentException("SLA rule must look like <label>:<condition>: " + rule);
+    }
+    String label = rule.substring(0, colon).trim();
+    String condition = rule.substring(colon + 1);
+    Matcher matcher = CONDITION.matcher(condition);
+    if (!matcher.matches()) {
+      throw new IllegalArgumentException("Unsupported SLA condition: " + condition);
+    }
+    String name = matcher.group(1).toLowerCase(Locale.ROOT);
+    Metric metric;
+    double percentile = 0;
+    if (name.startsWith("p")) {
+      metric = Metric.PERCENTILE;
+      percentile = Double.parseDouble(name.substring(1));
+      if (percentile > 100) {
+        throw new IllegalArgumentException("Percentile above 100 in SLA rule: " + rule);
+      }
+    } else if ("avg".equals(name)) {
+      metric = Metric.AVERAGE;
+    } else if ("errorrate".equals(name)) {
+      metric = Metric.ERROR_RATE;
+    } else {
+      metric = Metric.THROUGHPUT;
+    }
+    String expression = matcher.group(1) + matcher.group(2) + matcher.group(3);
+    if (matcher.group(4) != null) {
+      expression += matcher.group(4);
+    }
+    return new SlaRule(
+        label,
+        metric,
+        percentile,
+        matcher.group(2),
+        Double.parseDouble(matcher.group(3)),
+        expression);
+  }
+
+  /**
+   * @param sampleLabel label of a sample
+   * @return true if this rule applies to the label
+   */
+  public boolean appliesTo(String sampleLabel) {
+    return ANY_LABEL.equals(label) || label.equals(sampleLabel);
+  }
+
+  /**
+   * @param measured measured value in the unit of the metric
+   * @return true if the measured value satisfies the rule
+   */
+  public boolean isSatisfiedBy(double measured) {
+    switch (operator) {
+      case "<":
+        return measured < threshold;
+      case "<=":
+        return measured <= threshold;
+      case ">":
+        return measured > threshold;
+      default:
+        return measured >= threshold;
+    }
+  }
+
+  /**
+   * @return true if the rule is breached by values that are too high (latency and errors)
+   */
+  public boolean isUpperBound() {
+    return operator.startsWith("<");
+  }
+
+  public String getLabel() {
+    return label;
+  }
+
+  public Metric getMetric() {
+    return metric;
+  }
+
+  public double getPercentile() {
+    return percentile;
+  }
+
+  public double getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * @return the condition as written, e.g. {@code p95<800}
+   */
+  public String getExpression() {
+    return expression;
+  }
+
+  @Override
+  public String toString() {
+    return label + ":" + expression;
+  }
+}
@@ -0,0 +1,564 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.analysis;
+
+import io.github.prasantmohanty.jmeter.backendlistener.junit.transform.JtlRecord;
+import io.github.prasantmohanty.jmeter.backendlistener.model.SampleDictionary;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.jmeter.samplers.SampleResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scores labels against service level objectives while the test runs: the Apdex of each label,
+ * with a satisfied threshold T and a tolerating threshold F (4T unless given), and the rate at
+ * which failures burn the error budget of a success target, checked over pairs of windows in the
+ * style of fast and slow burn alerts. A pair alerts when both its short and its long window burn
+ * the budget at least the given number of times faster than the target allows.
+ *
+ * <p>Memory is constant per label: three Apdex counters and, per window, failures and samples of a
+ * fixed number of slots. Besides the labels, all samples are scored together as {@value
+ * #ALL_LABELS}.
+ *
+ * <p>Every label becomes an {@code SLO <label>} test case, failing when a burn rate alert fired;
+ * the overall scores, the worst Apdex labels and the peak burn rates are added as launch
+ * attributes.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public class SloEvaluator implements SampleAnalyzer {
+
+  private static final Logger logger = LoggerFactory.getLogger(SloEvaluator.class);
+
+  public static final String DEFAULT_BURN_RATE_WINDOWS = "fast=1m/5m@14.4;slow=5m/30m@6";
+
+  static final String ALL_LABELS = "(all labels)";
+
+  /** Labels beyond which new ones are only scored as part of {@link #ALL_LABELS}. */
+  static final int MAX_LABELS = 1000;
+
+  /** Labels with the lowest Apdex added as launch attributes. */
+  static final int ATTRIBUTE_LABELS = 10;
+
+  /** Slots per window; a window moves on by one slot at a time. */
+  static final int SLOTS = 12;
+
+  private static final Pattern DURATION = Pattern.compile("(\\d+)\\s*(ms|s|m|h)?");
+
+  /** Apdex thresholds in milliseconds. */
+  static final class ApdexThreshold {
+    final long satisfied;
+    final long tolerated;
+
+    ApdexThreshold(long satisfied, long tolerated) {
+      this.satisfied = satisfied;
+      this.tolerated = tolerated;
+    }
+
+    @Override
+    public String toString() {
+      return "T " + satisfied + " ms, F " + tolerated + " ms";
+    }
+  }
+
+  /** A fast or slow burn alert: a short and a long window and the burn rate both must reach. */
+  public static final class BurnWindow {
+    final String name;
+    final long shortMillis;
+    final long longMillis;
+    final double threshold;
+    final String expression;
+
+    BurnWindow(
+        String name, long shortMillis, long longMillis, double threshold, String expression) {
+      this.name = name;
+      this.shortMillis = shortMillis;
+      this.longMillis = longMillis;
+      this.threshold = threshold;
+      this.expression = expression;
+    }
+
+    /**
+     * Parse a semicolon separated list of windows.
+     *
+     * @param spec windows such as {@code fast=1m/5m@14.4;slow=5m/30m@6}
+     * @return the windows, empty if the specification is blank
+     * @throws IllegalArgumentException if a window cannot be parsed
+     */
+    public static List<BurnWindow> parseAll(String spec) {
+      List<BurnWindow> windows = new ArrayList<>();
+      if (spec == null) {
+        return windows;
+      }
+      for (String entry : spec.split(";")) {
+        if (!entry.trim().isEmpty()) {
+          windows.add(parse(entry.trim()));
+        }
+      }
+      return windows;
+    }
+
+    static BurnWindow parse(String window) {
+      int eq = window.indexOf('=');
+      int slash = window.indexOf('/');
+      int at = window.indexOf('@');
+      if (eq <= 0 || slash < eq || at < slash) {
+        throw new IllegalArgumentException(
+            "Burn rate window must look like <name>=<short>/<long>@<rate>: " + window);
+      }
+      long shortMillis = parseDuration(window.substring(eq + 1, slash));
+      long longMillis = parseDuration(window.substring(slash + 1, at));
+      double threshold;
+      try {
+        threshold = Double.parseDouble(window.substring(at + 1).trim());
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid burn rate in window: " + window);
+      }
+      if (shortMillis < SLOTS || longMillis < shortMillis || threshold <= 0) {
+        throw new IllegalArgumentException(
+            "Burn rate window needs a short window within the long one and a positive rate: "
+                + window);
+      }
+      return new BurnWindow(
+          window.substring(0, eq).trim(),
+          shortMillis,
+          longMillis,
+          threshold,
+          window.substring(eq + 1, at).replace(" ", ""));
+    }
+
+    @Override
+    public String toString() {
+      return name + " " + expression;
+    }
+  }
+
+  /** Failures and samples of the last {@link #SLOTS} slots of a window. */
+  static final class CountRing {
+    final long slotMillis;
+    final long[] slots = new long[SLOTS];
+    final long[] samples = new long[SLOTS];
+    final long[] failures = new long[SLOTS];
+    long sumSamples;
+    long sumFailures;
+
+    CountRing(long windowMillis) {
+      this.slotMillis = windowMillis / SLOTS;
+      Arrays.fill(slots, Long.MIN_VALUE);
+    }
+
+    void record(long time, boolean failed) {
+      long slot = Math.floorDiv(time, slotMillis);
+      int i = (int) Math.floorMod(slot, (long) SLOTS);
+      if (slots[i] != slot) {
+        if (slots[i] > slot) {
+          // older than the window
+          return;
+        }
+        slots[i] = slot;
+        samples[i] = 0;
+        failures[i] = 0;
+      }
+      samples[i]++;
+      if (failed) {
+        failures[i]++;
+      }
+    }
+
+    /**
+     * Sum the window ending at a time into {@link #sumSamples} and {@link #sumFailures}.
+     *
+     * @param time end of the window in epoch milliseconds
+     * @param inclusive include the slot of {@code time}, otherwise only completed slots
+     */
+    void sum(long time, boolean inclusive) {
+      long last = Math.floorDiv(time, slotMillis) - (inclusive ? 0 : 1);
+      sumSamples = 0;
+      sumFailures = 0;
+      for (int i = 0; i < SLOTS; i++) {
+        if (slots[i] <= last && slots[i] > last - SLOTS) {
+          sumSamples += samples[i];
+          sumFailures += failures[i];
+        }
+      }
+    }
+  }
+
+  /** Burn rate checks of one window pair on one label. */
+  private static final class Burn {
+    final CountRing shortRing;
+    final CountRing longRing;
+    long checks;
+    long alerts;
+    long firstAlertMillis;
+    double peak;
+
+    Burn(BurnWindow window) {
+      this.shortRing = new CountRing(window.shortMillis);
+      this.longRing = new CountRing(window.longMillis);
+    }
+  }
+
+  /** Scores of one label. */
+  private static final class LabelState {
+    final String label;
+    final Burn[] burns;
+    long samples;
+    long failures;
+    long scored;
+    long satisfied;
+    long tolerating;
+    long lastMillis;
+    long tick = Long.MIN_VALUE;
+
+    LabelState(String label, List<BurnWindow> windows) {
+      this.label = label;
+      this.burns = new Burn[windows.size()];
+      for (int i = 0; i < burns.length; i++) {
+        burns[i] = new Burn(windows.get(i));
+      }
+    }
+
+    double apdex() {
+      return scored == 0 ? Double.NaN : (satisfied + tolerating / 2d) / scored;
+    }
+  }
+
+  private final Map<String, ApdexThreshold> apdexThresholds;
+  private final double errorBudget;
+  private final double target;
+  private final List<BurnWindow> windows;
+  private final long minSamples;
+  private final long tickMillis;
+  private final SampleDictionary dictionary;
+  private final List<LabelState> labels = new ArrayList<>();
+  private LabelState[] statesByLabelId = new LabelState[16];
+  private ApdexThreshold[] thresholdsByLabelId = new ApdexThreshold[16];
+  private boolean[] resolvedByLabelId = new boolean[16];
+  private final LabelState all;
+
+  /**
+   * @param apdexThresholds thresholds such as {@code *:500;Login:300/1200}, blank for no Apdex
+   * @param targetPercent success target in percent such as {@code 99.9}, {@code <= 0} for no burn
+   *     rates
+   * @param windows burn rate windows
+   * @param minSamples samples both windows of a pair need before their burn rate is checked
+   */
+  public SloEvaluator(
+      String apdexThresholds, double targetPercent, List<BurnWindow> windows, long minSamples) {
+    this(apdexThresholds, targetPercent, windows, minSamples, new SampleDictionary());
+  }
+
+  /**
+   * @param apdexThresholds thresholds such as {@code *:500;Login:300/1200}, blank for no Apdex
+   * @param targetPercent success target in percent such as {@code 99.9}, {@code <= 0} for no burn
+   *     rates
+   * @param windows burn rate windows
+   * @param minSamples samples both windows of a pair need before their burn rate is checked
+   * @param dictionary label ids shared with the other consumers of the samples
+   */
+  public SloEvaluator(
+      String apdexThresholds,
+      double targetPercent,
+      List<BurnWindow> windows,
+      long minSamples,
+      SampleDictionary dictionary) {
+    this.dictionary = dictionary;
+    if (targetPercent >= 100) {
+      throw new IllegalArgumentException("Success target must be below 100%: " + targetPercent);
+    }
+    this.apdexThresholds = parseApdexThresholds(apdexThresholds);
+    this.target = targetPercent;
+    this.errorBudget = targetPercent > 0 ? 1 - targetPercent / 100 : 0;
+    this.windows =
+        targetPercent > 0 ? new ArrayList<>(windows) : Collections.<BurnWindow>emptyList();
+    this.minSamples = Math.max(1, minSamples);
+    long tick = Long.MAX_VALUE;
+    for (BurnWindow window : this.windows) {
+      tick = Math.min(tick, window.shortMillis / SLOTS);
+    }
+    this.tickMillis = tick;
+    this.all = new LabelState(ALL_LABELS, this.windows);
+  }
+
+  /**
+   * Parse Apdex thresholds: {@code <label>:<T>[/<F>]} entries separated by semicolons, with {@code
+   * *} for the labels without an entry of their own.
+   *
+   * @param spec thresholds such as {@code *:500;Login:300/1200}
+   * @return the thresholds by label, empty if the specification is blank
+   * @throws IllegalArgumentException if an entry cannot be parsed
+   */
+  static Map<String, ApdexThreshold> parseApdexThresholds(String spec) {
+    Map<String, ApdexThreshold> thresholds = new HashMap<>();
+    if (spec == null) {
+      return thresholds;
+    }
+    for (String entry : spec.split(";")) {
+      if (entry.trim().isEmpty()) {
+        continue;
+      }
+      int colon = entry.lastIndexOf(':');
+      String label = colon < 0 ? SlaRule.ANY_LABEL : entry.substring(0, colon).trim();
+      String[] values = entry.substring(colon + 1).split("/");
+      long satisfied = parseDuration(values[0]);
+      long tolerated = values.length > 1 ? parseDuration(values[1]) : 4 * satisfied;
+      if (values.length > 2 || satisfied <= 0 || tolerated < satisfied) {
+        throw new IllegalArgumentException(
+            "Apdex threshold must look like <label>:<T>[/<F>] with 0 < T <= F: " + entry);
+      }
+      thresholds.put(label, new ApdexThreshold(satisfied, tolerated));
+    }
+    return thresholds;
+  }
+
+  /** Parse a duration such as {@code 500}, {@code 500ms}, {@code 30s}, {@code 5m} or {@code 1h}. */
+  static long parseDuration(String value) {
+    Matcher matcher = DURATION.matcher(value.trim().toLowerCase(Locale.ROOT));
+    if (!matcher.matches()) {
+      throw new IllegalArgumentException("Invalid duration: " + value);
+    }
+    long amount = Long.parseLong(matcher.group(1));
+    String unit = matcher.group(2) == null ? "ms" : matcher.group(2);
+    switch (unit) {
+      case "h":
+        return amount * 3_600_000L;
+      case "m":
+        return amount * 60_000L;
+      case "s":
+        return amount * 1000L;
+      default:
+        return amount;
+    }
+  }
+
+  @Override
+  public void onSample(SampleResult sr) {
+    int id = dictionary.labelId(sr);
+    if (id >= resolvedByLabelId.length) {
+      int capacity = Math.max(id + 1, resolvedByLabelId.length * 2);
+      statesByLabelId = Arrays.copyOf(statesByLabelId, capacity);
+      thresholdsByLabelId = Arrays.copyOf(thresholdsByLabelId, capacity);
+      resolvedByLabelId = Arrays.copyOf(resolvedByLabelId, capacity);
+    }
+    if (!resolvedByLabelId[id]) {
+      String label = dictionary.label(id);
+      thresholdsByLabelId[id] = threshold(label);
+      if (labels.size() < MAX_LABELS) {
+        statesByLabelId[id] = new LabelState(label, windows);
+        labels.add(statesByLabelId[id]);
+      }
+      resolvedByLabelId[id] = true;
+    }
+    ApdexThreshold threshold = thresholdsByLabelId[id];
+    long time = sr.getEndTime();
+    record(all, sr, threshold, time);
+    if (statesByLabelId[id] != null) {
+      record(statesByLabelId[id], sr, threshold, time);
+    }
+  }
+
+  private ApdexThreshold threshold(String label) {
+    if (apdexThresholds.isEmpty()) {
+      return null;
+    }
+    ApdexThreshold threshold = apdexThresholds.get(label);
+    return threshold != null ? threshold : apdexThresholds.get(SlaRule.ANY_LABEL);
+  }
+
+  private void record(LabelState state, SampleResult sr, ApdexThreshold threshold, long time) {
+    boolean failed = !sr.isSuccessful();
+    state.samples++;
+    state.lastMillis = Math.max(state.lastMillis, time);
+    if (failed) {
+      state.failures++;
+    }
+    if (!windows.isEmpty()) {
+      long tick = Math.floorDiv(time, tickMillis);
+      if (tick > state.tick) {
+        if (state.tick != Long.MIN_VALUE) {
+          check(state, time, false);
+        }
+        state.tick = tick;
+      }
+      for (Burn burn : state.burns) {
+        burn.shortRing.record(time, failed);
+        burn.longRing.record(time, failed);
+      }
+    }
+    if (threshold == null) {
+      return;
+    }
+    state.scored++;
+    if (failed) {
+      // failures are frustrated whatever their time
+      return;
+    } else if (sr.getTime() <= threshold.satisfied) {
+      state.satisfied++;
+    } else if (sr.getTime() <= threshold.tolerated) {
+      state.tolerating++;
+    }
+  }
+
+  /** Check the burn rates of the windows ending at a time. */
+  private void check(LabelState state, long time, boolean inclusive) {
+    for (int i = 0; i < state.burns.length; i++) {
+      Burn burn = state.burns[i];
+      burn.shortRing.sum(time, inclusive);
+      burn.longRing.sum(time, inclusive);
+      if (burn.shortRing.sumSamples < minSamples || burn.longRing.sumSamples < minSamples) {
+        continue;
+      }
+      double rate =
+          Math.min(
+              burnRate(burn.shortRing.sumFailures, burn.shortRing.sumSamples),
+              burnRate(burn.longRing.sumFailures, burn.longRing.sumSamples));
+      burn.checks++;
+      burn.peak = Math.max(burn.peak, rate);
+      BurnWindow window = windows.get(i);
+      if (rate >= window.threshold) {
+        if (burn.alerts == 0) {
+          burn.firstAlertMillis = time;
+          logger.warn(
+              "Error budget of '{}' burning {}x, {} burn threshold {}x",
+              state.label,
+              format(rate),
+              window,
+              format(window.threshold));
+        }
+        burn.alerts++;
+      }
+    }
+  }
+
+  private double burnRate(long failures, long samples) {
+    return samples == 0 ? 0 : (double) failures / samples / errorBudget;
+  }
+
+  @Override
+  public void contribute(AnalysisReport report) {
+    if (all.samples == 0) {
+      return;
+    }
+    List<LabelState> states = new ArrayList<>();
+    states.add(all);
+    states.addAll(labels);
+    long alerting = 0;
+    for (LabelState state : states) {
+      if (!windows.isEmpty()) {
+        check(state, state.lastMillis, true);
+      }
+      JtlRecord testCase = toTestCase(state);
+      report.addTestCase(testCase);
+      if (!testCase.isSuccess() && state != all) {
+        alerting++;
+      }
+    }
+    if (!apdexThresholds.isEmpty()) {
+      report.addLaunchAttribute("apdex", format(all.apdex()));
+      List<LabelState> scored = new ArrayList<>(labels);
+      scored.removeIf(state -> state.scored < minSamples);
+      scored.sort((a, b) -> Double.compare(a.apdex(), b.apdex()));
+      for (LabelState state : scored.subList(0, Math.min(ATTRIBUTE_LABELS, scored.size()))) {
+        report.addLaunchAttribute("apdex." + state.label, format(state.apdex()));
+      }
+    }
+    if (!windows.isEmpty()) {
+      StringBuilder burn = new StringBuilder();
+      for (int i = 0; i < windows.size(); i++) {
+        burn.append(i == 0 ? "" : ", ").append(windows.get(i).name).append(' ');
+        burn.append(format(all.burns[i].peak)).append('x');
+        burn.append(all.burns[i].alerts > 0 ? " alert" : "");
+      }
+      report.addLaunchAttribute("errorBudgetBurn", burn.toString());
+      report.addLaunchAttribute(
+          "errorBudgetConsumed",
+          String.format(
+              Locale.ROOT,
+              "%.0f%%",
+              100 * burnRate(all.failures, all.samples)));
+      report.addLaunchAttribute("errorBudgetAlerts", Long.toString(alerting));
+    }
+  }
+
+  private JtlRecord toTestCase(LabelState state) {
+    StringBuilder summary = new StringBuilder();
+    if (state.scored > 0) {
+      summary.append(
+          String.format(
+              Locale.ROOT,
+              "Apdex %s [%s]: %d satisfied, %d tolerating, %d frustrated of %d",
+              format(state.apdex()),
+              state == all ? "per label thresholds" : threshold(state.label),
+              state.satisfied,
+              state.tolerating,
+              state.scored - state.satisfied - state.tolerating,
+              state.scored));
+    }
+    StringBuilder failure = new StringBuilder();
+    if (!windows.isEmpty()) {
+      summary.append(summary.length() == 0 ? "" : "; ");
+      summary.append("error budget of a ");
+      summary.append(BigDecimal.valueOf(target).stripTrailingZeros().toPlainString());
+      summary.append("% target");
+      for (int i = 0; i < windows.size(); i++) {
+        BurnWindow window = windows.get(i);
+        Burn burn = state.burns[i];
+        summary.append(
+            String.format(
+                Locale.ROOT,
+                ", %s peak %sx (alert at %sx, %d of %d checks)",
+                window,
+                format(burn.peak),
+                format(window.threshold),
+                burn.alerts,
+                burn.checks));
+        if (burn.alerts > 0) {
+          failure.append(failure.length() == 0 ? "" : "; ");
+          failure.append(
+              String.format(
+                  Locale.ROOT,
+                  "%s burn rate reached %sx over %sx, first at %s",
+                  window,
+                  format(burn.peak),
+                  format(window.threshold),
+                  Instant.ofEpochMilli(burn.firstAlertMillis)));
+        }
+      }
+    }
+    String name = "SLO " + state.label;
+    if (failure.length() == 0) {
+      return new JtlRecord(name, true, summary.toString(), "");
+    }
+    return new JtlRecord(name, false, summary.toString(), failure.toString());
+  }
+
+  private static String format(double value) {
+    return Double.isNaN(value) ? "n/a" : String.format(Locale.ROOT, "%.2f", value);
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.archive;
+
+import io.github.prasantmohanty.jmeter.backendlistener.junit.transform.JtlRecord;
+
+/**
+ * One row of a columnar archive. The reader hands out a single instance per scan and moves it from
+ * row to row, so callers must copy what they want to keep.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public final class ArchivedSample {
+
+  final long[] numbers = new long[ColumnarArchive.NUMERIC_COLUMNS];
+  final String[] strings = new String[ColumnarArchive.DICTIONARIES];
+  boolean success;
+
+  ArchivedSample() {}
+
+  public long getTimeStamp() {
+    return numbers[ColumnarArchive.TIMESTAMP];
+  }
+
+  public long getElapsed() {
+    return numbers[ColumnarArchive.ELAPSED];
+  }
+
+  public long getLatency() {
+    return numbers[ColumnarArchive.LATENCY];
+  }
+
+  public long getConnectTime() {
+    return numbers[ColumnarArchive.CONNECT_TIME];
+  }
+
+  public long getBytes() {
+    return numbers[ColumnarArchive.BYTES];
+  }
+
+  public long getSentBytes() {
+    return numbers[ColumnarArchive.SENT_BYTES];
+  }
+
+  public int getGroupThreads() {
+    return (int) numbers[ColumnarArchive.GROUP_THREADS];
+  }
+
+  public int getAllThreads() {
+    return (int) numbers[ColumnarArchive.ALL_THREADS];
+  }
+
+  public boolean isSuccess() {
+    return success;
+  }
+
+  public String getSampleLabel() {
+    return strings[ColumnarArchive.LABEL];
+  }
+
+  public String getThreadName() {
+    return strings[ColumnarArchive.THREAD_NAME];
+  }
+
+  public String getResponseCode() {
+    return strings[ColumnarArchive.RESPONSE_CODE];
+  }
+
+  public String getResponseMessage() {
+    return strings[ColumnarArchive.RESPONSE_MESSAGE];
+  }
+
+  public String getFailureMessage() {
+    return strings[ColumnarArchive.FAILURE_MESSAGE];
+  }
+
+  public String getUrl() {
+    return strings[ColumnarArchive.URL];
+  }
+
+  public String getInjectorHostname() {
+    return strings[ColumnarArchive.INJECTOR_HOSTNAME];
+  }
+
+  /** @return the row as a record for the JUnit report transformation */
+  public JtlRecord toJtlRecord() {
+    return new JtlRecord(
+        getSampleLabel(),
+        success,
+        getResponseMessage(),
+        getFailureMessage(),
+        null,
+        null,
+        null,
+        null,
+        getResponseCode());
+  }
+}
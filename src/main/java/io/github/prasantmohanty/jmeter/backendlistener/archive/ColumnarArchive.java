@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.archive;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Layout of the columnar results archive shared by {@link ColumnarArchiveWriter} and {@link
+ * ColumnarArchiveReader}.
+ *
+ * <pre>
+ * file      := FILE_MAGIC version:byte rowGroup*
+ * rowGroup  := GROUP_MAGIC rows:varint minTimestamp:long maxTimestamp:long
+ *              minElapsed:varint maxElapsed:varint errors:varint
+ *              labelCount:varint labelId:varint*          (labels present in the group)
+ *              (newEntries:varint string*){DICTIONARIES} (dictionary entries first used here)
+ *              rawLength:varint deflatedLength:varint deflated column block
+ * string    := length:varint utf8:byte*
+ * </pre>
+ *
+ * The column block stores one column after the other: time stamps as zig-zag deltas, numeric
+ * columns as zig-zag varints, the success flags as a bit set and dictionary columns as varint ids.
+ * Everything a reader needs to skip a row group without inflating it precedes the column block.
+ */
+final class ColumnarArchive {
+
+  static final int FILE_MAGIC = 0x4a434131; // "JCA1"
+  static final int GROUP_MAGIC = 0x52475250; // "RGRP"
+  static final byte VERSION = 1;
+
+  static final String FILE_EXTENSION = ".jca";
+
+  static final int LABEL = 0;
+  static final int THREAD_NAME = 1;
+  static final int RESPONSE_CODE = 2;
+  static final int RESPONSE_MESSAGE = 3;
+  static final int FAILURE_MESSAGE = 4;
+  static final int URL = 5;
+  static final int INJECTOR_HOSTNAME = 6;
+  static final int DICTIONARIES = 7;
+
+  static final int TIMESTAMP = 0;
+  static final int ELAPSED = 1;
+  static final int LATENCY = 2;
+  static final int CONNECT_TIME = 3;
+  static final int BYTES = 4;
+  static final int SENT_BYTES = 5;
+  static final int GROUP_THREADS = 6;
+  static final int ALL_THREADS = 7;
+  static final int NUMERIC_COLUMNS = 8;
+
+  private ColumnarArchive() {}
+
+  static void writeVarLong(OutputStream out, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      out.write((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.write((int) value);
+  }
+
+  static void writeZigZag(OutputStream out, long value) throws IOException {
+    writeVarLong(out, (value << 1) ^ (value >> 63));
+  }
+
+  static long readVarLong(InputStream in) throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = in.read();
+      if (b < 0) {
+        throw new EOFException();
+      }
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed varint");
+  }
+
+  static long readVarLong(ByteBuffer in) throws IOException {
+    long value = 0;
+    try {
+      for (int shift = 0; shift < 64; shift += 7) {
+        int b = in.get();
+        value |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+    } catch (BufferUnderflowException e) {
+      throw new EOFException();
+    }
+    throw new IOException("Malformed varint");
+  }
+
+  static long readZigZag(ByteBuffer in) throws IOException {
+    return decodeZigZag(readVarLong(in));
+  }
+
+  static long decodeZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.archive;
+
+import io.github.prasantmohanty.jmeter.backendlistener.junit.transform.JtlRecordProcessor;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads archives written by {@link ColumnarArchiveWriter}. Row groups rejected by a {@link
+ * RowGroupFilter} are skipped without being inflated; only their new dictionary entries are read.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public class ColumnarArchiveReader {
+
+  private static final Logger logger = LoggerFactory.getLogger(ColumnarArchiveReader.class);
+
+  /** Decides from its statistics whether a row group needs to be decoded. */
+  public interface RowGroupFilter {
+    boolean accept(RowGroupStats stats);
+  }
+
+  /** Receives the rows of the decoded row groups. */
+  public interface SampleVisitor {
+    void visit(ArchivedSample sample);
+  }
+
+  public static final RowGroupFilter ALL_ROW_GROUPS = stats -> true;
+
+  /**
+   * Feed every row of an archive to a {@link JtlRecordProcessor}, like {@code
+   * JtlFileReader.parseCsvJtl} does for CSV files.
+   *
+   * @param path archive file
+   * @param recordProcessor record consumer
+   * @throws IOException if the archive cannot be read
+   */
+  public void parseArchive(String path, JtlRecordProcessor recordProcessor) throws IOException {
+    scan(new File(path), ALL_ROW_GROUPS, sample -> recordProcessor.process(sample.toJtlRecord()));
+  }
+
+  /**
+   * Decode the row groups accepted by the filter and visit their rows. A row group cut short at
+   * the end of the file, as left by a crashed writer, ends the scan.
+   *
+   * @param file archive file
+   * @param filter row group filter
+   * @param visitor row consumer
+   * @return the number of rows visited
+   * @throws IOException if the archive cannot be read or is not an archive
+   */
+  public long scan(File file, RowGroupFilter filter, SampleVisitor visitor) throws IOException {
+    List<List<String>> dictionaries = new ArrayList<>();
+    for (int i = 0; i < ColumnarArchive.DICTIONARIES; i++) {
+      dictionaries.add(new ArrayList<String>());
+    }
+    ArchivedSample sample = new ArchivedSample();
+    Inflater inflater = new Inflater();
+    long visited = 0;
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+      if (in.readInt() != ColumnarArchive.FILE_MAGIC) {
+        throw new IOException(file + " is not a columnar results archive");
+      }
+      byte version = in.readByte();
+      if (version != ColumnarArchive.VERSION) {
+        throw new IOException("Unsupported archive version " + version + " in " + file);
+      }
+      byte[] raw = new byte[0];
+      byte[] deflated = new byte[0];
+      while (true) {
+        int magic;
+        try {
+          magic = in.readInt();
+        } catch (EOFException e) {
+          break;
+        }
+        if (magic != ColumnarArchive.GROUP_MAGIC) {
+          throw new IOException("Corrupt row group header in " + file);
+        }
+        try {
+          int rows = (int) ColumnarArchive.readVarLong(in);
+          long minTimestamp = in.readLong();
+          long maxTimestamp = in.readLong();
+          long minElapsed = ColumnarArchive.decodeZigZag(ColumnarArchive.readVarLong(in));
+          long maxElapsed = ColumnarArchive.decodeZigZag(ColumnarArchive.readVarLong(in));
+          int errors = (int) ColumnarArchive.readVarLong(in);
+          int[] labelIds = new int[(int) ColumnarArchive.readVarLong(in)];
+          for (int i = 0; i < labelIds.length; i++) {
+            labelIds[i] = (int) ColumnarArchive.readVarLong(in);
+          }
+          for (List<String> dictionary : dictionaries) {
+            long entries = ColumnarArchive.readVarLong(in);
+            for (long i = 0; i < entries; i++) {
+              byte[] utf8 = new byte[(int) ColumnarArchive.readVarLong(in)];
+              in.readFully(utf8);
+              dictionary.add(new String(utf8, StandardCharsets.UTF_8));
+            }
+          }
+          int rawLength = (int) ColumnarArchive.readVarLong(in);
+          int deflatedLength = (int) ColumnarArchive.readVarLong(in);
+          RowGroupStats stats =
+              new RowGroupStats(
+                  rows,
+                  minTimestamp,
+                  maxTimestamp,
+                  minElapsed,
+                  maxElapsed,
+                  errors,
+                  labelIds,
+                  dictionaries.get(ColumnarArchive.LABEL));
+          if (!filter.accept(stats)) {
+            skipFully(in, deflatedLength);
+            continue;
+          }
+          if (deflated.length < deflatedLength) {
+            deflated = new byte[deflatedLength];
+          }
+          in.readFully(deflated, 0, deflatedLength);
+          if (raw.length < rawLength) {
+            raw = new byte[rawLength];
+          }
+          inflater.reset();
+          inflater.setInput(deflated, 0, deflatedLength);
+          if (inflater.inflate(raw, 0, rawLength) != rawLength) {
+            throw new IOException("Corrupt column block in " + file);
+          }
+          ByteBuffer columns = ByteBuffer.wrap(raw, 0, rawLength);
+          decode(columns, rows, minTimestamp, dictionaries, sample, visitor);
+          visited += rows;
+        } catch (EOFException e) {
+          logger.warn("Archive {} ends with an incomplete row group, ignoring it", file);
+          break;
+        } catch (DataFormatException e) {
+          throw new IOException("Corrupt column block in " + file, e);
+        }
+      }
+    } finally {
+      inflater.end();
+    }
+    return visited;
+  }
+
+  private static void decode(
+      ByteBuffer columns,
+      int rows,
+      long minTimestamp,
+      List<List<String>> dictionaries,
+      ArchivedSample sample,
+      SampleVisitor visitor)
+      throws IOException {
+    long[][] numbers = new long[ColumnarArchive.NUMERIC_COLUMNS][rows];
+    long previous = minTimestamp;
+    for (int i = 0; i < rows; i++) {
+      previous += ColumnarArchive.readZigZag(columns);
+      numbers[ColumnarArchive.TIMESTAMP][i] = previous;
+    }
+    for (int column = ColumnarArchive.ELAPSED; column < ColumnarArchive.NUMERIC_COLUMNS; column++) {
+      for (int i = 0; i < rows; i++) {
+        numbers[column][i] = ColumnarArchive.readZigZag(columns);
+      }
+    }
+    byte[] success = new byte[(rows + 7) / 8];
+    columns.get(success);
+    int[][] ids = new int[ColumnarArchive.DICTIONARIES][rows];
+    for (int dictionary = 0; dictionary < ColumnarArchive.DICTIONARIES; dictionary++) {
+      for (int i = 0; i < rows; i++) {
+        ids[dictionary][i] = (int) ColumnarArchive.readVarLong(columns);
+      }
+    }
+    for (int i = 0; i < rows; i++) {
+      for (int column = 0; column < ColumnarArchive.NUMERIC_COLUMNS; column++) {
+        sample.numbers[column] = numbers[column][i];
+      }
+      for (int dictionary = 0; dictionary < ColumnarArchive.DICTIONARIES; dictionary++) {
+        sample.strings[dictionary] = dictionaries.get(dictionary).get(ids[dictionary][i]);
+      }
+      sample.success = (success[i >> 3] & (1 << (i & 7))) != 0;
+      visitor.visit(sample);
+    }
+  }
+
+  private static void skipFully(DataInputStream in, long length) throws IOException {
+    while (length > 0) {
+      long skipped = in.skip(length);
+      if (skipped <= 0) {
+        throw new EOFException();
+      }
+      length -= skipped;
+    }
+  }
+}
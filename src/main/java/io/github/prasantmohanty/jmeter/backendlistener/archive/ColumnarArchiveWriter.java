@@ -0,0 +1,287 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.archive;
+
+import io.github.prasantmohanty.jmeter.backendlistener.model.StringDictionary;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.zip.Deflater;
+import org.apache.jmeter.assertions.AssertionResult;
+import org.apache.jmeter.samplers.SampleResult;
+
+/**
+ * Writes sample results to a compact columnar archive (see {@link ColumnarArchive} for the
+ * layout). Rows are buffered column by column and written as row groups of {@link
+ * #DEFAULT_ROW_GROUP_SIZE} rows. Low-cardinality strings are dictionary encoded across the whole
+ * file, time stamps are delta encoded and all numbers are written as varints before the column
+ * block of a group is deflated. A complete row group is never rewritten, so an archive cut short by
+ * a crash stays readable up to its last complete group.
+ *
+ * <p>Not thread safe; the backend listener feeds it from its single consumer thread.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public class ColumnarArchiveWriter implements Closeable {
+
+  public static final int DEFAULT_ROW_GROUP_SIZE = 16384;
+
+  private final File file;
+  private final DataOutputStream out;
+  private final int rowGroupSize;
+  private final String injectorHostname;
+
+  private final long[][] numbers;
+  private final int[][] ids;
+  private final boolean[] success;
+  private int rows;
+  private long totalRows;
+
+  private final List<StringDictionary> dictionaries = new ArrayList<>();
+  private final List<List<String>> pendingEntries = new ArrayList<>();
+
+  private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+  private final ByteArrayOutputStream columns = new ByteArrayOutputStream(1 << 16);
+  private byte[] deflated = new byte[1 << 16];
+
+  public ColumnarArchiveWriter(File file) throws IOException {
+    this(file, DEFAULT_ROW_GROUP_SIZE);
+  }
+
+  public ColumnarArchiveWriter(File file, int rowGroupSize) throws IOException {
+    if (rowGroupSize <= 0) {
+      throw new IllegalArgumentException("Row group size must be positive: " + rowGroupSize);
+    }
+    this.file = file;
+    this.rowGroupSize = rowGroupSize;
+    this.numbers = new long[ColumnarArchive.NUMERIC_COLUMNS][rowGroupSize];
+    this.ids = new int[ColumnarArchive.DICTIONARIES][rowGroupSize];
+    this.success = new boolean[rowGroupSize];
+    for (int i = 0; i < ColumnarArchive.DICTIONARIES; i++) {
+      dictionaries.add(new StringDictionary());
+      pendingEntries.add(new ArrayList<String>());
+    }
+    this.injectorHostname = InetAddress.getLocalHost().getHostName();
+    File parent = file.getAbsoluteFile().getParentFile();
+    if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+      throw new IOException("Unable to create archive directory " + parent);
+    }
+    this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+    out.writeInt(ColumnarArchive.FILE_MAGIC);
+    out.writeByte(ColumnarArchive.VERSION);
+  }
+
+  /**
+   * Build the archive file name of a run: {@code <test name>-<build number>-<start>.jca} with
+   * characters unsafe in file names replaced.
+   *
+   * @param testName test name
+   * @param buildNumber build number
+   * @param startTime run start in epoch milliseconds
+   * @return the file name
+   */
+  public static String fileName(String testName, String buildNumber, long startTime) {
+    String name = testName + "-" + buildNumber + "-" + startTime;
+    return name.replaceAll("[^A-Za-z0-9._-]+", "_") + ColumnarArchive.FILE_EXTENSION;
+  }
+
+  /**
+   * Append a sample. Sub-results are not archived separately, as for the JUnit report.
+   *
+   * @param sr the sample
+   * @throws IOException if a completed row group cannot be written
+   */
+  public void append(SampleResult sr) throws IOException {
+    int row = rows;
+    numbers[ColumnarArchive.TIMESTAMP][row] = sr.getTimeStamp();
+    numbers[ColumnarArchive.ELAPSED][row] = sr.getTime();
+    numbers[ColumnarArchive.LATENCY][row] = sr.getLatency();
+    numbers[ColumnarArchive.CONNECT_TIME][row] = sr.getConnectTime();
+    numbers[ColumnarArchive.BYTES][row] = sr.getBytesAsLong();
+    numbers[ColumnarArchive.SENT_BYTES][row] = sr.getSentBytes();
+    numbers[ColumnarArchive.GROUP_THREADS][row] = sr.getGroupThreads();
+    numbers[ColumnarArchive.ALL_THREADS][row] = sr.getAllThreads();
+    success[row] = sr.isSuccessful();
+    ids[ColumnarArchive.LABEL][row] = idOf(ColumnarArchive.LABEL, sr.getSampleLabel());
+    ids[ColumnarArchive.THREAD_NAME][row] = idOf(ColumnarArchive.THREAD_NAME, sr.getThreadName());
+    ids[ColumnarArchive.RESPONSE_CODE][row] =
+        idOf(ColumnarArchive.RESPONSE_CODE, sr.getResponseCode());
+    ids[ColumnarArchive.RESPONSE_MESSAGE][row] =
+        idOf(ColumnarArchive.RESPONSE_MESSAGE, sr.getResponseMessage());
+    ids[ColumnarArchive.FAILURE_MESSAGE][row] =
+        idOf(ColumnarArchive.FAILURE_MESSAGE, failureMessage(sr));
+    ids[ColumnarArchive.URL][row] =
+        idOf(ColumnarArchive.URL, sr.getURL() == null ? "" : sr.getUrlAsString());
+    ids[ColumnarArchive.INJECTOR_HOSTNAME][row] =
+        idOf(ColumnarArchive.INJECTOR_HOSTNAME, injectorHostname);
+    rows++;
+    totalRows++;
+    if (rows == rowGroupSize) {
+      writeRowGroup();
+    }
+  }
+
+  /**
+   * Write the buffered rows as a (possibly short) row group and flush the file.
+   *
+   * @throws IOException if writing fails
+   */
+  public void flush() throws IOException {
+    if (rows > 0) {
+      writeRowGroup();
+    }
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      flush();
+    } finally {
+      deflater.end();
+      out.close();
+    }
+  }
+
+  public File getFile() {
+    return file;
+  }
+
+  /** @return the number of rows appended so far */
+  public long getRows() {
+    return totalRows;
+  }
+
+  private int idOf(int dictionary, String value) {
+    StringDictionary entries = dictionaries.get(dictionary);
+    int size = entries.size();
+    int id = entries.id(value);
+    if (id == size) {
+      pendingEntries.get(dictionary).add(entries.value(id));
+    }
+    return id;
+  }
+
+  private static String failureMessage(SampleResult sr) {
+    AssertionResult[] assertionResults = sr.getAssertionResults();
+    if (assertionResults == null || assertionResults.length == 0) {
+      return "";
+    }
+    StringBuilder sb = new StringBuilder();
+    for (AssertionResult assertionResult : assertionResults) {
+      if ((assertionResult.isFailure() || assertionResult.isError())
+          && assertionResult.getFailureMessage() != null) {
+        sb.append(assertionResult.getFailureMessage()).append('\n');
+      }
+    }
+    return sb.toString();
+  }
+
+  private void writeRowGroup() throws IOException {
+    long[] timestamps = numbers[ColumnarArchive.TIMESTAMP];
+    long[] elapsed = numbers[ColumnarArchive.ELAPSED];
+    long minTimestamp = Long.MAX_VALUE;
+    long maxTimestamp = Long.MIN_VALUE;
+    long minElapsed = Long.MAX_VALUE;
+    long maxElapsed = Long.MIN_VALUE;
+    int errors = 0;
+    TreeSet<Integer> labels = new TreeSet<>();
+    for (int i = 0; i < rows; i++) {
+      minTimestamp = Math.min(minTimestamp, timestamps[i]);
+      maxTimestamp = Math.max(maxTimestamp, timestamps[i]);
+      minElapsed = Math.min(minElapsed, elapsed[i]);
+      maxElapsed = Math.max(maxElapsed, elapsed[i]);
+      errors += success[i] ? 0 : 1;
+      labels.add(ids[ColumnarArchive.LABEL][i]);
+    }
+
+    out.writeInt(ColumnarArchive.GROUP_MAGIC);
+    ColumnarArchive.writeVarLong(out, rows);
+    out.writeLong(minTimestamp);
+    out.writeLong(maxTimestamp);
+    ColumnarArchive.writeZigZag(out, minElapsed);
+    ColumnarArchive.writeZigZag(out, maxElapsed);
+    ColumnarArchive.writeVarLong(out, errors);
+    ColumnarArchive.writeVarLong(out, labels.size());
+    for (int label : labels) {
+      ColumnarArchive.writeVarLong(out, label);
+    }
+    for (List<String> entries : pendingEntries) {
+      ColumnarArchive.writeVarLong(out, entries.size());
+      for (String entry : entries) {
+        byte[] utf8 = entry.getBytes(StandardCharsets.UTF_8);
+        ColumnarArchive.writeVarLong(out, utf8.length);
+        out.write(utf8);
+      }
+      entries.clear();
+    }
+
+    columns.reset();
+    long previous = minTimestamp;
+    for (int i = 0; i < rows; i++) {
+      ColumnarArchive.writeZigZag(columns, timestamps[i] - previous);
+      previous = timestamps[i];
+    }
+    for (int column = ColumnarArchive.ELAPSED; column < ColumnarArchive.NUMERIC_COLUMNS; column++) {
+      long[] values = numbers[column];
+      for (int i = 0; i < rows; i++) {
+        ColumnarArchive.writeZigZag(columns, values[i]);
+      }
+    }
+    for (int i = 0; i < rows; i += 8) {
+      int bits = 0;
+      for (int b = 0; b < 8 && i + b < rows; b++) {
+        bits |= success[i + b] ? 1 << b : 0;
+      }
+      columns.write(bits);
+    }
+    for (int dictionary = 0; dictionary < ColumnarArchive.DICTIONARIES; dictionary++) {
+      int[] values = ids[dictionary];
+      for (int i = 0; i < rows; i++) {
+        ColumnarArchive.writeVarLong(columns, values[i]);
+      }
+    }
+
+    byte[] raw = columns.toByteArray();
+    deflater.reset();
+    deflater.setInput(raw);
+    deflater.finish();
+    int length = 0;
+    while (!deflater.finished()) {
+      if (length == deflated.length) {
+        byte[] grown = new byte[deflated.length * 2];
+        System.arraycopy(deflated, 0, grown, 0, length);
+        deflated = grown;
+      }
+      length += deflater.deflate(deflated, length, deflated.length - length);
+    }
+    ColumnarArchive.writeVarLong(out, raw.length);
+    ColumnarArchive.writeVarLong(out, length);
+    out.write(deflated, 0, length);
+    rows = 0;
+  }
+}
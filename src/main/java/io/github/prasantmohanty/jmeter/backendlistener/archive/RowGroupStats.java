@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.archive;
+
+import java.util.List;
+
+/**
+ * Statistics stored ahead of every row group of a columnar archive, which a reader can use to skip
+ * the group without decoding it.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public final class RowGroupStats {
+
+  private final int rows;
+  private final long minTimestamp;
+  private final long maxTimestamp;
+  private final long minElapsed;
+  private final long maxElapsed;
+  private final int errors;
+  private final int[] labelIds;
+  private final List<String> labelDictionary;
+
+  RowGroupStats(
+      int rows,
+      long minTimestamp,
+      long maxTimestamp,
+      long minElapsed,
+      long maxElapsed,
+      int errors,
+      int[] labelIds,
+      List<String> labelDictionary) {
+    this.rows = rows;
+    this.minTimestamp = minTimestamp;
+    this.maxTimestamp = maxTimestamp;
+    this.minElapsed = minElapsed;
+    this.maxElapsed = maxElapsed;
+    this.errors = errors;
+    this.labelIds = labelIds;
+    this.labelDictionary = labelDictionary;
+  }
+
+  public int getRows() {
+    return rows;
+  }
+
+  public long getMinTimestamp() {
+    return minTimestamp;
+  }
+
+  public long getMaxTimestamp() {
+    return maxTimestamp;
+  }
+
+  public long getMinElapsed() {
+    return minElapsed;
+  }
+
+  public long getMaxElapsed() {
+    return maxElapsed;
+  }
+
+  public int getErrors() {
+    return errors;
+  }
+
+  /**
+   * @param label sample label
+   * @return true if at least one row of the group carries the label
+   */
+  public boolean containsLabel(String label) {
+    for (int id : labelIds) {
+      if (labelDictionary.get(id).equals(label)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @param from start of the time range in epoch milliseconds, inclusive
+   * @param to end of the time range in epoch milliseconds, inclusive
+   * @return true if the group may hold samples started within the range
+   */
+  public boolean overlaps(long from, long to) {
+    return minTimestamp <= to && maxTimestamp >= from;
+  }
+
+  @Override
+  public String toString() {
+    return "RowGroupStats{rows="
+        + rows
+        + ", timestamps=["
+        + minTimestamp
+        + ", "
+        + maxTimestamp
+        + "], elapsed=["
+        + minElapsed
+        + ", "
+        + maxElapsed
+        + "], errors="
+        + errors
+        + ", labels="
+        + labelIds.length
+        + '}';
+  }
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.baseline;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compact on-disk history of {@link RunSummary}s. Summaries are appended to {@value #DATA_FILE};
+ * for every summary a small entry (test name, build number, offset, length) is appended to {@value
+ * #INDEX_FILE}. Only the index is loaded into memory, so finding the baseline of a build stays fast
+ * however many builds the store holds. Both files are append-only; a record torn by a crash is
+ * truncated and missing index entries are rebuilt from the data file on open.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public final class BaselineStore {
+
+  private static final Logger logger = LoggerFactory.getLogger(BaselineStore.class);
+
+  static final String DATA_FILE = "baselines.dat";
+  static final String INDEX_FILE = "baselines.idx";
+
+  private static final int RECORD_MAGIC = 0x52504231; // "RPB1"
+  private static final int RECORD_HEADER = 8;
+
+  private static final class IndexEntry {
+    final String testName;
+    final String buildNumber;
+    final long timestamp;
+    final long offset;
+    final int length;
+
+    IndexEntry(String testName, String buildNumber, long timestamp, long offset, int length) {
+      this.testName = testName;
+      this.buildNumber = buildNumber;
+      this.timestamp = timestamp;
+      this.offset = offset;
+      this.length = length;
+    }
+  }
+
+  private final File dataFile;
+  private final File indexFile;
+  private final Map<String, List<IndexEntry>> entriesByTest = new HashMap<>();
+  private long indexedDataLength;
+  private int size;
+
+  /**
+   * Open (or create) the store in a directory.
+   *
+   * @param directory directory holding the store files
+   * @throws IOException if the files cannot be created or read
+   */
+  public BaselineStore(File directory) throws IOException {
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Cannot create baseline store directory " + directory);
+    }
+    this.dataFile = new File(directory, DATA_FILE);
+    this.indexFile = new File(directory, INDEX_FILE);
+    try (RandomAccessFile data = new RandomAccessFile(dataFile, "rw")) {
+      FileLock lock = data.getChannel().lock();
+      try {
+        loadIndex();
+        recover(data);
+      } finally {
+        lock.release();
+      }
+    }
+  }
+
+  /**
+   * Append the summary of a run.
+   *
+   * @param summary summary to store
+   * @throws IOException if the summary cannot be written
+   */
+  public synchronized void append(RunSummary summary) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(RECORD_MAGIC);
+    out.writeInt(0);
+    summary.writeTo(out);
+    out.flush();
+    byte[] record = bytes.toByteArray();
+    int payload = record.length - RECORD_HEADER;
+    record[4] = (byte) (payload >>> 24);
+    record[5] = (byte) (payload >>> 16);
+    record[6] = (byte) (payload >>> 8);
+    record[7] = (byte) payload;
+
+    try (RandomAccessFile data = new RandomAccessFile(dataFile, "rw")) {
+      FileLock lock = data.getChannel().lock();
+      try {
+        // another process may have appended since we loaded the index
+        if (data.length() != indexedDataLength) {
+          loadIndex();
+          recover(data);
+        }
+        long offset = data.length();
+        data.seek(offset);
+        data.write(record);
+        IndexEntry entry =
+            new IndexEntry(
+                summary.getTestName(),
+                summary.getBuildNumber(),
+                summary.getTimestamp(),
+                offset,
+                record.length);
+        appendIndexEntry(entry);
+        add(entry);
+        indexedDataLength = offset + record.length;
+      } finally {
+        lock.release();
+      }
+    }
+  }
+
+  /**
+   * Find the latest summary of a build.
+   *
+   * @param testName test name
+   * @param buildNumber build number
+   * @return the summary or null if the build is not in the store
+   * @throws IOException if the summary cannot be read
+   */
+  public synchronized RunSummary find(String testName, String buildNumber) throws IOException {
+    List<IndexEntry> entries = entriesByTest.getOrDefault(testName, Collections.emptyList());
+    for (int i = entries.size() - 1; i >= 0; i--) {
+      if (entries.get(i).buildNumber.equals(buildNumber)) {
+        return read(entries.get(i));
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Find the most recent summaries of a test, newest first.
+   *
+   * @param testName test name
+   * @param count maximum number of summaries
+   * @param excludedBuild build number to skip, typically the current build; may be null
+   * @return up to {@code count} summaries
+   * @throws IOException if a summary cannot be read
+   */
+  public synchronized List<RunSummary> findLatest(String testName, int count, String excludedBuild)
+      throws IOException {
+    List<IndexEntry> entries = entriesByTest.getOrDefault(testName, Collections.emptyList());
+    List<RunSummary> result = new ArrayList<>();
+    for (int i = entries.size() - 1; i >= 0 && result.size() < count; i--) {
+      if (!entries.get(i).buildNumber.equals(excludedBuild)) {
+        result.add(read(entries.get(i)));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return number of summaries in the store
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  private RunSummary read(IndexEntry entry) throws IOException {
+    byte[] record = new byte[entry.length];
+    try (RandomAccessFile data = new RandomAccessFile(dataFile, "r")) {
+      data.seek(entry.offset);
+      data.readFully(record);
+    }
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+    if (in.readInt() != RECORD_MAGIC) {
+      throw new IOException("Corrupt baseline record at offset " + entry.offset);
+    }
+    in.readInt();
+    return RunSummary.readFrom(in);
+  }
+
+  private void loadIndex() throws IOException {
+    entriesByTest.clear();
+    size = 0;
+    indexedDataLength = 0;
+    if (!indexFile.exists()) {
+      return;
+    }
+    long valid = 0;
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+      while (true) {
+        IndexEntry entry =
+            new IndexEntry(in.readUTF(), in.readUTF(), in.readLong(), in.readLong(), in.readInt());
+        if (entry.offset + entry.length > dataFile.length()) {
+          break;
+        }
+        add(entry);
+        indexedDataLength = Math.max(indexedDataLength, entry.offset + entry.length);
+        valid += indexEntrySize(entry);
+      }
+    } catch (EOFException e) {
+      // end of index, possibly a torn last entry
+    }
+    if (valid < indexFile.length()) {
+      logger.warn("Truncating torn baseline index {} to {} bytes", indexFile, valid);
+      try (RandomAccessFile index = new RandomAccessFile(indexFile, "rw")) {
+        index.setLength(valid);
+      }
+    }
+  }
+
+  /** Index data records whose index entry was lost in a crash, truncate a torn last record. */
+  private void recover(RandomAccessFile data) throws IOException {
+    long position = indexedDataLength;
+    while (position + RECORD_HEADER <= data.length()) {
+      data.seek(position);
+      int magic = data.readInt();
+      int payload = data.readInt();
+      if (magic != RECORD_MAGIC
+          || payload < 0
+          || position + RECORD_HEADER + payload > data.length()) {
+        break;
+      }
+      byte[] record = new byte[RECORD_HEADER + payload];
+      data.seek(position);
+      data.readFully(record);
+      DataInputStream in =
+          new DataInputStream(new ByteArrayInputStream(record, RECORD_HEADER, payload));
+      RunSummary summary = RunSummary.readFrom(in);
+      IndexEntry entry =
+          new IndexEntry(
+              summary.getTestName(),
+              summary.getBuildNumber(),
+              summary.getTimestamp(),
+              position,
+              record.length);
+      appendIndexEntry(entry);
+      add(entry);
+      position += record.length;
+    }
+    if (position < data.length()) {
+      logger.warn("Truncating torn baseline record in {} at offset {}", dataFile, position);
+      data.setLength(position);
+    }
+    indexedDataLength = position;
+  }
+
+  private void appendIndexEntry(IndexEntry entry) throws IOException {
+    try (RandomAccessFile index = new RandomAccessFile(indexFile, "rw")) {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeUTF(entry.testName);
+      out.writeUTF(entry.buildNumber);
+      out.writeLong(entry.timestamp);
+      out.writeLong(entry.offset);
+      out.writeInt(entry.length);
+      out.flush();
+      index.seek(index.length());
+      index.write(bytes.toByteArray());
+    }
+  }
+
+  private void add(IndexEntry entry) {
+    entriesByTest.computeIfAbsent(entry.testName, k -> new ArrayList<>()).add(entry);
+    size++;
+  }
+
+  private static long indexEntrySize(IndexEntry entry) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeUTF(entry.testName);
+    out.writeUTF(entry.buildNumber);
+    return bytes.size() + 8 + 8 + 4;
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.baseline;
+
+import io.github.prasantmohanty.jmeter.backendlistener.metrics.LabelStatistics;
+import io.github.prasantmohanty.jmeter.backendlistener.metrics.LatencyHistogram;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Percentile and throughput summary of one label in one run.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public final class LabelSummary {
+
+  /** Metrics a summary can be compared on. */
+  public enum Metric {
+    AVG,
+    P50,
+    P90,
+    P95,
+    P99,
+    THROUGHPUT,
+    ERROR_RATE
+  }
+
+  private final String label;
+  private final long samples;
+  private final long errors;
+  private final double mean;
+  private final long p50;
+  private final long p90;
+  private final long p95;
+  private final long p99;
+  private final double throughput;
+
+  public LabelSummary(
+      String label,
+      long samples,
+      long errors,
+      double mean,
+      long p50,
+      long p90,
+      long p95,
+      long p99,
+      double throughput) {
+    this.label = label;
+    this.samples = samples;
+    this.errors = errors;
+    this.mean = mean;
+    this.p50 = p50;
+    this.p90 = p90;
+    this.p95 = p95;
+    this.p99 = p99;
+    this.throughput = throughput;
+  }
+
+  /**
+   * Summarise the live statistics of a label.
+   *
+   * @param stats live statistics
+   * @return the summary
+   */
+  public static LabelSummary of(LabelStatistics stats) {
+    long[] histogram = stats.getElapsedHistogram().snapshot();
+    return new LabelSummary(
+        stats.getLabel(),
+        stats.getSamples(),
+        stats.getErrors(),
+        stats.getMeanElapsed(),
+        LatencyHistogram.percentile(histogram, 50),
+        LatencyHistogram.percentile(histogram, 90),
+        LatencyHistogram.percentile(histogram, 95),
+        LatencyHistogram.percentile(histogram, 99),
+        stats.getThroughput());
+  }
+
+  void writeTo(DataOutput out) throws IOException {
+    out.writeUTF(label);
+    out.writeLong(samples);
+    out.writeLong(errors);
+    out.writeDouble(mean);
+    out.writeLong(p50);
+    out.writeLong(p90);
+    out.writeLong(p95);
+    out.writeLong(p99);
+    out.writeDouble(throughput);
+  }
+
+  static LabelSummary readFrom(DataInput in) throws IOException {
+    return new LabelSummary(
+        in.readUTF(),
+        in.readLong(),
+        in.readLong(),
+        in.readDouble(),
+        in.readLong(),
+        in.readLong(),
+        in.readLong(),
+        in.readLong(),
+        in.readDouble());
+  }
+
+  /**
+   * @param metric metric to read
+   * @return the value of the metric; latencies in ms, throughput in samples/s, error rate in %
+   */
+  public double get(Metric metric) {
+    switch (metric) {
+      case AVG:
+        return mean;
+      case P50:
+        return p50;
+      case P90:
+        return p90;
+      case P95:
+        return p95;
+      case P99:
+        return p99;
+      case THROUGHPUT:
+        return throughput;
+      default:
+        return getErrorRatePercent();
+    }
+  }
+
+  public String getLabel() {
+    return label;
+  }
+
+  public long getSamples() {
+    return samples;
+  }
+
+  public long getErrors() {
+    return errors;
+  }
+
+  public double getErrorRatePercent() {
+    return samples == 0 ? 0d : errors * 100d / samples;
+  }
+
+  public double getMean() {
+    return mean;
+  }
+
+  public long getP95() {
+    return p95;
+  }
+
+  public double getThroughput() {
+    return throughput;
+  }
+}
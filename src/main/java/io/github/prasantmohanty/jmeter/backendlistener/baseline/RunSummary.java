@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.baseline;
+
+import io.github.prasantmohanty.jmeter.backendlistener.metrics.LabelStatistics;
+import io.github.prasantmohanty.jmeter.backendlistener.metrics.SampleStatistics;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-label summaries of one run, keyed by test name and build number.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public final class RunSummary {
+
+  private final String testName;
+  private final String buildNumber;
+  private final long timestamp;
+  private final Map<String, LabelSummary> labels;
+
+  public RunSummary(
+      String testName, String buildNumber, long timestamp, List<LabelSummary> labelSummaries) {
+    this.testName = testName;
+    this.buildNumber = buildNumber;
+    this.timestamp = timestamp;
+    this.labels = new LinkedHashMap<>();
+    for (LabelSummary summary : labelSummaries) {
+      this.labels.put(summary.getLabel(), summary);
+    }
+  }
+
+  /**
+   * Summarise live statistics.
+   *
+   * @param testName name of the test
+   * @param buildNumber build number of the run
+   * @param statistics live statistics of the run
+   * @return the summary, including one entry per label
+   */
+  public static RunSummary of(String testName, String buildNumber, SampleStatistics statistics) {
+    List<LabelSummary> summaries = new ArrayList<>();
+    for (LabelStatistics stats : statistics.getLabels()) {
+      summaries.add(LabelSummary.of(stats));
+    }
+    return new RunSummary(testName, buildNumber, System.currentTimeMillis(), summaries);
+  }
+
+  void writeTo(DataOutput out) throws IOException {
+    out.writeUTF(testName);
+    out.writeUTF(buildNumber);
+    out.writeLong(timestamp);
+    out.writeInt(labels.size());
+    for (LabelSummary summary : labels.values()) {
+      summary.writeTo(out);
+    }
+  }
+
+  static RunSummary readFrom(DataInput in) throws IOException {
+    String testName = in.readUTF();
+    String buildNumber = in.readUTF();
+    long timestamp = in.readLong();
+    int count = in.readInt();
+    List<LabelSummary> summaries = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      summaries.add(LabelSummary.readFrom(in));
+    }
+    return new RunSummary(testName, buildNumber, timestamp, summaries);
+  }
+
+  public String getTestName() {
+    return testName;
+  }
+
+  public String getBuildNumber() {
+    return buildNumber;
+  }
+
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  public Map<String, LabelSummary> getLabels() {
+    return Collections.unmodifiableMap(labels);
+  }
+}
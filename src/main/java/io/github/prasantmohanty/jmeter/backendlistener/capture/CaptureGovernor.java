@@ -0,0 +1,182 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.capture;
+
+import io.github.prasantmohanty.jmeter.backendlistener.analysis.AnalysisReport;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+import org.apache.jmeter.samplers.SampleResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the backend listener from falling behind the samplers by lowering the {@link CaptureTier}
+ * under pressure. JMeter blocks sampler threads once the backend listener queue is full, which
+ * would distort the generated load, so detail is traded for keeping up.
+ *
+ * <p>Pressure is judged per batch from three signals: the age of the oldest sample in the batch
+ * (lag), the batch size relative to the listener queue capacity (depth), and the share of the time
+ * since the previous batch that was spent handling it (utilisation). Utilisation only supports the
+ * other two: the listener thread is always draining its queue, so it reads busy even while keeping
+ * up, and counts as pressure only along with a lag or depth at half its limit. Under pressure the
+ * tier drops one step, at most once per {@code maxLagMillis}; after {@code recoverMillis} without
+ * pressure it rises one step. Every change is kept for the launch attributes.
+ *
+ * <p>Called from the single listener thread only.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public class CaptureGovernor {
+
+  private static final Logger logger = LoggerFactory.getLogger(CaptureGovernor.class);
+
+  /** Tier changes recorded individually as launch attributes; later ones are only counted. */
+  static final int MAX_RECORDED_CHANGES = 32;
+
+  private final int queueCapacity;
+  private final long maxLagMillis;
+  private final long recoverMillis;
+  private final LongSupplier clock;
+
+  private CaptureTier tier = CaptureTier.FULL;
+  private CaptureTier lowest = CaptureTier.FULL;
+  private long lastChange = Long.MIN_VALUE / 2;
+  private long calmSince = -1;
+  private long previousBatchStart = -1;
+  private long previousBatchDuration;
+  private long batchStart;
+  private long aggregatedSamples;
+  private int changeCount;
+  private final List<String> changes = new ArrayList<>();
+
+  /**
+   * @param queueCapacity capacity of JMeter's backend listener queue ({@code backend_queue_size})
+   * @param maxLagMillis sample age beyond which the listener is considered behind
+   * @param recoverMillis time without pressure before detail is raised again
+   */
+  public CaptureGovernor(int queueCapacity, long maxLagMillis, long recoverMillis) {
+    this(queueCapacity, maxLagMillis, recoverMillis, System::currentTimeMillis);
+  }
+
+  CaptureGovernor(int queueCapacity, long maxLagMillis, long recoverMillis, LongSupplier clock) {
+    this.queueCapacity = Math.max(1, queueCapacity);
+    this.maxLagMillis = maxLagMillis;
+    this.recoverMillis = recoverMillis;
+    this.clock = clock;
+  }
+
+  /**
+   * Assess the pressure at the start of a batch and return the tier to capture it with.
+   *
+   * @param results the batch
+   * @return the capture tier
+   */
+  public CaptureTier beforeBatch(List<SampleResult> results) {
+    long now = clock.getAsLong();
+    long oldestEnd = Long.MAX_VALUE;
+    for (SampleResult sr : results) {
+      oldestEnd = Math.min(oldestEnd, sr.getEndTime());
+    }
+    long lag = results.isEmpty() ? 0 : Math.max(0, now - oldestEnd);
+    double depth = (double) results.size() / queueCapacity;
+    double utilisation = 0;
+    if (previousBatchStart >= 0 && now > previousBatchStart) {
+      utilisation = (double) previousBatchDuration / (now - previousBatchStart);
+    }
+    previousBatchStart = now;
+    batchStart = now;
+
+    boolean rising = lag > maxLagMillis / 2 || depth >= 0.25;
+    boolean pressure = lag > maxLagMillis || depth >= 0.5 || utilisation >= 0.8 && rising;
+    boolean calm = !rising && depth < 0.2;
+    if (pressure) {
+      calmSince = -1;
+      if (tier != CaptureTier.AGGREGATES_ONLY && now - lastChange >= maxLagMillis) {
+        change(
+            tier.lower(),
+            now,
+            String.format(
+                Locale.ROOT,
+                "lag %d ms, queue %.0f%%, busy %.0f%%",
+                lag,
+                depth * 100,
+                utilisation * 100));
+      }
+    } else if (calm) {
+      if (calmSince < 0) {
+        calmSince = now;
+      } else if (tier != CaptureTier.FULL
+          && now - calmSince >= recoverMillis
+          && now - lastChange >= recoverMillis) {
+        change(tier.higher(), now, "caught up");
+        calmSince = now;
+      }
+    } else {
+      calmSince = -1;
+    }
+    if (!tier.capturesSamples()) {
+      aggregatedSamples += results.size();
+    }
+    return tier;
+  }
+
+  /** Mark the end of the batch started by the last {@link #beforeBatch} call. */
+  public void afterBatch() {
+    previousBatchDuration = Math.max(0, clock.getAsLong() - batchStart);
+  }
+
+  public CaptureTier getTier() {
+    return tier;
+  }
+
+  /**
+   * Record the tier changes as launch attributes: {@code captureTier.<n>} holds the time and new
+   * tier of the n-th change, {@code captureTierLowest} the least detailed tier reached.
+   *
+   * @param report the analysis report
+   */
+  public void contribute(AnalysisReport report) {
+    if (changeCount == 0) {
+      return;
+    }
+    for (int i = 0; i < changes.size(); i++) {
+      report.addLaunchAttribute("captureTier." + (i + 1), changes.get(i));
+    }
+    report.addLaunchAttribute("captureTierChanges", Integer.toString(changeCount));
+    report.addLaunchAttribute("captureTierLowest", lowest.name());
+    if (aggregatedSamples > 0) {
+      report.addLaunchAttribute("captureAggregatedSamples", Long.toString(aggregatedSamples));
+    }
+  }
+
+  private void change(CaptureTier next, long now, String reason) {
+    logger.info("Capture tier {} -> {} ({})", tier, next, reason);
+    tier = next;
+    lastChange = now;
+    if (next.ordinal() > lowest.ordinal()) {
+      lowest = next;
+    }
+    changeCount++;
+    if (changes.size() < MAX_RECORDED_CHANGES) {
+      changes.add(Instant.ofEpochMilli(now) + " " + next.name());
+    }
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.capture;
+
+/**
+ * Detail captured per sample, from most to least. The listener steps down through the tiers when
+ * it falls behind and back up once it has caught up.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public enum CaptureTier {
+  /** Every sample with its request and response payloads. */
+  FULL,
+  /** Every sample; payloads only for failed samples. */
+  FAILURE_PAYLOADS,
+  /** Every sample with its metrics and headers, no payloads. */
+  METRICS_ONLY,
+  /** No per-sample test cases; samples only feed the statistics, analyses and archive. */
+  AGGREGATES_ONLY;
+
+  /**
+   * @param success whether the sample succeeded
+   * @return true if the payloads of such a sample are captured in this tier
+   */
+  public boolean capturesPayloads(boolean success) {
+    return this == FULL || (this == FAILURE_PAYLOADS && !success);
+  }
+
+  /** @return true if samples are turned into test cases in this tier */
+  public boolean capturesSamples() {
+    return this != AGGREGATES_ONLY;
+  }
+
+  CaptureTier lower() {
+    return this == AGGREGATES_ONLY ? this : values()[ordinal() + 1];
+  }
+
+  CaptureTier higher() {
+    return this == FULL ? this : values()[ordinal() - 1];
+  }
+}
@@ -0,0 +1,363 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.capture;
+
+import io.github.prasantmohanty.jmeter.backendlistener.analysis.AnalysisReport;
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.ListenerNotFoundException;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caps the heap retained by the listener: the buffered metric documents and their payloads. Callers
+ * {@link #reserve} the estimated size of what they keep and {@link #release} it when they let go.
+ *
+ * <p>Once the retained bytes reach the budget the budget trips and stays tripped for the run; the
+ * configured {@link Action} decides what gives. Beyond {@link #HARD_LIMIT} times the budget, or
+ * when the JVM reports that a tenured pool is still nearly full after a collection, only aggregates
+ * are kept whatever the action. The second signal is a safety net for everything the estimate does
+ * not see; it uses the collection usage threshold of the pools, which unlike the plain usage
+ * threshold is not crossed by garbage that the next collection would reclaim.
+ *
+ * <p>Reservations come from the listener thread, notifications from a JMX thread; the state read by
+ * both is atomic or volatile.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public class HeapBudget implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(HeapBudget.class);
+
+  /** Retained bytes, relative to the budget, beyond which only aggregates are kept. */
+  static final double HARD_LIMIT = 1.25;
+
+  /** Occupancy of a tenured pool after a collection that counts as low memory. */
+  static final double SAFETY_NET_OCCUPANCY = 0.9;
+
+  /** What to give up once the budget is reached. */
+  public enum Action {
+    /** Move the buffered metrics to a temporary file and keep capturing. */
+    SPILL,
+    /** Drop the buffered payloads and capture metrics only. */
+    DROP_PAYLOADS,
+    /** Stop capturing samples; only the statistics, analyses and archive see them. */
+    AGGREGATES_ONLY;
+
+    /**
+     * @param value {@code spill}, {@code drop-payloads} or {@code aggregates-only}
+     * @return the action
+     * @throws IllegalArgumentException for an unknown action
+     */
+    public static Action parse(String value) {
+      String name = value.trim().toUpperCase(Locale.ROOT).replace('-', '_');
+      try {
+        return valueOf(name);
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException("Unknown heap budget action: " + value);
+      }
+    }
+  }
+
+  private final long budgetBytes;
+  private final Action action;
+  private final AtomicLong retained = new AtomicLong();
+  private final AtomicLong peak = new AtomicLong();
+  private final AtomicInteger lowMemoryEvents = new AtomicInteger();
+  private final List<MemoryPoolMXBean> watchedPools = new ArrayList<>();
+  private final Map<MemoryPoolMXBean, Long> thresholdsSet = new HashMap<>();
+  private volatile Instant trippedAt;
+  private volatile boolean lowMemory;
+  private volatile boolean spillFailed;
+  private NotificationListener listener;
+
+  /**
+   * @param budgetBytes bytes the listener may retain, {@code > 0}
+   * @param action what to give up once they are reached
+   */
+  public HeapBudget(long budgetBytes, Action action) {
+    if (budgetBytes <= 0) {
+      throw new IllegalArgumentException("Heap budget must be positive: " + budgetBytes);
+    }
+    this.budgetBytes = budgetBytes;
+    this.action = action;
+  }
+
+  /**
+   * Parse a budget given either relative to the maximum heap ({@code 25%}) or as an absolute size
+   * with an optional {@code k}, {@code m} or {@code g} suffix ({@code 512m}).
+   *
+   * @param spec budget specification
+   * @param maxHeap maximum heap size in bytes
+   * @return the budget in bytes, {@code 0} if the specification is blank or zero
+   * @throws IllegalArgumentException for a malformed specification
+   */
+  public static long parseBudget(String spec, long maxHeap) {
+    String value = spec == null ? "" : spec.trim().toLowerCase(Locale.ROOT);
+    if (value.isEmpty()) {
+      return 0;
+    }
+    try {
+      if (value.endsWith("%")) {
+        double percent = Double.parseDouble(value.substring(0, value.length() - 1).trim());
+        if (percent < 0 || percent > 100) {
+          throw new IllegalArgumentException("Heap budget out of range: " + spec);
+        }
+        return (long) (maxHeap * percent / 100);
+      }
+      long unit = 1;
+      char suffix = value.charAt(value.length() - 1);
+      if (suffix == 'k' || suffix == 'm' || suffix == 'g') {
+        unit = suffix == 'k' ? 1L << 10 : suffix == 'm' ? 1L << 20 : 1L << 30;
+        value = value.substring(0, value.length() - 1).trim();
+      }
+      long bytes = Long.parseLong(value) * unit;
+      if (bytes < 0) {
+        throw new IllegalArgumentException("Heap budget out of range: " + spec);
+      }
+      return bytes;
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Malformed heap budget: " + spec, e);
+    }
+  }
+
+  /**
+   * Account for bytes now retained.
+   *
+   * @param bytes estimated size
+   */
+  public void reserve(long bytes) {
+    long now = retained.addAndGet(bytes);
+    if (now > peak.get()) {
+      peak.set(now);
+    }
+    if (now >= budgetBytes && trippedAt == null) {
+      trippedAt = Instant.now();
+      logger.warn(
+          "Listener retains {} bytes, heap budget of {} bytes reached, action {}",
+          now,
+          budgetBytes,
+          action);
+    }
+  }
+
+  /**
+   * Account for bytes no longer retained.
+   *
+   * @param bytes estimated size, as reserved
+   */
+  public void release(long bytes) {
+    retained.addAndGet(-bytes);
+  }
+
+  public long getBudgetBytes() {
+    return budgetBytes;
+  }
+
+  public long getRetainedBytes() {
+    return retained.get();
+  }
+
+  public long getPeakBytes() {
+    return peak.get();
+  }
+
+  public Action getAction() {
+    return action;
+  }
+
+  /** @return true while the retained bytes are at or over the budget */
+  public boolean isExceeded() {
+    return retained.get() >= budgetBytes;
+  }
+
+  /** @return true once the budget has been reached during the run */
+  public boolean isTripped() {
+    return trippedAt != null;
+  }
+
+  /** @return true if spilling is configured and has not failed */
+  public boolean canSpill() {
+    return action == Action.SPILL && !spillFailed;
+  }
+
+  /**
+   * Record that spilling failed; from now on the budget is enforced by keeping aggregates only.
+   *
+   * @param cause the failure
+   */
+  public void spillFailed(Exception cause) {
+    if (!spillFailed) {
+      logger.error("Unable to spill buffered metrics, keeping aggregates only", cause);
+    }
+    spillFailed = true;
+  }
+
+  /**
+   * Whether a tenured pool was nearly full after its last collection. Cleared once no watched pool
+   * is over its threshold anymore.
+   *
+   * @return true under low memory
+   */
+  public boolean isLowMemory() {
+    if (lowMemory) {
+      boolean exceeded = false;
+      for (MemoryPoolMXBean pool : watchedPools) {
+        try {
+          exceeded |= pool.isCollectionUsageThresholdExceeded();
+        } catch (UnsupportedOperationException e) {
+          // threshold reset by someone else
+        }
+      }
+      if (!exceeded) {
+        logger.info("Heap occupancy back below the safety net threshold");
+        lowMemory = false;
+      }
+    }
+    return lowMemory;
+  }
+
+  /**
+   * The most detailed tier the budget allows right now.
+   *
+   * @return the tier ceiling
+   */
+  public CaptureTier ceiling() {
+    if (isLowMemory() || retained.get() > budgetBytes * HARD_LIMIT) {
+      return CaptureTier.AGGREGATES_ONLY;
+    }
+    if (!isTripped()) {
+      return CaptureTier.FULL;
+    }
+    switch (action) {
+      case SPILL:
+        return spillFailed ? CaptureTier.AGGREGATES_ONLY : CaptureTier.FULL;
+      case DROP_PAYLOADS:
+        return CaptureTier.METRICS_ONLY;
+      default:
+        return CaptureTier.AGGREGATES_ONLY;
+    }
+  }
+
+  /**
+   * @param tier tier chosen otherwise, e.g. by the {@link CaptureGovernor}
+   * @return the tier, lowered to the {@link #ceiling()} if necessary
+   */
+  public CaptureTier limit(CaptureTier tier) {
+    CaptureTier ceiling = ceiling();
+    return ceiling.ordinal() > tier.ordinal() ? ceiling : tier;
+  }
+
+  /**
+   * Watch the tenured heap pools: set their collection usage threshold to {@link
+   * #SAFETY_NET_OCCUPANCY} of their maximum, unless a threshold is set already, and listen for it
+   * being crossed. Pools without a maximum or without threshold support are skipped.
+   */
+  public void installSafetyNet() {
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      // only the tenured pools support a usage threshold; young pools are emptied on every
+      // collection and say nothing about what is retained
+      if (pool.getType() != MemoryType.HEAP
+          || !pool.isUsageThresholdSupported()
+          || !pool.isCollectionUsageThresholdSupported()) {
+        continue;
+      }
+      long max = pool.getUsage().getMax();
+      if (max <= 0) {
+        continue;
+      }
+      if (pool.getCollectionUsageThreshold() == 0) {
+        long threshold = (long) (max * SAFETY_NET_OCCUPANCY);
+        pool.setCollectionUsageThreshold(threshold);
+        thresholdsSet.put(pool, threshold);
+      }
+      watchedPools.add(pool);
+    }
+    if (watchedPools.isEmpty()) {
+      logger.info("No heap pool supports collection usage thresholds, safety net disabled");
+      return;
+    }
+    listener =
+        (notification, handback) -> {
+          if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(
+              notification.getType())) {
+            lowMemoryEvents.incrementAndGet();
+            if (!lowMemory) {
+              logger.warn("Heap nearly full after collection, keeping aggregates only");
+            }
+            lowMemory = true;
+          }
+        };
+    ((NotificationEmitter) ManagementFactory.getMemoryMXBean())
+        .addNotificationListener(listener, null, null);
+  }
+
+  /**
+   * Add the budget and what it cost to the launch attributes, if it was ever reached.
+   *
+   * @param report analysis report of the run
+   */
+  public void contribute(AnalysisReport report) {
+    if (trippedAt == null && lowMemoryEvents.get() == 0) {
+      return;
+    }
+    report.addLaunchAttribute("heapBudget", budgetBytes + " " + action.name());
+    report.addLaunchAttribute("heapBudgetPeak", Long.toString(peak.get()));
+    if (trippedAt != null) {
+      report.addLaunchAttribute("heapBudgetReached", trippedAt.toString());
+    }
+    if (lowMemoryEvents.get() > 0) {
+      report.addLaunchAttribute("heapLowMemoryEvents", Integer.toString(lowMemoryEvents.get()));
+    }
+  }
+
+  /** Stop listening and reset the thresholds set by {@link #installSafetyNet()}. */
+  @Override
+  public void close() {
+    if (listener != null) {
+      try {
+        ((NotificationEmitter) ManagementFactory.getMemoryMXBean())
+            .removeNotificationListener(listener);
+      } catch (ListenerNotFoundException e) {
+        // already gone
+      }
+      listener = null;
+    }
+    // leave thresholds alone that someone else has changed since
+    for (Map.Entry<MemoryPoolMXBean, Long> pool : thresholdsSet.entrySet()) {
+      if (pool.getKey().getCollectionUsageThreshold() == pool.getValue()) {
+        pool.getKey().setCollectionUsageThreshold(0);
+      }
+    }
+    thresholdsSet.clear();
+    watchedPools.clear();
+  }
+}
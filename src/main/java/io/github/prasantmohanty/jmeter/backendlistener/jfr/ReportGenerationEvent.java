@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.jfr;
+
+/**
+ * Flight recorder event covering the generation of the JUnit report in {@code publishMetrics}.
+ *
+ * <p>This is the Java 8 variant which does nothing. On Java 11 and later the multi-release JAR
+ * provides a variant extending {@code jdk.jfr.Event} with the same members.
+ */
+public class ReportGenerationEvent {
+  public int recordCount;
+
+  public long bytes;
+
+  public String fileName;
+
+  public void begin() {}
+
+  public void end() {}
+
+  public void commit() {}
+
+  public boolean isEnabled() {
+    return false;
+  }
+
+  public boolean shouldCommit() {
+    return false;
+  }
+}
@@ -1,9 +1,15 @@
 package io.github.prasantmohanty.jmeter.backendlistener.junit.transform;
 
-import java.io.FileReader;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
-import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 
 public class JtlFileReader {
@@ -25,19 +31,110 @@ public class JtlFileReader {
   }
 
   public void parseCsvJtl(String path, JtlRecordProcessor recordProcessor) throws IOException {
-    try (Reader in = new FileReader(path)) {
-    Iterable<CSVRecord> records = CSVFormat.RFC4180.builder()
-      .setHeader()
-      .setSkipHeaderRecord(true)
-      .build()
-      .parse(in);
-      for (CSVRecord record : records) {
-        String label = record.get(JMeterJtlHeader.label);
-        boolean success = Boolean.parseBoolean(record.get(JMeterJtlHeader.success));
-        String failureMessage = record.get(JMeterJtlHeader.failureMessage);
-        String responseMessage = record.get(JMeterJtlHeader.responseMessage);
-        recordProcessor.process(new JtlRecord(label, success, responseMessage, failureMessage));
+    try (Records records = open(new File(path))) {
+      while (records.hasNext()) {
+        recordProcessor.process(records.next());
       }
     }
   }
+
+  /**
+   * Open a CSV JTL file to pull its rows one at a time. Columns missing from the header, as left
+   * out by a customised {@code jmeter.save.saveservice} configuration, read as empty.
+   *
+   * @param file JTL file with a header line
+   * @return the rows, to be closed
+   * @throws IOException if the file cannot be opened
+   */
+  public Records open(File file) throws IOException {
+    BufferedReader in = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8);
+    try {
+      return new Records(
+          CSVFormat.RFC4180.builder().setHeader().setSkipHeaderRecord(true).build().parse(in));
+    } catch (IOException | RuntimeException e) {
+      in.close();
+      throw e;
+    }
+  }
+
+  /** Rows of a JTL file as records, with statistics of the rows read so far. */
+  public static final class Records implements Iterator<JtlRecord>, Closeable {
+    private final CSVParser parser;
+    private final Iterator<CSVRecord> rows;
+    private long count;
+    private long errors;
+    private long firstTimestamp = Long.MAX_VALUE;
+    private long lastTimestamp = Long.MIN_VALUE;
+
+    Records(CSVParser parser) {
+      this.parser = parser;
+      this.rows = parser.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return rows.hasNext();
+    }
+
+    @Override
+    public JtlRecord next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      CSVRecord record = rows.next();
+      boolean success = Boolean.parseBoolean(get(record, JMeterJtlHeader.success));
+      count++;
+      if (!success) {
+        errors++;
+      }
+      try {
+        long timestamp = Long.parseLong(get(record, JMeterJtlHeader.timeStamp));
+        firstTimestamp = Math.min(firstTimestamp, timestamp);
+        lastTimestamp = Math.max(lastTimestamp, timestamp);
+      } catch (NumberFormatException e) {
+        // a date format other than ms, the row is still converted
+      }
+      return new JtlRecord(
+          get(record, JMeterJtlHeader.label),
+          success,
+          get(record, JMeterJtlHeader.responseMessage),
+          get(record, JMeterJtlHeader.failureMessage),
+          null,
+          null,
+          null,
+          null,
+          get(record, JMeterJtlHeader.responseCode));
+    }
+
+    private static String get(CSVRecord record, JMeterJtlHeader column) {
+      return record.isMapped(column.name()) && record.isSet(column.name())
+          ? record.get(column)
+          : "";
+    }
+
+    /** @return the number of rows read */
+    public long getCount() {
+      return count;
+    }
+
+    /** @return the number of failed rows read */
+    public long getErrors() {
+      return errors;
+    }
+
+    /** @return the earliest time stamp read in epoch milliseconds, {@code -1} if none */
+    public long getFirstTimestamp() {
+      return count == 0 || firstTimestamp == Long.MAX_VALUE ? -1 : firstTimestamp;
+    }
+
+    /** @return the latest time stamp read in epoch milliseconds, {@code -1} if none */
+    public long getLastTimestamp() {
+      return count == 0 || lastTimestamp == Long.MIN_VALUE ? -1 : lastTimestamp;
+    }
+
+    @Override
+    public void close() throws IOException {
+      parser.close();
+    }
+  }
 }
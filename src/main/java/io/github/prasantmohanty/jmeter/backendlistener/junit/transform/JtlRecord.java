@@ -1,5 +1,7 @@
 package io.github.prasantmohanty.jmeter.backendlistener.junit.transform;
 
+import io.github.prasantmohanty.jmeter.backendlistener.model.Payload;
+
 public class JtlRecord {
   private final String label;
   private final boolean success;
@@ -10,6 +12,7 @@ public class JtlRecord {
   private final String responseHeaders;
   private final String responseBody;
   private final String responseCode;
+  private final Payload responseData;
 
   public JtlRecord(String label, boolean success, String responseMessage, String failureMessage) {
     this(label, success, responseMessage, failureMessage, null, null, null, null, null);
@@ -25,6 +28,33 @@ public class JtlRecord {
       String responseHeaders,
       String responseBody,
       String responseCode) {
+    this(
+        label,
+        success,
+        responseMessage,
+        failureMessage,
+        requestHeaders,
+        requestBody,
+        responseHeaders,
+        responseBody,
+        responseCode,
+        null);
+  }
+
+  /**
+   * @param responseData raw response payload, written instead of {@code responseBody} when set
+   */
+  public JtlRecord(
+      String label,
+      boolean success,
+      String responseMessage,
+      String failureMessage,
+      String requestHeaders,
+      String requestBody,
+      String responseHeaders,
+      String responseBody,
+      String responseCode,
+      Payload responseData) {
     this.label = label;
     this.success = success;
     this.responseMessage = responseMessage;
@@ -34,6 +64,7 @@ public class JtlRecord {
     this.responseHeaders = responseHeaders;
     this.responseBody = responseBody;
     this.responseCode = responseCode;
+    this.responseData = responseData;
   }
 
   public String getLabel() {
@@ -72,6 +103,10 @@ public class JtlRecord {
     return responseCode;
   }
 
+  public Payload getResponseData() {
+    return responseData;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -99,9 +134,12 @@ public class JtlRecord {
     if (responseBody != null
         ? !responseBody.equals(jtlRecord.responseBody)
         : jtlRecord.responseBody != null) return false;
-    return !(responseCode != null
+    if (responseCode != null
         ? !responseCode.equals(jtlRecord.responseCode)
-        : jtlRecord.responseCode != null);
+        : jtlRecord.responseCode != null) return false;
+    return !(responseData != null
+        ? !responseData.equals(jtlRecord.responseData)
+        : jtlRecord.responseData != null);
   }
 
   @Override
@@ -115,6 +153,7 @@ public class JtlRecord {
     result = 31 * result + (responseHeaders != null ? responseHeaders.hashCode() : 0);
     result = 31 * result + (responseBody != null ? responseBody.hashCode() : 0);
     result = 31 * result + (responseCode != null ? responseCode.hashCode() : 0);
+    result = 31 * result + (responseData != null ? responseData.hashCode() : 0);
     return result;
   }
 
@@ -147,6 +186,8 @@ public class JtlRecord {
         + ", responseCode='"
         + responseCode
         + '\''
+        + ", responseData="
+        + responseData
         + '}';
   }
 }
@@ -1,26 +1,59 @@
 package io.github.prasantmohanty.jmeter.backendlistener.junit.transform;
 
+import java.io.File;
 import java.io.IOException;
 
 public class JtlToJUnitReportTransformer {
 
-  public void transform(String jtlFile, String junitReportFile, String testSuiteName)
+  private final int parallelism;
+
+  public JtlToJUnitReportTransformer() {
+    this(0);
+  }
+
+  /**
+   * @param parallelism threads rendering the report, {@code <= 0} for one per available processor
+   */
+  public JtlToJUnitReportTransformer(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Convert a CSV JTL file to a JUnit report with a single test suite. The rows are streamed, the
+   * memory needed does not depend on the size of the file.
+   *
+   * @return the number of test cases written
+   */
+  public int transform(String jtlFile, String junitReportFile, String testSuiteName)
       throws IOException {
-    try (final DomXmlJUnitReportWriter writer =
-        new DomXmlJUnitReportWriter(junitReportFile, testSuiteName)) {
-      JtlFileReader reader = new JtlFileReader();
-      reader.parseCsvJtl(
-          jtlFile,
-          new JtlRecordProcessor() {
-            @Override
-            public void process(JtlRecord jtlRecord) {
-              writer.write(jtlRecord);
-            }
-          });
+    try (JtlFileReader.Records records = new JtlFileReader().open(new File(jtlFile))) {
+      return transform(records, new File(junitReportFile), testSuiteName);
     }
   }
 
-  public void transform(String jtlFile, String junitReportFile) throws IOException {
-    transform(jtlFile, junitReportFile, "");
+  /**
+   * Convert the remaining rows of a JTL file, leaving its statistics to the caller.
+   *
+   * @return the number of test cases written
+   */
+  public int transform(JtlFileReader.Records records, File junitReportFile, String testSuiteName)
+      throws IOException {
+    return new ParallelJUnitReportGenerator(parallelism, false)
+        .generate(records, testSuiteName, junitReportFile);
+  }
+
+  /** Convert a CSV JTL file to a JUnit report whose test suite is named after the file. */
+  public int transform(String jtlFile, String junitReportFile) throws IOException {
+    return transform(jtlFile, junitReportFile, suiteName(new File(jtlFile)));
+  }
+
+  /**
+   * @param jtlFile JTL file
+   * @return the file name without its extension
+   */
+  public static String suiteName(File jtlFile) {
+    String name = jtlFile.getName();
+    int dot = name.lastIndexOf('.');
+    return dot > 0 ? name.substring(0, dot) : name;
   }
 }
@@ -0,0 +1,582 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.junit.transform;
+
+import io.github.prasantmohanty.jmeter.backendlistener.jfr.ReportWriteEvent;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Writes a JUnit report from buffered samples using all cores. The samples are cut into contiguous
+ * chunks; each chunk is converted and rendered to XML fragments on a fork-join pool, and the
+ * fragments are concatenated in chunk order, so the document is the same whatever the parallelism.
+ * A single suite is streamed to the file while it is rendered; only a bounded number of chunks is
+ * held in memory.
+ *
+ * <p>By default the report is a single {@code <testsuite>} holding the samples in arrival order.
+ * With {@code suitePerLabel} the samples are partitioned by label into one {@code <testsuite>} per
+ * label (sorted by label) under a {@code <testsuites>} root; extra test cases go into a suite named
+ * after the test.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public class ParallelJUnitReportGenerator {
+
+  private static final int MIN_CHUNK_SIZE = 256;
+
+  /** Records per chunk when they are pulled from an iterator. */
+  private static final int STREAM_CHUNK_SIZE = 1024;
+
+  private static final String XML_DECLARATION =
+      "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n";
+
+  /** Room for the three counts written by {@link #writeCounts}, each up to ten digits. */
+  private static final String COUNTS_PLACEHOLDER = String.format("%64s", "");
+
+  private final int parallelism;
+  private final boolean suitePerLabel;
+  private final boolean base64Binary;
+
+  /** Rendered test cases of one chunk or one label, with their outcome counts. */
+  private static final class Fragment {
+    final StringBuilder xml = new StringBuilder();
+    int tests;
+    int failures;
+    int errors;
+
+    void add(Fragment other) {
+      xml.append(other.xml);
+      tests += other.tests;
+      failures += other.failures;
+      errors += other.errors;
+    }
+  }
+
+  /**
+   * @param parallelism number of worker threads, {@code <= 0} for one per available processor
+   * @param suitePerLabel write one test suite per sample label instead of a single suite
+   */
+  public ParallelJUnitReportGenerator(int parallelism, boolean suitePerLabel) {
+    this(parallelism, suitePerLabel, false);
+  }
+
+  /**
+   * @param parallelism number of worker threads, {@code <= 0} for one per available processor
+   * @param suitePerLabel write one test suite per sample label instead of a single suite
+   * @param base64Binary write binary response payloads as base64 instead of a placeholder
+   */
+  public ParallelJUnitReportGenerator(
+      int parallelism, boolean suitePerLabel, boolean base64Binary) {
+    this.parallelism =
+        parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    this.suitePerLabel = suitePerLabel;
+    this.base64Binary = base64Binary;
+  }
+
+  /**
+   * Convert and write the samples followed by the extra test cases.
+   *
+   * @param samples buffered samples
+   * @param converter converts a sample to a record, may return null to drop the sample; called
+   *     concurrently
+   * @param extraTestCases test cases appended after the samples, e.g. analysis results
+   * @param testSuiteName name of the (outer) test suite
+   * @param file report file
+   * @param <T> sample type
+   * @return the number of test cases written
+   * @throws IOException if the report cannot be written
+   */
+  public <T> int generate(
+      List<T> samples,
+      Function<? super T, JtlRecord> converter,
+      List<JtlRecord> extraTestCases,
+      String testSuiteName,
+      File file)
+      throws IOException {
+    ReportWriteEvent writeEvent = new ReportWriteEvent();
+    writeEvent.begin();
+    int testCases = 0;
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      Fragment extra = new Fragment();
+      for (JtlRecord record : extraTestCases) {
+        render(record, testSuiteName, extra);
+      }
+      if (suitePerLabel) {
+        try (Writer out = open(file)) {
+          out.write(XML_DECLARATION);
+          List<Future<Map<String, Fragment>>> chunks = new ArrayList<>();
+          for (Iterator<List<T>> chunk = chunks(samples); chunk.hasNext(); ) {
+            chunks.add(submitChunk(pool, chunk.next(), converter, testSuiteName, true));
+          }
+          testCases = writeSuitePerLabel(out, chunks, extra, testSuiteName);
+        }
+      } else {
+        testCases =
+            writeStreamed(
+                file,
+                pool,
+                Collections.singletonMap(testSuiteName, chunks(samples)),
+                converter,
+                extra,
+                testSuiteName,
+                false);
+      }
+    } finally {
+      pool.shutdownNow();
+      writeEvent.testCases = testCases;
+      writeEvent.fileName = file.getPath();
+      writeEvent.commit();
+    }
+    return testCases;
+  }
+
+  private static Writer open(File file) throws IOException {
+    return new BufferedWriter(
+        new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8), 1 << 16);
+  }
+
+  private int chunkSize(List<?> samples) {
+    return Math.max(MIN_CHUNK_SIZE, samples.size() / (parallelism * 8) + 1);
+  }
+
+  /** Contiguous chunks of the samples, as views of the list. */
+  private <T> Iterator<List<T>> chunks(final List<T> samples) {
+    final int chunkSize = chunkSize(samples);
+    return new Iterator<List<T>>() {
+      private int from;
+
+      @Override
+      public boolean hasNext() {
+        return from < samples.size();
+      }
+
+      @Override
+      public List<T> next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        List<T> chunk = samples.subList(from, Math.min(samples.size(), from + chunkSize));
+        from += chunkSize;
+        return chunk;
+      }
+    };
+  }
+
+  /** Chunks of {@link #STREAM_CHUNK_SIZE} records pulled from the iterator as they are needed. */
+  private static Iterator<List<JtlRecord>> chunks(final Iterator<JtlRecord> records) {
+    return new Iterator<List<JtlRecord>>() {
+      @Override
+      public boolean hasNext() {
+        return records.hasNext();
+      }
+
+      @Override
+      public List<JtlRecord> next() {
+        List<JtlRecord> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+        while (chunk.size() < STREAM_CHUNK_SIZE && records.hasNext()) {
+          chunk.add(records.next());
+        }
+        if (chunk.isEmpty()) {
+          throw new NoSuchElementException();
+        }
+        return chunk;
+      }
+    };
+  }
+
+  /**
+   * Render a chunk on the pool.
+   *
+   * @param perLabel render a fragment per label, otherwise a single one keyed by {@code ""}
+   */
+  private <T> Future<Map<String, Fragment>> submitChunk(
+      ForkJoinPool pool,
+      final List<T> chunk,
+      final Function<? super T, JtlRecord> converter,
+      final String suiteName,
+      final boolean perLabel) {
+    return pool.submit(
+        () -> {
+          Map<String, Fragment> fragments = new TreeMap<>();
+          Fragment single = perLabel ? null : new Fragment();
+          for (T sample : chunk) {
+            JtlRecord record = converter.apply(sample);
+            if (record == null) {
+              continue;
+            }
+            String label = record.getLabel() == null ? "" : record.getLabel();
+            Fragment fragment = single;
+            if (fragment == null) {
+              fragment = fragments.get(label);
+              if (fragment == null) {
+                fragment = new Fragment();
+                fragments.put(label, fragment);
+              }
+            }
+            render(record, perLabel ? label : suiteName, fragment);
+          }
+          if (single != null) {
+            fragments.put("", single);
+          }
+          return fragments;
+        });
+  }
+
+  /**
+   * Write records pulled from an iterator, e.g. the rows of a JTL file, as a single streamed suite.
+   * The records are read by the calling thread as the rendering goes on; only a bounded number of
+   * them is held in memory however many there are. The report is a single suite even with {@code
+   * suitePerLabel}, which would need all records at once.
+   *
+   * @param records records to write
+   * @param testSuiteName name of the test suite
+   * @param file report file
+   * @return the number of test cases written
+   * @throws IOException if the report cannot be written
+   */
+  public int generate(Iterator<JtlRecord> records, String testSuiteName, File file)
+      throws IOException {
+    ReportWriteEvent writeEvent = new ReportWriteEvent();
+    writeEvent.begin();
+    int testCases = 0;
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      testCases =
+          writeStreamed(
+              file,
+              pool,
+              Collections.singletonMap(testSuiteName, chunks(records)),
+              Function.identity(),
+              new Fragment(),
+              testSuiteName,
+              false);
+    } finally {
+      pool.shutdownNow();
+      writeEvent.testCases = testCases;
+      writeEvent.fileName = file.getPath();
+      writeEvent.commit();
+    }
+    return testCases;
+  }
+
+  /**
+   * Convert and write several sample lists, e.g. one per backend listener, as one {@code
+   * <testsuite>} each under a {@code <testsuites>} root, in the order of the map. Extra test cases
+   * go into a last suite named after the root. Each suite is streamed like a single suite.
+   *
+   * @param suites samples per suite name
+   * @param converter converts a sample to a record, may return null to drop the sample; called
+   *     concurrently
+   * @param extraTestCases test cases appended in a suite of their own, e.g. analysis results
+   * @param rootName name of the {@code <testsuites>} root
+   * @param file report file
+   * @param <T> sample type
+   * @return the number of test cases written
+   * @throws IOException if the report cannot be written
+   */
+  public <T> int generateSuites(
+      Map<String, ? extends List<T>> suites,
+      Function<? super T, JtlRecord> converter,
+      List<JtlRecord> extraTestCases,
+      String rootName,
+      File file)
+      throws IOException {
+    ReportWriteEvent writeEvent = new ReportWriteEvent();
+    writeEvent.begin();
+    int testCases = 0;
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      Fragment extra = new Fragment();
+      for (JtlRecord record : extraTestCases) {
+        render(record, rootName, extra);
+      }
+      Map<String, Iterator<List<T>>> chunks = new LinkedHashMap<>();
+      for (Map.Entry<String, ? extends List<T>> suite : suites.entrySet()) {
+        chunks.put(suite.getKey(), chunks(suite.getValue()));
+      }
+      testCases = writeStreamed(file, pool, chunks, converter, extra, rootName, true);
+    } finally {
+      pool.shutdownNow();
+      writeEvent.testCases = testCases;
+      writeEvent.fileName = file.getPath();
+      writeEvent.commit();
+    }
+    return testCases;
+  }
+
+  /** Counts of a suite and where blank space for them was reserved in the file. */
+  private static final class CountsPatch {
+    final long offset;
+    Fragment counts;
+
+    CountsPatch(long offset) {
+      this.offset = offset;
+    }
+  }
+
+  /** Counts the bytes written, to locate the reserved space. */
+  private static final class CountingOutputStream extends FilterOutputStream {
+    long count;
+
+    CountingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      count += len;
+    }
+  }
+
+  /**
+   * Stream suites chunk by chunk with at most a few chunks rendered ahead, so the memory needed
+   * does not grow with the number of samples. The totals are only known at the end; start tags
+   * reserve blank space for them, which is overwritten once the file is complete.
+   *
+   * @param root write a {@code <testsuites>} root with a suite per entry and one for the extra
+   *     test cases; otherwise a single suite which also holds the extra test cases
+   */
+  private <T> int writeStreamed(
+      File file,
+      ForkJoinPool pool,
+      Map<String, ? extends Iterator<List<T>>> suites,
+      Function<? super T, JtlRecord> converter,
+      Fragment extra,
+      String rootName,
+      boolean root)
+      throws IOException {
+    List<CountsPatch> patches = new ArrayList<>();
+    Fragment total = new Fragment();
+    CountingOutputStream counting = new CountingOutputStream(new FileOutputStream(file));
+    try (Writer out =
+        new BufferedWriter(new OutputStreamWriter(counting, StandardCharsets.UTF_8), 1 << 16)) {
+      out.write(XML_DECLARATION);
+      CountsPatch rootPatch = null;
+      if (root) {
+        out.write("<testsuites name=\"" + XmlText.escapeAttribute(rootName) + "\"");
+        rootPatch = reserveCounts(out, counting, patches);
+        out.write(">\n");
+      }
+      for (Map.Entry<String, ? extends Iterator<List<T>>> suite : suites.entrySet()) {
+        out.write("<testsuite name=\"" + XmlText.escapeAttribute(suite.getKey()) + "\"");
+        CountsPatch patch = reserveCounts(out, counting, patches);
+        out.write(" skipped=\"0\">\n");
+        Fragment counts = new Fragment();
+        Iterator<List<T>> chunks = suite.getValue();
+        int window = parallelism * 2;
+        Deque<Future<Map<String, Fragment>>> pending = new ArrayDeque<>(window);
+        while (chunks.hasNext() || !pending.isEmpty()) {
+          while (chunks.hasNext() && pending.size() < window) {
+            pending.add(submitChunk(pool, chunks.next(), converter, suite.getKey(), false));
+          }
+          Fragment fragment = await(pending.poll()).get("");
+          out.append(fragment.xml);
+          count(counts, fragment);
+        }
+        if (!root) {
+          out.append(extra.xml);
+          count(counts, extra);
+        }
+        out.write("</testsuite>\n");
+        patch.counts = counts;
+        count(total, counts);
+      }
+      if (root) {
+        if (extra.tests > 0) {
+          writeSuite(out, rootName, extra);
+          count(total, extra);
+        }
+        out.write("</testsuites>\n");
+        rootPatch.counts = total;
+      }
+    }
+    try (RandomAccessFile patched = new RandomAccessFile(file, "rw")) {
+      for (CountsPatch patch : patches) {
+        StringWriter counts = new StringWriter(COUNTS_PLACEHOLDER.length());
+        writeCounts(counts, patch.counts);
+        while (counts.getBuffer().length() < COUNTS_PLACEHOLDER.length()) {
+          counts.write(' ');
+        }
+        patched.seek(patch.offset);
+        patched.write(counts.toString().getBytes(StandardCharsets.US_ASCII));
+      }
+    }
+    return total.tests;
+  }
+
+  private static CountsPatch reserveCounts(
+      Writer out, CountingOutputStream counting, List<CountsPatch> patches) throws IOException {
+    out.flush();
+    CountsPatch patch = new CountsPatch(counting.count);
+    patches.add(patch);
+    out.write(COUNTS_PLACEHOLDER);
+    return patch;
+  }
+
+  private int writeSuitePerLabel(
+      Writer out, List<Future<Map<String, Fragment>>> chunks, Fragment extra, String suiteName)
+      throws IOException {
+    Map<String, Fragment> labels = new TreeMap<>();
+    for (Future<Map<String, Fragment>> chunk : chunks) {
+      for (Map.Entry<String, Fragment> entry : await(chunk).entrySet()) {
+        Fragment label = labels.get(entry.getKey());
+        if (label == null) {
+          labels.put(entry.getKey(), entry.getValue());
+        } else {
+          label.add(entry.getValue());
+        }
+      }
+    }
+    Fragment total = new Fragment();
+    for (Fragment label : labels.values()) {
+      count(total, label);
+    }
+    count(total, extra);
+    out.write("<testsuites");
+    writeCounts(out, total);
+    out.write(" name=\"");
+    out.write(XmlText.escapeAttribute(suiteName));
+    out.write("\">\n");
+    for (Map.Entry<String, Fragment> label : labels.entrySet()) {
+      writeSuite(out, label.getKey(), label.getValue());
+    }
+    if (extra.tests > 0) {
+      writeSuite(out, suiteName, extra);
+    }
+    out.write("</testsuites>\n");
+    return total.tests;
+  }
+
+  private static void writeSuite(Writer out, String name, Fragment fragment) throws IOException {
+    writeSuiteStart(out, name, fragment);
+    out.append(fragment.xml);
+    out.write("</testsuite>\n");
+  }
+
+  private static void writeSuiteStart(Writer out, String name, Fragment counts)
+      throws IOException {
+    out.write("<testsuite");
+    writeCounts(out, counts);
+    out.write(" name=\"");
+    out.write(XmlText.escapeAttribute(name));
+    out.write("\" skipped=\"0\">\n");
+  }
+
+  private static void writeCounts(Writer out, Fragment counts) throws IOException {
+    out.write(" errors=\"" + counts.errors + "\"");
+    out.write(" failures=\"" + counts.failures + "\"");
+    out.write(" tests=\"" + counts.tests + "\"");
+  }
+
+  private static void count(Fragment total, Fragment fragment) {
+    total.tests += fragment.tests;
+    total.failures += fragment.failures;
+    total.errors += fragment.errors;
+  }
+
+  private static Map<String, Fragment> await(Future<Map<String, Fragment>> chunk)
+      throws IOException {
+    try {
+      return chunk.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while generating the JUnit report", e);
+    } catch (ExecutionException e) {
+      throw new IOException("Failed to generate the JUnit report", e.getCause());
+    }
+  }
+
+  /**
+   * Render a test case: its failure if any, then the request and response in {@code system-out}.
+   *
+   * @param record the record
+   * @param className class name
+   * @param fragment destination
+   */
+  private void render(JtlRecord record, String className, Fragment fragment) {
+    StringBuilder sb = fragment.xml;
+    fragment.tests++;
+    sb.append("    <testcase classname=\"").append(XmlText.escapeAttribute(className));
+    sb.append("\" name=\"").append(XmlText.escapeAttribute(record.getLabel())).append("\">\n");
+    if (!record.isSuccess()) {
+      String element;
+      String message;
+      if (record.getFailureMessage() != null && !record.getFailureMessage().isEmpty()) {
+        fragment.failures++;
+        element = "failure";
+        message = record.getFailureMessage();
+      } else {
+        fragment.errors++;
+        element = "error";
+        message = record.getResponseMessage();
+      }
+      sb.append("        <").append(element).append(" message=\"");
+      sb.append(XmlText.escapeAttribute(message)).append("\"/>\n");
+    }
+    sb.append("        <system-out><![CDATA[");
+    sb.append("ResponseCode: ");
+    XmlText.appendCData(sb, record.getResponseCode());
+    sb.append("\nResponseMessage: ");
+    XmlText.appendCData(sb, record.getResponseMessage());
+    sb.append("\n\nRequest Headers:\n");
+    XmlText.appendCData(sb, record.getRequestHeaders());
+    sb.append("\n\nRequest Body:\n");
+    XmlText.appendCData(sb, record.getRequestBody());
+    sb.append("\n\nResponse Headers:\n");
+    XmlText.appendCData(sb, record.getResponseHeaders());
+    sb.append("\n\nResponse Body:\n");
+    if (record.getResponseData() != null) {
+      XmlText.appendCData(sb, record.getResponseData(), base64Binary);
+    } else {
+      XmlText.appendCData(sb, record.getResponseBody());
+    }
+    sb.append("\n]]></system-out>\n");
+    sb.append("    </testcase>\n");
+  }
+}
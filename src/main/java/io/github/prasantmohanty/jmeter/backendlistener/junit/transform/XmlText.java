@@ -0,0 +1,200 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.junit.transform;
+
+import io.github.prasantmohanty.jmeter.backendlistener.model.Payload;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Base64;
+
+/**
+ * XML-safe text encoding for the JUnit report writers: attribute escaping and CDATA content which
+ * never contains a {@code ]]>} terminator or a character XML 1.0 does not allow.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public final class XmlText {
+
+  private static final int DECODE_BUFFER = 8192;
+
+  private XmlText() {}
+
+  /**
+   * Append text to an open CDATA section. A {@code ]]>} (also one spanning earlier appends) is
+   * split over two sections and characters not allowed in XML are dropped.
+   *
+   * @param sb builder whose content ends inside a CDATA section
+   * @param text text to append, may be null
+   */
+  public static void appendCData(StringBuilder sb, CharSequence text) {
+    if (text == null) {
+      return;
+    }
+    for (int i = 0; i < text.length(); i++) {
+      appendCData(sb, text.charAt(i));
+    }
+  }
+
+  /**
+   * Decode a payload straight into an open CDATA section, without materialising it as a {@link
+   * String}. Malformed input is replaced. Binary payloads are written as MIME base64 when {@code
+   * base64Binary} is set and replaced by a short placeholder otherwise.
+   *
+   * @param sb builder whose content ends inside a CDATA section
+   * @param payload payload, may be null
+   * @param base64Binary write binary payloads as base64
+   */
+  public static void appendCData(StringBuilder sb, Payload payload, boolean base64Binary) {
+    if (payload == null) {
+      return;
+    }
+    if (payload.isBinary()) {
+      if (base64Binary) {
+        sb.append(Base64.getMimeEncoder().encodeToString(payload.getData()));
+      } else {
+        sb.append("[binary payload: ").append(payload.length()).append(" bytes");
+        if (payload.getContentType() != null && !payload.getContentType().isEmpty()) {
+          appendCData(sb, ", " + payload.getContentType());
+        }
+        sb.append(']');
+      }
+      return;
+    }
+    CharsetDecoder decoder =
+        payload
+            .charset()
+            .newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    ByteBuffer in = ByteBuffer.wrap(payload.getData());
+    CharBuffer out = CharBuffer.allocate(Math.min(DECODE_BUFFER, payload.length() + 16));
+    sb.ensureCapacity(sb.length() + payload.length());
+    while (true) {
+      boolean underflow = decoder.decode(in, out, true).isUnderflow();
+      drain(sb, out);
+      if (underflow) {
+        break;
+      }
+    }
+    while (!decoder.flush(out).isUnderflow()) {
+      drain(sb, out);
+    }
+    drain(sb, out);
+  }
+
+  private static void drain(StringBuilder sb, CharBuffer out) {
+    out.flip();
+    for (int i = out.position(); i < out.limit(); i++) {
+      appendCData(sb, out.get(i));
+    }
+    out.clear();
+  }
+
+  private static void appendCData(StringBuilder sb, char ch) {
+    int length = sb.length();
+    if (ch == '>' && length >= 2 && sb.charAt(length - 1) == ']' && sb.charAt(length - 2) == ']') {
+      sb.append("]]><![CDATA[>");
+    } else if (isXmlChar(ch)) {
+      sb.append(ch);
+    }
+  }
+
+  /**
+   * Remove the characters XML 1.0 does not allow.
+   *
+   * @param value text, may be null
+   * @return the text without invalid characters, the same instance if there are none
+   */
+  public static String stripInvalid(String value) {
+    if (value == null) {
+      return null;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      if (!isXmlChar(value.charAt(i))) {
+        StringBuilder sb = new StringBuilder(value.length()).append(value, 0, i);
+        for (int j = i + 1; j < value.length(); j++) {
+          if (isXmlChar(value.charAt(j))) {
+            sb.append(value.charAt(j));
+          }
+        }
+        return sb.toString();
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Escape text for a double-quoted attribute value.
+   *
+   * @param value text, may be null
+   * @return the escaped value, empty for null
+   */
+  public static String escapeAttribute(String value) {
+    if (value == null) {
+      return "";
+    }
+    StringBuilder sb = null;
+    for (int i = 0; i < value.length(); i++) {
+      char ch = value.charAt(i);
+      String replacement;
+      switch (ch) {
+        case '&':
+          replacement = "&amp;";
+          break;
+        case '<':
+          replacement = "&lt;";
+          break;
+        case '>':
+          replacement = "&gt;";
+          break;
+        case '"':
+          replacement = "&quot;";
+          break;
+        case '\n':
+          replacement = "&#10;";
+          break;
+        case '\r':
+          replacement = "&#13;";
+          break;
+        case '\t':
+          replacement = "&#9;";
+          break;
+        default:
+          replacement = isXmlChar(ch) ? null : "";
+      }
+      if (replacement != null && sb == null) {
+        sb = new StringBuilder(value.length() + 16).append(value, 0, i);
+      }
+      if (sb != null) {
+        if (replacement == null) {
+          sb.append(ch);
+        } else {
+          sb.append(replacement);
+        }
+      }
+    }
+    return sb == null ? value : sb.toString();
+  }
+
+  /** Characters allowed by XML 1.0; surrogates are kept as they come in valid pairs. */
+  static boolean isXmlChar(char ch) {
+    return ch >= 0x20 ? ch != 0xFFFE && ch != 0xFFFF : ch == '\t' || ch == '\n' || ch == '\r';
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running, lock-free statistics of all samples sharing one label.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public final class LabelStatistics {
+
+  private final String label;
+  private final LongAdder samples = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+  private final LongAdder elapsedSum = new LongAdder();
+  private final LongAdder receivedBytes = new LongAdder();
+  private final LongAdder sentBytes = new LongAdder();
+  private final LatencyHistogram elapsed = new LatencyHistogram();
+
+  /** Samples above the previous exposed bound and at or below this one. */
+  private final AtomicLongArray boundCounts =
+      new AtomicLongArray(OpenMetricsFormatter.BUCKET_BOUNDS_MS.length);
+
+  private final AtomicLong firstStart = new AtomicLong(Long.MAX_VALUE);
+  private final AtomicLong lastEnd = new AtomicLong(Long.MIN_VALUE);
+
+  LabelStatistics(String label) {
+    this.label = label;
+  }
+
+  /**
+   * Account for one sample.
+   *
+   * @param elapsedMillis response time in milliseconds
+   * @param success whether the sample succeeded
+   * @param received received bytes
+   * @param sent sent bytes
+   * @param startTime sample start time in epoch milliseconds
+   * @param endTime sample end time in epoch milliseconds
+   */
+  public void record(
+      long elapsedMillis, boolean success, long received, long sent, long startTime, long endTime) {
+    samples.increment();
+    if (!success) {
+      errors.increment();
+    }
+    elapsedSum.add(elapsedMillis);
+    receivedBytes.add(received);
+    sentBytes.add(sent);
+    elapsed.record(elapsedMillis);
+    long[] bounds = OpenMetricsFormatter.BUCKET_BOUNDS_MS;
+    for (int i = 0; i < bounds.length; i++) {
+      if (elapsedMillis <= bounds[i]) {
+        boundCounts.incrementAndGet(i);
+        break;
+      }
+    }
+    firstStart.accumulateAndGet(startTime, Math::min);
+    lastEnd.accumulateAndGet(endTime, Math::max);
+  }
+
+  public String getLabel() {
+    return label;
+  }
+
+  public long getSamples() {
+    return samples.sum();
+  }
+
+  public long getErrors() {
+    return errors.sum();
+  }
+
+  /**
+   * @return errors divided by samples, 0 when no sample was recorded
+   */
+  public double getErrorRate() {
+    long count = getSamples();
+    return count == 0 ? 0d : (double) getErrors() / count;
+  }
+
+  public long getElapsedSum() {
+    return elapsedSum.sum();
+  }
+
+  /**
+   * @return mean response time in milliseconds, 0 when no sample was recorded
+   */
+  public double getMeanElapsed() {
+    long count = getSamples();
+    return count == 0 ? 0d : (double) getElapsedSum() / count;
+  }
+
+  public long getReceivedBytes() {
+    return receivedBytes.sum();
+  }
+
+  public long getSentBytes() {
+    return sentBytes.sum();
+  }
+
+  public LatencyHistogram getElapsedHistogram() {
+    return elapsed;
+  }
+
+  /**
+   * @param index index of an exposed bucket bound
+   * @return samples above the previous bound and at or below this one
+   */
+  long getBoundCount(int index) {
+    return boundCounts.get(index);
+  }
+
+  /**
+   * @return samples per second between the first sample start and the last sample end
+   */
+  public double getThroughput() {
+    long count = getSamples();
+    long span = lastEnd.get() - firstStart.get();
+    if (count == 0 || span <= 0) {
+      return 0d;
+    }
+    return count * 1000d / span;
+  }
+
+  public long getFirstStart() {
+    return firstStart.get();
+  }
+
+  public long getLastEnd() {
+    return lastEnd.get();
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear histogram of millisecond latencies. Values below {@value #LINEAR_LIMIT} ms
+ * get one bucket each; above that every power of two is split into {@value #SUB_BUCKETS} buckets,
+ * which bounds the relative error of any percentile to about 3%. Recording is a single atomic
+ * increment, so the histogram can be updated from the sample path and read concurrently.
+ */
+public final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;
+  private static final int MAGNITUDES = 31 - (SUB_BUCKET_BITS + 1);
+  private static final int BUCKET_COUNT = LINEAR_LIMIT + MAGNITUDES * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+  /**
+   * Record one latency value.
+   *
+   * @param millis latency in milliseconds, negative values are recorded as zero
+   */
+  public void record(long millis) {
+    counts.incrementAndGet(indexOf(millis));
+  }
+
+  /**
+   * @return the total number of recorded values
+   */
+  public long count() {
+    long total = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      total += counts.get(i);
+    }
+    return total;
+  }
+
+  /**
+   * Count the recorded values which are less than or equal to the given bound. Only buckets lying
+   * wholly at or below the bound are counted, so above {@value #LINEAR_LIMIT} ms values sharing the
+   * bucket of the bound, up to about 3% below it, are left out.
+   *
+   * @param millis inclusive upper bound in milliseconds
+   * @return number of values at or below the bound, never more
+   */
+  public long countAtOrBelow(long millis) {
+    int last = indexOf(millis);
+    if (upperBoundOf(last) > millis) {
+      last--;
+    }
+    long total = 0;
+    for (int i = 0; i <= last; i++) {
+      total += counts.get(i);
+    }
+    return total;
+  }
+
+  /**
+   * Estimate a percentile.
+   *
+   * @param percentile percentile between 0 and 100
+   * @return the upper bound of the bucket containing the percentile, or 0 if empty
+   */
+  public long percentile(double percentile) {
+    return percentile(snapshot(), percentile);
+  }
+
+  /**
+   * @return a copy of the current bucket counts
+   */
+  public long[] snapshot() {
+    long[] copy = new long[BUCKET_COUNT];
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      copy[i] = counts.get(i);
+    }
+    return copy;
+  }
+
+  /**
+   * Add the counts of another histogram snapshot to this histogram.
+   *
+   * @param snapshot bucket counts as returned by {@link #snapshot()}
+   */
+  public void add(long[] snapshot) {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      if (snapshot[i] != 0) {
+        counts.addAndGet(i, snapshot[i]);
+      }
+    }
+  }
+
+  /** Reset all buckets to zero. Concurrent recordings may or may not survive the reset. */
+  public void reset() {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      counts.set(i, 0);
+    }
+  }
+
+  /**
+   * Estimate a percentile from a snapshot.
+   *
+   * @param snapshot bucket counts as returned by {@link #snapshot()}
+   * @param percentile percentile between 0 and 100
+   * @return the upper bound of the bucket containing the percentile, or 0 if empty
+   */
+  public static long percentile(long[] snapshot, double percentile) {
+    long total = 0;
+    for (long c : snapshot) {
+      total += c;
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long rank = (long) Math.ceil(Math.max(0d, Math.min(100d, percentile)) / 100d * total);
+    rank = Math.max(1, rank);
+    long seen = 0;
+    for (int i = 0; i < snapshot.length; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) {
+        return upperBoundOf(i);
+      }
+    }
+    return upperBoundOf(snapshot.length - 1);
+  }
+
+  /**
+   * @return number of buckets of every histogram, the length of any snapshot
+   */
+  public static int bucketCount() {
+    return BUCKET_COUNT;
+  }
+
+  /**
+   * @param millis latency in milliseconds
+   * @return index of the bucket the latency is recorded in
+   */
+  public static int indexOf(long millis) {
+    if (millis < LINEAR_LIMIT) {
+      return millis < 0 ? 0 : (int) millis;
+    }
+    int magnitude = 63 - Long.numberOfLeadingZeros(millis) - SUB_BUCKET_BITS;
+    if (magnitude > MAGNITUDES) {
+      return BUCKET_COUNT - 1;
+    }
+    int sub = (int) (millis >>> magnitude) - SUB_BUCKETS;
+    return LINEAR_LIMIT + (magnitude - 1) * SUB_BUCKETS + sub;
+  }
+
+  /**
+   * @param index bucket index
+   * @return the largest value mapped into the bucket
+   */
+  public static long upperBoundOf(int index) {
+    if (index < LINEAR_LIMIT) {
+      return index;
+    }
+    int magnitude = (index - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+    int sub = (index - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+    return ((long) (sub + 1) << magnitude) - 1;
+  }
+}
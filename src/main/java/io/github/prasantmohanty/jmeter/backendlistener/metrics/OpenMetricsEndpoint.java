@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Minimal HTTP endpoint serving {@link SampleStatistics} at {@code /metrics} in OpenMetrics text
+ * format. Requests are served by a single daemon thread so that scraping never competes with the
+ * sampler threads for more than one core.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public final class OpenMetricsEndpoint {
+
+  private static final Logger logger = LoggerFactory.getLogger(OpenMetricsEndpoint.class);
+
+  private final SampleStatistics statistics;
+  private final HttpServer server;
+  private final ExecutorService executor;
+
+  /**
+   * Bind the endpoint. It does not serve requests until {@link #start()} is called.
+   *
+   * @param host interface to bind, e.g. {@code 127.0.0.1}
+   * @param port port to bind, 0 picks a free port
+   * @param statistics statistics to expose
+   * @throws IOException if the port cannot be bound
+   */
+  public OpenMetricsEndpoint(String host, int port, SampleStatistics statistics)
+      throws IOException {
+    this.statistics = statistics;
+    this.server = HttpServer.create(new InetSocketAddress(host, port), 0);
+    this.executor =
+        Executors.newSingleThreadExecutor(
+            r -> {
+              Thread t = new Thread(r, "reportportal-metrics-endpoint");
+              t.setDaemon(true);
+              return t;
+            });
+    this.server.setExecutor(executor);
+    this.server.createContext("/metrics", this::handle);
+  }
+
+  public void start() {
+    server.start();
+    logger.info("Serving live metrics on http://{}/metrics", server.getAddress());
+  }
+
+  /** Stop serving; in-flight scrapes get one second to complete. */
+  public void stop() {
+    server.stop(1);
+    executor.shutdownNow();
+    logger.debug("Stopped live metrics endpoint on {}", server.getAddress());
+  }
+
+  /**
+   * @return the bound port, useful when the endpoint was created with port 0
+   */
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try {
+      if (!"GET".equals(exchange.getRequestMethod())) {
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+      byte[] body = OpenMetricsFormatter.format(statistics).getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", OpenMetricsFormatter.CONTENT_TYPE);
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    } finally {
+      exchange.close();
+    }
+  }
+}
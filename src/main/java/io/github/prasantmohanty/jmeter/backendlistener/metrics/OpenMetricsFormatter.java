@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.metrics;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders {@link SampleStatistics} in the OpenMetrics text exposition format, which Prometheus
+ * scrapes natively.
+ */
+public final class OpenMetricsFormatter {
+
+  public static final String CONTENT_TYPE =
+      "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+  /**
+   * Histogram bucket bounds exposed to scrapers, in milliseconds. {@link LabelStatistics} counts
+   * the samples up to each of them exactly, as they do not fall on the edges of its histogram.
+   */
+  static final long[] BUCKET_BOUNDS_MS = {
+    5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000
+  };
+
+  private OpenMetricsFormatter() {}
+
+  /**
+   * Render the statistics.
+   *
+   * @param statistics the live statistics
+   * @return the OpenMetrics document, terminated by {@code # EOF}
+   */
+  public static String format(SampleStatistics statistics) {
+    List<LabelStatistics> labels = statistics.getLabels();
+    StringBuilder sb = new StringBuilder(256 + labels.size() * 1024);
+
+    sb.append("# TYPE jmeter_samples counter\n");
+    sb.append("# HELP jmeter_samples Samples received by the backend listener.\n");
+    for (LabelStatistics stats : labels) {
+      sample(sb, "jmeter_samples_total", "label", stats.getLabel(), stats.getSamples());
+    }
+
+    sb.append("# TYPE jmeter_errors counter\n");
+    sb.append("# HELP jmeter_errors Failed samples received by the backend listener.\n");
+    for (LabelStatistics stats : labels) {
+      sample(sb, "jmeter_errors_total", "label", stats.getLabel(), stats.getErrors());
+    }
+
+    sb.append("# TYPE jmeter_error_ratio gauge\n");
+    sb.append("# HELP jmeter_error_ratio Failed samples divided by samples.\n");
+    for (LabelStatistics stats : labels) {
+      sample(sb, "jmeter_error_ratio", "label", stats.getLabel(), stats.getErrorRate());
+    }
+
+    sb.append("# TYPE jmeter_received_bytes counter\n");
+    sb.append("# UNIT jmeter_received_bytes bytes\n");
+    for (LabelStatistics stats : labels) {
+      sample(
+          sb, "jmeter_received_bytes_total", "label", stats.getLabel(), stats.getReceivedBytes());
+    }
+
+    sb.append("# TYPE jmeter_active_threads gauge\n");
+    sb.append("# HELP jmeter_active_threads Active threads of the whole test plan.\n");
+    sb.append("jmeter_active_threads ").append(statistics.getAllThreads()).append('\n');
+
+    sb.append("# TYPE jmeter_group_active_threads gauge\n");
+    sb.append("# HELP jmeter_group_active_threads Active threads per thread group.\n");
+    for (Map.Entry<String, Integer> entry : statistics.getGroupThreads().entrySet()) {
+      sample(sb, "jmeter_group_active_threads", "group", entry.getKey(), entry.getValue());
+    }
+
+    sb.append("# TYPE jmeter_response_time_seconds histogram\n");
+    sb.append("# UNIT jmeter_response_time_seconds seconds\n");
+    sb.append("# HELP jmeter_response_time_seconds Sample response time.\n");
+    for (LabelStatistics stats : labels) {
+      // read the count first so that no bucket can exceed it while samples keep arriving
+      long count = stats.getElapsedHistogram().count();
+      long cumulative = 0;
+      for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+        cumulative += stats.getBoundCount(i);
+        sb.append("jmeter_response_time_seconds_bucket{label=\"");
+        escape(sb, stats.getLabel());
+        sb.append("\",le=\"").append(BUCKET_BOUNDS_MS[i] / 1000d).append("\"} ");
+        sb.append(Math.min(count, cumulative)).append('\n');
+      }
+      sb.append("jmeter_response_time_seconds_bucket{label=\"");
+      escape(sb, stats.getLabel());
+      sb.append("\",le=\"+Inf\"} ").append(count).append('\n');
+      sample(sb, "jmeter_response_time_seconds_count", "label", stats.getLabel(), count);
+      sample(
+          sb,
+          "jmeter_response_time_seconds_sum",
+          "label",
+          stats.getLabel(),
+          stats.getElapsedSum() / 1000d);
+    }
+
+    sb.append("# EOF\n");
+    return sb.toString();
+  }
+
+  private static void sample(
+      StringBuilder sb, String name, String labelName, String labelValue, Number value) {
+    sb.append(name).append('{').append(labelName).append("=\"");
+    escape(sb, labelValue);
+    sb.append("\"} ").append(value).append('\n');
+  }
+
+  private static void escape(StringBuilder sb, String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char ch = value.charAt(i);
+      switch (ch) {
+        case '\\':
+          sb.append("\\\\");
+          break;
+        case '"':
+          sb.append("\\\"");
+          break;
+        case '\n':
+          sb.append("\\n");
+          break;
+        default:
+          sb.append(ch);
+      }
+    }
+  }
+}
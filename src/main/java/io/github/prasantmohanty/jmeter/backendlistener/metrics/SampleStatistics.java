@@ -0,0 +1,151 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.metrics;
+
+import io.github.prasantmohanty.jmeter.backendlistener.model.SampleDictionary;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.jmeter.samplers.SampleResult;
+
+/**
+ * Live, lock-free aggregates of the samples seen by the backend listener. The listener updates
+ * them from {@code handleSampleResults}; readers such as the OpenMetrics endpoint only read atomic
+ * counters and never block the sample path. The listener finds the statistics of a label and the
+ * thread group of a thread by their {@link SampleDictionary} ids, the maps are only written when a
+ * label or a group is first seen.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public final class SampleStatistics {
+
+  private final ConcurrentHashMap<String, LabelStatistics> labels = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, Integer> groupThreads = new ConcurrentHashMap<>();
+  private final LabelStatistics total = new LabelStatistics("");
+  private final SampleDictionary dictionary;
+  private LabelStatistics[] byLabelId = new LabelStatistics[16];
+  private String[] groupByThreadId = new String[16];
+  private volatile int allThreads;
+
+  public SampleStatistics() {
+    this(new SampleDictionary());
+  }
+
+  /**
+   * @param dictionary ids of the labels and threads, shared with the other consumers of the samples
+   */
+  public SampleStatistics(SampleDictionary dictionary) {
+    this.dictionary = dictionary;
+  }
+
+  /**
+   * Account for one sample result.
+   *
+   * @param sr the sample result
+   */
+  public void record(SampleResult sr) {
+    LabelStatistics stats = labelStatistics(dictionary.labelId(sr));
+    long elapsed = sr.getTime();
+    boolean success = sr.isSuccessful();
+    long received = sr.getBytesAsLong();
+    long sent = sr.getSentBytes();
+    stats.record(elapsed, success, received, sent, sr.getStartTime(), sr.getEndTime());
+    total.record(elapsed, success, received, sent, sr.getStartTime(), sr.getEndTime());
+
+    this.allThreads = sr.getAllThreads();
+    int thread = dictionary.threadId(sr);
+    if (thread >= groupByThreadId.length) {
+      groupByThreadId =
+          Arrays.copyOf(groupByThreadId, Math.max(thread + 1, groupByThreadId.length * 2));
+    }
+    String group = groupByThreadId[thread];
+    if (group == null) {
+      group = threadGroupOf(dictionary.threadName(thread));
+      group = group == null ? "" : group;
+      groupByThreadId[thread] = group;
+    }
+    if (!group.isEmpty()) {
+      groupThreads.put(group, sr.getGroupThreads());
+    }
+  }
+
+  private LabelStatistics labelStatistics(int id) {
+    if (id >= byLabelId.length) {
+      byLabelId = Arrays.copyOf(byLabelId, Math.max(id + 1, byLabelId.length * 2));
+    }
+    LabelStatistics stats = byLabelId[id];
+    if (stats == null) {
+      stats = labels.computeIfAbsent(dictionary.label(id), LabelStatistics::new);
+      byLabelId[id] = stats;
+    }
+    return stats;
+  }
+
+  /**
+   * @return statistics of all labels ordered by label
+   */
+  public List<LabelStatistics> getLabels() {
+    List<LabelStatistics> list = new ArrayList<>(labels.values());
+    list.sort(Comparator.comparing(LabelStatistics::getLabel));
+    return list;
+  }
+
+  /**
+   * @param label sample label
+   * @return statistics of the label or null if no such sample was recorded
+   */
+  public LabelStatistics getLabel(String label) {
+    return labels.get(label);
+  }
+
+  /**
+   * @return statistics over all labels
+   */
+  public LabelStatistics getTotal() {
+    return total;
+  }
+
+  /**
+   * @return number of active threads reported by the latest sample
+   */
+  public int getAllThreads() {
+    return allThreads;
+  }
+
+  /**
+   * @return number of active threads per thread group reported by the latest sample of each group
+   */
+  public Map<String, Integer> getGroupThreads() {
+    return Collections.unmodifiableMap(groupThreads);
+  }
+
+  /**
+   * JMeter names threads {@code "<group name> <group number>-<thread number>"}; strip the numbers.
+   */
+  static String threadGroupOf(String threadName) {
+    if (threadName == null || threadName.isEmpty()) {
+      return null;
+    }
+    int space = threadName.lastIndexOf(' ');
+    return space > 0 ? threadName.substring(0, space) : threadName;
+  }
+}
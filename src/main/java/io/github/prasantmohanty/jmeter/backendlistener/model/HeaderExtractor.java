@@ -0,0 +1,317 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Extracts a fixed, pre-compiled set of headers from the raw header blocks JMeter records for a
+ * sample. The header block is scanned once; header names are compared in place against the
+ * configured names (bucketed by length) so that no per-line substrings are allocated. Only the
+ * values of matching headers are materialised and emitted as typed fields.
+ *
+ * <p>Well-known headers get dedicated handling:
+ *
+ * <ul>
+ *   <li>{@code traceparent} is emitted as {@code TraceParent} and {@code TraceId}
+ *   <li>{@code x-request-id} is emitted as {@code RequestId}
+ *   <li>{@code server-timing} is emitted as {@code ServerTiming} plus one numeric {@code
+ *       ServerTiming.<metric>} field per metric carrying a {@code dur} parameter
+ *   <li>cache status headers ({@code x-cache}, {@code cf-cache-status}, {@code cache-status},
+ *       {@code x-cache-status}) are emitted as {@code CacheStatus} and a boolean {@code CacheHit}
+ * </ul>
+ *
+ * A renamed well-known header keeps its derived fields under the new name: {@code
+ * traceparent=Upstream} emits {@code Upstream} and {@code UpstreamTraceId}, {@code
+ * x-cache=EdgeStatus} emits {@code EdgeStatus} and {@code EdgeHit}. Any other header is emitted
+ * under its configured field name, as a {@link Long} when the value is numeric and as a {@link
+ * String} otherwise.
+ */
+public final class HeaderExtractor {
+
+  /** Default header specification used when the listener parameter is left untouched. */
+  public static final String DEFAULT_HEADERS =
+      "traceparent;x-request-id;server-timing;x-cache;cf-cache-status;cache-status";
+
+  private static final int KIND_GENERIC = 0;
+  private static final int KIND_TRACEPARENT = 1;
+  private static final int KIND_SERVER_TIMING = 2;
+  private static final int KIND_CACHE_STATUS = 3;
+
+  /** Header names indexed by their length, lower-cased. */
+  private final String[][] namesByLength;
+
+  private final String[][] fieldsByLength;
+
+  /** Name of the field derived from each header ({@code TraceId}, {@code CacheHit}), or null. */
+  private final String[][] derivedByLength;
+
+  private final int[][] kindsByLength;
+  private final int maxLength;
+
+  private HeaderExtractor(List<String> names, List<String> fieldNames) {
+    int max = 0;
+    for (String name : names) {
+      max = Math.max(max, name.length());
+    }
+    this.maxLength = max;
+    this.namesByLength = new String[max + 1][];
+    this.fieldsByLength = new String[max + 1][];
+    this.derivedByLength = new String[max + 1][];
+    this.kindsByLength = new int[max + 1][];
+    for (int i = 0; i < names.size(); i++) {
+      String name = names.get(i);
+      int len = name.length();
+      namesByLength[len] = append(namesByLength[len], name);
+      fieldsByLength[len] = append(fieldsByLength[len], fieldNames.get(i));
+      derivedByLength[len] =
+          append(derivedByLength[len], derivedFieldName(kindOf(name), fieldNames.get(i)));
+      int[] kinds = kindsByLength[len] == null ? new int[0] : kindsByLength[len];
+      int[] grown = new int[kinds.length + 1];
+      System.arraycopy(kinds, 0, grown, 0, kinds.length);
+      grown[kinds.length] = kindOf(name);
+      kindsByLength[len] = grown;
+    }
+  }
+
+  /**
+   * Compile a semicolon separated header specification. Each entry is a header name, optionally
+   * followed by {@code =FieldName} to choose the emitted field name, e.g. {@code
+   * traceparent;x-correlation-id=CorrelationId}.
+   *
+   * @param spec header specification, may be null or blank
+   * @return the compiled extractor, or null if the specification names no headers
+   */
+  public static HeaderExtractor compile(String spec) {
+    if (spec == null || spec.trim().isEmpty()) {
+      return null;
+    }
+    List<String> names = new ArrayList<>();
+    List<String> fieldNames = new ArrayList<>();
+    for (String entry : spec.split(";")) {
+      String trimmed = entry.trim();
+      if (trimmed.isEmpty()) {
+        continue;
+      }
+      int eq = trimmed.indexOf('=');
+      String name = (eq < 0 ? trimmed : trimmed.substring(0, eq)).trim().toLowerCase(Locale.ROOT);
+      String field = eq < 0 ? defaultFieldName(name) : trimmed.substring(eq + 1).trim();
+      if (!name.isEmpty() && !names.contains(name)) {
+        names.add(name);
+        fieldNames.add(field.isEmpty() ? defaultFieldName(name) : field);
+      }
+    }
+    return names.isEmpty() ? null : new HeaderExtractor(names, fieldNames);
+  }
+
+  /**
+   * Scan a raw header block ({@code Name: value} lines) and put the values of the configured
+   * headers into the given map. Later occurrences of the same header overwrite earlier ones.
+   *
+   * @param headers raw header block as returned by {@code SampleResult.getResponseHeaders()}
+   * @param out destination map
+   */
+  public void extract(String headers, Map<String, Object> out) {
+    if (headers == null) {
+      return;
+    }
+    final int length = headers.length();
+    int lineStart = 0;
+    while (lineStart < length) {
+      int lineEnd = headers.indexOf('\n', lineStart);
+      if (lineEnd < 0) {
+        lineEnd = length;
+      }
+      int colon = -1;
+      for (int i = lineStart; i < lineEnd; i++) {
+        if (headers.charAt(i) == ':') {
+          colon = i;
+          break;
+        }
+      }
+      if (colon > lineStart) {
+        int nameStart = skipWhitespace(headers, lineStart, colon);
+        int nameEnd = trimWhitespace(headers, nameStart, colon);
+        int nameLength = nameEnd - nameStart;
+        if (nameLength > 0 && nameLength <= maxLength && namesByLength[nameLength] != null) {
+          String[] candidates = namesByLength[nameLength];
+          for (int c = 0; c < candidates.length; c++) {
+            if (headers.regionMatches(true, nameStart, candidates[c], 0, nameLength)) {
+              int valueStart = skipWhitespace(headers, colon + 1, lineEnd);
+              int valueEnd = trimWhitespace(headers, valueStart, lineEnd);
+              emit(
+                  kindsByLength[nameLength][c],
+                  fieldsByLength[nameLength][c],
+                  derivedByLength[nameLength][c],
+                  headers.substring(valueStart, valueEnd),
+                  out);
+              break;
+            }
+          }
+        }
+      }
+      lineStart = lineEnd + 1;
+    }
+  }
+
+  private static void emit(
+      int kind, String field, String derived, String value, Map<String, Object> out) {
+    switch (kind) {
+      case KIND_TRACEPARENT:
+        out.put(field, value);
+        // version-traceid-parentid-flags, e.g. 00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa...-01
+        int first = value.indexOf('-');
+        int second = first < 0 ? -1 : value.indexOf('-', first + 1);
+        if (second > first + 1) {
+          out.put(derived, value.substring(first + 1, second));
+        }
+        break;
+      case KIND_SERVER_TIMING:
+        out.put(field, value);
+        parseServerTiming(field, value, out);
+        break;
+      case KIND_CACHE_STATUS:
+        out.put(field, value);
+        String lower = value.toLowerCase(Locale.ROOT);
+        out.put(derived, lower.contains("hit") && !lower.contains("miss"));
+        break;
+      default:
+        out.put(field, typed(value));
+    }
+  }
+
+  /**
+   * Parse a {@code Server-Timing} value such as {@code db;dur=53, app;desc="App";dur=47.2} into
+   * {@code ServerTiming.db=53.0} and {@code ServerTiming.app=47.2}.
+   */
+  private static void parseServerTiming(String field, String value, Map<String, Object> out) {
+    for (String metric : value.split(",")) {
+      String[] params = metric.split(";");
+      String name = params[0].trim();
+      if (name.isEmpty()) {
+        continue;
+      }
+      for (int i = 1; i < params.length; i++) {
+        String param = params[i].trim();
+        if (param.regionMatches(true, 0, "dur=", 0, 4)) {
+          try {
+            out.put(field + "." + name, Double.parseDouble(param.substring(4).trim()));
+          } catch (NumberFormatException e) {
+            // malformed duration, keep the raw header value only
+          }
+        }
+      }
+    }
+  }
+
+  private static Object typed(String value) {
+    if (!value.isEmpty() && value.length() < 19) {
+      boolean numeric = true;
+      for (int i = 0; i < value.length(); i++) {
+        char ch = value.charAt(i);
+        if (ch < '0' || ch > '9') {
+          numeric = i == 0 && ch == '-' && value.length() > 1;
+          if (!numeric) {
+            break;
+          }
+        }
+      }
+      if (numeric) {
+        return Long.parseLong(value);
+      }
+    }
+    return value;
+  }
+
+  private static int kindOf(String name) {
+    switch (name) {
+      case "traceparent":
+        return KIND_TRACEPARENT;
+      case "server-timing":
+        return KIND_SERVER_TIMING;
+      case "x-cache":
+      case "x-cache-status":
+      case "cf-cache-status":
+      case "cache-status":
+        return KIND_CACHE_STATUS;
+      default:
+        return KIND_GENERIC;
+    }
+  }
+
+  private static String defaultFieldName(String name) {
+    switch (name) {
+      case "traceparent":
+        return "TraceParent";
+      case "x-request-id":
+        return "RequestId";
+      case "server-timing":
+        return "ServerTiming";
+      default:
+        return kindOf(name) == KIND_CACHE_STATUS ? "CacheStatus" : name;
+    }
+  }
+
+  /**
+   * Name the field derived from a well-known header after its configured field name: {@code
+   * TraceParent} gives {@code TraceId} and {@code CacheStatus} gives {@code CacheHit}.
+   *
+   * @return the derived field name, or null if the header kind has none
+   */
+  private static String derivedFieldName(int kind, String field) {
+    switch (kind) {
+      case KIND_TRACEPARENT:
+        return field.endsWith("Parent")
+            ? field.substring(0, field.length() - "Parent".length()) + "Id"
+            : field + "TraceId";
+      case KIND_CACHE_STATUS:
+        return (field.endsWith("Status")
+                ? field.substring(0, field.length() - "Status".length())
+                : field)
+            + "Hit";
+      default:
+        return null;
+    }
+  }
+
+  private static int skipWhitespace(String s, int from, int to) {
+    while (from < to && Character.isWhitespace(s.charAt(from))) {
+      from++;
+    }
+    return from;
+  }
+
+  private static int trimWhitespace(String s, int from, int to) {
+    while (to > from && Character.isWhitespace(s.charAt(to - 1))) {
+      to--;
+    }
+    return to;
+  }
+
+  private static String[] append(String[] array, String value) {
+    if (array == null) {
+      return new String[] {value};
+    }
+    String[] grown = new String[array.length + 1];
+    System.arraycopy(array, 0, grown, 0, array.length);
+    grown[array.length] = value;
+    return grown;
+  }
+}
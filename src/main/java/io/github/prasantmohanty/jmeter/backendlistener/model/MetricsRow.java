@@ -26,7 +26,7 @@ import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import org.apache.jmeter.assertions.AssertionResult;
@@ -44,6 +44,8 @@ public class MetricsRow {
   private String ciBuildNumber;
   private HashMap<String, Object> metricsMap;
   private Set<String> fields;
+  private HeaderExtractor headerExtractor;
+  private boolean responseBodyDetached;
 
   /**
    * Create a MetricsRow for the given SampleResult.
@@ -53,10 +55,24 @@ public class MetricsRow {
    * @param fields set of fields to include; empty set means include all
    */
   public MetricsRow(SampleResult sr, String buildNumber, Set<String> fields) {
+    this(sr, buildNumber, fields, null);
+  }
+
+  /**
+   * Create a MetricsRow for the given SampleResult which also extracts selected headers.
+   *
+   * @param sr the JMeter sample result to extract metrics from
+   * @param buildNumber optional CI build number (may be null or empty)
+   * @param fields set of fields to include; empty set means include all
+   * @param headerExtractor extractor for selected request/response headers, may be null
+   */
+  public MetricsRow(
+      SampleResult sr, String buildNumber, Set<String> fields, HeaderExtractor headerExtractor) {
     this.sampleResult = sr;
     this.ciBuildNumber = buildNumber;
     this.metricsMap = new HashMap<>();
     this.fields = fields;
+    this.headerExtractor = headerExtractor;
   }
 
   @Override
@@ -69,8 +85,6 @@ public class MetricsRow {
     StringBuilder sb = new StringBuilder(512);
     sb.append("MetricsRow{");
     sb.append("ciBuildNumber=").append(ciBuildNumber).append(", ");
-    // sb.append("allReqHeaders=").append(allReqHeaders).append(", ");
-    // sb.append("allResHeaders=").append(allResHeaders).append(", ");
     sb.append("fields=").append(fields != null ? fields.toString() : "null").append(", ");
 
     sb.append("sampleResultSummary=");
@@ -148,7 +162,7 @@ public class MetricsRow {
     addAssertions();
     addElapsedTime(sdf);
     addCustomFields(context, servicePrefixName);
-    // parseHeadersAsJsonProps(this.allReqHeaders, this.allResHeaders);
+    addExtractedHeaders();
 
     return this.metricsMap;
   }
@@ -239,42 +253,39 @@ public class MetricsRow {
     addFilteredMetricToMetricsMap("RequestHeaders", this.sampleResult.getRequestHeaders());
     addFilteredMetricToMetricsMap("RequestBody", this.sampleResult.getSamplerData());
     addFilteredMetricToMetricsMap("ResponseHeaders", this.sampleResult.getResponseHeaders());
-    addFilteredMetricToMetricsMap("ResponseBody", this.sampleResult.getResponseDataAsString());
+    if (!this.responseBodyDetached) {
+      addFilteredMetricToMetricsMap("ResponseBody", this.sampleResult.getResponseDataAsString());
+    }
     addFilteredMetricToMetricsMap("ResponseMessage", this.sampleResult.getResponseMessage());
   }
 
   /**
-   * This method will parse the headers and look for custom variables passed through as header. It
-   * can also separate all headers into different document properties by passing "true". This is a
-   * work-around the native behaviour of JMeter where variables are not accessible within the
-   * backend listener.
+   * Leave the response body out of the row map and hand it out as raw bytes instead, so that it is
+   * neither decoded into a {@link String} nor copied into the JSON document of the row.
    *
-   * @param allReqHeaders boolean to determine if the user wants to separate ALL request headers
-   *     into different JSON properties.
-   * @param allResHeaders boolean to determine if the user wants to separate ALL response headers
-   *     into different JSON properties.
-   *     <p>NOTE: This will be fixed as soon as a patch comes in for JMeter to change the behaviour.
+   * @return the response payload, or null if the sample has none or the field filter excludes it
    */
-  private void parseHeadersAsJsonProps(boolean allReqHeaders, boolean allResHeaders) {
-    LinkedList<String[]> headersArrayList = new LinkedList<>();
-
-    if (allReqHeaders) {
-      headersArrayList.add(this.sampleResult.getRequestHeaders().split("\n"));
+  public Payload detachResponseBody() {
+    this.responseBodyDetached = true;
+    if (this.fields.size() != 0 && !this.fields.contains("responsebody")) {
+      return null;
     }
+    return Payload.ofResponse(this.sampleResult);
+  }
 
-    if (allResHeaders) {
-      headersArrayList.add(this.sampleResult.getResponseHeaders().split("\n"));
+  /**
+   * Adds the headers selected by the configured {@link HeaderExtractor} as typed fields. Request
+   * headers are scanned first, so a response header with the same name takes precedence.
+   */
+  private void addExtractedHeaders() {
+    if (this.headerExtractor == null) {
+      return;
     }
-
-    for (String[] lines : headersArrayList) {
-      for (String line : lines) {
-        String[] header = line.split(":", 2);
-
-        // if not all req headers and header contains special X-tag
-        if (header.length > 1) {
-          this.metricsMap.put(header[0].trim(), header[1].trim());
-        }
-      }
+    Map<String, Object> extracted = new LinkedHashMap<>();
+    this.headerExtractor.extract(this.sampleResult.getRequestHeaders(), extracted);
+    this.headerExtractor.extract(this.sampleResult.getResponseHeaders(), extracted);
+    for (Map.Entry<String, Object> entry : extracted.entrySet()) {
+      addFilteredMetricToMetricsMap(entry.getKey(), entry.getValue());
     }
   }
 
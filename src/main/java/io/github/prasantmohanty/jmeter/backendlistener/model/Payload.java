@@ -0,0 +1,159 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.model;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import org.apache.jmeter.samplers.SampleResult;
+
+/**
+ * A sample payload kept as the raw bytes JMeter recorded together with their encoding, so that it
+ * is decoded only once, when the report is written, instead of being turned into a {@link String}
+ * for every sample.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public final class Payload {
+
+  private final byte[] data;
+  private final String encoding;
+  private final String contentType;
+  private final boolean binary;
+
+  /**
+   * @param data raw bytes, not copied
+   * @param encoding character encoding of the bytes, ignored for binary payloads
+   * @param contentType media type, may be null
+   * @param binary true if the bytes are not text
+   */
+  public Payload(byte[] data, String encoding, String contentType, boolean binary) {
+    this.data = data;
+    this.encoding = encoding;
+    this.contentType = contentType;
+    this.binary = binary;
+  }
+
+  /**
+   * The response data of a sample. The sample's byte array is shared, not copied; JMeter does not
+   * modify it once the sample has been delivered to listeners.
+   *
+   * @param sr the sample
+   * @return the payload, or null if the sample has no response data
+   */
+  public static Payload ofResponse(SampleResult sr) {
+    byte[] data = sr.getResponseData();
+    if (data == null || data.length == 0) {
+      return null;
+    }
+    String contentType = sr.getContentType();
+    boolean binary =
+        SampleResult.BINARY.equals(sr.getDataType()) || isBinaryContentType(contentType);
+    return new Payload(data, sr.getDataEncodingWithDefault(), contentType, binary);
+  }
+
+  static boolean isBinaryContentType(String contentType) {
+    if (contentType == null || contentType.isEmpty()) {
+      return false;
+    }
+    String type = contentType.toLowerCase(Locale.ROOT);
+    if (type.startsWith("text/")
+        || type.contains("json")
+        || type.contains("xml")
+        || type.contains("javascript")
+        || type.contains("x-www-form-urlencoded")
+        || type.contains("graphql")
+        || type.contains("yaml")
+        || type.contains("csv")) {
+      return false;
+    }
+    return type.startsWith("image/")
+        || type.startsWith("audio/")
+        || type.startsWith("video/")
+        || type.startsWith("font/")
+        || type.startsWith("application/");
+  }
+
+  /** @return the raw bytes; shared, callers must not modify them */
+  public byte[] getData() {
+    return data;
+  }
+
+  public int length() {
+    return data.length;
+  }
+
+  public String getEncoding() {
+    return encoding;
+  }
+
+  public String getContentType() {
+    return contentType;
+  }
+
+  public boolean isBinary() {
+    return binary;
+  }
+
+  /**
+   * @return the charset of the payload, UTF-8 if the encoding is unknown to the JVM
+   */
+  public Charset charset() {
+    try {
+      return Charset.forName(encoding);
+    } catch (RuntimeException e) {
+      return StandardCharsets.UTF_8;
+    }
+  }
+
+  /** @return the decoded text; allocates, meant for small payloads and diagnostics */
+  public String asString() {
+    return new String(data, charset());
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof Payload)) return false;
+    Payload payload = (Payload) o;
+    return binary == payload.binary
+        && Arrays.equals(data, payload.data)
+        && (encoding != null ? encoding.equals(payload.encoding) : payload.encoding == null);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = Arrays.hashCode(data);
+    result = 31 * result + (encoding != null ? encoding.hashCode() : 0);
+    return 31 * result + (binary ? 1 : 0);
+  }
+
+  @Override
+  public String toString() {
+    return "Payload{length="
+        + data.length
+        + ", encoding="
+        + encoding
+        + ", contentType="
+        + contentType
+        + ", binary="
+        + binary
+        + '}';
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.model;
+
+import org.apache.jmeter.samplers.SampleResult;
+
+/**
+ * Dense int ids for the sample label and thread name of the samples the backend listener accepts.
+ * One instance is shared by the live statistics, the filter and the analyzers of a run, and the ids
+ * of the current sample are remembered, so a sample is looked up once however many of them key
+ * their aggregates on it.
+ *
+ * <p>Not thread safe; used from the listener thread only.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public final class SampleDictionary {
+
+  private final StringDictionary labels = new StringDictionary();
+  private final StringDictionary threads = new StringDictionary();
+
+  private SampleResult labelSample;
+  private int labelId;
+  private SampleResult threadSample;
+  private int threadId;
+
+  /**
+   * @param sr sample
+   * @return the id of its label
+   */
+  public int labelId(SampleResult sr) {
+    if (sr != labelSample) {
+      labelId = labels.id(sr.getSampleLabel());
+      labelSample = sr;
+    }
+    return labelId;
+  }
+
+  /**
+   * @param sr sample
+   * @return the id of its thread name
+   */
+  public int threadId(SampleResult sr) {
+    if (sr != threadSample) {
+      threadId = threads.id(sr.getThreadName());
+      threadSample = sr;
+    }
+    return threadId;
+  }
+
+  /** @return the label of an id returned by {@link #labelId(SampleResult)} */
+  public String label(int id) {
+    return labels.value(id);
+  }
+
+  /** @return the thread name of an id returned by {@link #threadId(SampleResult)} */
+  public String threadName(int id) {
+    return threads.value(id);
+  }
+
+  /** @return the number of distinct labels */
+  public int labelCount() {
+    return labels.size();
+  }
+
+  /** @return the number of distinct thread names */
+  public int threadCount() {
+    return threads.size();
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.model;
+
+import java.util.Arrays;
+
+/**
+ * Maps strings to dense int ids, {@code 0} for the first distinct value, {@code 1} for the next and
+ * so on, so that per-value aggregates can live in arrays indexed by id and the strings are only
+ * looked at again when a report is written. The table is open addressing over the cached {@link
+ * String#hashCode()}; a lookup of the instance seen before, the usual case for JMeter labels and
+ * thread names, is a hash probe and a reference compare. A null value is interned as the empty
+ * string.
+ *
+ * <p>Not thread safe; the backend listener interns from its single consumer thread.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public final class StringDictionary {
+
+  /** Id returned by {@link #find(String)} for a value which was never interned. */
+  public static final int NONE = -1;
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private String[] values = new String[INITIAL_CAPACITY / 2];
+  private int[] hashes = new int[INITIAL_CAPACITY / 2];
+  /** id + 1 per slot, {@code 0} for an empty slot; at most half full */
+  private int[] slots = new int[INITIAL_CAPACITY];
+  private int size;
+
+  /**
+   * Intern a value.
+   *
+   * @param value value, null for the empty string
+   * @return its id, a new one if the value was not seen before
+   */
+  public int id(String value) {
+    String key = value == null ? "" : value;
+    int hash = key.hashCode();
+    int mask = slots.length - 1;
+    for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+      int entry = slots[slot];
+      if (entry == 0) {
+        return add(key, hash, slot);
+      }
+      String candidate = values[entry - 1];
+      if (candidate == key || (hashes[entry - 1] == hash && candidate.equals(key))) {
+        return entry - 1;
+      }
+    }
+  }
+
+  /**
+   * @param value value, null for the empty string
+   * @return its id, {@link #NONE} if it was never interned
+   */
+  public int find(String value) {
+    String key = value == null ? "" : value;
+    int hash = key.hashCode();
+    int mask = slots.length - 1;
+    for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+      int entry = slots[slot];
+      if (entry == 0) {
+        return NONE;
+      }
+      String candidate = values[entry - 1];
+      if (candidate == key || (hashes[entry - 1] == hash && candidate.equals(key))) {
+        return entry - 1;
+      }
+    }
+  }
+
+  /**
+   * @param id id returned by {@link #id(String)}
+   * @return the value of the id
+   * @throws IndexOutOfBoundsException if no value has the id
+   */
+  public String value(int id) {
+    if (id < 0 || id >= size) {
+      throw new IndexOutOfBoundsException("No value with id " + id);
+    }
+    return values[id];
+  }
+
+  /** @return the number of distinct values, one more than the highest id */
+  public int size() {
+    return size;
+  }
+
+  private int add(String key, int hash, int slot) {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, size * 2);
+      hashes = Arrays.copyOf(hashes, size * 2);
+    }
+    values[size] = key;
+    hashes[size] = hash;
+    slots[slot] = ++size;
+    if (size * 2 > slots.length) {
+      rehash(slots.length * 2);
+    }
+    return size - 1;
+  }
+
+  private void rehash(int capacity) {
+    int[] grown = new int[capacity];
+    int mask = capacity - 1;
+    for (int id = 0; id < size; id++) {
+      int slot = spread(hashes[id]) & mask;
+      while (grown[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      grown[slot] = id + 1;
+    }
+    slots = grown;
+  }
+
+  /** Fibonacci hashing, as {@code String} hashes of similar labels differ mostly in low bits. */
+  private static int spread(int hash) {
+    int h = hash * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.replay;
+
+import io.github.prasantmohanty.jmeter.backendlistener.reportportal.ReportPortalJMeterBackendClient;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.util.JMeterUtils;
+import org.apache.jmeter.visualizers.backend.BackendListenerClient;
+import org.apache.jmeter.visualizers.backend.BackendListenerContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publisher sidecar: a process of its own which reads the sample ring filled by the listener in
+ * JMeter and runs the ReportPortal listener on it, with all its aggregation, analyses, reports and
+ * uploads. It publishes once JMeter closed the ring and it has read all of it, or once the JMeter
+ * process died, with the batches written up to the crash.
+ *
+ * <p>The listener launches it when {@code PublishSidecar} is {@code launch}; it can also be started
+ * by hand, before or after JMeter, with the listener parameters to use:
+ *
+ * <pre>
+ * java -cp &lt;plugin jar and JMeter lib&gt; \
+ *   io.github.prasantmohanty.jmeter.backendlistener.replay.PublisherSidecar \
+ *   [--params &lt;properties file&gt;] [--param &lt;name&gt;=&lt;value&gt;]... &lt;ring file&gt;
+ * </pre>
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public class PublisherSidecar {
+
+  private static final Logger logger = LoggerFactory.getLogger(PublisherSidecar.class);
+
+  /** Listener parameter selecting the sidecar, which the sidecar itself runs without. */
+  public static final String PUBLISH_SIDECAR = "PublishSidecar";
+
+  static final long POLL_MILLIS = 20;
+
+  static final long OPEN_TIMEOUT_MILLIS = 60_000;
+
+  private static final String USAGE =
+      "Usage: PublisherSidecar [--params <properties file, deleted once read>]\n"
+          + "    [--param <listener parameter>=<value>]... <ring file>";
+
+  private PublisherSidecar() {}
+
+  public static void main(String[] args) {
+    System.exit(run(args));
+  }
+
+  /**
+   * @param args command line
+   * @return the exit status: {@code 0} once published, {@code 1} if the sidecar failed, {@code 2}
+   *     for a usage error
+   */
+  static int run(String... args) {
+    Map<String, String> parameters =
+        new HashMap<>(
+            new ReportPortalJMeterBackendClient().getDefaultParameters().getArgumentsAsMap());
+    File ringFile = null;
+    try {
+      for (int i = 0; i < args.length; i++) {
+        if ("--params".equals(args[i]) && i + 1 < args.length) {
+          parameters.putAll(readParameters(new File(args[++i])));
+        } else if ("--param".equals(args[i]) && i + 1 < args.length) {
+          String parameter = args[++i];
+          int eq = parameter.indexOf('=');
+          if (eq <= 0) {
+            throw new IllegalArgumentException("Expected <name>=<value>: " + parameter);
+          }
+          parameters.put(parameter.substring(0, eq), parameter.substring(eq + 1));
+        } else if (args[i].startsWith("--") || ringFile != null) {
+          throw new IllegalArgumentException("Unknown option or missing value: " + args[i]);
+        } else {
+          ringFile = new File(args[i]);
+        }
+      }
+      if (ringFile == null) {
+        throw new IllegalArgumentException("No sample ring to read");
+      }
+    } catch (IllegalArgumentException | IOException e) {
+      System.err.println(e.getMessage());
+      System.err.println(USAGE);
+      return 2;
+    }
+    parameters.put(PUBLISH_SIDECAR, "off");
+    try {
+      long samples =
+          consume(
+              open(ringFile, OPEN_TIMEOUT_MILLIS),
+              new ReportPortalJMeterBackendClient(),
+              new BackendListenerContext(parameters));
+      logger.info("Published {} samples from {}", samples, ringFile);
+      Files.deleteIfExists(ringFile.toPath());
+      return 0;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      logger.error("Sidecar interrupted");
+      return 1;
+    } catch (Exception e) {
+      logger.error("Sidecar on " + ringFile + " failed", e);
+      return 1;
+    }
+  }
+
+  /** Wait for the producer to create the ring, for a sidecar started before JMeter. */
+  static SampleRingReader open(File ringFile, long timeoutMillis)
+      throws IOException, InterruptedException {
+    long deadline = System.currentTimeMillis() + timeoutMillis;
+    while (true) {
+      try {
+        return new SampleRingReader(ringFile);
+      } catch (IOException e) {
+        if (System.currentTimeMillis() >= deadline) {
+          throw e;
+        }
+        TimeUnit.MILLISECONDS.sleep(POLL_MILLIS * 10);
+      }
+    }
+  }
+
+  /**
+   * Run a listener on the batches of a ring until its producer is gone and the ring is drained.
+   *
+   * @param reader ring, closed on return
+   * @param client listener, not yet set up
+   * @param context listener parameters
+   * @return the number of samples consumed, sub-results not counted
+   * @throws Exception if the ring cannot be read or the listener fails
+   */
+  public static long consume(
+      SampleRingReader reader, BackendListenerClient client, BackendListenerContext context)
+      throws Exception {
+    try (SampleRingReader ring = reader) {
+      client.setupTest(context);
+      long samples = 0;
+      try {
+        while (true) {
+          List<SampleResult> batch = ring.poll();
+          if (batch != null) {
+            client.handleSampleResults(batch, context);
+            samples += batch.size();
+          } else if (ring.isClosed() || !ring.isProducerAlive()) {
+            // the producer may have written its last batches just before it went
+            List<SampleResult> last;
+            while ((last = ring.poll()) != null) {
+              client.handleSampleResults(last, context);
+              samples += last.size();
+            }
+            if (!ring.isClosed()) {
+              logger.warn(
+                  "The producer of {} died without closing it, publishing the samples received",
+                  ring.getFile());
+            }
+            break;
+          } else {
+            TimeUnit.MILLISECONDS.sleep(POLL_MILLIS);
+          }
+        }
+        if (ring.getDroppedSamples() > 0) {
+          logger.warn(
+              "The producer dropped {} samples in {} batches as {} was full",
+              ring.getDroppedSamples(),
+              ring.getDroppedBatches(),
+              ring.getFile());
+        }
+      } finally {
+        client.teardownTest(context);
+      }
+      return samples;
+    }
+  }
+
+  /**
+   * Start a sidecar on a ring. The listener parameters go through a file only the current user can
+   * read, which the sidecar deletes once read, so that tokens do not show on the command line.
+   * Output goes to {@code <ring file>.log}.
+   *
+   * @param ringFile ring the sidecar reads
+   * @param parameters listener parameters
+   * @return the sidecar process
+   * @throws IOException if the process cannot be started
+   */
+  public static Process launch(File ringFile, Map<String, String> parameters) throws IOException {
+    File parametersFile = new File(ringFile.getPath() + ".params");
+    Files.deleteIfExists(parametersFile.toPath());
+    try {
+      Files.createFile(
+          parametersFile.toPath(),
+          PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+    } catch (UnsupportedOperationException e) {
+      Files.createFile(parametersFile.toPath());
+    }
+    Properties properties = new Properties();
+    properties.putAll(parameters);
+    try (OutputStream out = new FileOutputStream(parametersFile)) {
+      properties.store(out, "ReportPortal listener parameters of the publisher sidecar");
+    }
+
+    List<String> command = new ArrayList<>();
+    command.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+    command.add("-cp");
+    command.add(classPath());
+    command.add(PublisherSidecar.class.getName());
+    command.add("--params");
+    command.add(parametersFile.getPath());
+    command.add(ringFile.getPath());
+    return new ProcessBuilder(command)
+        .redirectErrorStream(true)
+        .redirectOutput(new File(ringFile.getPath() + ".log"))
+        .start();
+  }
+
+  /** The plugin and the JMeter libraries, which JMeter loads through a class loader of its own. */
+  private static String classPath() {
+    List<String> entries = new ArrayList<>();
+    try {
+      URL plugin = PublisherSidecar.class.getProtectionDomain().getCodeSource().getLocation();
+      entries.add(new File(plugin.toURI()).getPath());
+    } catch (Exception e) {
+      logger.debug("Unable to locate the plugin jar", e);
+    }
+    String home = JMeterUtils.getJMeterHome();
+    if (home != null) {
+      entries.add(new File(home, "lib").getPath() + File.separator + "*");
+      entries.add(new File(home, "lib/ext").getPath() + File.separator + "*");
+    }
+    entries.add(System.getProperty("java.class.path"));
+    return String.join(File.pathSeparator, entries);
+  }
+
+  private static Map<String, String> readParameters(File file) throws IOException {
+    Properties properties = new Properties();
+    try (InputStream in = new FileInputStream(file)) {
+      properties.load(in);
+    }
+    Files.deleteIfExists(file.toPath());
+    Map<String, String> parameters = new HashMap<>();
+    for (String name : properties.stringPropertyNames()) {
+      parameters.put(name, properties.getProperty(name));
+    }
+    return parameters;
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.replay;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongUnaryOperator;
+import org.apache.jmeter.assertions.AssertionResult;
+import org.apache.jmeter.samplers.SampleResult;
+
+/** Reads samples written by {@link SampleEncoder}. */
+final class SampleDecoder {
+
+  private final InputStream in;
+  private final boolean bodies;
+  private final String source;
+  private final List<String> dictionary = new ArrayList<>();
+  private long previousTimestamp;
+  private LongUnaryOperator retime = LongUnaryOperator.identity();
+
+  /**
+   * @param in source of the samples
+   * @param bodies response bodies, headers and sampler data were written
+   * @param baseTimestamp time stamp the first sample was written relative to
+   * @param source name of the source for error messages
+   */
+  SampleDecoder(InputStream in, boolean bodies, long baseTimestamp, String source) {
+    this.in = in;
+    this.bodies = bodies;
+    this.previousTimestamp = baseTimestamp;
+    this.source = source;
+  }
+
+  /** @param retime maps the written time stamps to those given to the samples */
+  void setRetime(LongUnaryOperator retime) {
+    this.retime = retime;
+  }
+
+  /** @see SampleEncoder#reset(long) */
+  void reset(long baseTimestamp) {
+    dictionary.clear();
+    previousTimestamp = baseTimestamp;
+  }
+
+  /**
+   * Read the samples of a batch whose {@link SampleRecording#BATCH} marker was consumed.
+   *
+   * @return the arrival offset of the batch and its samples
+   * @throws EOFException if the input ends within the batch
+   * @throws IOException if the input is corrupt
+   */
+  Batch readBatch() throws IOException {
+    long offset = SampleRecording.readVarLong(in);
+    int count = (int) SampleRecording.readVarLong(in);
+    List<SampleResult> samples = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      samples.add(readSample());
+    }
+    return new Batch(offset, samples);
+  }
+
+  /** A batch as it reached the listener. */
+  static final class Batch {
+    final long offsetMillis;
+    final List<SampleResult> samples;
+
+    Batch(long offsetMillis, List<SampleResult> samples) {
+      this.offsetMillis = offsetMillis;
+      this.samples = samples;
+    }
+  }
+
+  private SampleResult readSample() throws IOException {
+    int flags = (int) SampleRecording.readVarLong(in);
+    SampleResult sr = new SampleResult();
+    sr.setSuccessful((flags & SampleRecording.SUCCESS) != 0);
+    sr.setSampleLabel(readString());
+    sr.setThreadName(readString());
+    long timestamp = previousTimestamp + SampleRecording.readZigZag(in);
+    previousTimestamp = timestamp;
+    sr.setStampAndTime(retime.applyAsLong(timestamp), SampleRecording.readZigZag(in));
+    sr.setLatency(SampleRecording.readZigZag(in));
+    sr.setConnectTime(SampleRecording.readZigZag(in));
+    sr.setIdleTime(SampleRecording.readZigZag(in));
+    sr.setBytes(SampleRecording.readZigZag(in));
+    sr.setSentBytes(SampleRecording.readZigZag(in));
+    sr.setHeadersSize((int) SampleRecording.readZigZag(in));
+    sr.setBodySize(SampleRecording.readZigZag(in));
+    sr.setGroupThreads((int) SampleRecording.readZigZag(in));
+    sr.setAllThreads((int) SampleRecording.readZigZag(in));
+    sr.setSampleCount((int) SampleRecording.readZigZag(in));
+    sr.setErrorCount((int) SampleRecording.readZigZag(in));
+    sr.setResponseCode(readString());
+    sr.setResponseMessage(readString());
+    sr.setDataType(readString());
+    sr.setContentType(readString());
+    String encoding = readString();
+    if (encoding != null) {
+      sr.setDataEncoding(encoding);
+    }
+    String url = readString();
+    if (url != null) {
+      try {
+        sr.setURL(new URL(url));
+      } catch (MalformedURLException e) {
+        // recorded from a valid URL, only a missing protocol handler can get here
+      }
+    }
+
+    int assertions = (int) SampleRecording.readVarLong(in);
+    for (int i = 0; i < assertions; i++) {
+      AssertionResult assertion = new AssertionResult(readString());
+      int assertionFlags = (int) SampleRecording.readVarLong(in);
+      assertion.setFailure((assertionFlags & SampleRecording.ASSERTION_FAILURE) != 0);
+      assertion.setError((assertionFlags & SampleRecording.ASSERTION_ERROR) != 0);
+      assertion.setFailureMessage(readString());
+      sr.addAssertionResult(assertion);
+    }
+
+    if (bodies) {
+      String requestHeaders = readString();
+      String responseHeaders = readString();
+      sr.setSamplerData(readString());
+      if (requestHeaders != null) {
+        sr.setRequestHeaders(requestHeaders);
+      }
+      if (responseHeaders != null) {
+        sr.setResponseHeaders(responseHeaders);
+      }
+      byte[] data = new byte[(int) SampleRecording.readVarLong(in)];
+      readFully(data);
+      sr.setResponseData(data);
+    }
+
+    int subResults = (int) SampleRecording.readVarLong(in);
+    for (int i = 0; i < subResults; i++) {
+      sr.storeSubResult(readSample(), false);
+    }
+    return sr;
+  }
+
+  private String readString() throws IOException {
+    long tag = SampleRecording.readVarLong(in);
+    if (tag == SampleRecording.NULL) {
+      return null;
+    }
+    if (tag >= SampleRecording.REFERENCE) {
+      long id = tag - SampleRecording.REFERENCE;
+      if (id >= dictionary.size()) {
+        throw new IOException("Corrupt sample stream " + source + ": string " + id);
+      }
+      return dictionary.get((int) id);
+    }
+    byte[] utf8 = new byte[(int) SampleRecording.readVarLong(in)];
+    readFully(utf8);
+    String value = new String(utf8, StandardCharsets.UTF_8);
+    if (tag == SampleRecording.DEFINE) {
+      dictionary.add(value);
+    }
+    return value;
+  }
+
+  private void readFully(byte[] buffer) throws IOException {
+    int offset = 0;
+    while (offset < buffer.length) {
+      int read = in.read(buffer, offset, buffer.length - offset);
+      if (read < 0) {
+        throw new EOFException();
+      }
+      offset += read;
+    }
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.replay;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.jmeter.assertions.AssertionResult;
+import org.apache.jmeter.samplers.SampleResult;
+
+/**
+ * Writes sample batches in the {@link SampleRecording} layout. The string dictionary and the time
+ * stamp base carry over from batch to batch until {@link #reset(long)}.
+ */
+final class SampleEncoder {
+
+  private final OutputStream out;
+  private final boolean bodies;
+  private final Map<String, Integer> dictionary = new HashMap<>();
+  private long previousTimestamp;
+
+  /**
+   * @param out destination
+   * @param bodies also write response bodies, headers and sampler data
+   * @param baseTimestamp time stamp the first sample is written relative to
+   */
+  SampleEncoder(OutputStream out, boolean bodies, long baseTimestamp) {
+    this.out = out;
+    this.bodies = bodies;
+    this.previousTimestamp = baseTimestamp;
+  }
+
+  /**
+   * Forget the strings and the time stamp written so far, so that what follows can be decoded on
+   * its own.
+   *
+   * @param baseTimestamp time stamp the next sample is written relative to
+   */
+  void reset(long baseTimestamp) {
+    dictionary.clear();
+    previousTimestamp = baseTimestamp;
+  }
+
+  /**
+   * @param offsetMillis arrival of the batch relative to the start of the recording
+   * @param batch the samples
+   * @throws IOException if writing fails
+   */
+  void writeBatch(long offsetMillis, List<SampleResult> batch) throws IOException {
+    out.write(SampleRecording.BATCH);
+    SampleRecording.writeVarLong(out, Math.max(0, offsetMillis));
+    SampleRecording.writeVarLong(out, batch.size());
+    for (SampleResult sr : batch) {
+      writeSample(sr);
+    }
+  }
+
+  private void writeSample(SampleResult sr) throws IOException {
+    SampleRecording.writeVarLong(out, sr.isSuccessful() ? SampleRecording.SUCCESS : 0);
+    writeString(sr.getSampleLabel());
+    writeString(sr.getThreadName());
+    SampleRecording.writeZigZag(out, sr.getTimeStamp() - previousTimestamp);
+    previousTimestamp = sr.getTimeStamp();
+    SampleRecording.writeZigZag(out, sr.getTime());
+    SampleRecording.writeZigZag(out, sr.getLatency());
+    SampleRecording.writeZigZag(out, sr.getConnectTime());
+    SampleRecording.writeZigZag(out, sr.getIdleTime());
+    SampleRecording.writeZigZag(out, sr.getBytesAsLong());
+    SampleRecording.writeZigZag(out, sr.getSentBytes());
+    SampleRecording.writeZigZag(out, sr.getHeadersSize());
+    SampleRecording.writeZigZag(out, sr.getBodySizeAsLong());
+    SampleRecording.writeZigZag(out, sr.getGroupThreads());
+    SampleRecording.writeZigZag(out, sr.getAllThreads());
+    SampleRecording.writeZigZag(out, sr.getSampleCount());
+    SampleRecording.writeZigZag(out, sr.getErrorCount());
+    writeString(sr.getResponseCode());
+    writeString(sr.getResponseMessage());
+    writeString(sr.getDataType());
+    writeString(sr.getContentType());
+    writeString(sr.getDataEncodingNoDefault());
+    writeString(sr.getURL() == null ? null : sr.getUrlAsString());
+
+    AssertionResult[] assertions = sr.getAssertionResults();
+    SampleRecording.writeVarLong(out, assertions.length);
+    for (AssertionResult assertion : assertions) {
+      writeString(assertion.getName());
+      SampleRecording.writeVarLong(
+          out,
+          (assertion.isFailure() ? SampleRecording.ASSERTION_FAILURE : 0)
+              | (assertion.isError() ? SampleRecording.ASSERTION_ERROR : 0));
+      writeString(assertion.getFailureMessage());
+    }
+
+    if (bodies) {
+      writeLiteral(sr.getRequestHeaders());
+      writeLiteral(sr.getResponseHeaders());
+      writeLiteral(sr.getSamplerData());
+      byte[] data = sr.getResponseData();
+      int length = data == null ? 0 : data.length;
+      SampleRecording.writeVarLong(out, length);
+      if (length > 0) {
+        out.write(data);
+      }
+    }
+
+    SampleResult[] subResults = sr.getSubResults();
+    SampleRecording.writeVarLong(out, subResults.length);
+    for (SampleResult subResult : subResults) {
+      writeSample(subResult);
+    }
+  }
+
+  private void writeString(String value) throws IOException {
+    if (value == null) {
+      out.write(SampleRecording.NULL);
+      return;
+    }
+    Integer id = dictionary.get(value);
+    if (id != null) {
+      SampleRecording.writeVarLong(out, SampleRecording.REFERENCE + (long) id);
+    } else if (dictionary.size() < SampleRecording.MAX_DICTIONARY) {
+      dictionary.put(value, dictionary.size());
+      out.write(SampleRecording.DEFINE);
+      writeUtf8(value);
+    } else {
+      writeLiteral(value);
+    }
+  }
+
+  /** Strings unlikely to repeat, such as headers, bypass the dictionary. */
+  private void writeLiteral(String value) throws IOException {
+    if (value == null) {
+      out.write(SampleRecording.NULL);
+      return;
+    }
+    out.write(SampleRecording.LITERAL);
+    writeUtf8(value);
+  }
+
+  private void writeUtf8(String value) throws IOException {
+    byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+    SampleRecording.writeVarLong(out, utf8.length);
+    out.write(utf8);
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.replay;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import org.apache.jmeter.samplers.SampleResult;
+
+/**
+ * Records the sample batches reaching the backend listener to a compact binary file (see {@link
+ * SampleRecording} for the layout), so that a production workload can be replayed offline with
+ * {@link SampleReplayer}. Labels, timings, sizes, response codes, assertion results and sub-results
+ * are always recorded, together with the arrival time of each batch; response bodies, headers and
+ * sampler data only when asked for, as they make up most of the size and may hold sensitive data.
+ *
+ * <p>Not thread safe; the backend listener feeds it from its single consumer thread.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public class SampleRecorder implements Closeable {
+
+  private final File file;
+  private final long startTime;
+  private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+  private final OutputStream out;
+  private final SampleEncoder encoder;
+  private long samples;
+  private long batches;
+
+  /**
+   * @param file recording to create, its directory is created if needed
+   * @param bodies also record response bodies, headers and sampler data
+   * @throws IOException if the file cannot be created
+   */
+  public SampleRecorder(File file, boolean bodies) throws IOException {
+    this.file = file;
+    this.startTime = System.currentTimeMillis();
+    File parent = file.getAbsoluteFile().getParentFile();
+    if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+      throw new IOException("Unable to create recording directory " + parent);
+    }
+    FileOutputStream fileOut = new FileOutputStream(file);
+    try {
+      DataOutputStream header = new DataOutputStream(fileOut);
+      header.writeInt(SampleRecording.FILE_MAGIC);
+      header.writeByte(SampleRecording.VERSION);
+      header.writeByte(bodies ? SampleRecording.BODIES : 0);
+      header.writeLong(startTime);
+      header.flush();
+    } catch (IOException e) {
+      fileOut.close();
+      throw e;
+    }
+    this.out =
+        new BufferedOutputStream(
+            new DeflaterOutputStream(fileOut, deflater, 1 << 16, true), 1 << 16);
+    this.encoder = new SampleEncoder(out, bodies, startTime);
+  }
+
+  /**
+   * Build the recording file name of a run: {@code <test name>-<build number>-<start>.jsr} with
+   * characters unsafe in file names replaced.
+   *
+   * @param testName test name
+   * @param buildNumber build number
+   * @param startTime run start in epoch milliseconds
+   * @return the file name
+   */
+  public static String fileName(String testName, String buildNumber, long startTime) {
+    String name = testName + "-" + buildNumber + "-" + startTime;
+    return name.replaceAll("[^A-Za-z0-9._-]+", "_") + SampleRecording.FILE_EXTENSION;
+  }
+
+  /**
+   * Record a batch as it reached the listener, before any filtering, and flush it to the file.
+   *
+   * @param batch the samples
+   * @throws IOException if writing fails
+   */
+  public void record(List<SampleResult> batch) throws IOException {
+    encoder.writeBatch(System.currentTimeMillis() - startTime, batch);
+    out.flush();
+    samples += batch.size();
+    batches++;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      out.write(SampleRecording.END);
+      out.close();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  public File getFile() {
+    return file;
+  }
+
+  /** @return the number of samples recorded so far, sub-results not counted */
+  public long getSamples() {
+    return samples;
+  }
+
+  /** @return the number of batches recorded so far */
+  public long getBatches() {
+    return batches;
+  }
+}
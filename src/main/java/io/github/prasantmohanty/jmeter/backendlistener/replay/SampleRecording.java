@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.replay;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Layout of the sample recordings shared by {@link SampleRecorder} and {@link SampleReplayer}.
+ *
+ * <pre>
+ * file      := FILE_MAGIC version:byte flags:byte startTime:long deflated(batch* END)
+ * batch     := BATCH offsetMillis:varint count:varint sample{count}
+ * sample    := flags:varint label threadName timeStamp:zigzag (previous sample as base)
+ *              elapsed latency connectTime idleTime:zigzag bytes sentBytes headersSize
+ *              bodySize:zigzag grpThreads allThreads sampleCount errorCount:zigzag
+ *              responseCode responseMessage dataType contentType dataEncoding url
+ *              assertions:varint (name assertionFlags:varint failureMessage)*
+ *              [requestHeaders responseHeaders samplerData responseData:bytes] (BODIES only)
+ *              subResults:varint sample*
+ * string    := NULL | DEFINE length:varint utf8:byte* | LITERAL length:varint utf8:byte*
+ *              | (REFERENCE + id):varint
+ * bytes     := length:varint byte*
+ * </pre>
+ *
+ * Strings are dictionary encoded across the whole file: the first occurrence defines an entry, the
+ * following ones refer to it, until {@link #MAX_DICTIONARY} entries after which new strings are
+ * written as literals. The body is one deflate stream, sync-flushed after every batch, so a
+ * recording cut short by a crash replays up to its last complete batch.
+ */
+final class SampleRecording {
+
+  static final int FILE_MAGIC = 0x4a535231; // "JSR1"
+  static final byte VERSION = 1;
+
+  static final String FILE_EXTENSION = ".jsr";
+
+  /** File flag: response bodies, headers and sampler data are recorded. */
+  static final int BODIES = 1;
+
+  static final int END = 0;
+  static final int BATCH = 1;
+
+  static final int SUCCESS = 1;
+
+  static final int ASSERTION_FAILURE = 1;
+  static final int ASSERTION_ERROR = 2;
+
+  static final int NULL = 0;
+  static final int DEFINE = 1;
+  static final int LITERAL = 2;
+  static final int REFERENCE = 3;
+
+  static final int MAX_DICTIONARY = 1 << 16;
+
+  private SampleRecording() {}
+
+  static void writeVarLong(OutputStream out, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      out.write((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.write((int) value);
+  }
+
+  static void writeZigZag(OutputStream out, long value) throws IOException {
+    writeVarLong(out, (value << 1) ^ (value >> 63));
+  }
+
+  static long readVarLong(InputStream in) throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = in.read();
+      if (b < 0) {
+        throw new EOFException();
+      }
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed varint");
+  }
+
+  static long readZigZag(InputStream in) throws IOException {
+    long value = readVarLong(in);
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.replay;
+
+import io.github.prasantmohanty.jmeter.backendlistener.reportportal.ReportPortalJMeterBackendClient;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.InflaterInputStream;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.visualizers.backend.BackendListenerClient;
+import org.apache.jmeter.visualizers.backend.BackendListenerContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Feeds a recording made by {@link SampleRecorder} back to a backend listener, batch by batch as
+ * they originally arrived, so that a performance fix can be checked against a real workload
+ * offline. Batches are delivered at the original pace, at a multiple of it, or as fast as the
+ * listener takes them. Sample time stamps are moved to the replay and, when the pace is scaled,
+ * compressed or stretched along with it, so that windowed analyses see the same shape of load.
+ *
+ * <p>The command line replays into the ReportPortal listener, with its default parameters unless
+ * overridden:
+ *
+ * <pre>
+ * java -cp &lt;plugin jar and JMeter lib&gt; \
+ *   io.github.prasantmohanty.jmeter.backendlistener.replay.SampleReplayer \
+ *   [--speed original|max|&lt;factor&gt;] [--param &lt;name&gt;=&lt;value&gt;]... &lt;recording&gt;
+ * </pre>
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public class SampleReplayer implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(SampleReplayer.class);
+
+  /** Speed replaying the batches as fast as the listener takes them. */
+  public static final double MAX_SPEED = 0;
+
+  private static final String USAGE =
+      "Usage: SampleReplayer [--speed original|max|<factor>, default original]\n"
+          + "    [--param <listener parameter>=<value>]... <recording>";
+
+  private final File file;
+  private final InputStream in;
+  private final boolean bodies;
+  private final long startTime;
+  private final SampleDecoder decoder;
+  private long replayStart;
+  private double speed;
+
+  /**
+   * @param file recording to replay
+   * @throws IOException if the file cannot be read or is not a recording
+   */
+  public SampleReplayer(File file) throws IOException {
+    this.file = file;
+    InputStream fileIn = new BufferedInputStream(new FileInputStream(file), 1 << 16);
+    try {
+      DataInputStream header = new DataInputStream(fileIn);
+      if (header.readInt() != SampleRecording.FILE_MAGIC) {
+        throw new IOException("Not a sample recording: " + file);
+      }
+      byte version = header.readByte();
+      if (version != SampleRecording.VERSION) {
+        throw new IOException("Unsupported sample recording version " + version + ": " + file);
+      }
+      this.bodies = (header.readByte() & SampleRecording.BODIES) != 0;
+      this.startTime = header.readLong();
+    } catch (IOException e) {
+      fileIn.close();
+      throw e;
+    }
+    this.in = new BufferedInputStream(new InflaterInputStream(fileIn), 1 << 16);
+    this.decoder = new SampleDecoder(in, bodies, startTime, file.toString());
+    this.decoder.setRetime(this::retime);
+  }
+
+  public static void main(String[] args) {
+    System.exit(run(args));
+  }
+
+  /**
+   * @param args command line
+   * @return the exit status: {@code 0} once replayed, {@code 1} if the replay failed, {@code 2} for
+   *     a usage error
+   */
+  static int run(String... args) {
+    double speed = 1;
+    Map<String, String> parameters =
+        new HashMap<>(
+            new ReportPortalJMeterBackendClient().getDefaultParameters().getArgumentsAsMap());
+    File recording = null;
+    try {
+      for (int i = 0; i < args.length; i++) {
+        if ("--speed".equals(args[i]) && i + 1 < args.length) {
+          speed = parseSpeed(args[++i]);
+        } else if ("--param".equals(args[i]) && i + 1 < args.length) {
+          String parameter = args[++i];
+          int eq = parameter.indexOf('=');
+          if (eq <= 0) {
+            throw new IllegalArgumentException("Expected <name>=<value>: " + parameter);
+          }
+          parameters.put(parameter.substring(0, eq), parameter.substring(eq + 1));
+        } else if (args[i].startsWith("--") || recording != null) {
+          throw new IllegalArgumentException("Unknown option or missing value: " + args[i]);
+        } else {
+          recording = new File(args[i]);
+        }
+      }
+      if (recording == null) {
+        throw new IllegalArgumentException("No recording to replay");
+      }
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.println(USAGE);
+      return 2;
+    }
+    try {
+      replay(
+          recording,
+          new ReportPortalJMeterBackendClient(),
+          new BackendListenerContext(parameters),
+          speed);
+      return 0;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      logger.error("Replay interrupted");
+      return 1;
+    } catch (Exception e) {
+      logger.error("Replay of " + recording + " failed", e);
+      return 1;
+    }
+  }
+
+  /**
+   * @param value {@code original}, {@code max} or a positive factor applied to the original pace
+   * @return the speed, {@link #MAX_SPEED} for {@code max}
+   */
+  static double parseSpeed(String value) {
+    String speed = value.trim().toLowerCase(Locale.ROOT);
+    if ("original".equals(speed)) {
+      return 1;
+    }
+    if ("max".equals(speed)) {
+      return MAX_SPEED;
+    }
+    try {
+      double factor =
+          Double.parseDouble(speed.endsWith("x") ? speed.substring(0, speed.length() - 1) : speed);
+      if (factor > 0 && !Double.isInfinite(factor)) {
+        return factor;
+      }
+    } catch (NumberFormatException e) {
+      // reported below
+    }
+    throw new IllegalArgumentException("Invalid speed: " + value);
+  }
+
+  /**
+   * Run a listener through a whole recorded test: set up, every recorded batch, tear down.
+   *
+   * @param recording recording to replay
+   * @param client listener, not yet set up
+   * @param context listener parameters
+   * @param speed factor applied to the original pace, {@link #MAX_SPEED} for no pauses
+   * @return the number of samples replayed
+   * @throws Exception if the recording cannot be read or the listener fails
+   */
+  public static long replay(
+      File recording, BackendListenerClient client, BackendListenerContext context, double speed)
+      throws Exception {
+    try (SampleReplayer replayer = new SampleReplayer(recording)) {
+      client.setupTest(context);
+      long start = System.nanoTime();
+      long samples;
+      try {
+        samples = replayer.replay(batch -> client.handleSampleResults(batch, context), speed);
+      } finally {
+        client.teardownTest(context);
+      }
+      logger.info(
+          "Replayed {} samples of {} in {} ms",
+          samples,
+          recording,
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+      return samples;
+    }
+  }
+
+  /**
+   * Deliver the recorded batches, on the calling thread, which plays the listener thread of JMeter.
+   * A batch cut short at the end of the file, as left by a crash, is dropped.
+   *
+   * @param consumer receives the batches
+   * @param speed factor applied to the original pace, {@link #MAX_SPEED} for no pauses
+   * @return the number of samples delivered, sub-results not counted
+   * @throws IOException if the recording is corrupt
+   * @throws InterruptedException if interrupted while pacing
+   */
+  public long replay(Consumer<List<SampleResult>> consumer, double speed)
+      throws IOException, InterruptedException {
+    if (speed < 0 || Double.isNaN(speed) || Double.isInfinite(speed)) {
+      throw new IllegalArgumentException("Invalid speed: " + speed);
+    }
+    this.speed = speed;
+    this.replayStart = System.currentTimeMillis();
+    long startNanos = System.nanoTime();
+    long samples = 0;
+    while (true) {
+      SampleDecoder.Batch batch;
+      try {
+        int marker = in.read();
+        if (marker == SampleRecording.END) {
+          break;
+        }
+        if (marker < 0) {
+          throw new EOFException();
+        }
+        if (marker != SampleRecording.BATCH) {
+          throw new IOException("Corrupt sample recording " + file + ": marker " + marker);
+        }
+        batch = decoder.readBatch();
+      } catch (EOFException e) {
+        logger.warn("Sample recording {} ends without its trailer, replayed up to the cut", file);
+        break;
+      }
+      if (speed != MAX_SPEED) {
+        long due =
+            startNanos + (long) (TimeUnit.MILLISECONDS.toNanos(batch.offsetMillis) / speed);
+        long wait = due - System.nanoTime();
+        if (wait > 0) {
+          TimeUnit.NANOSECONDS.sleep(wait);
+        }
+      }
+      consumer.accept(batch.samples);
+      samples += batch.samples.size();
+    }
+    return samples;
+  }
+
+  /** Move a recorded time stamp to the replay, scaled with its pace. */
+  private long retime(long timestamp) {
+    long sinceStart = timestamp - startTime;
+    return replayStart + (speed == MAX_SPEED ? sinceStart : Math.round(sinceStart / speed));
+  }
+
+  /** @return true if the recording holds response bodies, headers and sampler data */
+  public boolean hasBodies() {
+    return bodies;
+  }
+
+  /** @return the start of the recording in epoch milliseconds */
+  public long getStartTime() {
+    return startTime;
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.replay;
+
+/**
+ * Layout of the memory-mapped sample ring shared by {@link SampleRingWriter}, in the JMeter
+ * process, and {@link SampleRingReader}, in the publisher sidecar.
+ *
+ * <pre>
+ * file     := header data
+ * header   := RING_MAGIC version:byte flags:byte capacity:int startTime:long         (at 0)
+ *             writePosition:long closed:long droppedBatches:long droppedSamples:long  (at 64)
+ *             readPosition:long                                                      (at 128)
+ * data     := capacity bytes at HEADER_SIZE
+ * record   := length:int payload padding (to a multiple of ALIGNMENT) | WRAP:int
+ * payload  := BATCH offsetMillis:varint count:varint sample{count}
+ * </pre>
+ *
+ * The payload is a batch as in {@link SampleRecording}, with a string dictionary and time stamp
+ * base of its own, so that a record dropped for want of space does not break the ones after it.
+ * Positions count the bytes written and read since the ring was created; a position lies at {@code
+ * position % capacity} in the data. The producer owns the write position and the fields next to
+ * it, the consumer the read position, each on a cache line of its own. A record never straddles the
+ * end of the data: the producer skips the rest with a {@link #WRAP} marker instead.
+ *
+ * <p>The producer holds an exclusive lock on the byte at {@link #LOCK_POSITION} while it runs. The
+ * operating system drops the lock when the process dies, which tells the consumer that a producer
+ * which never closed the ring crashed.
+ */
+final class SampleRing {
+
+  static final int RING_MAGIC = 0x4a535252; // "JSRR"
+  static final byte VERSION = 1;
+
+  static final String FILE_EXTENSION = ".ring";
+
+  static final int VERSION_OFFSET = 4;
+  static final int FLAGS_OFFSET = 5;
+  static final int CAPACITY_OFFSET = 8;
+  static final int START_TIME_OFFSET = 16;
+  static final int WRITE_POSITION_OFFSET = 64;
+  static final int CLOSED_OFFSET = 72;
+  static final int DROPPED_BATCHES_OFFSET = 80;
+  static final int DROPPED_SAMPLES_OFFSET = 88;
+  static final int READ_POSITION_OFFSET = 128;
+  static final int HEADER_SIZE = 256;
+
+  static final int WRAP = -1;
+  static final int ALIGNMENT = 8;
+
+  static final int MIN_CAPACITY = 1 << 16;
+  static final int MAX_CAPACITY = 1 << 30;
+
+  static final long LOCK_POSITION = Long.MAX_VALUE - 1;
+
+  private static volatile int fence;
+
+  private SampleRing() {}
+
+  /** @return the bytes a record with a payload of the given length takes in the data */
+  static int recordSize(int payloadLength) {
+    return (4 + payloadLength + ALIGNMENT - 1) & -ALIGNMENT;
+  }
+
+  /**
+   * Keep the accesses to the mapped file before the call from being reordered with those after
+   * it. Java 8 has no public fence for memory shared with another process; a volatile store
+   * followed by a volatile load of the same field orders everything around it, both in the compiled
+   * code and in the barriers emitted for the processor.
+   *
+   * @return nothing of use
+   */
+  static int fence() {
+    fence = 1;
+    return fence;
+  }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.replay;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.List;
+import org.apache.jmeter.samplers.SampleResult;
+
+/**
+ * Consumer side of the sample ring (see {@link SampleRing} for the layout), run by the publisher
+ * sidecar. The read position is kept in the ring, so a sidecar restarted on the same ring carries
+ * on where the previous one stopped.
+ *
+ * <p>Single consumer: not thread safe.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public class SampleRingReader implements Closeable {
+
+  private final File file;
+  private final RandomAccessFile raf;
+  private final MappedByteBuffer ring;
+  private final ByteBuffer data;
+  private final int capacity;
+  private final boolean bodies;
+  private final long startTime;
+  private long readPosition;
+
+  /**
+   * @param file ring created by a {@link SampleRingWriter}
+   * @throws IOException if the file cannot be read or is not a sample ring
+   */
+  public SampleRingReader(File file) throws IOException {
+    this.file = file;
+    this.raf = new RandomAccessFile(file, "rw");
+    try {
+      if (raf.length() < SampleRing.HEADER_SIZE || raf.readInt() != SampleRing.RING_MAGIC) {
+        throw new IOException("Not a sample ring: " + file);
+      }
+      byte version = raf.readByte();
+      if (version != SampleRing.VERSION) {
+        throw new IOException("Unsupported sample ring version " + version + ": " + file);
+      }
+      raf.seek(SampleRing.CAPACITY_OFFSET);
+      this.capacity = raf.readInt();
+      if (raf.length() < SampleRing.HEADER_SIZE + (long) capacity) {
+        throw new IOException("Truncated sample ring: " + file);
+      }
+      this.ring =
+          raf.getChannel()
+              .map(FileChannel.MapMode.READ_WRITE, 0, SampleRing.HEADER_SIZE + capacity);
+    } catch (IOException | RuntimeException e) {
+      raf.close();
+      throw e;
+    }
+    SampleRing.fence();
+    this.bodies = (ring.get(SampleRing.FLAGS_OFFSET) & SampleRecording.BODIES) != 0;
+    this.startTime = ring.getLong(SampleRing.START_TIME_OFFSET);
+    this.readPosition = ring.getLong(SampleRing.READ_POSITION_OFFSET);
+    this.data = ring.duplicate();
+  }
+
+  /**
+   * Take the next batch.
+   *
+   * @return the batch, null if the ring holds none at the moment
+   * @throws IOException if the ring is corrupt
+   */
+  public List<SampleResult> poll() throws IOException {
+    long writePosition = ring.getLong(SampleRing.WRITE_POSITION_OFFSET);
+    SampleRing.fence();
+    while (readPosition < writePosition) {
+      int index = (int) (readPosition & (capacity - 1));
+      int length = ring.getInt(SampleRing.HEADER_SIZE + index);
+      if (length == SampleRing.WRAP) {
+        readPosition += capacity - index;
+        continue;
+      }
+      if (length < 0 || SampleRing.recordSize(length) > capacity - index) {
+        throw new IOException(
+            "Corrupt sample ring " + file + ": record of " + length + " bytes at " + readPosition);
+      }
+      byte[] payload = new byte[length];
+      data.position(SampleRing.HEADER_SIZE + index + 4);
+      data.get(payload);
+      readPosition += SampleRing.recordSize(length);
+      release();
+
+      InputStream in = new ByteArrayInputStream(payload);
+      if (in.read() != SampleRecording.BATCH) {
+        throw new IOException("Corrupt sample ring " + file + ": no batch at " + readPosition);
+      }
+      return new SampleDecoder(in, bodies, startTime, file.toString()).readBatch().samples;
+    }
+    release();
+    return null;
+  }
+
+  /** Hand the space read so far back to the producer. */
+  private void release() {
+    SampleRing.fence();
+    ring.putLong(SampleRing.READ_POSITION_OFFSET, readPosition);
+  }
+
+  /** @return true once the producer closed the ring; batches may remain to be read */
+  public boolean isClosed() {
+    return ring.getLong(SampleRing.CLOSED_OFFSET) != 0;
+  }
+
+  /**
+   * @return false if the producer is gone: it closed the ring or its process died
+   * @throws IOException if the lock of the producer cannot be checked
+   */
+  public boolean isProducerAlive() throws IOException {
+    try {
+      FileLock lock = raf.getChannel().tryLock(SampleRing.LOCK_POSITION, 1, false);
+      if (lock == null) {
+        return true;
+      }
+      lock.release();
+      return false;
+    } catch (OverlappingFileLockException e) {
+      // the producer runs in this JVM
+      return true;
+    }
+  }
+
+  /** @return the number of samples the producer dropped as the ring was full */
+  public long getDroppedSamples() {
+    return ring.getLong(SampleRing.DROPPED_SAMPLES_OFFSET);
+  }
+
+  /** @return the number of batches the producer dropped as the ring was full */
+  public long getDroppedBatches() {
+    return ring.getLong(SampleRing.DROPPED_BATCHES_OFFSET);
+  }
+
+  public File getFile() {
+    return file;
+  }
+
+  @Override
+  public void close() throws IOException {
+    raf.close();
+  }
+}
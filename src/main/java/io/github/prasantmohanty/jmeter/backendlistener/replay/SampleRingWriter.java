@@ -0,0 +1,248 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.replay;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.util.List;
+import java.util.Locale;
+import org.apache.jmeter.samplers.SampleResult;
+
+/**
+ * Producer side of the sample ring (see {@link SampleRing} for the layout): hands the sample
+ * batches reaching the listener to a publisher sidecar in another process through a memory-mapped
+ * file, so that aggregation, reports and uploads cost the JMeter process nothing but the encoding
+ * of the batch. Writing never waits for the sidecar; a batch which does not fit in the free part of
+ * the ring is dropped and counted in the ring header. Records reach the shared pages as soon as
+ * they are written, so the sidecar still gets every batch written before a crash of JMeter.
+ *
+ * <p>Single producer: not thread safe, the backend listener writes from its consumer thread.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public class SampleRingWriter implements Closeable {
+
+  /** Default size of the data part of the ring. */
+  public static final String DEFAULT_CAPACITY = "64m";
+
+  /** Exposes the buffer of the encoded batch, to copy it to the ring without another copy. */
+  private static final class RecordBuffer extends ByteArrayOutputStream {
+    RecordBuffer() {
+      super(1 << 16);
+    }
+
+    byte[] array() {
+      return buf;
+    }
+  }
+
+  private final File file;
+  private final RandomAccessFile raf;
+  private final FileLock lock;
+  private final MappedByteBuffer ring;
+  private final ByteBuffer data;
+  private final int capacity;
+  private final long startTime;
+  private final RecordBuffer record = new RecordBuffer();
+  private final SampleEncoder encoder;
+  private long writePosition;
+  private long samples;
+  private long batches;
+  private long droppedSamples;
+  private long droppedBatches;
+  private boolean closed;
+
+  /**
+   * Create the ring, replacing any previous one at the same path.
+   *
+   * @param file ring file, its directory is created if needed
+   * @param capacity bytes of the data part, a power of two
+   * @param bodies also pass on response bodies, headers and sampler data
+   * @throws IOException if the file cannot be created or another producer uses it
+   */
+  public SampleRingWriter(File file, int capacity, boolean bodies) throws IOException {
+    if (capacity < SampleRing.MIN_CAPACITY
+        || capacity > SampleRing.MAX_CAPACITY
+        || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Invalid sample ring capacity: " + capacity);
+    }
+    this.file = file;
+    this.capacity = capacity;
+    this.startTime = System.currentTimeMillis();
+    File parent = file.getAbsoluteFile().getParentFile();
+    if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+      throw new IOException("Unable to create sample ring directory " + parent);
+    }
+    this.raf = new RandomAccessFile(file, "rw");
+    try {
+      FileChannel channel = raf.getChannel();
+      this.lock = channel.tryLock(SampleRing.LOCK_POSITION, 1, false);
+      if (lock == null) {
+        throw new IOException("Sample ring " + file + " is in use by another producer");
+      }
+      raf.setLength(0);
+      raf.setLength(SampleRing.HEADER_SIZE + (long) capacity);
+      this.ring = channel.map(FileChannel.MapMode.READ_WRITE, 0, SampleRing.HEADER_SIZE + capacity);
+    } catch (IOException | RuntimeException e) {
+      raf.close();
+      throw e;
+    }
+    ring.put(SampleRing.VERSION_OFFSET, SampleRing.VERSION);
+    ring.put(SampleRing.FLAGS_OFFSET, (byte) (bodies ? SampleRecording.BODIES : 0));
+    ring.putInt(SampleRing.CAPACITY_OFFSET, capacity);
+    ring.putLong(SampleRing.START_TIME_OFFSET, startTime);
+    SampleRing.fence();
+    // the magic last: a consumer opening the ring early does not see it half initialised
+    ring.putInt(0, SampleRing.RING_MAGIC);
+    this.data = ring.duplicate();
+    this.encoder = new SampleEncoder(record, bodies, startTime);
+  }
+
+  /**
+   * Parse a ring size such as {@code 64m}, rounded up to a power of two.
+   *
+   * @param value bytes, with an optional {@code k}, {@code m} or {@code g} suffix
+   * @return the capacity
+   * @throws IllegalArgumentException if the value cannot be parsed or is out of range
+   */
+  public static int parseCapacity(String value) {
+    String size = value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    if (size.isEmpty()) {
+      size = DEFAULT_CAPACITY;
+    }
+    long unit = 1;
+    char suffix = size.charAt(size.length() - 1);
+    if (suffix == 'k' || suffix == 'm' || suffix == 'g') {
+      unit = suffix == 'k' ? 1L << 10 : suffix == 'm' ? 1L << 20 : 1L << 30;
+      size = size.substring(0, size.length() - 1).trim();
+    }
+    long bytes;
+    try {
+      bytes = Long.parseLong(size) * unit;
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid sample ring size: " + value, e);
+    }
+    if (bytes < SampleRing.MIN_CAPACITY || bytes > SampleRing.MAX_CAPACITY) {
+      throw new IllegalArgumentException(
+          "Sample ring size must be between 64k and 1g: " + value);
+    }
+    return Integer.highestOneBit((int) bytes - 1) << 1;
+  }
+
+  /**
+   * Build the ring file name of a run: {@code <test name>-<build number>.ring} with characters
+   * unsafe in file names replaced.
+   *
+   * @param testName test name
+   * @param buildNumber build number
+   * @return the file name
+   */
+  public static String fileName(String testName, String buildNumber) {
+    String name = testName + "-" + buildNumber;
+    return name.replaceAll("[^A-Za-z0-9._-]+", "_") + SampleRing.FILE_EXTENSION;
+  }
+
+  /**
+   * Pass a batch on to the sidecar.
+   *
+   * @param batch the samples
+   * @return false if the batch was dropped as the ring had no room for it
+   */
+  public boolean write(List<SampleResult> batch) {
+    record.reset();
+    encoder.reset(startTime);
+    try {
+      encoder.writeBatch(System.currentTimeMillis() - startTime, batch);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    int length = record.size();
+    int size = SampleRing.recordSize(length);
+    int index = (int) (writePosition & (capacity - 1));
+    int skip = capacity - index < size ? capacity - index : 0;
+    SampleRing.fence();
+    long free = capacity - (writePosition - ring.getLong(SampleRing.READ_POSITION_OFFSET));
+    if (size > capacity / 2 || skip + size > free) {
+      droppedBatches++;
+      droppedSamples += batch.size();
+      ring.putLong(SampleRing.DROPPED_BATCHES_OFFSET, droppedBatches);
+      ring.putLong(SampleRing.DROPPED_SAMPLES_OFFSET, droppedSamples);
+      return false;
+    }
+    if (skip > 0) {
+      ring.putInt(SampleRing.HEADER_SIZE + index, SampleRing.WRAP);
+      writePosition += skip;
+      index = 0;
+    }
+    ring.putInt(SampleRing.HEADER_SIZE + index, length);
+    data.position(SampleRing.HEADER_SIZE + index + 4);
+    data.put(record.array(), 0, length);
+    writePosition += size;
+    SampleRing.fence();
+    ring.putLong(SampleRing.WRITE_POSITION_OFFSET, writePosition);
+    samples += batch.size();
+    batches++;
+    return true;
+  }
+
+  /**
+   * Mark the ring complete, so that the sidecar publishes once it has read it all, and release the
+   * file. The mapping itself goes when it is garbage collected.
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    SampleRing.fence();
+    ring.putLong(SampleRing.CLOSED_OFFSET, 1);
+    try {
+      lock.release();
+    } finally {
+      raf.close();
+    }
+  }
+
+  public File getFile() {
+    return file;
+  }
+
+  /** @return the number of samples passed on, sub-results not counted */
+  public long getSamples() {
+    return samples;
+  }
+
+  /** @return the number of batches passed on */
+  public long getBatches() {
+    return batches;
+  }
+
+  /** @return the number of samples dropped as the ring was full */
+  public long getDroppedSamples() {
+    return droppedSamples;
+  }
+}
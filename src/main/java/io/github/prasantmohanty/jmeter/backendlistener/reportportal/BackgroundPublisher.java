@@ -0,0 +1,160 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.reportportal;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hands the publish of a finished run to its own thread so that test teardown, and with it JMeter
+ * and the CI job, do not wait for the report to be written and uploaded. Teardown waits for it a
+ * while; the thread is a daemon, so once teardown has detached it does not keep the JVM alive. A
+ * JVM that stays up (the GUI, a server) lets the upload go on until its deadline.
+ *
+ * <p>A shutdown hook, armed when the run starts, keeps whatever has not been published in the
+ * {@link Outbox} when the JVM exits first, e.g. at the end of a non-GUI run, on Ctrl-C or a stopped
+ * engine: the results buffered so far while the test runs, the written report while it is uploaded.
+ * The next {@link JtlBatchImporter} run over the outbox imports it. Without an outbox an upload cut
+ * short by the exit is lost.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+final class BackgroundPublisher {
+
+  private static final Logger logger = LoggerFactory.getLogger(BackgroundPublisher.class);
+
+  static final long PROGRESS_INTERVAL_MILLIS = 10_000;
+
+  /** Time the shutdown hook leaves a running publish to complete before keeping its report. */
+  static final long SHUTDOWN_GRACE_MILLIS = 5_000;
+
+  private final ReportPortalMetricPublisher publisher;
+  private final Outbox outbox;
+  private final Thread shutdownHook;
+  private final CountDownLatch done = new CountDownLatch(1);
+  private volatile boolean started;
+  private volatile boolean imported;
+  private volatile long deadline;
+
+  /**
+   * @param publisher publisher of the run
+   * @param outbox outbox for what is not published, may be null
+   */
+  BackgroundPublisher(ReportPortalMetricPublisher publisher, Outbox outbox) {
+    this.publisher = publisher;
+    this.outbox = outbox;
+    this.shutdownHook = new Thread(this::onShutdown, "reportportal-outbox-flush");
+  }
+
+  /** Register the shutdown hook; a no-op without an outbox. */
+  void armShutdownHook() {
+    if (outbox != null) {
+      Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+  }
+
+  /** Remove the shutdown hook, unless the JVM is already shutting down. */
+  void disarmShutdownHook() {
+    if (outbox == null) {
+      return;
+    }
+    try {
+      Runtime.getRuntime().removeShutdownHook(shutdownHook);
+    } catch (IllegalStateException e) {
+      // shutting down, the hook runs
+    }
+  }
+
+  /**
+   * Start publishing and clear the publisher once done.
+   *
+   * @param deadlineMillis time the upload may take from now, {@code 0} for no limit
+   */
+  void start(long deadlineMillis) {
+    this.deadline = deadlineMillis > 0 ? System.currentTimeMillis() + deadlineMillis : 0;
+    Thread worker =
+        new Thread(
+            () -> {
+              try {
+                imported = publisher.publishMetrics(outbox, deadline);
+                publisher.clearList();
+                logger.info("Background publish to ReportPortal: {}", publisher.getProgress());
+              } catch (RuntimeException e) {
+                logger.error("Background publish to ReportPortal failed", e);
+              } finally {
+                done.countDown();
+                disarmShutdownHook();
+              }
+            },
+            "reportportal-publisher");
+    // a detached upload must not hold the JVM, the shutdown hook hands it over to the outbox
+    worker.setDaemon(true);
+    started = true;
+    worker.start();
+  }
+
+  /**
+   * Wait for the publish to finish, logging its progress, then detach.
+   *
+   * @param waitMillis time to wait at most
+   * @return true if the publish finished in time
+   * @throws InterruptedException if interrupted while waiting
+   */
+  boolean await(long waitMillis) throws InterruptedException {
+    long end = System.currentTimeMillis() + waitMillis;
+    for (long left = waitMillis; left > 0; left = end - System.currentTimeMillis()) {
+      if (done.await(Math.min(left, PROGRESS_INTERVAL_MILLIS), TimeUnit.MILLISECONDS)) {
+        return true;
+      }
+      logger.info("Publishing to ReportPortal: {}", publisher.getProgress());
+    }
+    return done.getCount() == 0;
+  }
+
+  /** @return true once the publish finished and the report was imported */
+  boolean isImported() {
+    return imported;
+  }
+
+  /** @return the deadline of the upload in epoch milliseconds, {@code 0} for none */
+  long getDeadline() {
+    return deadline;
+  }
+
+  private void onShutdown() {
+    try {
+      if (started && done.await(SHUTDOWN_GRACE_MILLIS, TimeUnit.MILLISECONDS)) {
+        return;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    try {
+      File kept = publisher.flushToOutbox(outbox);
+      if (kept != null) {
+        logger.warn("JVM exiting before the results were published, kept them in {}", kept);
+      }
+    } catch (IOException | RuntimeException e) {
+      logger.error("Unable to keep unpublished results in the outbox " + outbox.getDir(), e);
+    }
+  }
+}
@@ -0,0 +1,549 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.reportportal;
+
+import io.github.prasantmohanty.jmeter.backendlistener.junit.transform.JtlFileReader;
+import io.github.prasantmohanty.jmeter.backendlistener.junit.transform.JtlToJUnitReportTransformer;
+import io.github.prasantmohanty.jmeter.backendlistener.model.LaunchImportRq;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Command line tool importing archived results into ReportPortal, one launch per file, e.g. to
+ * backfill the history of a project:
+ *
+ * <pre>
+ * java -cp &lt;plugin jar and JMeter lib&gt; \
+ *   io.github.prasantmohanty.jmeter.backendlistener.reportportal.JtlBatchImporter \
+ *   --api-base https://rp.example.com/api --project perf [options] &lt;dir | file | glob&gt;...
+ * </pre>
+ *
+ * <p>CSV JTL files ({@code *.jtl}, {@code *.csv} in directories) are streamed into JUnit reports
+ * on a pool of conversion threads, with a bounded number of rows in memory per file and a bounded
+ * number of converted reports waiting for upload. Reports kept in an {@link Outbox} are imported
+ * with their saved launch request and removed once imported, which drains the outbox. Uploads are
+ * asynchronous calls of {@link ReportPortalImportAPIClient}, so the rate limits of the project
+ * apply and decide how many are in flight; no thread waits for them.
+ *
+ * <p>Every outcome is appended to a checkpoint file. A file recorded as imported, with the same
+ * size and modification time, is skipped, so an interrupted backfill resumes where it stopped.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+public class JtlBatchImporter {
+
+  private static final Logger logger = LoggerFactory.getLogger(JtlBatchImporter.class);
+
+  static final String CHECKPOINT_FILE = ".jtl-import-checkpoint";
+
+  /** Environment variable with the API token, keeping it out of the command line. */
+  static final String TOKEN_ENV = "REPORTPORTAL_TOKEN";
+
+  static final long PROGRESS_INTERVAL_MILLIS = 10_000;
+
+  private static final String USAGE =
+      "Usage: JtlBatchImporter --api-base <url> --project <name> [--token <token>]\n"
+          + "    [--launch-name <template, {name} file name, {dir} directory; default {name}>]\n"
+          + "    [--build <build number>] [--threads <conversions, default cores>]\n"
+          + "    [--concurrency <uploads, default 2>] [--requests-per-second <n, default 2>]\n"
+          + "    [--bytes-per-second <n[k|m|g], default 0 unlimited>]\n"
+          + "    [--upload-timeout-seconds <s, default 900>] [--work-dir <dir>]\n"
+          + "    [--checkpoint <file, default " + CHECKPOINT_FILE + ">]\n"
+          + "    <directory | file | glob>...\n"
+          + "The token defaults to the " + TOKEN_ENV + " environment variable.";
+
+  private static final Set<String> OPTIONS =
+      new HashSet<>(
+          Arrays.asList(
+              "api-base",
+              "project",
+              "token",
+              "launch-name",
+              "build",
+              "threads",
+              "concurrency",
+              "requests-per-second",
+              "bytes-per-second",
+              "upload-timeout-seconds",
+              "work-dir",
+              "checkpoint"));
+
+  private final ReportPortalImportAPIClient client;
+  private final String launchName;
+  private final String build;
+  private final int threads;
+  private final int concurrency;
+  private final File workDir;
+  private final Checkpoint checkpoint;
+  private final AtomicInteger imported = new AtomicInteger();
+  private final AtomicInteger failed = new AtomicInteger();
+  private final AtomicInteger skipped = new AtomicInteger();
+  private final AtomicInteger reportNumber = new AtomicInteger();
+
+  /**
+   * @param options option values by name, without the leading dashes
+   * @throws IOException if the checkpoint cannot be read
+   */
+  JtlBatchImporter(Map<String, String> options) throws IOException {
+    this.concurrency = parsePositive(options, "concurrency", 2);
+    this.threads =
+        parsePositive(options, "threads", Runtime.getRuntime().availableProcessors());
+    this.launchName = options.getOrDefault("launch-name", "{name}");
+    this.build = options.getOrDefault("build", "");
+    Map<String, String> configs = new HashMap<>();
+    configs.put("ReportPortalAPIBase", required(options, "api-base"));
+    configs.put("ProjectName", required(options, "project"));
+    configs.put("BearerToken", required(options, "token"));
+    configs.put("TestName", "JTL import");
+    configs.put("BuildNumber", build.isEmpty() ? "0" : build);
+    configs.put(
+        ReportPortalRateLimiter.REQUESTS_PER_SECOND,
+        options.getOrDefault("requests-per-second", "2"));
+    configs.put(
+        ReportPortalRateLimiter.BYTES_PER_SECOND, options.getOrDefault("bytes-per-second", "0"));
+    configs.put(ReportPortalRateLimiter.MAX_IN_FLIGHT, Integer.toString(concurrency));
+    configs.put(ReportPortalRateLimiter.MAX_RETRIES, "5");
+    this.client =
+        new ReportPortalImportAPIClient(
+            configs,
+            TimeUnit.SECONDS.toMillis(parsePositive(options, "upload-timeout-seconds", 900)));
+    String workDir = options.get("work-dir");
+    this.workDir =
+        workDir != null
+            ? new File(workDir)
+            : new File(System.getProperty("java.io.tmpdir"), "jtl-import");
+    this.checkpoint = new Checkpoint(new File(options.getOrDefault("checkpoint", CHECKPOINT_FILE)));
+  }
+
+  public static void main(String[] args) {
+    System.exit(run(args));
+  }
+
+  /**
+   * @param args command line
+   * @return the exit status: {@code 0} if everything was imported, {@code 1} if some files failed,
+   *     {@code 2} for a usage error
+   */
+  static int run(String... args) {
+    Map<String, String> options = new HashMap<>();
+    List<String> paths = new ArrayList<>();
+    try {
+      for (int i = 0; i < args.length; i++) {
+        if (args[i].startsWith("--")) {
+          String name = args[i].substring(2);
+          if (!OPTIONS.contains(name) || i + 1 == args.length) {
+            throw new IllegalArgumentException("Unknown option or missing value: " + args[i]);
+          }
+          options.put(name, args[++i]);
+        } else {
+          paths.add(args[i]);
+        }
+      }
+      if (!options.containsKey("token") && System.getenv(TOKEN_ENV) != null) {
+        options.put("token", System.getenv(TOKEN_ENV));
+      }
+      if (paths.isEmpty()) {
+        throw new IllegalArgumentException("No files to import");
+      }
+      JtlBatchImporter importer = new JtlBatchImporter(options);
+      return importer.importAll(collect(paths)) ? 0 : 1;
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.println(USAGE);
+      return 2;
+    } catch (IOException e) {
+      logger.error("Import failed", e);
+      return 1;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      logger.error("Import interrupted, run again to resume");
+      return 1;
+    }
+  }
+
+  /**
+   * Expand directories, recursively, and globs into the files to import, in path order.
+   *
+   * @param specs directories, files or globs such as {@code results/2025-**.jtl}
+   * @return JTL files and outbox reports
+   * @throws IOException if a directory cannot be listed
+   */
+  static List<File> collect(List<String> specs) throws IOException {
+    Set<File> files = new TreeSet<>();
+    for (String spec : specs) {
+      String absolute = new File(spec).getAbsolutePath();
+      int glob = indexOfGlob(absolute);
+      if (glob >= 0) {
+        String base = absolute.substring(0, absolute.lastIndexOf(File.separator, glob) + 1);
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + absolute);
+        try (Stream<Path> walk = Files.walk(Paths.get(base))) {
+          walk.filter(p -> Files.isRegularFile(p) && matcher.matches(p))
+              .forEach(p -> files.add(p.toFile()));
+        }
+      } else if (new File(absolute).isDirectory()) {
+        try (Stream<Path> walk = Files.walk(Paths.get(absolute))) {
+          walk.map(Path::toFile).filter(JtlBatchImporter::isImportable).forEach(files::add);
+        }
+      } else if (new File(absolute).isFile()) {
+        files.add(new File(absolute));
+      } else {
+        logger.warn("Nothing to import at {}", spec);
+      }
+    }
+    return new ArrayList<>(files);
+  }
+
+  private static int indexOfGlob(String path) {
+    for (int i = 0; i < path.length(); i++) {
+      if ("*?[{".indexOf(path.charAt(i)) >= 0) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean isImportable(File file) {
+    String name = file.getName().toLowerCase();
+    return file.isFile()
+        && (name.endsWith(".jtl") || name.endsWith(".csv") || isOutboxReport(file));
+  }
+
+  private static boolean isOutboxReport(File file) {
+    return file.getName().endsWith(".xml") && Outbox.launchFile(file).isFile();
+  }
+
+  /**
+   * Convert and import the files, at most {@code threads} conversions and {@code concurrency}
+   * uploads at a time.
+   *
+   * @param files files to import
+   * @return true if none failed
+   * @throws InterruptedException if interrupted; the checkpoint holds what was done
+   */
+  boolean importAll(List<File> files) throws InterruptedException {
+    ExecutorService converters = Executors.newFixedThreadPool(threads, named("jtl-convert"));
+    // converted reports waiting for an upload, which bounds the disk used in the work directory
+    int permits = threads + concurrency;
+    Semaphore staged = new Semaphore(permits);
+    Deque<CompletableFuture<String>> uploads = new ConcurrentLinkedDeque<>(); // in start order
+    AtomicBoolean aborted = new AtomicBoolean();
+    long lastProgress = System.currentTimeMillis();
+    boolean done = false;
+    try {
+      for (File file : files) {
+        if (checkpoint.isImported(file)) {
+          skipped.incrementAndGet();
+          continue;
+        }
+        staged.acquire();
+        converters.execute(
+            () -> {
+              Staged report = stage(file);
+              if (report == null) {
+                staged.release();
+                return;
+              }
+              // the import itself is kept, as cancelling a stage chained to it would not abort it
+              CompletableFuture<String> upload;
+              try {
+                upload = upload(report.report, report.rq);
+              } catch (RuntimeException e) {
+                // failed before handing back a future, so nothing else returns the permit
+                if (!report.kept) {
+                  report.report.delete();
+                }
+                fail(file, e);
+                staged.release();
+                return;
+              }
+              uploads.add(upload);
+              if (aborted.get()) {
+                upload.cancel(true);
+              }
+              upload
+                  .handle((response, failure) -> uploaded(report, response, failure))
+                  .whenComplete(
+                      (ignored, failure) -> {
+                        uploads.remove(upload);
+                        staged.release();
+                      });
+            });
+        if (System.currentTimeMillis() - lastProgress >= PROGRESS_INTERVAL_MILLIS) {
+          lastProgress = System.currentTimeMillis();
+          logger.info(progress(files.size()));
+        }
+      }
+      converters.shutdown();
+      // every permit back: all files converted and their uploads done
+      while (!staged.tryAcquire(permits, PROGRESS_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+        logger.info(progress(files.size()));
+      }
+      done = true;
+    } finally {
+      converters.shutdownNow();
+      if (!done) {
+        // newest first, so a slot freed by a cancelled upload is not handed to a queued one
+        aborted.set(true);
+        uploads.descendingIterator().forEachRemaining(upload -> upload.cancel(true));
+      }
+    }
+    logger.info(progress(files.size()));
+    return failed.get() == 0;
+  }
+
+  /**
+   * Start the import of a converted report.
+   *
+   * @param report JUnit XML report
+   * @param rq launch to import it as
+   * @return the launch response
+   */
+  CompletableFuture<String> upload(File report, LaunchImportRq rq) {
+    return client.importLaunchAsync(report, rq);
+  }
+
+  private String progress(int total) {
+    return "Imported "
+        + imported.get()
+        + ", failed "
+        + failed.get()
+        + ", skipped "
+        + skipped.get()
+        + " of "
+        + total
+        + " files";
+  }
+
+  /** A report ready for upload. */
+  private static final class Staged {
+    final File source;
+    final File report;
+    final LaunchImportRq rq;
+    final boolean kept;
+
+    Staged(File source, File report, LaunchImportRq rq, boolean kept) {
+      this.source = source;
+      this.report = report;
+      this.rq = rq;
+      this.kept = kept;
+    }
+  }
+
+  /** @return the report to upload, null if the file could not be converted */
+  private Staged stage(File file) {
+    try {
+      if (isOutboxReport(file)) {
+        LaunchImportRq rq =
+            ReportPortalImportAPIClient.launchRequestMapper()
+                .readValue(Outbox.launchFile(file), LaunchImportRq.class);
+        return new Staged(file, file, rq, true);
+      }
+      Files.createDirectories(workDir.toPath());
+      String name = JtlToJUnitReportTransformer.suiteName(file);
+      File report = new File(workDir, name + "-" + reportNumber.incrementAndGet() + ".xml");
+      try (JtlFileReader.Records records = new JtlFileReader().open(file)) {
+        new JtlToJUnitReportTransformer(1).transform(records, report, name);
+        return new Staged(file, report, launchRequest(file, records), false);
+      }
+    } catch (IOException | RuntimeException e) {
+      fail(file, e);
+      return null;
+    }
+  }
+
+  /** Record the outcome of an import. */
+  private Void uploaded(Staged staged, String response, Throwable failure) {
+    try {
+      if (failure != null) {
+        Throwable cause =
+            failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+      }
+      imported.incrementAndGet();
+      checkpoint.record(Checkpoint.IMPORTED, staged.source, staged.rq.getName());
+      logger.debug("Imported {}: {}", staged.source, response);
+      if (staged.kept) {
+        Files.deleteIfExists(Outbox.launchFile(staged.report).toPath());
+      }
+      Files.deleteIfExists(staged.report.toPath());
+    } catch (IOException | RuntimeException e) {
+      if (!staged.kept) {
+        staged.report.delete();
+      }
+      fail(staged.source, e);
+    }
+    return null;
+  }
+
+  private void fail(File file, Exception e) {
+    failed.incrementAndGet();
+    logger.error("Unable to import " + file, e);
+    try {
+      checkpoint.record(Checkpoint.FAILED, file, String.valueOf(e.getMessage()));
+    } catch (IOException checkpointError) {
+      logger.error("Unable to update the checkpoint", checkpointError);
+    }
+  }
+
+  /**
+   * A launch named after the file and started at its first sample, with the file's metadata and
+   * statistics as attributes.
+   */
+  LaunchImportRq launchRequest(File file, JtlFileReader.Records records) {
+    String name = JtlToJUnitReportTransformer.suiteName(file);
+    String dir = file.getAbsoluteFile().getParentFile().getName();
+    long start =
+        records.getFirstTimestamp() >= 0 ? records.getFirstTimestamp() : file.lastModified();
+    LaunchImportRq rq =
+        new LaunchImportRq()
+            .setName(launchName.replace("{name}", name).replace("{dir}", dir))
+            .setDescription("Imported from " + file.getName())
+            .setStartTime(Instant.ofEpochMilli(start))
+            .addAttribute("origin", "jtl-import", false)
+            .addAttribute("framework", "junit", false)
+            .addAttribute("source", ReportPortalMetricPublisher.truncate(file.getName()), false)
+            .addAttribute("directory", ReportPortalMetricPublisher.truncate(dir), false)
+            .addAttribute("samples", Long.toString(records.getCount()), false)
+            .addAttribute("errors", Long.toString(records.getErrors()), false);
+    if (records.getLastTimestamp() >= 0) {
+      rq.addAttribute("end", Instant.ofEpochMilli(records.getLastTimestamp()).toString(), false);
+    }
+    if (!build.isEmpty()) {
+      rq.addAttribute("build", ReportPortalMetricPublisher.truncate(build), false);
+    }
+    return rq;
+  }
+
+  private static String required(Map<String, String> options, String name) {
+    String value = options.get(name);
+    if (value == null || value.trim().isEmpty()) {
+      throw new IllegalArgumentException("Missing --" + name);
+    }
+    return value.trim();
+  }
+
+  private static int parsePositive(Map<String, String> options, String name, int defaultValue) {
+    String value = options.get(name);
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      int parsed = Integer.parseInt(value.trim());
+      if (parsed > 0) {
+        return parsed;
+      }
+    } catch (NumberFormatException e) {
+      // reported below
+    }
+    throw new IllegalArgumentException("--" + name + " must be a positive number: " + value);
+  }
+
+  private static ThreadFactory named(String prefix) {
+    AtomicInteger number = new AtomicInteger();
+    return r -> {
+      Thread thread = new Thread(r, prefix + "-" + number.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /**
+   * Append-only record of the files processed, one line per outcome: {@code status size modified
+   * path detail}, tab separated. Lines are synced to disk as they are written so that a killed run
+   * loses at most the file it was busy with.
+   */
+  static final class Checkpoint {
+    static final String IMPORTED = "imported";
+    static final String FAILED = "failed";
+
+    private final File file;
+    private final Set<String> imported = new HashSet<>();
+
+    Checkpoint(File file) throws IOException {
+      this.file = file;
+      if (file.isFile()) {
+        try (BufferedReader in = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+          String line;
+          while ((line = in.readLine()) != null) {
+            String[] fields = line.split("\t", 5);
+            if (fields.length >= 4 && IMPORTED.equals(fields[0])) {
+              imported.add(fields[1] + '\t' + fields[2] + '\t' + fields[3]);
+            }
+          }
+        }
+      }
+    }
+
+    private static String key(File source) {
+      return source.length() + "\t" + source.lastModified() + '\t' + source.getAbsolutePath();
+    }
+
+    synchronized boolean isImported(File source) {
+      return imported.contains(key(source));
+    }
+
+    synchronized void record(String status, File source, String detail) throws IOException {
+      String line =
+          status + '\t' + key(source) + '\t' + detail.replace('\t', ' ').replace('\n', ' ') + '\n';
+      File parent = file.getAbsoluteFile().getParentFile();
+      if (parent != null) {
+        Files.createDirectories(parent.toPath());
+      }
+      try (FileOutputStream out = new FileOutputStream(file, true)) {
+        out.write(line.getBytes(StandardCharsets.UTF_8));
+        out.getFD().sync();
+      }
+      if (IMPORTED.equals(status)) {
+        imported.add(key(source));
+      }
+    }
+  }
+}
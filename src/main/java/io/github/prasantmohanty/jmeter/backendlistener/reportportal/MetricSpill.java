@@ -0,0 +1,221 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.reportportal;
+
+import io.github.prasantmohanty.jmeter.backendlistener.model.Payload;
+import io.github.prasantmohanty.jmeter.backendlistener.reportportal.ReportPortalMetricPublisher.BufferedMetric;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Buffered metrics moved off the heap into a temporary file, in the order they were buffered. The
+ * records are read back by index when the report is written; reads are positional and may come from
+ * several threads at once.
+ *
+ * <pre>
+ * record  := jsonLength:int utf8:byte* hasPayload:boolean payload?
+ * payload := binary:boolean encoding:utf contentType:utf length:int byte*
+ * </pre>
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+final class MetricSpill implements Closeable {
+
+  private static final int WRITE_BUFFER = 1 << 16;
+
+  /** Exposes its buffer so that it can be written without a copy. */
+  private static final class Buffer extends ByteArrayOutputStream {
+    Buffer() {
+      super(WRITE_BUFFER + 1024);
+    }
+
+    ByteBuffer wrap() {
+      return ByteBuffer.wrap(buf, 0, count);
+    }
+
+    void truncate(int length) {
+      count = length;
+    }
+  }
+
+  private final File file;
+  private final FileChannel channel;
+  private final Buffer pending = new Buffer();
+  private final DataOutputStream out = new DataOutputStream(pending);
+  /** Start of record {@code i} at index {@code i}, end of the last record at index {@code size}. */
+  private long[] offsets = new long[1024];
+  private int size;
+  private long written;
+
+  /**
+   * @param dir directory of the temporary file, null for the default temporary directory
+   * @throws IOException if the file cannot be created
+   */
+  MetricSpill(File dir) throws IOException {
+    this.file = File.createTempFile("reportportal-metrics", ".spill", dir);
+    this.file.deleteOnExit();
+    this.channel =
+        FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+  }
+
+  File getFile() {
+    return file;
+  }
+
+  int size() {
+    return size;
+  }
+
+  void append(BufferedMetric metric) throws IOException {
+    byte[] json = metric.json.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(json.length);
+    out.write(json);
+    Payload payload = metric.responseData;
+    out.writeBoolean(payload != null);
+    if (payload != null) {
+      out.writeBoolean(payload.isBinary());
+      out.writeUTF(payload.getEncoding() == null ? "" : payload.getEncoding());
+      out.writeUTF(payload.getContentType() == null ? "" : payload.getContentType());
+      out.writeInt(payload.length());
+      out.write(payload.getData());
+    }
+    if (size + 1 == offsets.length) {
+      offsets = Arrays.copyOf(offsets, offsets.length * 2);
+    }
+    offsets[++size] = written + pending.size();
+    if (pending.size() >= WRITE_BUFFER) {
+      flush();
+    }
+  }
+
+  /** Write out appended records; required before they can be read. */
+  void flush() throws IOException {
+    ByteBuffer buffer = pending.wrap();
+    while (buffer.hasRemaining()) {
+      written += channel.write(buffer, written);
+    }
+    pending.reset();
+  }
+
+  /**
+   * Discard the records appended after the first {@code count}, e.g. after a failed spill.
+   *
+   * @param count records to keep
+   */
+  void truncate(int count) {
+    size = count;
+    long end = offsets[count];
+    if (end >= written) {
+      pending.truncate((int) (end - written));
+      return;
+    }
+    pending.reset();
+    written = end;
+    try {
+      channel.truncate(end);
+    } catch (IOException e) {
+      // the offsets no longer reach beyond, the stale bytes are never read
+    }
+  }
+
+  BufferedMetric get(int index) {
+    long start = offsets[index];
+    ByteBuffer record = ByteBuffer.allocate((int) (offsets[index + 1] - start));
+    try {
+      while (record.hasRemaining()) {
+        if (channel.read(record, start + record.position()) < 0) {
+          throw new EOFException("Spill file " + file + " is truncated");
+        }
+      }
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(record.array()));
+      byte[] json = new byte[in.readInt()];
+      in.readFully(json);
+      Payload payload = null;
+      if (in.readBoolean()) {
+        boolean binary = in.readBoolean();
+        String encoding = in.readUTF();
+        String contentType = in.readUTF();
+        byte[] data = new byte[in.readInt()];
+        in.readFully(data);
+        payload =
+            new Payload(data, encoding, contentType.isEmpty() ? null : contentType, binary);
+      }
+      return new BufferedMetric(new String(json, StandardCharsets.UTF_8), payload);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to read spilled metric " + index + " of " + file, e);
+    }
+  }
+
+  /**
+   * A read-only view of the spilled records followed by the ones still on the heap. Appended
+   * records must be {@link #flush() flushed} first.
+   *
+   * @param inMemory metrics buffered after the spilled ones
+   * @return the combined list
+   */
+  List<BufferedMetric> followedBy(List<BufferedMetric> inMemory) {
+    return new Combined(size, inMemory);
+  }
+
+  private final class Combined extends AbstractList<BufferedMetric> implements RandomAccess {
+    private final int spilled;
+    private final List<BufferedMetric> inMemory;
+
+    Combined(int spilled, List<BufferedMetric> inMemory) {
+      this.spilled = spilled;
+      this.inMemory = inMemory;
+    }
+
+    @Override
+    public BufferedMetric get(int index) {
+      return index < spilled ? MetricSpill.this.get(index) : inMemory.get(index - spilled);
+    }
+
+    @Override
+    public int size() {
+      return spilled + inMemory.size();
+    }
+  }
+
+  /** Close and delete the file. */
+  @Override
+  public void close() throws IOException {
+    try {
+      channel.close();
+    } finally {
+      if (!file.delete() && file.exists()) {
+        file.deleteOnExit();
+      }
+    }
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.reportportal;
+
+import io.github.prasantmohanty.jmeter.backendlistener.model.LaunchImportRq;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Directory keeping the launches that were not imported: the JUnit report and next to it the
+ * launch import request as JSON ({@code <report>.launch.json}). The request is written last and
+ * atomically, so a report without one is incomplete and must not be imported.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+final class Outbox {
+
+  static final String LAUNCH_SUFFIX = ".launch.json";
+
+  private static final DateTimeFormatter TIMESTAMP =
+      DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SSS");
+
+  private final File dir;
+
+  Outbox(File dir) {
+    this.dir = dir;
+  }
+
+  File getDir() {
+    return dir;
+  }
+
+  /**
+   * @param prefix file name prefix
+   * @return a report file in the outbox that does not exist yet
+   * @throws IOException if the outbox cannot be created
+   */
+  File newReportFile(String prefix) throws IOException {
+    Files.createDirectories(dir.toPath());
+    String name = prefix + LocalDateTime.now().format(TIMESTAMP);
+    File file = new File(dir, name + ".xml");
+    for (int i = 1; file.exists(); i++) {
+      file = new File(dir, name + "-" + i + ".xml");
+    }
+    return file;
+  }
+
+  /**
+   * Put a report into the outbox, copying it unless it is there already, followed by its launch
+   * request.
+   *
+   * @param report JUnit report
+   * @param rq launch import request
+   * @return the report in the outbox
+   * @throws IOException if the outbox cannot be written
+   */
+  File put(File report, LaunchImportRq rq) throws IOException {
+    File kept = report;
+    if (!dir.getAbsoluteFile().equals(report.getAbsoluteFile().getParentFile())) {
+      kept = newReportFile(stripExtension(report.getName()) + "-");
+      Files.copy(report.toPath(), kept.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+    Path launch = launchFile(kept).toPath();
+    Path tmp = launch.resolveSibling(launch.getFileName() + ".tmp");
+    ReportPortalImportAPIClient.launchRequestMapper().writeValue(tmp.toFile(), rq);
+    try {
+      Files.move(tmp, launch, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(tmp, launch, StandardCopyOption.REPLACE_EXISTING);
+    }
+    return kept;
+  }
+
+  /**
+   * @param report report in the outbox
+   * @return the file holding its launch request
+   */
+  static File launchFile(File report) {
+    return new File(report.getParentFile(), stripExtension(report.getName()) + LAUNCH_SUFFIX);
+  }
+
+  private static String stripExtension(String name) {
+    int dot = name.lastIndexOf('.');
+    return dot > 0 ? name.substring(0, dot) : name;
+  }
+}
@@ -0,0 +1,392 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.reportportal;
+
+import io.github.prasantmohanty.jmeter.backendlistener.model.Payload;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Content-addressed store keeping identical payloads once: bodies and header blocks are hashed with
+ * XXH64, compared byte for byte with the blob of the same hash to rule out collisions, and appended
+ * to a temporary blob file the first time they are seen. Buffered metrics then carry a blob id
+ * instead of the payload, and the report writes each blob in full once, at its first occurrence;
+ * later occurrences refer to it.
+ *
+ * <p>Payloads are offered by the listener threads of a launch and read back positionally, possibly
+ * by several report threads at once.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+final class PayloadStore implements Closeable {
+
+  /** Payloads shorter than this are kept inline, a reference would not be much smaller. */
+  static final int MIN_BLOB_SIZE = 64;
+
+  /** Metric fields holding the id of a blob written in full at this occurrence. */
+  static final String BLOB_SUFFIX = "Blob";
+
+  /** Metric fields holding the id of a blob written at an earlier occurrence. */
+  static final String REF_SUFFIX = "Ref";
+
+  static final String RESPONSE_BODY = "ResponseBody";
+
+  /** Text fields of a metric that are stored as blobs. */
+  static final String[] TEXT_FIELDS = {"RequestHeaders", "RequestBody", "ResponseHeaders"};
+
+  private static final int COMPARE_BUFFER = 1 << 16;
+
+  private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+  private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+  private static final long PRIME64_3 = 0x165667B19E3779F9L;
+  private static final long PRIME64_4 = 0x85EBCA77C2B2AE63L;
+  private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+
+  /** A unique payload, chained to the next one with the same hash. */
+  private static final class Blob {
+    final int id;
+    final long hash;
+    final long offset;
+    final int length;
+    final String encoding;
+    final String contentType;
+    final boolean binary;
+    final String owner;
+    Blob next;
+
+    Blob(
+        int id,
+        long hash,
+        long offset,
+        int length,
+        String encoding,
+        String contentType,
+        boolean binary,
+        String owner) {
+      this.id = id;
+      this.hash = hash;
+      this.offset = offset;
+      this.length = length;
+      this.encoding = encoding;
+      this.contentType = contentType;
+      this.binary = binary;
+      this.owner = owner;
+    }
+  }
+
+  private final File file;
+  private final FileChannel channel;
+  private final Map<Long, Blob> index = new HashMap<>();
+  private final List<Blob> blobs = new ArrayList<>();
+  private final ByteBuffer compareBuffer = ByteBuffer.allocate(COMPARE_BUFFER);
+  private long written;
+  private long offeredBytes;
+  private long offered;
+
+  /**
+   * @param dir directory of the temporary blob file, null for the default temporary directory
+   * @throws IOException if the file cannot be created
+   */
+  PayloadStore(File dir) throws IOException {
+    this.file = File.createTempFile("reportportal-payloads", ".blob", dir);
+    this.file.deleteOnExit();
+    this.channel =
+        FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+  }
+
+  File getFile() {
+    return file;
+  }
+
+  /**
+   * Move the payloads of a metric into the store. Text fields and the response payload of at least
+   * {@link #MIN_BLOB_SIZE} bytes are replaced by a {@code <field>Blob} entry for their first
+   * occurrence and a {@code <field>Ref} entry for the following ones.
+   *
+   * @param metrics metric fields, modified
+   * @param responseData response payload kept out of the fields, may be null
+   * @param owner sample label, named by the later occurrences
+   * @return the response payload if it stays with the metric, null if it was stored
+   * @throws IOException if the blob file cannot be written
+   */
+  Payload intern(Map<String, Object> metrics, Payload responseData, String owner)
+      throws IOException {
+    for (String field : TEXT_FIELDS) {
+      Object value = metrics.get(field);
+      if (value instanceof String && ((String) value).length() >= MIN_BLOB_SIZE) {
+        byte[] utf8 = ((String) value).getBytes(StandardCharsets.UTF_8);
+        long blob = put(utf8, StandardCharsets.UTF_8.name(), null, false, owner);
+        metrics.remove(field);
+        metrics.put(field + (blob < 0 ? REF_SUFFIX : BLOB_SUFFIX), blob < 0 ? ~blob : blob);
+      }
+    }
+    if (responseData == null || responseData.length() < MIN_BLOB_SIZE) {
+      return responseData;
+    }
+    long blob =
+        put(
+            responseData.getData(),
+            responseData.getEncoding(),
+            responseData.getContentType(),
+            responseData.isBinary(),
+            owner);
+    metrics.put(RESPONSE_BODY + (blob < 0 ? REF_SUFFIX : BLOB_SUFFIX), blob < 0 ? ~blob : blob);
+    return null;
+  }
+
+  /**
+   * Store a payload unless an identical one is already stored.
+   *
+   * @return the id of a new blob, or the complement ({@code ~id}) of the existing one
+   */
+  synchronized long put(
+      byte[] data, String encoding, String contentType, boolean binary, String owner)
+      throws IOException {
+    offered++;
+    offeredBytes += data.length;
+    long hash = xxh64(data);
+    Blob first = index.get(hash);
+    for (Blob blob = first; blob != null; blob = blob.next) {
+      if (blob.length == data.length
+          && blob.binary == binary
+          && (binary || equal(blob.encoding, encoding))
+          && contentEquals(blob, data)) {
+        return ~blob.id;
+      }
+    }
+    Blob blob =
+        new Blob(blobs.size(), hash, written, data.length, encoding, contentType, binary, owner);
+    ByteBuffer buffer = ByteBuffer.wrap(data);
+    while (buffer.hasRemaining()) {
+      channel.write(buffer, written + buffer.position());
+    }
+    written += data.length;
+    blob.next = first;
+    index.put(hash, blob);
+    blobs.add(blob);
+    return blob.id;
+  }
+
+  private boolean contentEquals(Blob blob, byte[] data) throws IOException {
+    for (int position = 0; position < data.length; ) {
+      compareBuffer.clear();
+      compareBuffer.limit(Math.min(COMPARE_BUFFER, data.length - position));
+      read(compareBuffer, blob.offset + position);
+      byte[] stored = compareBuffer.array();
+      for (int i = 0; i < compareBuffer.limit(); i++) {
+        if (stored[i] != data[position + i]) {
+          return false;
+        }
+      }
+      position += compareBuffer.limit();
+    }
+    return true;
+  }
+
+  private void read(ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new EOFException("Blob file " + file + " is truncated");
+      }
+    }
+    buffer.flip();
+  }
+
+  private synchronized Blob blob(long id) {
+    if (id < 0 || id >= blobs.size()) {
+      throw new IllegalArgumentException("Unknown blob " + id + " in " + file);
+    }
+    return blobs.get((int) id);
+  }
+
+  /**
+   * @param id blob id
+   * @return the stored payload, read from the blob file
+   */
+  Payload get(long id) {
+    Blob blob = blob(id);
+    ByteBuffer data = ByteBuffer.allocate(blob.length);
+    try {
+      read(data, blob.offset);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to read blob " + id + " of " + file, e);
+    }
+    return new Payload(data.array(), blob.encoding, blob.contentType, blob.binary);
+  }
+
+  /**
+   * @param id blob id
+   * @return the stored text payload
+   */
+  String getText(long id) {
+    return get(id).asString();
+  }
+
+  /**
+   * @param id blob id
+   * @return the text standing for a later occurrence of the blob
+   */
+  String reference(long id) {
+    Blob blob = blob(id);
+    return String.format(
+        Locale.ROOT,
+        "[identical to the payload first seen in '%s': %d bytes, xxh64 %016x]",
+        blob.owner,
+        blob.length,
+        blob.hash);
+  }
+
+  /** @return the number of unique payloads stored */
+  synchronized int getBlobCount() {
+    return blobs.size();
+  }
+
+  /** @return the number of payloads offered */
+  synchronized long getOffered() {
+    return offered;
+  }
+
+  /** @return the bytes of all payloads offered */
+  synchronized long getOfferedBytes() {
+    return offeredBytes;
+  }
+
+  /** @return the bytes of the unique payloads, the size of the blob file */
+  synchronized long getStoredBytes() {
+    return written;
+  }
+
+  /** @return a summary such as {@code 12 unique of 5000 payloads, 97% of 4.2 MB saved} */
+  synchronized String summary() {
+    long saved = offeredBytes - written;
+    return String.format(
+        Locale.ROOT,
+        "%d unique of %d payloads, %d%% of %.1f MB saved",
+        blobs.size(),
+        offered,
+        offeredBytes == 0 ? 0 : saved * 100 / offeredBytes,
+        offeredBytes / 1e6);
+  }
+
+  /** Close and delete the file. */
+  @Override
+  public void close() throws IOException {
+    try {
+      channel.close();
+    } finally {
+      if (!file.delete() && file.exists()) {
+        file.deleteOnExit();
+      }
+    }
+  }
+
+  private static boolean equal(String a, String b) {
+    return a == null ? b == null : a.equals(b);
+  }
+
+  /** XXH64 with seed 0. */
+  static long xxh64(byte[] data) {
+    int length = data.length;
+    int i = 0;
+    long hash;
+    if (length >= 32) {
+      long v1 = PRIME64_1 + PRIME64_2;
+      long v2 = PRIME64_2;
+      long v3 = 0;
+      long v4 = -PRIME64_1;
+      for (int limit = length - 32; i <= limit; i += 32) {
+        v1 = round(v1, getLong(data, i));
+        v2 = round(v2, getLong(data, i + 8));
+        v3 = round(v3, getLong(data, i + 16));
+        v4 = round(v4, getLong(data, i + 24));
+      }
+      hash =
+          Long.rotateLeft(v1, 1)
+              + Long.rotateLeft(v2, 7)
+              + Long.rotateLeft(v3, 12)
+              + Long.rotateLeft(v4, 18);
+      hash = mergeRound(hash, v1);
+      hash = mergeRound(hash, v2);
+      hash = mergeRound(hash, v3);
+      hash = mergeRound(hash, v4);
+    } else {
+      hash = PRIME64_5;
+    }
+    hash += length;
+    for (; i + 8 <= length; i += 8) {
+      hash ^= round(0, getLong(data, i));
+      hash = Long.rotateLeft(hash, 27) * PRIME64_1 + PRIME64_4;
+    }
+    if (i + 4 <= length) {
+      hash ^= (getInt(data, i) & 0xFFFFFFFFL) * PRIME64_1;
+      hash = Long.rotateLeft(hash, 23) * PRIME64_2 + PRIME64_3;
+      i += 4;
+    }
+    for (; i < length; i++) {
+      hash ^= (data[i] & 0xFFL) * PRIME64_5;
+      hash = Long.rotateLeft(hash, 11) * PRIME64_1;
+    }
+    hash ^= hash >>> 33;
+    hash *= PRIME64_2;
+    hash ^= hash >>> 29;
+    hash *= PRIME64_3;
+    hash ^= hash >>> 32;
+    return hash;
+  }
+
+  private static long round(long acc, long input) {
+    acc += input * PRIME64_2;
+    acc = Long.rotateLeft(acc, 31);
+    return acc * PRIME64_1;
+  }
+
+  private static long mergeRound(long acc, long value) {
+    acc ^= round(0, value);
+    return acc * PRIME64_1 + PRIME64_4;
+  }
+
+  private static long getLong(byte[] data, int i) {
+    return (data[i] & 0xFFL)
+        | (data[i + 1] & 0xFFL) << 8
+        | (data[i + 2] & 0xFFL) << 16
+        | (data[i + 3] & 0xFFL) << 24
+        | (data[i + 4] & 0xFFL) << 32
+        | (data[i + 5] & 0xFFL) << 40
+        | (data[i + 6] & 0xFFL) << 48
+        | (data[i + 7] & 0xFFL) << 56;
+  }
+
+  private static int getInt(byte[] data, int i) {
+    return (data[i] & 0xFF)
+        | (data[i + 1] & 0xFF) << 8
+        | (data[i + 2] & 0xFF) << 16
+        | (data[i + 3] & 0xFF) << 24;
+  }
+}
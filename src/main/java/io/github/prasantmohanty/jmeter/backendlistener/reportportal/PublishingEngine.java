@@ -0,0 +1,176 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.reportportal;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publishing shared by the backend listeners of a JVM that report to the same launch, e.g. one per
+ * thread group. Each listener keeps buffering into its own publisher, a stripe that it alone
+ * writes to, and joins the engine of its project and launch name. The first listener to join leads:
+ * its publisher writes one report with a test suite per listener and imports it as one launch once
+ * the last listener has left, with the outbox and publish settings of the first listener.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+final class PublishingEngine {
+
+  private static final Logger logger = LoggerFactory.getLogger(PublishingEngine.class);
+
+  private static final Map<String, PublishingEngine> ENGINES = new HashMap<>();
+
+  private final String key;
+  private final List<ReportPortalMetricPublisher> members = new CopyOnWriteArrayList<>();
+  private final ReportPortalMetricPublisher lead;
+  private final Outbox outbox;
+  private final Settings settings;
+  private final BackgroundPublisher backgroundPublisher;
+  private PayloadStore payloadStore;
+  private int references;
+
+  private PublishingEngine(
+      String key, ReportPortalMetricPublisher lead, Outbox outbox, Settings settings) {
+    this.key = key;
+    this.lead = lead;
+    this.outbox = outbox;
+    this.settings = settings;
+    this.backgroundPublisher = new BackgroundPublisher(lead, outbox);
+    lead.setMembers(this.members);
+  }
+
+  /**
+   * Join the engine of the publisher's launch, creating it for the first listener.
+   *
+   * @param publisher publisher of the joining listener
+   * @param outbox outbox for what is not published, used if the engine is created, may be null
+   * @param settings how to publish, used if the engine is created
+   * @return the engine
+   */
+  static PublishingEngine join(
+      ReportPortalMetricPublisher publisher, Outbox outbox, Settings settings) {
+    String key = key(publisher.getReportPortalConfigs());
+    synchronized (ENGINES) {
+      PublishingEngine engine = ENGINES.get(key);
+      if (engine == null) {
+        engine = new PublishingEngine(key, publisher, outbox, settings);
+        engine.backgroundPublisher.armShutdownHook();
+        ENGINES.put(key, engine);
+      } else {
+        logger.info(
+            "Sharing the ReportPortal launch {} with {} other listener(s)",
+            key,
+            engine.references);
+      }
+      engine.members.add(publisher);
+      engine.references++;
+      return engine;
+    }
+  }
+
+  /**
+   * Leave the engine. The stripe stays a member so that its results are published.
+   *
+   * @return true for the last listener, which has to publish
+   */
+  boolean leave() {
+    synchronized (ENGINES) {
+      if (--this.references > 0) {
+        return false;
+      }
+      if (ENGINES.get(this.key) == this) {
+        ENGINES.remove(this.key);
+      }
+      return true;
+    }
+  }
+
+  /** @return the publisher writing and importing the report of all members */
+  ReportPortalMetricPublisher getLead() {
+    return lead;
+  }
+
+  /** @return the outbox of the launch, may be null */
+  Outbox getOutbox() {
+    return outbox;
+  }
+
+  /** @return the publish settings of the launch, those of the first listener */
+  Settings getSettings() {
+    return settings;
+  }
+
+  /**
+   * The payload store of the launch, created for the first listener asking for it, so that
+   * payloads repeated across listeners are kept once as well.
+   *
+   * @return the store, also resolved by the lead when it writes the report
+   * @throws IOException if the blob file cannot be created
+   */
+  synchronized PayloadStore payloadStore() throws IOException {
+    if (this.payloadStore == null) {
+      this.payloadStore = new PayloadStore(null);
+      this.lead.setPayloadStore(this.payloadStore);
+    }
+    return this.payloadStore;
+  }
+
+  BackgroundPublisher getBackgroundPublisher() {
+    return backgroundPublisher;
+  }
+
+  /** @return the number of listeners that joined, including those that left */
+  int getMemberCount() {
+    return members.size();
+  }
+
+  static String key(Map<String, String> configs) {
+    return configs.get("ReportPortalAPIBase")
+        + '|'
+        + configs.get("ProjectName")
+        + '|'
+        + configs.get("TestName");
+  }
+
+  /** How the report of a launch is published once the last listener has left. */
+  static final class Settings {
+
+    /** Publish in test teardown. */
+    static final Settings SYNC = new Settings(false, 0, 0);
+
+    final boolean background;
+    final long waitMillis;
+    final long deadlineMillis;
+
+    /**
+     * @param background hand the publish to a separate thread
+     * @param waitMillis time teardown waits for a background publish before detaching
+     * @param deadlineMillis time a background upload may take, {@code 0} for no limit
+     */
+    Settings(boolean background, long waitMillis, long deadlineMillis) {
+      this.background = background;
+      this.waitMillis = waitMillis;
+      this.deadlineMillis = deadlineMillis;
+    }
+  }
+}
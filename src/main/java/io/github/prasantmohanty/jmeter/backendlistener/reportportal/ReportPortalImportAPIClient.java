@@ -3,12 +3,28 @@ package io.github.prasantmohanty.jmeter.backendlistener.reportportal;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.github.prasantmohanty.jmeter.backendlistener.jfr.ReportPortalHttpEvent;
 import io.github.prasantmohanty.jmeter.backendlistener.model.LaunchImportRq;
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import okhttp3.*;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
 
 public class ReportPortalImportAPIClient {
   private final HttpUrl apiBase; // e.g., https://rp.example.com/api
@@ -18,14 +34,30 @@ public class ReportPortalImportAPIClient {
   private final String buildNumber; // e.g., "123"
 
   private final OkHttpClient http;
-  private final ObjectMapper mapper =
-      new ObjectMapper()
-          .registerModule(new JavaTimeModule())
-          .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+  private final ReportPortalRateLimiter limiter;
+  private final long callTimeoutMillis;
+  private final ObjectMapper mapper = launchRequestMapper();
+
+  /**
+   * One connection pool and dispatcher for all clients. The rate limiter bounds the calls in
+   * flight, so the dispatcher does not; its threads are daemons so that they do not hold the JVM
+   * open once the test is over.
+   */
+  private static final OkHttpClient SHARED_HTTP =
+      new OkHttpClient.Builder().dispatcher(dispatcher()).build();
   private static final org.slf4j.Logger logger =
       org.slf4j.LoggerFactory.getLogger(ReportPortalImportAPIClient.class);
 
   public ReportPortalImportAPIClient(Map<String, String> reportPortalConfigs) {
+    this(reportPortalConfigs, 0);
+  }
+
+  /**
+   * @param reportPortalConfigs connection settings
+   * @param callTimeoutMillis bound on a whole call including the upload, {@code 0} for none
+   */
+  public ReportPortalImportAPIClient(
+      Map<String, String> reportPortalConfigs, long callTimeoutMillis) {
 
     Objects.requireNonNull(reportPortalConfigs.get("ReportPortalAPIBase"), "apiBaseUrl");
     Objects.requireNonNull(reportPortalConfigs.get("ProjectName"), "projectName");
@@ -49,45 +81,369 @@ public class ReportPortalImportAPIClient {
             + ", build: "
             + this.buildNumber);
 
-    this.http = new OkHttpClient();
+    this.callTimeoutMillis = callTimeoutMillis;
+    this.limiter = ReportPortalRateLimiter.forProject(reportPortalConfigs);
+    this.http = SHARED_HTTP;
+  }
+
+  private static Dispatcher dispatcher() {
+    Dispatcher dispatcher =
+        new Dispatcher(
+            new ThreadPoolExecutor(
+                0,
+                Integer.MAX_VALUE,
+                60,
+                TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                runnable -> {
+                  Thread thread = new Thread(runnable, "reportportal-http");
+                  thread.setDaemon(true);
+                  return thread;
+                }));
+    dispatcher.setMaxRequests(Integer.MAX_VALUE);
+    dispatcher.setMaxRequestsPerHost(Integer.MAX_VALUE);
+    return dispatcher;
   }
 
+  /** @return a mapper writing launch import requests the way the import API expects them */
+  static ObjectMapper launchRequestMapper() {
+    return new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+  }
+
+  /**
+   * Import a JUnit report as a launch, waiting for the upload.
+   *
+   * @return the response of ReportPortal
+   * @throws IOException if the import failed, timed out or was interrupted
+   */
   public String importLaunch(File junitXmlOrZip, LaunchImportRq rq) throws IOException {
+    return await(importLaunchAsync(junitXmlOrZip, rq));
+  }
+
+  /**
+   * Import a JUnit report as a launch without holding the calling thread, within the call timeout
+   * of the client.
+   *
+   * @see #importLaunchAsync(File, LaunchImportRq, long)
+   */
+  public CompletableFuture<String> importLaunchAsync(File junitXmlOrZip, LaunchImportRq rq) {
+    return importLaunchAsync(junitXmlOrZip, rq, callTimeoutMillis);
+  }
+
+  /**
+   * Import a JUnit report as a launch without holding the calling thread. The call waits for the
+   * rate limiter on a timer and runs on the HTTP dispatcher; throttled attempts are retried like
+   * those of {@link #importLaunch}. Cancelling the future aborts the upload.
+   *
+   * @param junitXmlOrZip report to upload
+   * @param rq launch to import it as
+   * @param timeoutMillis bound on the whole call including the waits and retries, {@code 0} for
+   *     none
+   * @return the response of ReportPortal, failed with an {@link IOException} if the import failed
+   *     or the deadline passed
+   * @throws IllegalArgumentException if the report does not exist
+   */
+  public CompletableFuture<String> importLaunchAsync(
+      File junitXmlOrZip, LaunchImportRq rq, long timeoutMillis) {
     if (junitXmlOrZip == null || !junitXmlOrZip.exists()) {
       throw new IllegalArgumentException("Input file does not exist: " + junitXmlOrZip);
     }
-    String contentType = guessContentType(junitXmlOrZip.getName());
-    String rqJson = mapper.writeValueAsString(rq);
+    String rqJson;
+    try {
+      rqJson = mapper.writeValueAsString(rq);
+    } catch (IOException e) {
+      CompletableFuture<String> failed = new CompletableFuture<>();
+      failed.completeExceptionally(e);
+      return failed;
+    }
+    MediaType fileMedia = MediaType.parse(guessContentType(junitXmlOrZip.getName()));
+    RequestBody jsonPart = RequestBody.create(rqJson, MediaType.parse("application/json"));
+    HttpUrl url =
+        apiBase.newBuilder().addPathSegments("v1/plugin/" + projectName + "/junit/import").build();
 
-    MediaType fileMedia = MediaType.parse(contentType);
-    RequestBody fileBody = RequestBody.create(junitXmlOrZip, fileMedia);
+    // the deadline covers the waits for the limiter and the retries, not just one attempt
+    long deadline = deadline(timeoutMillis);
+    Exchange<String> exchange =
+        new Exchange<>(
+            deadline,
+            limiter.getMaxRetries(),
+            () ->
+                new Request.Builder()
+                    .url(url)
+                    .post(
+                        new MultipartBody.Builder()
+                            .setType(MultipartBody.FORM)
+                            .addFormDataPart(
+                                "file",
+                                junitXmlOrZip.getName(),
+                                new ThrottledFileBody(junitXmlOrZip, fileMedia, limiter, deadline))
+                            .addFormDataPart("launchImportRq", null, jsonPart)
+                            .build())
+                    .addHeader("Authorization", "Bearer " + bearerToken)
+                    .addHeader("Accept", "application/json")
+                    .build(),
+            resp -> {
+              String body = resp.body() != null ? resp.body().string() : "";
+              if (!resp.isSuccessful()) {
+                throw new IOException("Import failed: HTTP " + resp.code() + " - " + body);
+              }
+              limiter.succeeded();
+              return body;
+            });
+    exchange.attempt(0);
+    return exchange;
+  }
 
-    RequestBody jsonPart = RequestBody.create(rqJson, MediaType.parse("application/json"));
+  /**
+   * Wait for a call, cancelling it if the waiting thread is interrupted.
+   *
+   * @return the result of the call
+   * @throws IOException the failure of the call, or if interrupted
+   */
+  static <T> T await(CompletableFuture<T> call) throws IOException {
+    try {
+      return call.get();
+    } catch (InterruptedException e) {
+      call.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted waiting for ReportPortal");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IOException(cause);
+    } catch (CancellationException e) {
+      throw new InterruptedIOException("ReportPortal call cancelled");
+    }
+  }
 
-    MultipartBody multipart =
-        new MultipartBody.Builder()
-            .setType(MultipartBody.FORM)
-            .addFormDataPart("file", junitXmlOrZip.getName(), fileBody)
-            .addFormDataPart("launchImportRq", null, jsonPart)
-            .build();
+  /**
+   * Fan calls out and gather their results in order. The first failure fails the whole and
+   * cancels the calls still running; cancelling the whole cancels them all.
+   *
+   * @param calls calls already started
+   * @return the results of all calls
+   */
+  public static <T> CompletableFuture<List<T>> allOf(List<CompletableFuture<T>> calls) {
+    CompletableFuture<List<T>> all =
+        new CompletableFuture<List<T>>() {
+          @Override
+          public boolean cancel(boolean mayInterruptIfRunning) {
+            calls.forEach(call -> call.cancel(mayInterruptIfRunning));
+            return super.cancel(mayInterruptIfRunning);
+          }
+        };
+    for (CompletableFuture<T> call : calls) {
+      call.whenComplete(
+          (result, failure) -> {
+            if (failure != null && all.completeExceptionally(unwrap(failure))) {
+              calls.forEach(other -> other.cancel(true));
+            }
+          });
+    }
+    CompletableFuture.allOf(calls.toArray(new CompletableFuture<?>[0]))
+        .thenRun(
+            () -> {
+              List<T> results = new ArrayList<>(calls.size());
+              calls.forEach(call -> results.add(call.join()));
+              all.complete(results);
+            });
+    return all;
+  }
 
-    HttpUrl url =
-        apiBase.newBuilder().addPathSegments("v1/plugin/" + projectName + "/junit/import").build();
+  private static Throwable unwrap(Throwable failure) {
+    return failure instanceof CompletionException && failure.getCause() != null
+        ? failure.getCause()
+        : failure;
+  }
 
-    Request req =
-        new Request.Builder()
-            .url(url)
-            .post(multipart)
-            .addHeader("Authorization", "Bearer " + bearerToken)
-            .addHeader("Accept", "application/json")
-            .build();
+  private long deadline(long timeoutMillis) {
+    return timeoutMillis > 0 ? System.currentTimeMillis() + timeoutMillis : Long.MAX_VALUE;
+  }
+
+  /** Turns the response of the last attempt into the result of a call. */
+  private interface ResponseHandler<T> {
+    T handle(Response resp) throws IOException;
+  }
+
+  /**
+   * One call to ReportPortal as a future: its attempts, each admitted by the limiter, and the
+   * attempt in flight, which a cancellation aborts.
+   */
+  private final class Exchange<T> extends CompletableFuture<T> {
+    private final long deadline;
+    private final int maxRetries;
+    private final Supplier<Request> request;
+    private final ResponseHandler<T> handler;
+    private volatile CompletableFuture<Void> admission;
+    private volatile Call call;
+
+    Exchange(
+        long deadline, int maxRetries, Supplier<Request> request, ResponseHandler<T> handler) {
+      this.deadline = deadline;
+      this.maxRetries = maxRetries;
+      this.request = request;
+      this.handler = handler;
+    }
 
-    try (Response resp = http.newCall(req).execute()) {
-      if (!resp.isSuccessful()) {
-        String body = (resp.body() != null) ? resp.body().string() : "";
-        throw new IOException("Import failed: HTTP " + resp.code() + " - " + body);
+    void attempt(int attempt) {
+      CompletableFuture<Void> admitted = limiter.acquireAsync(deadline);
+      admission = admitted;
+      admitted.whenComplete(
+          (ignored, failure) -> {
+            if (failure != null) {
+              completeExceptionally(unwrap(failure));
+            } else if (isDone()) {
+              limiter.release();
+            } else {
+              send(attempt);
+            }
+          });
+    }
+
+    private void send(int attempt) {
+      Request req;
+      try {
+        req = request.get();
+      } catch (RuntimeException e) {
+        limiter.release();
+        completeExceptionally(e);
+        return;
+      }
+      ReportPortalHttpEvent httpEvent = new ReportPortalHttpEvent();
+      httpEvent.begin();
+      Call sending = newCall(req, deadline);
+      call = sending;
+      if (isCancelled()) {
+        sending.cancel();
+      }
+      sending.enqueue(
+          new Callback() {
+            @Override
+            public void onFailure(Call failed, IOException e) {
+              limiter.release();
+              commit(httpEvent, req);
+              completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call done, Response resp) {
+              boolean retry = false;
+              try {
+                httpEvent.statusCode = resp.code();
+                if (isThrottled(resp.code())) {
+                  long pause = limiter.throttled(resp.header("Retry-After"), attempt);
+                  retry =
+                      attempt < maxRetries && System.currentTimeMillis() + pause < deadline;
+                  if (retry) {
+                    logger.info(
+                        "Call throttled with HTTP {}, retry {} in {} ms",
+                        resp.code(),
+                        attempt + 1,
+                        pause);
+                  }
+                }
+                if (!retry) {
+                  complete(handler.handle(resp));
+                }
+              } catch (IOException | RuntimeException e) {
+                completeExceptionally(e);
+              } finally {
+                resp.close();
+                limiter.release();
+                commit(httpEvent, req);
+              }
+              if (retry && !isDone()) {
+                attempt(attempt + 1);
+              }
+            }
+          });
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      boolean cancelled = super.cancel(mayInterruptIfRunning);
+      CompletableFuture<Void> admitted = admission;
+      if (admitted != null) {
+        admitted.cancel(false);
+      }
+      Call sending = call;
+      if (sending != null) {
+        sending.cancel();
+      }
+      return cancelled;
+    }
+  }
+
+  private Call newCall(Request req, long deadline) {
+    Call call = http.newCall(req);
+    if (deadline != Long.MAX_VALUE) {
+      long left = Math.max(1, deadline - System.currentTimeMillis());
+      call.timeout().timeout(left, TimeUnit.MILLISECONDS);
+    }
+    return call;
+  }
+
+  private static boolean isThrottled(int code) {
+    return code == 429 || code == 503;
+  }
+
+  /** A file streamed in chunks, each one admitted by the byte rate of the limiter first. */
+  private static final class ThrottledFileBody extends RequestBody {
+    private static final long CHUNK = 64 * 1024;
+
+    private final File file;
+    private final MediaType contentType;
+    private final ReportPortalRateLimiter limiter;
+    private final long deadline;
+
+    ThrottledFileBody(
+        File file, MediaType contentType, ReportPortalRateLimiter limiter, long deadline) {
+      this.file = file;
+      this.contentType = contentType;
+      this.limiter = limiter;
+      this.deadline = deadline;
+    }
+
+    @Override
+    public MediaType contentType() {
+      return contentType;
+    }
+
+    @Override
+    public long contentLength() {
+      return file.length();
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+      try (Source source = Okio.source(file)) {
+        Buffer buffer = new Buffer();
+        long read;
+        while ((read = source.read(buffer, CHUNK)) != -1) {
+          limiter.acquireBytes(read, deadline);
+          sink.write(buffer, read);
+        }
+      }
+    }
+  }
+
+  /** Complete the flight recorder event of a call; attributes are only computed when recording. */
+  private static void commit(ReportPortalHttpEvent httpEvent, Request req) {
+    if (httpEvent.shouldCommit()) {
+      httpEvent.method = req.method();
+      httpEvent.url = req.url().toString();
+      try {
+        httpEvent.requestBytes = req.body() != null ? req.body().contentLength() : 0;
+      } catch (IOException e) {
+        httpEvent.requestBytes = -1;
       }
-      return (resp.body() != null) ? resp.body().string() : "";
+      httpEvent.commit();
     }
   }
 
@@ -102,17 +458,35 @@ public class ReportPortalImportAPIClient {
   /** Simple health check to verify token works against base. */
   public boolean ping() {
     try {
-      // “GET /v1” is not a standard health endpoint; adapt to your environment if you have one.
-      Request req =
-          new Request.Builder()
-              .url(apiBase.newBuilder().addPathSegment("v1").build())
-              .addHeader("Authorization", "Bearer " + bearerToken)
-              .build();
-      try (Response resp = http.newCall(req).execute()) {
-        return resp.code() < 500;
-      }
+      return await(pingAsync());
     } catch (Exception e) {
       return false;
     }
   }
+
+  /**
+   * Check the server and token without holding the calling thread, within the call timeout of the
+   * client. Calls share one connection pool, so a ping made early, while the test runs, also opens
+   * the connection a later import reuses.
+   */
+  public CompletableFuture<Boolean> pingAsync() {
+    return pingAsync(callTimeoutMillis);
+  }
+
+  /**
+   * @param timeoutMillis bound on the whole call, {@code 0} for none
+   * @return true if the server answered below HTTP 500, failed if it could not be reached
+   */
+  public CompletableFuture<Boolean> pingAsync(long timeoutMillis) {
+    // "GET /v1" is not a standard health endpoint; adapt to your environment if you have one.
+    Request req =
+        new Request.Builder()
+            .url(apiBase.newBuilder().addPathSegment("v1").build())
+            .addHeader("Authorization", "Bearer " + bearerToken)
+            .build();
+    Exchange<Boolean> exchange =
+        new Exchange<>(deadline(timeoutMillis), 0, () -> req, resp -> resp.code() < 500);
+    exchange.attempt(0);
+    return exchange;
+  }
 }
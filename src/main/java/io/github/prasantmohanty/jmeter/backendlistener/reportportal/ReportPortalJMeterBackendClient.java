@@ -17,16 +17,48 @@
 package io.github.prasantmohanty.jmeter.backendlistener.reportportal;
 
 import com.google.gson.Gson;
+import io.github.prasantmohanty.jmeter.backendlistener.analysis.ChangePointDetector;
+import io.github.prasantmohanty.jmeter.backendlistener.analysis.InjectorHealthMonitor;
+import io.github.prasantmohanty.jmeter.backendlistener.analysis.LatencyDecomposer;
+import io.github.prasantmohanty.jmeter.backendlistener.analysis.RegressionAnalyzer;
+import io.github.prasantmohanty.jmeter.backendlistener.analysis.SampleAnalyzer;
+import io.github.prasantmohanty.jmeter.backendlistener.analysis.SaturationAnalyzer;
+import io.github.prasantmohanty.jmeter.backendlistener.analysis.SlaEvaluator;
+import io.github.prasantmohanty.jmeter.backendlistener.analysis.SlaRule;
+import io.github.prasantmohanty.jmeter.backendlistener.analysis.SloEvaluator;
+import io.github.prasantmohanty.jmeter.backendlistener.archive.ColumnarArchiveWriter;
+import io.github.prasantmohanty.jmeter.backendlistener.baseline.BaselineStore;
+import io.github.prasantmohanty.jmeter.backendlistener.capture.CaptureGovernor;
+import io.github.prasantmohanty.jmeter.backendlistener.capture.CaptureTier;
+import io.github.prasantmohanty.jmeter.backendlistener.capture.HeapBudget;
+import io.github.prasantmohanty.jmeter.backendlistener.jfr.SampleBatchEvent;
+import io.github.prasantmohanty.jmeter.backendlistener.metrics.OpenMetricsEndpoint;
+import io.github.prasantmohanty.jmeter.backendlistener.metrics.SampleStatistics;
+import io.github.prasantmohanty.jmeter.backendlistener.model.HeaderExtractor;
 import io.github.prasantmohanty.jmeter.backendlistener.model.MetricsRow;
+import io.github.prasantmohanty.jmeter.backendlistener.model.Payload;
+import io.github.prasantmohanty.jmeter.backendlistener.model.SampleDictionary;
+import io.github.prasantmohanty.jmeter.backendlistener.replay.PublisherSidecar;
+import io.github.prasantmohanty.jmeter.backendlistener.replay.SampleRecorder;
+import io.github.prasantmohanty.jmeter.backendlistener.replay.SampleRingWriter;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.jmeter.config.Arguments;
+import org.apache.jmeter.engine.StandardJMeterEngine;
 import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.util.JMeterUtils;
 import org.apache.jmeter.visualizers.backend.AbstractBackendListenerClient;
@@ -56,6 +88,80 @@ public class ReportPortalJMeterBackendClient extends AbstractBackendListenerClie
 
   private static final String REPORTPORTAL_TEST_NAME = "TestName";
 
+  private static final String EXTRACT_HEADERS = "ExtractHeaders";
+
+  private static final String METRICS_ENDPOINT_HOST = "MetricsEndpointHost";
+
+  private static final String METRICS_ENDPOINT_PORT = "MetricsEndpointPort";
+
+  private static final String SLA_RULES = "SlaRules";
+
+  private static final String SLA_WINDOW_SECONDS = "SlaWindowSeconds";
+
+  private static final String SLA_MIN_SAMPLES = "SlaMinSamples";
+
+  private static final String SLA_ABORT_ON_BREACH = "SlaAbortOnBreach";
+
+  private static final String BASELINE_STORE_DIR = "BaselineStoreDir";
+
+  private static final String BASELINE_MODE = "BaselineMode";
+
+  private static final String REGRESSION_THRESHOLDS = "RegressionThresholds";
+
+  private static final String SATURATION_ANALYSIS = "SaturationAnalysis";
+
+  private static final String SATURATION_MIN_SAMPLES = "SaturationMinSamples";
+
+  private static final String LATENCY_DECOMPOSITION = "LatencyDecomposition";
+
+  private static final String APDEX_THRESHOLDS = "ApdexThresholds";
+
+  private static final String ERROR_BUDGET_TARGET = "ErrorBudgetTarget";
+
+  private static final String BURN_RATE_WINDOWS = "BurnRateWindows";
+
+  private static final String CHANGE_POINT_DETECTION = "ChangePointDetection";
+
+  private static final String CHANGE_POINT_WINDOW_SECONDS = "ChangePointWindowSeconds";
+
+  private static final String CHANGE_POINT_THRESHOLD = "ChangePointThreshold";
+
+  private static final String INJECTOR_HEALTH = "InjectorHealth";
+
+  private static final String INJECTOR_HEALTH_THRESHOLDS = "InjectorHealthThresholds";
+
+  private static final String ARCHIVE_DIR = "ArchiveDir";
+
+  private static final String RECORD_DIR = "RecordDir";
+
+  private static final String RECORD_BODIES = "RecordBodies";
+
+  private static final String ADAPTIVE_CAPTURE = "AdaptiveCapture";
+
+  private static final String CAPTURE_MAX_LAG_MILLIS = "CaptureMaxLagMillis";
+
+  private static final String CAPTURE_RECOVER_SECONDS = "CaptureRecoverSeconds";
+
+  private static final String HEAP_BUDGET = "HeapBudget";
+
+  private static final String HEAP_BUDGET_ACTION = "HeapBudgetAction";
+
+  private static final String PUBLISH_MODE = "PublishMode";
+
+  private static final String PUBLISH_WAIT_SECONDS = "PublishWaitSeconds";
+
+  private static final String PUBLISH_DEADLINE_SECONDS = "PublishDeadlineSeconds";
+
+  private static final String OUTBOX_DIR = "OutboxDir";
+
+  private static final String REPORT_DIR = "ReportDir";
+
+  private static final String PAYLOAD_DEDUP = "PayloadDedup";
+
+  private static final String SIDECAR_RING_FILE = "SidecarRingFile";
+
+  private static final String SIDECAR_RING_SIZE = "SidecarRingSize";
+
   private static final Map<String, String> DEFAULT_ARGS = new LinkedHashMap<>();
 
   static {
@@ -64,11 +170,73 @@ public class ReportPortalJMeterBackendClient extends AbstractBackendListenerClie
     DEFAULT_ARGS.put(REPORTPORTAL_BEARRER_TOKEN_STRING, "my-token");
     DEFAULT_ARGS.put(REPORTPORTAL_TEST_NAME, "JMeter Test");
     DEFAULT_ARGS.put(BUILD_NUMBER, "0");
+    DEFAULT_ARGS.put(EXTRACT_HEADERS, HeaderExtractor.DEFAULT_HEADERS);
+    DEFAULT_ARGS.put(METRICS_ENDPOINT_HOST, "127.0.0.1");
+    DEFAULT_ARGS.put(METRICS_ENDPOINT_PORT, "");
+    DEFAULT_ARGS.put(SLA_RULES, "");
+    DEFAULT_ARGS.put(SLA_WINDOW_SECONDS, "60");
+    DEFAULT_ARGS.put(SLA_MIN_SAMPLES, "20");
+    DEFAULT_ARGS.put(SLA_ABORT_ON_BREACH, "false");
+    DEFAULT_ARGS.put(BASELINE_STORE_DIR, "");
+    DEFAULT_ARGS.put(BASELINE_MODE, "last:5");
+    DEFAULT_ARGS.put(REGRESSION_THRESHOLDS, RegressionAnalyzer.DEFAULT_THRESHOLDS);
+    DEFAULT_ARGS.put(SATURATION_ANALYSIS, "false");
+    DEFAULT_ARGS.put(SATURATION_MIN_SAMPLES, "50");
+    DEFAULT_ARGS.put(LATENCY_DECOMPOSITION, "false");
+    DEFAULT_ARGS.put(APDEX_THRESHOLDS, "");
+    DEFAULT_ARGS.put(ERROR_BUDGET_TARGET, "");
+    DEFAULT_ARGS.put(BURN_RATE_WINDOWS, SloEvaluator.DEFAULT_BURN_RATE_WINDOWS);
+    DEFAULT_ARGS.put(CHANGE_POINT_DETECTION, "false");
+    DEFAULT_ARGS.put(CHANGE_POINT_WINDOW_SECONDS, "10");
+    DEFAULT_ARGS.put(CHANGE_POINT_THRESHOLD, "5");
+    DEFAULT_ARGS.put(INJECTOR_HEALTH, "false");
+    DEFAULT_ARGS.put(INJECTOR_HEALTH_THRESHOLDS, InjectorHealthMonitor.DEFAULT_THRESHOLDS);
+    DEFAULT_ARGS.put(ARCHIVE_DIR, "");
+    DEFAULT_ARGS.put(RECORD_DIR, "");
+    DEFAULT_ARGS.put(RECORD_BODIES, "false");
+    DEFAULT_ARGS.put(ReportPortalMetricPublisher.REPORT_THREADS, "0");
+    DEFAULT_ARGS.put(ReportPortalMetricPublisher.REPORT_SUITE_PER_LABEL, "false");
+    DEFAULT_ARGS.put(ReportPortalMetricPublisher.BINARY_PAYLOADS, "omit");
+    DEFAULT_ARGS.put(ReportPortalRateLimiter.REQUESTS_PER_SECOND, "2");
+    DEFAULT_ARGS.put(ReportPortalRateLimiter.BYTES_PER_SECOND, "0");
+    DEFAULT_ARGS.put(ReportPortalRateLimiter.MAX_IN_FLIGHT, "2");
+    DEFAULT_ARGS.put(ReportPortalRateLimiter.MAX_RETRIES, "5");
+    DEFAULT_ARGS.put(ADAPTIVE_CAPTURE, "false");
+    DEFAULT_ARGS.put(CAPTURE_MAX_LAG_MILLIS, "2000");
+    DEFAULT_ARGS.put(CAPTURE_RECOVER_SECONDS, "30");
+    DEFAULT_ARGS.put(HEAP_BUDGET, "");
+    DEFAULT_ARGS.put(HEAP_BUDGET_ACTION, "spill");
+    DEFAULT_ARGS.put(PUBLISH_MODE, "sync");
+    DEFAULT_ARGS.put(PUBLISH_WAIT_SECONDS, "30");
+    DEFAULT_ARGS.put(PUBLISH_DEADLINE_SECONDS, "900");
+    DEFAULT_ARGS.put(OUTBOX_DIR, "");
+    DEFAULT_ARGS.put(REPORT_DIR, "");
+    DEFAULT_ARGS.put(PAYLOAD_DEDUP, "false");
+    DEFAULT_ARGS.put(PublisherSidecar.PUBLISH_SIDECAR, "off");
+    DEFAULT_ARGS.put(SIDECAR_RING_FILE, "");
+    DEFAULT_ARGS.put(SIDECAR_RING_SIZE, SampleRingWriter.DEFAULT_CAPACITY);
   }
 
   private ReportPortalMetricPublisher publisher;
   private Set<String> filters;
+  private List<Pattern> filterPatterns;
+  /** filter verdict by label id: 0 not yet evaluated, 1 accepted, 2 filtered out */
+  private byte[] verdictsByLabelId;
+  private SampleDictionary dictionary;
   private Set<String> fields;
+  private HeaderExtractor headerExtractor;
+  private SampleStatistics statistics;
+  private OpenMetricsEndpoint metricsEndpoint;
+  private List<SampleAnalyzer> analyzers;
+  private ColumnarArchiveWriter archiveWriter;
+  private SampleRecorder recorder;
+  private SampleRingWriter ringWriter;
+  private Process sidecar;
+  private CaptureGovernor captureGovernor;
+  private HeapBudget heapBudget;
+  private PublishingEngine engine;
+  private PayloadStore payloadStore;
+  private Outbox outbox;
   private String buildNumber;
   private String testName;
 
@@ -97,6 +265,12 @@ public class ReportPortalJMeterBackendClient extends AbstractBackendListenerClie
     logger.debug(
         REPORTPORTAL_TEST_NAME + " parameter: " + context.getParameter(REPORTPORTAL_TEST_NAME));
 
+    String sidecarMode = context.getParameter(PublisherSidecar.PUBLISH_SIDECAR, "off").trim();
+    if (!"off".equalsIgnoreCase(sidecarMode) && startSidecar(context, sidecarMode)) {
+      super.setupTest(context);
+      return;
+    }
+
     Map<String, String> reportPortalConfigs = new HashMap<>();
     reportPortalConfigs.put(REPORTPORTAL_API_BASE, context.getParameter(REPORTPORTAL_API_BASE));
     reportPortalConfigs.put(
@@ -105,6 +279,24 @@ public class ReportPortalJMeterBackendClient extends AbstractBackendListenerClie
         REPORTPORTAL_BEARRER_TOKEN_STRING, context.getParameter(REPORTPORTAL_BEARRER_TOKEN_STRING));
     reportPortalConfigs.put(REPORTPORTAL_TEST_NAME, context.getParameter(REPORTPORTAL_TEST_NAME));
     reportPortalConfigs.put(BUILD_NUMBER, context.getParameter(BUILD_NUMBER));
+    reportPortalConfigs.put(
+        ReportPortalMetricPublisher.REPORT_THREADS,
+        context.getParameter(ReportPortalMetricPublisher.REPORT_THREADS, "0"));
+    reportPortalConfigs.put(
+        ReportPortalMetricPublisher.REPORT_SUITE_PER_LABEL,
+        context.getParameter(ReportPortalMetricPublisher.REPORT_SUITE_PER_LABEL, "false"));
+    reportPortalConfigs.put(
+        ReportPortalMetricPublisher.BINARY_PAYLOADS,
+        context.getParameter(ReportPortalMetricPublisher.BINARY_PAYLOADS, "omit"));
+    for (String limit :
+        new String[] {
+          ReportPortalRateLimiter.REQUESTS_PER_SECOND,
+          ReportPortalRateLimiter.BYTES_PER_SECOND,
+          ReportPortalRateLimiter.MAX_IN_FLIGHT,
+          ReportPortalRateLimiter.MAX_RETRIES
+        }) {
+      reportPortalConfigs.put(limit, context.getParameter(limit, DEFAULT_ARGS.get(limit)));
+    }
 
     this.filters = new HashSet<>();
     this.fields = new HashSet<>();
@@ -115,10 +307,209 @@ public class ReportPortalJMeterBackendClient extends AbstractBackendListenerClie
                     .equals(""))
             ? JMeterUtils.getProperty(ReportPortalJMeterBackendClient.BUILD_NUMBER)
             : "0";
+    this.headerExtractor = HeaderExtractor.compile(context.getParameter(EXTRACT_HEADERS, ""));
     logger.debug("Build Number: " + this.buildNumber);
     logger.debug("Test Name: " + this.testName);
 
     this.publisher = new ReportPortalMetricPublisher(reportPortalConfigs);
+    // checked while the test runs, not waited for
+    this.publisher.warmUp();
+    String reportDir = context.getParameter(REPORT_DIR, "").trim();
+    if (!reportDir.isEmpty()) {
+      Files.createDirectories(Paths.get(reportDir));
+      this.publisher.setReportDir(new File(reportDir));
+    }
+
+    this.filterPatterns = new ArrayList<>();
+    for (String filter : this.filters) {
+      this.filterPatterns.add(Pattern.compile(filter));
+    }
+    this.verdictsByLabelId = new byte[16];
+    this.dictionary = new SampleDictionary();
+    this.statistics = new SampleStatistics(this.dictionary);
+    String metricsPort = context.getParameter(METRICS_ENDPOINT_PORT, "").trim();
+    if (!metricsPort.isEmpty()) {
+      try {
+        this.metricsEndpoint =
+            new OpenMetricsEndpoint(
+                context.getParameter(METRICS_ENDPOINT_HOST, "127.0.0.1").trim(),
+                Integer.parseInt(metricsPort),
+                this.statistics);
+        this.metricsEndpoint.start();
+      } catch (Exception e) {
+        logger.error("Unable to start live metrics endpoint on port " + metricsPort, e);
+        this.metricsEndpoint = null;
+      }
+    }
+
+    String runBuildNumber =
+        "0".equals(this.buildNumber) ? context.getParameter(BUILD_NUMBER, "0") : this.buildNumber;
+    this.analyzers = new ArrayList<>();
+    List<SlaRule> slaRules = SlaRule.parseAll(context.getParameter(SLA_RULES, ""));
+    if (!slaRules.isEmpty()) {
+      boolean abortOnBreach =
+          Boolean.parseBoolean(context.getParameter(SLA_ABORT_ON_BREACH, "false").trim());
+      this.analyzers.add(
+          new SlaEvaluator(
+              slaRules,
+              context.getLongParameter(SLA_WINDOW_SECONDS, 60L) * 1000L,
+              context.getLongParameter(SLA_MIN_SAMPLES, 20L),
+              abortOnBreach ? StandardJMeterEngine::stopEngine : null,
+              this.dictionary));
+      logger.info("Evaluating SLA rules: " + slaRules);
+    }
+    String baselineDir = context.getParameter(BASELINE_STORE_DIR, "").trim();
+    if (!baselineDir.isEmpty()) {
+      this.analyzers.add(
+          new RegressionAnalyzer(
+              new BaselineStore(new File(baselineDir)),
+              this.statistics,
+              context.getParameter(REPORTPORTAL_TEST_NAME),
+              runBuildNumber,
+              context.getParameter(BASELINE_MODE, "last:5"),
+              context.getParameter(REGRESSION_THRESHOLDS, RegressionAnalyzer.DEFAULT_THRESHOLDS)));
+    }
+    if (Boolean.parseBoolean(context.getParameter(SATURATION_ANALYSIS, "false").trim())) {
+      this.analyzers.add(
+          new SaturationAnalyzer(context.getLongParameter(SATURATION_MIN_SAMPLES, 50L)));
+    }
+    if (Boolean.parseBoolean(context.getParameter(LATENCY_DECOMPOSITION, "false").trim())) {
+      this.analyzers.add(new LatencyDecomposer());
+    }
+    String apdexThresholds = context.getParameter(APDEX_THRESHOLDS, "").trim();
+    String errorBudgetTarget = context.getParameter(ERROR_BUDGET_TARGET, "").trim();
+    if (!apdexThresholds.isEmpty() || !errorBudgetTarget.isEmpty()) {
+      try {
+        this.analyzers.add(
+            new SloEvaluator(
+                apdexThresholds,
+                errorBudgetTarget.isEmpty() ? 0 : Double.parseDouble(errorBudgetTarget),
+                SloEvaluator.BurnWindow.parseAll(
+                    context.getParameter(
+                        BURN_RATE_WINDOWS, SloEvaluator.DEFAULT_BURN_RATE_WINDOWS)),
+                context.getLongParameter(SLA_MIN_SAMPLES, 20L),
+                this.dictionary));
+      } catch (IllegalArgumentException e) {
+        logger.warn(
+            "Invalid {} '{}', {} '{}' or {}, not evaluating SLOs: {}",
+            APDEX_THRESHOLDS,
+            apdexThresholds,
+            ERROR_BUDGET_TARGET,
+            errorBudgetTarget,
+            BURN_RATE_WINDOWS,
+            e.getMessage());
+      }
+    }
+    if (Boolean.parseBoolean(context.getParameter(CHANGE_POINT_DETECTION, "false").trim())) {
+      String threshold = context.getParameter(CHANGE_POINT_THRESHOLD, "5").trim();
+      try {
+        this.analyzers.add(
+            new ChangePointDetector(
+                context.getLongParameter(CHANGE_POINT_WINDOW_SECONDS, 10L) * 1000L,
+                Double.parseDouble(threshold),
+                this.dictionary));
+      } catch (IllegalArgumentException e) {
+        logger.warn(
+            "Invalid {} '{}' or {}, not detecting change points: {}",
+            CHANGE_POINT_THRESHOLD,
+            threshold,
+            CHANGE_POINT_WINDOW_SECONDS,
+            e.getMessage());
+      }
+    }
+    if (Boolean.parseBoolean(context.getParameter(INJECTOR_HEALTH, "false").trim())) {
+      InjectorHealthMonitor monitor =
+          new InjectorHealthMonitor(
+              injectorHostname(), context.getParameter(INJECTOR_HEALTH_THRESHOLDS, ""));
+      monitor.start();
+      this.analyzers.add(monitor);
+    }
+
+    this.captureGovernor = null;
+    if (Boolean.parseBoolean(context.getParameter(ADAPTIVE_CAPTURE, "false").trim())) {
+      this.captureGovernor =
+          new CaptureGovernor(
+              JMeterUtils.getPropDefault("backend_queue_size", 5000),
+              context.getLongParameter(CAPTURE_MAX_LAG_MILLIS, 2000L),
+              context.getLongParameter(CAPTURE_RECOVER_SECONDS, 30L) * 1000L);
+    }
+
+    this.heapBudget = null;
+    long budgetBytes =
+        HeapBudget.parseBudget(
+            context.getParameter(HEAP_BUDGET, ""), Runtime.getRuntime().maxMemory());
+    if (budgetBytes > 0) {
+      this.heapBudget =
+          new HeapBudget(
+              budgetBytes,
+              HeapBudget.Action.parse(context.getParameter(HEAP_BUDGET_ACTION, "spill")));
+      this.heapBudget.installSafetyNet();
+      this.publisher.setHeapBudget(this.heapBudget);
+      logger.info(
+          "Heap budget of "
+              + budgetBytes
+              + " bytes, action "
+              + this.heapBudget.getAction()
+              + " when reached");
+    }
+
+    String archiveDir = context.getParameter(ARCHIVE_DIR, "").trim();
+    if (!archiveDir.isEmpty()) {
+      File archive =
+          new File(
+              archiveDir,
+              ColumnarArchiveWriter.fileName(
+                  context.getParameter(REPORTPORTAL_TEST_NAME),
+                  runBuildNumber,
+                  System.currentTimeMillis()));
+      try {
+        this.archiveWriter = new ColumnarArchiveWriter(archive);
+        logger.info("Archiving samples to " + archive);
+      } catch (IOException e) {
+        logger.error("Unable to create results archive " + archive, e);
+        this.archiveWriter = null;
+      }
+    }
+
+    String recordDir = context.getParameter(RECORD_DIR, "").trim();
+    if (!recordDir.isEmpty()) {
+      File recording =
+          new File(
+              recordDir,
+              SampleRecorder.fileName(
+                  context.getParameter(REPORTPORTAL_TEST_NAME),
+                  runBuildNumber,
+                  System.currentTimeMillis()));
+      try {
+        this.recorder =
+            new SampleRecorder(
+                recording, Boolean.parseBoolean(context.getParameter(RECORD_BODIES, "false")));
+        logger.info("Recording sample batches to " + recording);
+      } catch (IOException e) {
+        logger.error("Unable to create sample recording " + recording, e);
+        this.recorder = null;
+      }
+    }
+
+    String outboxDir = context.getParameter(OUTBOX_DIR, "").trim();
+    this.outbox = outboxDir.isEmpty() ? null : new Outbox(new File(outboxDir));
+    this.engine =
+        PublishingEngine.join(
+            this.publisher,
+            this.outbox,
+            new PublishingEngine.Settings(
+                "background".equalsIgnoreCase(context.getParameter(PUBLISH_MODE, "sync").trim()),
+                context.getLongParameter(PUBLISH_WAIT_SECONDS, 30L) * 1000L,
+                context.getLongParameter(PUBLISH_DEADLINE_SECONDS, 900L) * 1000L));
+    if (Boolean.parseBoolean(context.getParameter(PAYLOAD_DEDUP, "false"))) {
+      try {
+        this.payloadStore = this.engine.payloadStore();
+        logger.info("Keeping identical payloads once in " + this.payloadStore.getFile());
+      } catch (IOException e) {
+        logger.error("Unable to create the payload store, payloads are kept per sample", e);
+        this.payloadStore = null;
+      }
+    }
 
     super.setupTest(context);
   }
@@ -153,21 +544,104 @@ public class ReportPortalJMeterBackendClient extends AbstractBackendListenerClie
     }
   }
 
+  /**
+   * Hand the samples over to a publisher sidecar through a ring file instead of publishing them
+   * from JMeter. The ring is sized once and never grows: when the sidecar falls behind, batches
+   * are dropped and counted, the test itself is never slowed down.
+   *
+   * @param mode {@code launch} to start the sidecar, {@code external} if it is started by hand
+   * @return true if the samples go to the sidecar, false to publish them from JMeter
+   */
+  private boolean startSidecar(BackendListenerContext context, String mode) {
+    if (!"launch".equalsIgnoreCase(mode) && !"external".equalsIgnoreCase(mode)) {
+      logger.error(
+          "Unknown " + PublisherSidecar.PUBLISH_SIDECAR + " " + mode + ", publishing from JMeter");
+      return false;
+    }
+    String ringFile = context.getParameter(SIDECAR_RING_FILE, "").trim();
+    File ring =
+        new File(
+            ringFile.isEmpty()
+                ? SampleRingWriter.fileName(
+                    context.getParameter(REPORTPORTAL_TEST_NAME),
+                    context.getParameter(BUILD_NUMBER, "0"))
+                : ringFile);
+    try {
+      this.ringWriter =
+          new SampleRingWriter(
+              ring,
+              SampleRingWriter.parseCapacity(
+                  context.getParameter(SIDECAR_RING_SIZE, SampleRingWriter.DEFAULT_CAPACITY)),
+              Boolean.parseBoolean(context.getParameter(RECORD_BODIES, "false")));
+      if ("launch".equalsIgnoreCase(mode)) {
+        Map<String, String> parameters = new HashMap<>();
+        context
+            .getParameterNamesIterator()
+            .forEachRemaining(name -> parameters.put(name, context.getParameter(name)));
+        this.sidecar = PublisherSidecar.launch(ring, parameters);
+        logger.info("Publishing from a sidecar process reading " + ring);
+      } else {
+        logger.info("Writing samples to " + ring + " for an external publisher sidecar");
+      }
+      return true;
+    } catch (IOException | IllegalArgumentException e) {
+      logger.error("Unable to hand samples to a sidecar through " + ring + ", publishing here", e);
+      if (this.ringWriter != null) {
+        try {
+          this.ringWriter.close();
+        } catch (IOException suppressed) {
+          e.addSuppressed(suppressed);
+        }
+        this.ringWriter = null;
+      }
+      return false;
+    }
+  }
+
   @Override
   public void handleSampleResults(List<SampleResult> results, BackendListenerContext context) {
+    if (this.ringWriter != null) {
+      this.ringWriter.write(results);
+      return;
+    }
+    SampleBatchEvent batchEvent = new SampleBatchEvent();
+    batchEvent.begin();
+    record(results);
+    CaptureTier tier =
+        this.captureGovernor == null ? CaptureTier.FULL : this.captureGovernor.beforeBatch(results);
+    if (this.heapBudget != null) {
+      this.publisher.enforceHeapBudget();
+      tier = this.heapBudget.limit(tier);
+    }
     for (SampleResult sr : results) {
+      if (validateSample(context, sr)) {
+        this.statistics.record(sr);
+        for (SampleAnalyzer analyzer : this.analyzers) {
+          analyzer.onSample(sr);
+        }
+        archive(sr);
+        if (!tier.capturesSamples()) {
+          continue;
+        }
 
-      MetricsRow row = new MetricsRow(sr, this.buildNumber, fields);
+        MetricsRow row = new MetricsRow(sr, this.buildNumber, fields, headerExtractor);
+        Payload responseData = row.detachResponseBody();
+        boolean payloads = tier.capturesPayloads(sr.isSuccessful());
 
-      logger.debug("Generated MetricsRow: " + row.toString());
+        logger.debug("Generated MetricsRow: " + row.toString());
 
-      if (validateSample(context, sr)) {
         try {
           // Prefix to skip from adding service specific parameters to the metrics row
           String servicePrefixName = "reportPortal.";
-          String gson = new Gson().toJson(row.getRowAsMap(context, servicePrefixName));
+          Map<String, Object> metrics = row.getRowAsMap(context, servicePrefixName);
+          if (!payloads) {
+            metrics.remove("RequestBody");
+            responseData = null;
+          }
+          responseData = intern(metrics, responseData, sr.getSampleLabel());
+          String gson = new Gson().toJson(metrics);
           logger.debug("Adding to report portal list: " + gson);
-          this.publisher.addToList(gson);
+          this.publisher.addToList(gson, responseData);
         } catch (Exception e) {
           logger.error(
               "The Report Portal Backend Listener was unable to add sampler to the list of samplers"
@@ -188,6 +662,11 @@ public class ReportPortalJMeterBackendClient extends AbstractBackendListenerClie
       logger.error("Error occurred while publishing to report portal.", e);
     } finally {
       // Do not clear here; keep accumulated metrics until teardownTest triggers the single import.
+      if (this.captureGovernor != null) {
+        this.captureGovernor.afterBatch();
+      }
+      batchEvent.batchSize = results.size();
+      batchEvent.commit();
     }
   }
 
@@ -200,19 +679,218 @@ public class ReportPortalJMeterBackendClient extends AbstractBackendListenerClie
    */
   @Override
   public void teardownTest(BackendListenerContext context) throws Exception {
-    if (this.publisher.getListSize() > 0) {
-      logger.debug(
-          "Publishing accumulated "
-              + this.publisher.getListSize()
-              + " metrics to ReportPortal at teardown.");
-      this.publisher.publishMetrics();
+    if (this.ringWriter != null) {
+      this.ringWriter.close();
+      logger.info(
+          "Handed "
+              + this.ringWriter.getSamples()
+              + " samples in "
+              + this.ringWriter.getBatches()
+              + " batches to the publisher sidecar, "
+              + this.ringWriter.getDroppedSamples()
+              + " dropped as "
+              + this.ringWriter.getFile()
+              + " was full");
+      if (this.sidecar != null && !this.sidecar.isAlive()) {
+        logger.error(
+            "The publisher sidecar exited early with status "
+                + this.sidecar.exitValue()
+                + ", see "
+                + this.ringWriter.getFile()
+                + ".log");
+      }
+      this.ringWriter = null;
+      this.sidecar = null;
+      super.teardownTest(context);
+      return;
+    }
+    if (this.metricsEndpoint != null) {
+      this.metricsEndpoint.stop();
+      this.metricsEndpoint = null;
+    }
+    for (SampleAnalyzer analyzer : this.analyzers) {
+      analyzer.contribute(this.publisher.getAnalysisReport());
+    }
+    if (this.captureGovernor != null) {
+      this.captureGovernor.contribute(this.publisher.getAnalysisReport());
+    }
+    if (this.heapBudget != null) {
+      this.heapBudget.contribute(this.publisher.getAnalysisReport());
+      if (this.publisher.getSpilledCount() > 0) {
+        this.publisher
+            .getAnalysisReport()
+            .addLaunchAttribute(
+                "heapBudgetSpilledSamples", Integer.toString(this.publisher.getSpilledCount()));
+      }
+    }
+    if (this.archiveWriter != null) {
+      try {
+        this.archiveWriter.close();
+        this.publisher
+            .getAnalysisReport()
+            .addLaunchAttribute("archive", this.archiveWriter.getFile().getName());
+        logger.info(
+            "Archived "
+                + this.archiveWriter.getRows()
+                + " samples to "
+                + this.archiveWriter.getFile());
+      } catch (IOException e) {
+        logger.error("Unable to close results archive " + this.archiveWriter.getFile(), e);
+      }
+      this.archiveWriter = null;
+    }
+    if (this.recorder != null) {
+      try {
+        this.recorder.close();
+        this.publisher
+            .getAnalysisReport()
+            .addLaunchAttribute("recording", this.recorder.getFile().getName());
+        logger.info(
+            "Recorded "
+                + this.recorder.getSamples()
+                + " samples in "
+                + this.recorder.getBatches()
+                + " batches to "
+                + this.recorder.getFile());
+      } catch (IOException e) {
+        logger.error("Unable to close sample recording " + this.recorder.getFile(), e);
+      }
+      this.recorder = null;
+    }
+    if (!this.engine.leave()) {
+      logger.info(
+          "Leaving the ReportPortal publish of {} metrics to the last listener of the launch",
+          this.publisher.getListSize());
+    } else {
+      publish(this.engine);
+    }
+    if (this.heapBudget != null) {
+      this.heapBudget.close();
+      this.heapBudget = null;
+    }
+    this.payloadStore = null;
+    // this.publisher.closeProducer();
+    super.teardownTest(context);
+  }
+
+  /**
+   * Import the results of all listeners of the launch, done by the last one to tear down with the
+   * settings of the first one.
+   *
+   * @param engine publishing engine of the launch
+   */
+  private static void publish(PublishingEngine engine) throws InterruptedException {
+    PublishingEngine.Settings settings = engine.getSettings();
+    ReportPortalMetricPublisher lead = engine.getLead();
+    BackgroundPublisher backgroundPublisher = engine.getBackgroundPublisher();
+    if (lead.getMembersListSize() == 0) {
+      backgroundPublisher.disarmShutdownHook();
+      return;
+    }
+    logger.debug(
+        "Publishing accumulated " + lead.getMembersListSize() + " metrics to ReportPortal.");
+    PayloadStore payloadStore = lead.getPayloadStore();
+    if (payloadStore != null && payloadStore.getOffered() > 0) {
+      logger.info("Payload store: " + payloadStore.summary());
+      lead.getAnalysisReport().addLaunchAttribute("payloadDedup", payloadStore.summary());
+    }
+    if (settings.background) {
+      // the publisher clears the list once done; the next run gets a new publisher
+      backgroundPublisher.start(settings.deadlineMillis);
+      if (!backgroundPublisher.await(settings.waitMillis)) {
+        long deadline = backgroundPublisher.getDeadline();
+        logger.info(
+            "Detached from the ReportPortal publish ("
+                + lead.getProgress()
+                + "), it continues in the background"
+                + (deadline > 0 ? " until " + Instant.ofEpochMilli(deadline) : ""));
+        if (engine.getOutbox() == null) {
+          logger.warn(
+              "No {} set, the ReportPortal publish is lost if the JVM exits before it is done",
+              OUTBOX_DIR);
+        }
+      }
+    } else {
+      lead.publishMetrics(engine.getOutbox(), 0);
       // clear after publishing so repeated runs or multiple teardown calls don't resend the same
       // data
-      this.publisher.clearList();
+      lead.clearList();
       logger.debug("Cleared accumulated metrics after publish.");
+      backgroundPublisher.disarmShutdownHook();
+    }
+  }
+
+  /**
+   * Move the payloads of a metric to the payload store. A failing store is abandoned, payloads are
+   * then kept per sample; those already stored are still resolved when the report is written.
+   *
+   * @return the response payload to buffer with the metric, null if it was stored
+   */
+  private Payload intern(Map<String, Object> metrics, Payload responseData, String label) {
+    if (this.payloadStore == null) {
+      return responseData;
+    }
+    try {
+      return this.payloadStore.intern(metrics, responseData, label);
+    } catch (IOException e) {
+      logger.error("Unable to write the payload store, payloads are kept per sample from now", e);
+      this.payloadStore = null;
+      return responseData;
+    }
+  }
+
+  /**
+   * Append a sample to the results archive. A failing archive is closed and abandoned so that it
+   * cannot slow down or break the rest of the run.
+   *
+   * @param sr the sample
+   */
+  private void archive(SampleResult sr) {
+    if (this.archiveWriter == null) {
+      return;
+    }
+    try {
+      this.archiveWriter.append(sr);
+    } catch (IOException e) {
+      logger.error("Unable to write results archive, archiving stopped", e);
+      try {
+        this.archiveWriter.close();
+      } catch (IOException ignored) {
+        // already failing
+      }
+      this.archiveWriter = null;
+    }
+  }
+
+  /**
+   * Append a batch, as it reached the listener, to the sample recording. A failing recording is
+   * closed and abandoned so that it cannot slow down or break the rest of the run.
+   *
+   * @param results the batch
+   */
+  private void record(List<SampleResult> results) {
+    if (this.recorder == null) {
+      return;
+    }
+    try {
+      this.recorder.record(results);
+    } catch (IOException e) {
+      logger.error("Unable to write sample recording, recording stopped", e);
+      try {
+        this.recorder.close();
+      } catch (IOException ignored) {
+        // already failing
+      }
+      this.recorder = null;
+    }
+  }
+
+  private static String injectorHostname() {
+    try {
+      return InetAddress.getLocalHost().getHostName();
+    } catch (UnknownHostException e) {
+      return "unknown";
     }
-    // this.publisher.closeProducer();
-    super.teardownTest(context);
   }
 
   /**
@@ -229,24 +907,27 @@ public class ReportPortalJMeterBackendClient extends AbstractBackendListenerClie
    * @return true or false depending on whether or not the sample is valid
    */
   private boolean validateSample(BackendListenerContext context, SampleResult sr) {
-    boolean valid = true;
-    String sampleLabel = sr.getSampleLabel().toLowerCase().trim();
-    logger.debug("Validating sample label: " + sampleLabel);
-    if (this.filters.size() > 0) {
-      for (String filter : filters) {
-        Pattern pattern = Pattern.compile(filter);
-        Matcher matcher = pattern.matcher(sampleLabel);
-
-        if (sampleLabel.contains(filter) || matcher.find()) {
+    if (this.filters.isEmpty()) {
+      return true;
+    }
+    // the verdict only depends on the label, evaluate the filters once per distinct label
+    int id = this.dictionary.labelId(sr);
+    if (id >= this.verdictsByLabelId.length) {
+      int capacity = Math.max(id + 1, this.verdictsByLabelId.length * 2);
+      this.verdictsByLabelId = Arrays.copyOf(this.verdictsByLabelId, capacity);
+    }
+    if (this.verdictsByLabelId[id] == 0) {
+      String sampleLabel = this.dictionary.label(id).toLowerCase().trim();
+      boolean valid = false;
+      for (Pattern filter : this.filterPatterns) {
+        if (sampleLabel.contains(filter.pattern()) || filter.matcher(sampleLabel).find()) {
           valid = true;
           break;
-        } else {
-          valid = false;
         }
       }
+      logger.debug("Sample label " + sampleLabel + " passes the filters: " + valid);
+      this.verdictsByLabelId[id] = (byte) (valid ? 1 : 2);
     }
-
-    logger.debug("Sample validation result: " + valid);
-    return valid;
+    return this.verdictsByLabelId[id] == 1;
   }
 }
@@ -16,16 +16,26 @@
 
 package io.github.prasantmohanty.jmeter.backendlistener.reportportal;
 
-import io.github.prasantmohanty.jmeter.backendlistener.junit.transform.DomXmlJUnitReportWriter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.prasantmohanty.jmeter.backendlistener.analysis.AnalysisReport;
+import io.github.prasantmohanty.jmeter.backendlistener.capture.HeapBudget;
+import io.github.prasantmohanty.jmeter.backendlistener.jfr.ReportGenerationEvent;
 import io.github.prasantmohanty.jmeter.backendlistener.junit.transform.JtlRecord;
+import io.github.prasantmohanty.jmeter.backendlistener.junit.transform.ParallelJUnitReportGenerator;
 import io.github.prasantmohanty.jmeter.backendlistener.model.LaunchImportRq;
+import io.github.prasantmohanty.jmeter.backendlistener.model.Payload;
 import java.io.File;
+import java.io.IOException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,12 +50,118 @@ class ReportPortalMetricPublisher {
 
   private static final Logger logger = LoggerFactory.getLogger(ReportPortalMetricPublisher.class);
 
+  /** Number of threads generating the JUnit report, {@code 0} for one per processor. */
+  static final String REPORT_THREADS = "ReportThreads";
+
+  /** Write one test suite per sample label instead of a single suite. */
+  static final String REPORT_SUITE_PER_LABEL = "ReportSuitePerLabel";
+
+  /** How binary response payloads are written: {@code omit} or {@code base64}. */
+  static final String BINARY_PAYLOADS = "BinaryPayloads";
+
+  static final long WARM_UP_TIMEOUT_MILLIS = 10_000;
+
+  /** Holds the shared, thread-safe mapper; only loaded once a report is generated. */
+  private static final class Json {
+    static final ObjectMapper MAPPER = new ObjectMapper();
+  }
+
   private Map<String, String> reportPortalConfigs = new HashMap<>();
-  private List<String> metricList;
+  private List<BufferedMetric> metricList;
+  private final AnalysisReport analysisReport = new AnalysisReport();
+  private HeapBudget heapBudget;
+  private File reportDir = new File("");
+  private volatile String progress = "buffering";
+  private volatile File reportFile;
+  private volatile LaunchImportRq launchRequest;
+  private MetricSpill spill;
+  private PayloadStore payloadStore;
+  private List<ReportPortalMetricPublisher> members = Collections.singletonList(this);
+  private long retainedBytes;
+  private int retainedPayloads;
+
+  /** A metric JSON document and the response payload kept out of it. */
+  static final class BufferedMetric {
+    final String json;
+    final Payload responseData;
+
+    BufferedMetric(String json, Payload responseData) {
+      this.json = json;
+      this.responseData = responseData;
+    }
+
+    /**
+     * Estimated heap retained: the string with its array at two bytes per char, the payload with
+     * its array, the list slot and the object headers.
+     */
+    long retainedBytes() {
+      long bytes = 16 + 8 + 24 + 16 + 2L * json.length();
+      if (responseData != null) {
+        bytes += 32 + 16 + responseData.length();
+      }
+      return bytes;
+    }
+  }
 
   ReportPortalMetricPublisher(Map<String, String> reportPortalConfigs) {
     this.reportPortalConfigs = reportPortalConfigs;
-    this.metricList = new LinkedList<>();
+    this.metricList = new ArrayList<>();
+  }
+
+  /**
+   * Test cases and launch attributes contributed by in-stream analyses, published together with the
+   * sample metrics.
+   *
+   * @return the analysis report of this run
+   */
+  public AnalysisReport getAnalysisReport() {
+    return this.analysisReport;
+  }
+
+  /**
+   * Account the buffered metrics against a heap budget and enforce it when it is reached.
+   *
+   * @param heapBudget the budget, null for none
+   */
+  void setHeapBudget(HeapBudget heapBudget) {
+    this.heapBudget = heapBudget;
+  }
+
+  /**
+   * Publish together with other publishers of the same launch: one report with a test suite per
+   * member and one launch with the analysis results of all members.
+   *
+   * @param members all publishers of the launch including this one, in suite order
+   */
+  void setMembers(List<ReportPortalMetricPublisher> members) {
+    this.members = members;
+  }
+
+  /**
+   * Resolve the blob ids the metrics of all members carry instead of their payloads.
+   *
+   * @param payloadStore store of the launch, null if payloads are kept with the metrics
+   */
+  void setPayloadStore(PayloadStore payloadStore) {
+    this.payloadStore = payloadStore;
+  }
+
+  PayloadStore getPayloadStore() {
+    return this.payloadStore;
+  }
+
+  /** @return the number of metrics buffered by all members */
+  int getMembersListSize() {
+    int size = 0;
+    for (ReportPortalMetricPublisher member : this.members) {
+      size += member.getListSize();
+    }
+    return size;
+  }
+
+  /** @return the number of metrics moved to the spill file */
+  int getSpilledCount() {
+    return this.spill == null ? 0 : this.spill.size();
   }
 
   public Map<String, String> getReportPortalConfigs() {
@@ -57,45 +173,305 @@ class ReportPortalMetricPublisher {
    *
    * @return integer representing the size of the JSON documents list
    */
-  public int getListSize() {
-    return this.metricList.size();
+  public synchronized int getListSize() {
+    return this.metricList.size() + getSpilledCount();
   }
 
-  /** This method clears the JSON documents list */
+  /** This method clears the JSON documents list, its spill file and the analysis report */
   public void clearList() {
+    for (ReportPortalMetricPublisher member : this.members) {
+      if (member != this) {
+        member.clearList();
+      }
+    }
+    clearOwnList();
+  }
+
+  private synchronized void clearOwnList() {
     this.metricList.clear();
+    releaseRetained();
+    if (this.spill != null) {
+      try {
+        this.spill.close();
+      } catch (IOException e) {
+        logger.warn("Unable to delete spill file " + this.spill.getFile(), e);
+      }
+      this.spill = null;
+    }
+    this.analysisReport.clear();
+    if (this.payloadStore != null) {
+      try {
+        this.payloadStore.close();
+      } catch (IOException e) {
+        logger.warn("Unable to delete blob file " + this.payloadStore.getFile(), e);
+      }
+      this.payloadStore = null;
+    }
   }
 
   public void addToList(String metric) {
-    this.metricList.add(metric);
+    addToList(metric, null);
+  }
+
+  /**
+   * Buffer a metric together with its response payload, which is decoded only when the report is
+   * written.
+   *
+   * @param metric metric JSON document
+   * @param responseData raw response payload, may be null
+   */
+  public synchronized void addToList(String metric, Payload responseData) {
+    BufferedMetric buffered = new BufferedMetric(metric, responseData);
+    this.metricList.add(buffered);
+    if (this.heapBudget != null) {
+      long bytes = buffered.retainedBytes();
+      this.retainedBytes += bytes;
+      if (responseData != null) {
+        this.retainedPayloads++;
+      }
+      this.heapBudget.reserve(bytes);
+      if (this.heapBudget.isExceeded()) {
+        enforceHeapBudget();
+      }
+    }
+  }
+
+  /**
+   * Bring the buffered metrics back within the heap budget if it is exceeded or memory is low:
+   * spill them to disk if possible, otherwise drop their payloads. Capturing less from then on is
+   * left to the caller, see {@link HeapBudget#ceiling()}.
+   */
+  synchronized void enforceHeapBudget() {
+    if (this.heapBudget == null
+        || !(this.heapBudget.isExceeded() || this.heapBudget.isLowMemory())) {
+      return;
+    }
+    if (this.heapBudget.canSpill()) {
+      try {
+        spill();
+        return;
+      } catch (IOException e) {
+        this.heapBudget.spillFailed(e);
+      }
+    }
+    dropPayloads();
+  }
+
+  private void spill() throws IOException {
+    if (this.metricList.isEmpty()) {
+      return;
+    }
+    if (this.spill == null) {
+      this.spill = new MetricSpill(null);
+      logger.info("Heap budget reached, spilling buffered metrics to " + this.spill.getFile());
+    }
+    int spilled = this.spill.size();
+    try {
+      for (BufferedMetric metric : this.metricList) {
+        this.spill.append(metric);
+      }
+      this.spill.flush();
+    } catch (IOException e) {
+      this.spill.truncate(spilled);
+      throw e;
+    }
+    this.metricList.clear();
+    releaseRetained();
+  }
+
+  private void dropPayloads() {
+    if (this.retainedPayloads == 0) {
+      return;
+    }
+    long released = 0;
+    for (int i = 0; i < this.metricList.size(); i++) {
+      BufferedMetric metric = this.metricList.get(i);
+      if (metric.responseData != null) {
+        BufferedMetric stripped = new BufferedMetric(metric.json, null);
+        released += metric.retainedBytes() - stripped.retainedBytes();
+        this.metricList.set(i, stripped);
+      }
+    }
+    logger.warn("Heap budget reached, dropped " + this.retainedPayloads + " buffered payloads");
+    this.retainedPayloads = 0;
+    this.retainedBytes -= released;
+    this.heapBudget.release(released);
+  }
+
+  private void releaseRetained() {
+    if (this.heapBudget != null) {
+      this.heapBudget.release(this.retainedBytes);
+    }
+    this.retainedBytes = 0;
+    this.retainedPayloads = 0;
   }
 
   public void publishMetrics() {
+    publishMetrics(null, 0);
+  }
+
+  /**
+   * Write the JUnit report of the buffered metrics and import it into ReportPortal. A report that
+   * is not imported is put into the outbox, if there is one.
+   *
+   * @param outbox outbox for reports that are not imported, may be null
+   * @param deadline time by which the import must be done in epoch milliseconds, {@code 0} for none
+   * @return true if the report was imported
+   */
+  boolean publishMetrics(Outbox outbox, long deadline) {
+    ReportGenerationEvent reportEvent = new ReportGenerationEvent();
+    reportEvent.begin();
+
+    File junitReportFile = newReportFile();
 
-     logger.debug("####Number of metrics to publish: " + this.metricList.size());
+    logger.debug("####JUnit report file: " + junitReportFile);
+
+    progress("writing " + junitReportFile.getName());
+    int testCases = writeReport(junitReportFile);
+    if (testCases < 0) {
+      progress("failed to write the report");
+      return false;
+    }
+    if (reportEvent.shouldCommit()) {
+      reportEvent.recordCount = testCases;
+      reportEvent.bytes = junitReportFile.length();
+      reportEvent.fileName = junitReportFile.getPath();
+      reportEvent.commit();
+    }
+    LaunchImportRq rq = launchRequest();
+    this.reportFile = junitReportFile;
+    this.launchRequest = rq;
 
+    long timeout = 0;
+    if (deadline > 0) {
+      timeout = deadline - System.currentTimeMillis();
+    }
+    try {
+      if (deadline > 0 && timeout <= 0) {
+        throw new IOException("Publish deadline passed before the upload started");
+      }
+      progress("uploading " + junitReportFile.length() + " bytes");
+      String response = upload(junitReportFile, rq, timeout);
+      logger.debug("Response from ReportPortal: " + response);
+      logger.debug("Published JUnit report to ReportPortal: {}", junitReportFile);
+      progress("imported");
+      return true;
+    } catch (Exception e) {
+      logger.error("Failed to publish JUnit report to ReportPortal: {}", junitReportFile, e);
+      progress("import failed");
+      if (outbox != null) {
+        try {
+          File kept = outbox.put(junitReportFile, rq);
+          logger.warn("Kept the JUnit report in the outbox for a later import: {}", kept);
+          progress("kept in outbox as " + kept.getName());
+        } catch (IOException ex) {
+          logger.error("Unable to put the JUnit report into the outbox " + outbox.getDir(), ex);
+        }
+      }
+      return false;
+    }
+  }
+
+  /**
+   * Put what this run has buffered into the outbox, for a run that will not be published normally,
+   * e.g. because the JVM is exiting. Once the report of the run is written, that report is put
+   * instead.
+   *
+   * @param outbox the outbox
+   * @return the report in the outbox, null if there was nothing to keep
+   * @throws IOException if the report cannot be written or the outbox cannot be written
+   */
+  synchronized File flushToOutbox(Outbox outbox) throws IOException {
+    File report = this.reportFile;
+    LaunchImportRq rq = this.launchRequest;
+    if (report == null || rq == null || !report.isFile()) {
+      if (getMembersListSize() == 0 && extraTestCases().isEmpty()) {
+        return null;
+      }
+      report = outbox.newReportFile("junit");
+      if (writeReport(report) < 0) {
+        throw new IOException("Unable to write partial JUnit report " + report);
+      }
+      rq = launchRequest().addAttribute("partial", "true", false);
+    }
+    return outbox.put(report, rq);
+  }
+
+  /** @return what the publish is currently doing, for progress reports */
+  String getProgress() {
+    return this.progress;
+  }
+
+  /**
+   * @param reportDir directory the JUnit report is written to, the working directory by default
+   */
+  void setReportDir(File reportDir) {
+    this.reportDir = reportDir;
+  }
+
+  private void progress(String progress) {
+    this.progress = progress;
+    logger.debug("Publish progress: {}", progress);
+  }
+
+  /**
+   * A report file in the report directory named after the current time. Several listeners or runs
+   * may publish within the same second, so an existing file is never reused.
+   */
+  private File newReportFile() {
     String timestamp =
         java.time.LocalDateTime.now()
             .format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-    String junitReportFile =
-        java.nio.file.Paths.get("")
-            .toAbsolutePath()
-            .resolve("junit" + timestamp + ".xml")
-            .toString();
+    File dir = this.reportDir.getAbsoluteFile();
+    File file = new File(dir, "junit" + timestamp + ".xml");
+    try {
+      for (int i = 1; !file.createNewFile(); i++) {
+        file = new File(dir, "junit" + timestamp + "-" + i + ".xml");
+      }
+    } catch (IOException e) {
+      logger.debug("Unable to reserve report file {}", file, e);
+    }
+    return file;
+  }
 
-    logger.debug("####JUnit report file: " + junitReportFile);
+  /**
+   * The buffered metrics as of now: the spilled ones followed by a copy of the list, so that the
+   * listener can go on buffering while they are read.
+   */
+  private synchronized List<BufferedMetric> snapshot() {
+    List<BufferedMetric> inMemory = new ArrayList<>(this.metricList);
+    if (this.spill != null) {
+      try {
+        this.spill.flush();
+        return this.spill.followedBy(inMemory);
+      } catch (IOException e) {
+        logger.error("Unable to read back spilled metrics, reporting the buffered ones only", e);
+      }
+    }
+    return inMemory;
+  }
 
-    // Determine a sensible test suite name to embed in the JUnit XML.
-    // Priority: reportPortalConfigs.TestSuiteName -> first metric's ThreadName ->
-    // reportPortalConfigs.TestName -> "no_name"
+  /** @return the analysis test cases of all members */
+  private List<JtlRecord> extraTestCases() {
+    List<JtlRecord> testCases = new ArrayList<>();
+    for (ReportPortalMetricPublisher member : this.members) {
+      testCases.addAll(member.analysisReport.getTestCases());
+    }
+    return testCases;
+  }
+
+  /**
+   * Determine a sensible test suite name to embed in the JUnit XML. Priority:
+   * reportPortalConfigs.TestSuiteName -> first metric's ThreadName -> reportPortalConfigs.TestName
+   * -> "no_name"
+   */
+  private String testSuiteName(List<BufferedMetric> metrics) {
     String testSuiteName = null;
     try {
       testSuiteName = getReportPortalConfigs().get("TestSuiteName");
       if (testSuiteName == null || testSuiteName.trim().isEmpty()) {
-        if (this.metricList != null && this.metricList.size() > 0) {
-          com.fasterxml.jackson.databind.ObjectMapper mapper =
-              new com.fasterxml.jackson.databind.ObjectMapper();
-          com.fasterxml.jackson.databind.JsonNode first = mapper.readTree(this.metricList.get(0));
+        if (!metrics.isEmpty()) {
+          JsonNode first = Json.MAPPER.readTree(metrics.get(0).json);
           testSuiteName = first.path("ThreadName").asText();
         }
       }
@@ -108,67 +484,133 @@ class ReportPortalMetricPublisher {
     if (testSuiteName == null || testSuiteName.trim().isEmpty()) {
       testSuiteName = "no_name";
     }
+    return testSuiteName;
+  }
 
-    final DomXmlJUnitReportWriter writer =
-        new DomXmlJUnitReportWriter(junitReportFile, testSuiteName);
-
-    for (int i = 0; i < this.metricList.size(); i++) {
-      String metricJson = this.metricList.get(i);
-      logger.debug("####Publishing metric " + (i + 1) + ": " + metricJson);
-      try {
-        com.fasterxml.jackson.databind.ObjectMapper mapper =
-            new com.fasterxml.jackson.databind.ObjectMapper();
-        com.fasterxml.jackson.databind.JsonNode node = mapper.readTree(metricJson);
-        logger.debug("Parsed JSON node: " + node.toPrettyString());
-
-        String sampleLabel = node.path("SampleLabel").asText("");
-        String failureMessage = node.path("FailureMessage").asText("");
-        String responseCode = node.path("ResponseCode").asText("");
-        String responseMessage = node.path("ResponseMessage").asText("");
-        String requestBody = node.path("RequestBody").asText("");
-        String requestHeaders = node.path("RequestHeaders").asText("");
-        String responseBody = node.path("ResponseBody").asText("");
-        String responseHeaders = node.path("ResponseHeaders").asText("");
-
-        logger.debug(
-            "Parsed metric: SampleLabel={}, FailureMessage={}, ResponseCode={}, ResponseMessage={}",
-            sampleLabel,
-            failureMessage,
-            responseCode,
-            responseMessage);
-
-        boolean success = isFailureMessageAbsent(failureMessage);
-        logger.debug("Determined success status: {}", success);
-
-        writer.write(
-            new JtlRecord(
-                sampleLabel,
-                success,
-                responseMessage,
-                failureMessage,
-                requestHeaders,
-                requestBody,
-                responseHeaders,
-                responseBody,
-                responseCode));
-        logger.debug("Successfully wrote metric to JUnit report: {}", junitReportFile);
-
-        // use sampleLabel, failureMessage, responseCode, responseMessage as needed
-      } catch (Exception e) {
-        logger.error("Failed to write metric JSON: {}", metricJson, e);
+  /**
+   * Write the JUnit report of the buffered metrics and the analysis results, with a test suite per
+   * member if there are several.
+   *
+   * @param junitReportFile report file
+   * @return the number of test cases written, {@code -1} if the report could not be written
+   */
+  private int writeReport(File junitReportFile) {
+    ParallelJUnitReportGenerator generator =
+        new ParallelJUnitReportGenerator(
+            parseInt(getReportPortalConfigs().get(REPORT_THREADS)),
+            Boolean.parseBoolean(getReportPortalConfigs().get(REPORT_SUITE_PER_LABEL)),
+            "base64".equalsIgnoreCase(getReportPortalConfigs().get(BINARY_PAYLOADS)));
+    try {
+      int testCases;
+      if (this.members.size() == 1) {
+        List<BufferedMetric> metrics = snapshot();
+        logger.debug("####Number of metrics to publish: " + metrics.size());
+        testCases =
+            generator.generate(
+                metrics,
+                this::toJtlRecord,
+                extraTestCases(),
+                testSuiteName(metrics),
+                junitReportFile);
+      } else {
+        Map<String, List<BufferedMetric>> suites = new LinkedHashMap<>();
+        for (ReportPortalMetricPublisher member : this.members) {
+          List<BufferedMetric> metrics = member.snapshot();
+          String name = member.testSuiteName(metrics);
+          for (int i = 2; suites.containsKey(name); i++) {
+            name = member.testSuiteName(metrics) + " (" + i + ")";
+          }
+          suites.put(name, metrics);
+        }
+        String rootName = getReportPortalConfigs().get("TestName");
+        testCases =
+            generator.generateSuites(
+                suites,
+                this::toJtlRecord,
+                extraTestCases(),
+                rootName == null || rootName.trim().isEmpty() ? "no_name" : rootName,
+                junitReportFile);
       }
+      logger.debug("Wrote {} test cases to JUnit report: {}", testCases, junitReportFile);
+      return testCases;
+    } catch (IOException | RuntimeException e) {
+      logger.error("Failed to write JUnit report: {}", junitReportFile, e);
+      return -1;
     }
+  }
+
+  /**
+   * Convert a metric JSON document to a JUnit record, reading its payloads back from the payload
+   * store if they were moved there. Called concurrently by the report generator.
+   *
+   * @param metric buffered metric
+   * @return the record, or null if the document cannot be parsed
+   */
+  private JtlRecord toJtlRecord(BufferedMetric metric) {
     try {
-      writer.close();
-      logger.debug("Closed JUnit report writer for file: {}", junitReportFile);
-    } catch (java.io.IOException e) {
-      logger.error("Failed to close JUnit report writer for file: {}", junitReportFile, e);
+      JsonNode node = Json.MAPPER.readTree(metric.json);
+      String sampleLabel = node.path("SampleLabel").asText("");
+      String failureMessage = node.path("FailureMessage").asText("");
+      String responseCode = node.path("ResponseCode").asText("");
+      String responseMessage = node.path("ResponseMessage").asText("");
+      String requestBody = text(node, "RequestBody");
+      String requestHeaders = text(node, "RequestHeaders");
+      String responseHeaders = text(node, "ResponseHeaders");
+      String responseBody;
+      Payload responseData = metric.responseData;
+      JsonNode responseBlob = node.get(PayloadStore.RESPONSE_BODY + PayloadStore.BLOB_SUFFIX);
+      if (responseBlob != null && this.payloadStore != null) {
+        responseData = this.payloadStore.get(responseBlob.asLong());
+        responseBody = "";
+      } else {
+        responseBody = text(node, PayloadStore.RESPONSE_BODY);
+      }
+
+      logger.debug(
+          "Parsed metric: SampleLabel={}, FailureMessage={}, ResponseCode={}, ResponseMessage={}",
+          sampleLabel,
+          failureMessage,
+          responseCode,
+          responseMessage);
+
+      return new JtlRecord(
+          sampleLabel,
+          isFailureMessageAbsent(failureMessage),
+          responseMessage,
+          failureMessage,
+          requestHeaders,
+          requestBody,
+          responseHeaders,
+          responseBody,
+          responseCode,
+          responseData);
+    } catch (Exception e) {
+      logger.error("Failed to parse metric JSON: {}", metric.json, e);
+      return null;
+    }
+  }
+
+  /**
+   * A text field of a metric: inline, a blob written in full here or a reference to its first
+   * occurrence.
+   */
+  private String text(JsonNode node, String field) {
+    JsonNode blob = node.get(field + PayloadStore.BLOB_SUFFIX);
+    if (blob != null && this.payloadStore != null) {
+      return this.payloadStore.getText(blob.asLong());
+    }
+    JsonNode ref = node.get(field + PayloadStore.REF_SUFFIX);
+    if (ref != null && this.payloadStore != null) {
+      return this.payloadStore.reference(ref.asLong());
     }
+    return node.path(field).asText("");
+  }
+
+  private static int parseInt(String value) {
     try {
-      publishToReportPortal(junitReportFile);
-      logger.debug("Published JUnit report to ReportPortal: {}", junitReportFile);
-    } catch (Exception e) {
-      logger.error("Failed to publish JUnit report to ReportPortal: {}", junitReportFile, e);
+      return value == null ? 0 : Integer.parseInt(value.trim());
+    } catch (NumberFormatException e) {
+      return 0;
     }
   }
 
@@ -188,16 +630,68 @@ class ReportPortalMetricPublisher {
     return normalized.isEmpty();
   }
 
-  public void publishToReportPortal(String junitReportFile) {
+  /** ReportPortal rejects attribute values longer than 128 characters. */
+  static String truncate(String value) {
+    return value != null && value.length() > 128 ? value.substring(0, 128) : value;
+  }
 
+  public void publishToReportPortal(String junitReportFile) {
     logger.debug("Preparing to publish JUnit report to ReportPortal: " + junitReportFile);
-    File file = new File(junitReportFile);
-    String description = "Imported via API";
-    ReportPortalImportAPIClient client = new ReportPortalImportAPIClient(getReportPortalConfigs());
+    try {
+      String response = upload(new File(junitReportFile), launchRequest(), 0);
+      logger.debug("Response from ReportPortal: " + response);
+    } catch (Exception e) {
+      logger.error("Failed to prepare LaunchImportRq", e);
+    }
+  }
+
+  /**
+   * Check ReportPortal from the start of the test without waiting for the answer, so that a wrong
+   * address or a server down shows in the log before the run rather than after it. The connection
+   * it opens is kept for the import if the test is short enough.
+   *
+   * An optimisation only: settings the client rejects are logged and left for the import to
+   * report, they never stop the test.
+   *
+   * @return true once ReportPortal answered below HTTP 500, false if the settings are invalid
+   */
+  public CompletableFuture<Boolean> warmUp() {
+    String apiBase = getReportPortalConfigs().get("ReportPortalAPIBase");
+    ReportPortalImportAPIClient client;
+    try {
+      client = new ReportPortalImportAPIClient(getReportPortalConfigs(), WARM_UP_TIMEOUT_MILLIS);
+    } catch (RuntimeException e) {
+      logger.warn("Invalid ReportPortal settings, the import at the end of the test will fail", e);
+      return CompletableFuture.completedFuture(false);
+    }
+    return client
+        .pingAsync()
+        .whenComplete(
+            (reachable, failure) -> {
+              if (failure != null || !reachable) {
+                logger.warn(
+                    "ReportPortal at {} did not answer ({}), the import at the end of the test may"
+                        + " fail",
+                    apiBase,
+                    failure != null ? failure.getMessage() : "server error");
+              } else {
+                logger.debug("ReportPortal at {} reachable", apiBase);
+              }
+            });
+  }
+
+  private String upload(File file, LaunchImportRq rq, long timeoutMillis) throws IOException {
+    ReportPortalImportAPIClient client =
+        new ReportPortalImportAPIClient(getReportPortalConfigs(), timeoutMillis);
     logger.debug(
         "Created ReportPortalImportClient for project: "
             + getReportPortalConfigs().get("ProjectName"));
+    return client.importLaunch(file, rq);
+  }
 
+  /** @return the launch import request of this run, with the analysis launch attributes */
+  private LaunchImportRq launchRequest() {
+    String description = "Imported via API";
     LaunchImportRq rq =
         new LaunchImportRq()
             .setName(getReportPortalConfigs().get("TestName"))
@@ -225,11 +719,13 @@ class ReportPortalMetricPublisher {
       logger.debug("Failed to add testsuite attribute to LaunchImportRq", e);
     }
 
-    try {
-      String response = client.importLaunch(file, rq);
-      logger.debug("Response from ReportPortal: " + response);
-    } catch (Exception e) {
-      logger.error("Failed to prepare LaunchImportRq", e);
+    Map<String, String> attributes = new LinkedHashMap<>();
+    for (ReportPortalMetricPublisher member : this.members) {
+      attributes.putAll(member.analysisReport.getLaunchAttributes());
+    }
+    for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+      rq.addAttribute(attribute.getKey(), truncate(attribute.getValue()), false);
     }
+    return rq;
   }
 }
@@ -0,0 +1,428 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.reportportal;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the traffic to a shared ReportPortal within limits: token buckets for requests and bytes
+ * per second and a maximum number of requests in flight. One limiter is shared by all calls to the
+ * same project on the same server in the JVM.
+ *
+ * <p>The limiter adapts to the server: a {@code 429} or {@code 503} halves both rates and pauses
+ * all callers for the {@code Retry-After} time, or for an exponential back-off with jitter when the
+ * server gives none. Every successful call wins back a tenth of the configured rates.
+ *
+ * <p>Tokens are reserved ahead, like a queue: a caller takes the tokens it needs even if the bucket
+ * runs negative and then waits until the debt is paid off, so callers are served in order and a
+ * large upload is not starved by small requests. Callers queue for a request slot and wait for
+ * their tokens on a timer, without holding a thread; only the byte rate of an upload in progress
+ * sleeps, on the thread writing it.
+ *
+ * @author prasantmohanty
+ * @since 20260120
+ */
+final class ReportPortalRateLimiter {
+
+  private static final Logger logger = LoggerFactory.getLogger(ReportPortalRateLimiter.class);
+
+  /** Requests per second to ReportPortal, {@code 0} for no limit. */
+  static final String REQUESTS_PER_SECOND = "RateLimitRequestsPerSecond";
+
+  /** Upload bytes per second to ReportPortal, with optional k, m or g suffix; 0 for no limit. */
+  static final String BYTES_PER_SECOND = "RateLimitBytesPerSecond";
+
+  /** Requests to ReportPortal in flight at once. */
+  static final String MAX_IN_FLIGHT = "MaxInFlightRequests";
+
+  /** Retries of a request throttled with 429 or 503. */
+  static final String MAX_RETRIES = "ThrottleMaxRetries";
+
+  /** Lowest share of the configured rates the limiter backs off to. */
+  static final double MIN_FACTOR = 1.0 / 32;
+
+  static final long MAX_PAUSE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+  static final long BASE_BACKOFF_MILLIS = 1000;
+
+  private static final ConcurrentMap<String, ReportPortalRateLimiter> SHARED =
+      new ConcurrentHashMap<>();
+
+  /** Completes the waits of asynchronous callers. */
+  private static final ScheduledExecutorService TIMER =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "reportportal-rate-limiter");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  /** Sleeps for the limiter; replaced by tests. */
+  interface Sleeper {
+    void sleep(long millis) throws InterruptedException;
+  }
+
+  /** An asynchronous caller, queued for a slot or waiting for its tokens. */
+  private static final class Waiter {
+    final CompletableFuture<Void> admission = new CompletableFuture<>();
+    final long deadline;
+    /** Guarded by the limiter: the waiter took a request slot it has to give back. */
+    boolean holding;
+
+    Waiter(long deadline) {
+      this.deadline = deadline;
+    }
+  }
+
+  private final LongSupplier clock;
+  private final Sleeper sleeper;
+
+  private double requestsPerSecond;
+  private double bytesPerSecond;
+  private int maxInFlight;
+  private int maxRetries;
+
+  private double factor = 1;
+  private double requestTokens;
+  private double byteTokens;
+  private long lastRefill;
+  private long pausedUntil;
+  private int inFlight;
+  private long throttled;
+  private final Deque<Waiter> waiters = new ArrayDeque<>();
+
+  ReportPortalRateLimiter(
+      double requestsPerSecond,
+      double bytesPerSecond,
+      int maxInFlight,
+      int maxRetries,
+      LongSupplier clock,
+      Sleeper sleeper) {
+    this.clock = clock;
+    this.sleeper = sleeper;
+    this.lastRefill = clock.getAsLong();
+    configure(requestsPerSecond, bytesPerSecond, maxInFlight, maxRetries);
+    this.requestTokens = burst(this.requestsPerSecond);
+    this.byteTokens = burst(this.bytesPerSecond);
+  }
+
+  /**
+   * The limiter of a project, created on first use and reconfigured with the given settings.
+   *
+   * @param configs backend listener settings, see the constants of this class
+   * @return the shared limiter
+   */
+  static ReportPortalRateLimiter forProject(Map<String, String> configs) {
+    double requests = parseRate(configs.get(REQUESTS_PER_SECOND), 0);
+    double bytes = parseBytes(configs.get(BYTES_PER_SECOND));
+    int maxInFlight = (int) parseRate(configs.get(MAX_IN_FLIGHT), 2);
+    int maxRetries = (int) parseRate(configs.get(MAX_RETRIES), 5);
+    String key = configs.get("ReportPortalAPIBase") + "|" + configs.get("ProjectName");
+    ReportPortalRateLimiter limiter =
+        SHARED.computeIfAbsent(
+            key,
+            k ->
+                new ReportPortalRateLimiter(
+                    requests,
+                    bytes,
+                    maxInFlight,
+                    maxRetries,
+                    System::currentTimeMillis,
+                    Thread::sleep));
+    limiter.configure(requests, bytes, maxInFlight, maxRetries);
+    return limiter;
+  }
+
+  synchronized void configure(
+      double requestsPerSecond, double bytesPerSecond, int maxInFlight, int maxRetries) {
+    this.requestsPerSecond = Math.max(0, requestsPerSecond);
+    this.bytesPerSecond = Math.max(0, bytesPerSecond);
+    this.maxInFlight = Math.max(1, maxInFlight);
+    this.maxRetries = Math.max(0, maxRetries);
+  }
+
+  int getMaxRetries() {
+    return maxRetries;
+  }
+
+  /**
+   * Take a request slot and a request token without blocking: the future completes once the call
+   * may go, and the slot must then be given back with {@link #release}. A future that fails, or is
+   * cancelled by the caller, gives back its slot by itself.
+   *
+   * @param deadline fail at this time in epoch milliseconds, {@link Long#MAX_VALUE} for never
+   * @return the admission, failed with an {@link IOException} if the deadline would be passed
+   */
+  CompletableFuture<Void> acquireAsync(long deadline) {
+    Waiter waiter = new Waiter(deadline);
+    waiter.admission.whenComplete(
+        (admitted, failure) -> {
+          if (failure != null) {
+            abandoned(waiter);
+          }
+        });
+    long wait;
+    synchronized (this) {
+      if (inFlight >= maxInFlight) {
+        waiters.add(waiter);
+        if (deadline != Long.MAX_VALUE) {
+          TIMER.schedule(
+              () ->
+                  waiter.admission.completeExceptionally(
+                      new IOException("Timed out waiting for a free ReportPortal request slot")),
+              Math.max(0, deadline - clock.getAsLong()),
+              TimeUnit.MILLISECONDS);
+        }
+        return waiter.admission;
+      }
+      inFlight++;
+      waiter.holding = true;
+      wait = admit();
+    }
+    admit(waiter, wait);
+    return waiter.admission;
+  }
+
+  /** Take the request token of a caller holding a slot; returns the time it has to wait. */
+  private long admit() {
+    long now = clock.getAsLong();
+    refill(now);
+    long wait = Math.max(0, pausedUntil - now);
+    if (requestsPerSecond > 0) {
+      requestTokens -= 1;
+      wait = Math.max(wait, debt(requestTokens, requestsPerSecond));
+    }
+    return wait;
+  }
+
+  private void admit(Waiter waiter, long wait) {
+    if (wait <= 0) {
+      waiter.admission.complete(null);
+    } else if (waiter.deadline != Long.MAX_VALUE && clock.getAsLong() + wait > waiter.deadline) {
+      waiter.admission.completeExceptionally(
+          new IOException("ReportPortal rate limit would exceed the deadline of the call"));
+    } else {
+      TIMER.schedule(() -> waiter.admission.complete(null), wait, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /** A waiter failed or was cancelled: give back its slot, or leave the queue. */
+  private void abandoned(Waiter waiter) {
+    boolean holding;
+    synchronized (this) {
+      holding = waiter.holding;
+      if (!holding) {
+        waiters.remove(waiter);
+      }
+    }
+    if (holding) {
+      release();
+    }
+  }
+
+  /**
+   * Wait until {@code bytes} may be sent; called by an upload for each chunk it writes.
+   *
+   * @param bytes size of the chunk
+   * @param deadline give up at this time in epoch milliseconds, {@link Long#MAX_VALUE} for never
+   * @throws IOException if the deadline would be passed or the thread is interrupted
+   */
+  void acquireBytes(long bytes, long deadline) throws IOException {
+    long wait;
+    synchronized (this) {
+      if (bytesPerSecond <= 0) {
+        return;
+      }
+      refill(clock.getAsLong());
+      byteTokens -= bytes;
+      wait = debt(byteTokens, bytesPerSecond);
+    }
+    pause(wait, deadline);
+  }
+
+  /** Free the request slot taken by {@link #acquireAsync}, handing it to a queued waiter if any. */
+  void release() {
+    Waiter next;
+    long wait;
+    synchronized (this) {
+      next = waiters.poll();
+      // a cancelled waiter sets its future before it leaves the queue
+      while (next != null && next.admission.isDone()) {
+        next = waiters.poll();
+      }
+      if (next == null) {
+        inFlight--;
+        return;
+      }
+      next.holding = true;
+      wait = admit();
+    }
+    admit(next, wait);
+  }
+
+  /** A call went through; win back some of the rate given up. */
+  synchronized void succeeded() {
+    if (factor < 1) {
+      factor = Math.min(1, factor + 0.1);
+    }
+  }
+
+  /**
+   * The server throttled a call: halve the rates and pause every caller.
+   *
+   * @param retryAfter the {@code Retry-After} header, may be null
+   * @param attempt number of the attempt that was throttled, from {@code 0}
+   * @return the pause in milliseconds
+   */
+  synchronized long throttled(String retryAfter, int attempt) {
+    long now = clock.getAsLong();
+    refill(now);
+    long pause = parseRetryAfter(retryAfter, now);
+    if (pause < 0) {
+      long backoff = BASE_BACKOFF_MILLIS << Math.min(attempt, 16);
+      pause = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff);
+    }
+    pause = Math.min(pause, MAX_PAUSE_MILLIS);
+    pausedUntil = Math.max(pausedUntil, now + pause);
+    factor = Math.max(MIN_FACTOR, factor / 2);
+    requestTokens = Math.min(requestTokens, 0);
+    byteTokens = Math.min(byteTokens, 0);
+    throttled++;
+    logger.warn(
+        "ReportPortal throttled the request, pausing {} ms and lowering the rates to {}%",
+        pause,
+        Math.round(factor * 100));
+    return pause;
+  }
+
+  synchronized double currentFactor() {
+    return factor;
+  }
+
+  synchronized long getThrottled() {
+    return throttled;
+  }
+
+  private void refill(long now) {
+    double seconds = Math.max(0, now - lastRefill) / 1000.0;
+    lastRefill = now;
+    if (requestsPerSecond > 0) {
+      requestTokens =
+          Math.min(burst(requestsPerSecond), requestTokens + seconds * requestsPerSecond * factor);
+    }
+    if (bytesPerSecond > 0) {
+      byteTokens = Math.min(burst(bytesPerSecond), byteTokens + seconds * bytesPerSecond * factor);
+    }
+  }
+
+  /** The bucket holds one second worth of tokens, at least one request. */
+  private static double burst(double perSecond) {
+    return Math.max(1, perSecond);
+  }
+
+  private long debt(double tokens, double perSecond) {
+    return tokens >= 0 ? 0 : (long) Math.ceil(-tokens * 1000 / (perSecond * factor));
+  }
+
+  private void pause(long millis, long deadline) throws IOException {
+    if (millis <= 0) {
+      return;
+    }
+    if (deadline != Long.MAX_VALUE && clock.getAsLong() + millis > deadline) {
+      throw new IOException("ReportPortal rate limit would exceed the deadline of the call");
+    }
+    try {
+      sleeper.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while rate limited");
+    }
+  }
+
+  /**
+   * @param value delay-seconds or HTTP-date, may be null
+   * @param now current time in epoch milliseconds
+   * @return the delay in milliseconds, {@code -1} if absent or unparseable
+   */
+  static long parseRetryAfter(String value, long now) {
+    if (value == null || value.trim().isEmpty()) {
+      return -1;
+    }
+    String trimmed = value.trim();
+    try {
+      return Math.max(0, Long.parseLong(trimmed) * 1000);
+    } catch (NumberFormatException e) {
+      try {
+        long at =
+            ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME)
+                .toInstant()
+                .toEpochMilli();
+        return Math.max(0, at - now);
+      } catch (DateTimeParseException ex) {
+        return -1;
+      }
+    }
+  }
+
+  private static double parseRate(String value, double defaultValue) {
+    try {
+      return value == null || value.trim().isEmpty()
+          ? defaultValue
+          : Double.parseDouble(value.trim());
+    } catch (NumberFormatException e) {
+      logger.warn("Ignoring malformed rate limit setting: {}", value);
+      return defaultValue;
+    }
+  }
+
+  static double parseBytes(String value) {
+    if (value == null || value.trim().isEmpty()) {
+      return 0;
+    }
+    String size = value.trim().toLowerCase(Locale.ROOT);
+    long unit = 1;
+    char suffix = size.charAt(size.length() - 1);
+    if (suffix == 'k' || suffix == 'm' || suffix == 'g') {
+      unit = suffix == 'k' ? 1L << 10 : suffix == 'm' ? 1L << 20 : 1L << 30;
+      size = size.substring(0, size.length() - 1).trim();
+    }
+    try {
+      return Double.parseDouble(size) * unit;
+    } catch (NumberFormatException e) {
+      logger.warn("Ignoring malformed rate limit setting: {}", value);
+      return 0;
+    }
+  }
+}
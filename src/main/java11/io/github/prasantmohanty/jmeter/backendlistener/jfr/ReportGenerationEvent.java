@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Generation of the JUnit report at teardown. */
+@Name("io.github.prasantmohanty.jmeter.backendlistener.ReportGeneration")
+@Label("Report Generation")
+@Category({"JMeter", "ReportPortal Backend Listener"})
+@Description("Generation of the JUnit report at teardown.")
+public class ReportGenerationEvent extends jdk.jfr.Event {
+  @Label("Record Count")
+  public int recordCount;
+
+  @Label("Report Size")
+  @DataAmount
+  public long bytes;
+
+  @Label("File Name")
+  public String fileName;
+}
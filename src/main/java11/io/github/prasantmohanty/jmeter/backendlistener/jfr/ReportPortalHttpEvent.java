@@ -0,0 +1,43 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** One HTTP call to the ReportPortal API. */
+@Name("io.github.prasantmohanty.jmeter.backendlistener.ReportPortalHttp")
+@Label("ReportPortal HTTP Call")
+@Category({"JMeter", "ReportPortal Backend Listener"})
+@Description("One HTTP call to the ReportPortal API.")
+public class ReportPortalHttpEvent extends jdk.jfr.Event {
+  @Label("Method")
+  public String method;
+
+  @Label("URL")
+  public String url;
+
+  @Label("Status Code")
+  public int statusCode;
+
+  @Label("Request Size")
+  @DataAmount
+  public long requestBytes;
+}
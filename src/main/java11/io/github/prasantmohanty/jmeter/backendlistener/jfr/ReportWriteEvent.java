@@ -0,0 +1,35 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Generation and serialisation of a JUnit report. */
+@Name("io.github.prasantmohanty.jmeter.backendlistener.ReportWrite")
+@Label("Report Write")
+@Category({"JMeter", "ReportPortal Backend Listener"})
+@Description("Generation and serialisation of a JUnit report.")
+public class ReportWriteEvent extends jdk.jfr.Event {
+  @Label("Test Cases")
+  public int testCases;
+
+  @Label("File Name")
+  public String fileName;
+}
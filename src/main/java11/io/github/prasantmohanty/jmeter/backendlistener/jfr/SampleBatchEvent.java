@@ -0,0 +1,32 @@
+/*
+ * Copyright 2026 Prasanta Mohanty
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** One handleSampleResults batch processed by the backend listener. */
+@Name("io.github.prasantmohanty.jmeter.backendlistener.SampleBatch")
+@Label("Sample Batch")
+@Category({"JMeter", "ReportPortal Backend Listener"})
+@Description("One handleSampleResults batch processed by the backend listener.")
+public class SampleBatchEvent extends jdk.jfr.Event {
+  @Label("Batch Size")
+  public int batchSize;
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Prasant Mohanty.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.github.prasantmohanty.jmeter.backendlistener.junit.transform.JtlRecord;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.jmeter.samplers.SampleResult;
+import org.junit.jupiter.api.Test;
+
+public class TestChangePointDetector {
+
+  private static final long START = 1_700_000_000_000L;
+
+  private static SampleResult sample(String label, long end, long elapsed, boolean success) {
+    SampleResult sr = SampleResult.createTestSample(end - elapsed, end);
+    sr.setSampleLabel(label);
+    sr.setSuccessful(success);
+    return sr;
+  }
+
+  /** Feed 50 samples per 10 s window, their latency spread 20% around a base. */
+  private static void window(
+      ChangePointDetector detector, String label, int window, long base, int failures) {
+    for (int i = 0; i < 50; i++) {
+      long jitter = base * (i % 5 - 2) / 20;
+      detector.onSample(
+          sample(label, START + window * 10_000L + i * 200, base + jitter, i >= failures));
+    }
+  }
+
+  private static List<ChangePointDetector.Shift> shifts(
+      ChangePointDetector detector, String label) {
+    List<ChangePointDetector.Shift> shifts = new ArrayList<>();
+    for (ChangePointDetector.Shift shift : detector.getShifts()) {
+      if (shift.label.equals(label)) {
+        shifts.add(shift);
+      }
+    }
+    return shifts;
+  }
+
+  @Test
+  public void testStepShiftsAreDatedToTheirWindow() {
+    ChangePointDetector detector = new ChangePointDetector(10_000, 5);
+    for (int w = 0; w < 30; w++) {
+      window(detector, "checkout", w, w < 20 ? 200 : 400, 0);
+      window(detector, "home", w, 100, 0);
+      window(detector, "login", w, 50, w < 20 ? 0 : 10);
+    }
+    AnalysisReport report = new AnalysisReport();
+    detector.contribute(report);
+
+    List<ChangePointDetector.Shift> checkout = shifts(detector, "checkout");
+    assertEquals(2, checkout.size());
+    for (ChangePointDetector.Shift shift : checkout) {
+      assertEquals(START + 200_000L, shift.changeMillis);
+      assertTrue(shift.isDegradation());
+      assertEquals(2, shift.after / shift.before, 0.1);
+      assertEquals(20, shift.beforeWindows);
+    }
+    assertEquals(ChangePointDetector.P50, checkout.get(0).metric);
+    assertEquals(ChangePointDetector.P95, checkout.get(1).metric);
+    assertTrue(shifts(detector, "home").isEmpty());
+
+    List<ChangePointDetector.Shift> login = shifts(detector, "login");
+    assertEquals(1, login.size());
+    assertEquals(ChangePointDetector.ERROR_RATE, login.get(0).metric);
+    assertEquals(START + 200_000L, login.get(0).changeMillis);
+    assertEquals(0, login.get(0).before, 0.001);
+    assertEquals(20, login.get(0).after, 0.001);
+
+    JtlRecord testCase = null;
+    for (JtlRecord record : report.getTestCases()) {
+      if (record.getLabel().startsWith("Change point login error rate at ")) {
+        testCase = record;
+      }
+    }
+    assertFalse(testCase.isSuccess());
+    assertTrue(
+        testCase.getResponseMessage(),
+        testCase.getResponseMessage().startsWith("error rate 0.00% -> 20.00% (+20.0 points)"));
+    assertEquals(
+        Integer.toString(detector.getShifts().size()),
+        report.getLaunchAttributes().get("changePoints"));
+    assertTrue(
+        report.getLaunchAttributes().get("changePointFirstDegradation").startsWith("checkout p50"));
+  }
+
+  @Test
+  public void testGradualDriftAndRecovery() {
+    ChangePointDetector detector = new ChangePointDetector(10_000, 5);
+    long latency = 200;
+    for (int w = 0; w < 60; w++) {
+      // a leak: 2% slower every window after the first ten, then a restart
+      latency = w < 10 ? 200 : w < 40 ? latency * 102 / 100 : 200;
+      window(detector, "search", w, latency, 0);
+      // a few errors in a window now and then are noise, not a shift
+      window(detector, "home", w, 100, w % 7 == 0 ? 1 : 0);
+    }
+    detector.contribute(new AnalysisReport());
+
+    List<ChangePointDetector.Shift> search = shifts(detector, "search");
+    assertTrue(search.size() >= 2);
+    assertTrue(search.get(0).isDegradation());
+    assertTrue(search.get(0).changeMillis < START + 250_000L);
+    ChangePointDetector.Shift recovery = search.get(search.size() - 1);
+    assertFalse(recovery.isDegradation());
+    assertEquals(START + 400_000L, recovery.changeMillis);
+    assertTrue(shifts(detector, "home").isEmpty());
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 Prasant Mohanty.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.github.prasantmohanty.jmeter.backendlistener.junit.transform.JtlRecord;
+import java.time.Instant;
+import org.apache.jmeter.samplers.SampleResult;
+import org.junit.jupiter.api.Test;
+
+public class TestInjectorHealthMonitor {
+
+  private static final long START = 1_700_000_000_000L;
+
+  /** Readings set by the test. */
+  private static final class FakeProbe implements InjectorHealthMonitor.Probe {
+    double cpu = 0.3;
+    long gcMillis;
+    long heapUsed = 256;
+
+    @Override
+    public void read(InjectorHealthMonitor.Reading reading) {
+      reading.systemCpu = cpu;
+      reading.gcMillis = gcMillis;
+      reading.heapUsed = heapUsed;
+      reading.heapMax = 1024;
+      reading.threads = 40;
+    }
+  }
+
+  @Test
+  public void testSaturatedAndPausedWindowsAreUnreliable() {
+    FakeProbe probe = new FakeProbe();
+    InjectorHealthMonitor monitor =
+        new InjectorHealthMonitor("loadgen-1", "cpu=90%;gc=20%;heap=90%", 1000, probe);
+    monitor.read(START);
+    for (int second = 0; second < 60; second++) {
+      boolean saturated = second >= 20 && second < 25;
+      for (int i = 0; i < 10; i++) {
+        long end = START + second * 1000L + i * 100;
+        monitor.onSample(SampleResult.createTestSample(end - (saturated ? 800 : 100), end));
+      }
+      // the reading at the end of a second covers that second
+      probe.cpu = saturated ? 0.97 : 0.3;
+      probe.gcMillis += second == 40 ? 400 : 0;
+      probe.heapUsed = second == 50 ? 512 : 256;
+      monitor.read(START + (second + 1) * 1000L);
+    }
+    AnalysisReport report = new AnalysisReport();
+    monitor.contribute(report);
+
+    assertEquals(60, monitor.getReadings());
+    assertEquals(
+        "cpu 36% avg 97% max, gc 400 ms 40% max, heap 50% max, threads 40 max",
+        report.getLaunchAttributes().get("injector.loadgen-1"));
+    assertEquals("2", report.getLaunchAttributes().get("injectorUnreliableWindows"));
+    assertEquals("60 (10.0%)", report.getLaunchAttributes().get("injectorUnreliableSamples"));
+    JtlRecord testCase = report.getTestCases().get(0);
+    assertEquals("Injector health loadgen-1", testCase.getLabel());
+    assertFalse(testCase.isSuccess());
+    String[] windows = testCase.getFailureMessage().split("\n");
+    assertEquals(2, windows.length);
+    assertEquals(
+        Instant.ofEpochMilli(START + 20_000)
+            + " to "
+            + Instant.ofEpochMilli(START + 25_000)
+            + ": cpu 97%, 50 samples at 800 ms mean against 100 ms while healthy",
+        windows[0]);
+    assertTrue(
+        windows[1],
+        windows[1].endsWith(": gc 40%, 10 samples at 100 ms mean against 100 ms while healthy"));
+  }
+
+  @Test
+  public void testPlatformReadings() {
+    InjectorHealthMonitor monitor = new InjectorHealthMonitor("loadgen-2", "");
+    long now = System.currentTimeMillis();
+    monitor.read(now);
+    monitor.onSample(SampleResult.createTestSample(now, now + 10));
+    monitor.read(now + 1000);
+    AnalysisReport report = new AnalysisReport();
+    monitor.contribute(report);
+
+    assertTrue(report.getLaunchAttributes().get("injector.loadgen-2").contains(" threads "));
+    assertEquals("Injector health loadgen-2", report.getTestCases().get(0).getLabel());
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 Prasant Mohanty.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import io.github.prasantmohanty.jmeter.backendlistener.junit.transform.JtlRecord;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.jmeter.samplers.SampleResult;
+import org.junit.jupiter.api.Test;
+
+public class TestLatencyDecomposer {
+
+  private static SampleResult sample(String label, long start, long end, long connect, long ttfb) {
+    SampleResult sr = SampleResult.createTestSample(start, end);
+    sr.setSampleLabel(label);
+    sr.setConnectTime(connect);
+    sr.setLatency(ttfb);
+    return sr;
+  }
+
+  private static Map<String, JtlRecord> testCases(AnalysisReport report) {
+    Map<String, JtlRecord> testCases = new HashMap<>();
+    for (JtlRecord record : report.getTestCases()) {
+      testCases.put(record.getLabel(), record);
+    }
+    return testCases;
+  }
+
+  @Test
+  public void testTransactionIsSplitThroughItsChildren() {
+    LatencyDecomposer decomposer = new LatencyDecomposer();
+    for (int i = 0; i < 10; i++) {
+      long start = 1_700_000_000_000L + i * 1000L;
+      // 10 ms connect, 300 ms server, 40 ms download, then 50 ms think time in the transaction
+      SampleResult login = sample("login", start, start + 350, 10, 310);
+      // a large download
+      SampleResult report = sample("report", start + 400, start + 900, 0, 50);
+      SampleResult transaction = sample("checkout", start, start + 950, 0, 0);
+      transaction.storeSubResult(login, false);
+      transaction.storeSubResult(report, false);
+      decomposer.onSample(transaction);
+      decomposer.onSample(sample("ping", start, start + 100, 80, 90));
+    }
+
+    AnalysisReport analysis = new AnalysisReport();
+    decomposer.contribute(analysis);
+    Map<String, JtlRecord> testCases = testCases(analysis);
+    assertEquals(4, testCases.size());
+
+    String checkout = testCases.get("Latency checkout").getResponseMessage();
+    // connect 10, server 300 + 50, download 40 + 450, other 100 of 950 ms
+    assertTrue(checkout, checkout.startsWith("payload bound: connect 1%, server 37%,"));
+    assertTrue(checkout, checkout.contains(" download 52%,"));
+    assertTrue(checkout, checkout.endsWith("other 11%, mean 950.0 ms"));
+    String children = testCases.get("Latency checkout").getResponseBody();
+    assertTrue(children, children.contains("login: server bound"));
+    assertTrue(children, children.contains("report: payload bound"));
+    String login = testCases.get("Latency checkout / login").getResponseMessage();
+    assertTrue(login, login.startsWith("server bound: connect 3%, server 86%, download 11%"));
+    assertNull(testCases.get("Latency ping").getResponseBody());
+    assertTrue(testCases.get("Latency ping").getResponseMessage().startsWith("network bound"));
+
+    assertEquals("payload c1/s37/d52/o11%", analysis.getLaunchAttributes().get("latency.checkout"));
+    assertEquals("network c80/s10/d10/o0%", analysis.getLaunchAttributes().get("latency.ping"));
+  }
+
+  @Test
+  public void testParallelChildrenReportOverlap() {
+    LatencyDecomposer decomposer = new LatencyDecomposer();
+    long start = 1_700_000_000_000L;
+    SampleResult page = sample("page", start, start + 200, 0, 0);
+    page.storeSubResult(sample("a.css", start, start + 150, 0, 100), false);
+    page.storeSubResult(sample("b.js", start, start + 150, 0, 100), false);
+    decomposer.onSample(page);
+
+    AnalysisReport analysis = new AnalysisReport();
+    decomposer.contribute(analysis);
+    String message = testCases(analysis).get("Latency page").getResponseMessage();
+    assertTrue(message, message.endsWith("other 0%, mean 200.0 ms, parallel overlap 100.0 ms"));
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 Prasant Mohanty.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.github.prasantmohanty.jmeter.backendlistener.junit.transform.JtlRecord;
+import org.apache.jmeter.samplers.SampleResult;
+import org.junit.jupiter.api.Test;
+
+public class TestSaturationAnalyzer {
+
+  private static SampleResult sample(long end, long elapsed, int threads) {
+    SampleResult sr = SampleResult.createTestSample(end - elapsed, end);
+    sr.setAllThreads(threads);
+    sr.setGroupThreads(threads);
+    return sr;
+  }
+
+  private static JtlRecord testCase(AnalysisReport report, String label) {
+    for (JtlRecord record : report.getTestCases()) {
+      if (record.getLabel().equals(label)) {
+        return record;
+      }
+    }
+    throw new AssertionError("no test case " + label);
+  }
+
+  /**
+   * A closed system without think time in front of a server handling 200 requests per second:
+   * throughput grows with the threads up to 4 threads and stays flat beyond.
+   */
+  @Test
+  public void testKneeOfSteppedLoad() {
+    SaturationAnalyzer analyzer = new SaturationAnalyzer(50);
+    long now = 1_700_000_000_000L;
+    for (int threads : new int[] {1, 2, 4, 6, 8, 10}) {
+      long response = Math.max(20, threads * 1000L / 200);
+      double throughput = threads * 1000d / response;
+      long step = now + 10_000;
+      for (double end = now; end < step; end += 1000d / throughput) {
+        analyzer.onSample(sample((long) end, response, threads));
+      }
+      now = step;
+    }
+
+    AnalysisReport report = new AnalysisReport();
+    analyzer.contribute(report);
+    assertEquals("4", report.getLaunchAttributes().get("saturationKnee"));
+    assertTrue(
+        report.getLaunchAttributes().get("saturationCurve"),
+        report.getLaunchAttributes().get("saturationCurve").startsWith("1:50.0 2:100.0 4:200.0"));
+    JtlRecord curve = testCase(report, "Saturation curve");
+    String summary = curve.getResponseMessage();
+    assertTrue(summary, summary.startsWith("Saturation knee at 4 threads"));
+    String table = curve.getResponseBody();
+    assertTrue(table, table.contains("\n4,2000,10.0,200.00,20.0,"));
+    assertTrue(testCase(report, "Saturation Little's law").isSuccess());
+  }
+
+  @Test
+  public void testLinearCurveHasNoKneeAndLevelsAreBounded() {
+    SaturationAnalyzer analyzer = new SaturationAnalyzer(1);
+    long now = 1_700_000_000_000L;
+    for (int threads = 1; threads <= 200; threads++) {
+      // 10 samples per thread and second, 50 ms each: X * R is half the thread count
+      for (int i = 0; i < threads * 10; i++) {
+        analyzer.onSample(sample(now + i * 100L / threads, 50, threads));
+      }
+      now += 1000;
+    }
+    assertTrue(analyzer.curve().size() <= SaturationAnalyzer.MAX_LEVELS);
+
+    AnalysisReport report = new AnalysisReport();
+    analyzer.contribute(report);
+    assertEquals("none", report.getLaunchAttributes().get("saturationKnee"));
+    assertTrue(testCase(report, "Saturation Little's law").isSuccess());
+
+    // 100 samples per second of 50 ms each on a single thread is impossible
+    SaturationAnalyzer doubled = new SaturationAnalyzer(1);
+    for (int i = 0; i < 1000; i++) {
+      doubled.onSample(sample(now + i * 10L, 50, 1));
+    }
+    report = new AnalysisReport();
+    doubled.contribute(report);
+    JtlRecord little = testCase(report, "Saturation Little's law");
+    assertFalse(little.isSuccess());
+    assertTrue(little.getFailureMessage(), little.getFailureMessage().contains("1 threads imply"));
+  }
+}
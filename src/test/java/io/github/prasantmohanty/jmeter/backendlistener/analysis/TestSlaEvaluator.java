@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 Prasant Mohanty.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.github.prasantmohanty.jmeter.backendlistener.junit.transform.JtlRecord;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.jmeter.samplers.SampleResult;
+import org.junit.jupiter.api.Test;
+
+public class TestSlaEvaluator {
+
+  private static SampleResult sample(String label, long end, long elapsed, boolean success) {
+    SampleResult sr = SampleResult.createTestSample(end - elapsed, end);
+    sr.setSampleLabel(label);
+    sr.setSuccessful(success);
+    return sr;
+  }
+
+  @Test
+  public void testParseRules() {
+    SlaRule rule = SlaRule.parse("GET http://host/login:p99.9<=800ms");
+    assertEquals("GET http://host/login", rule.getLabel());
+    assertEquals(SlaRule.Metric.PERCENTILE, rule.getMetric());
+    assertEquals(99.9d, rule.getPercentile(), 0d);
+    assertTrue(rule.isSatisfiedBy(800));
+    assertFalse(rule.isSatisfiedBy(801));
+    assertEquals(3, SlaRule.parseAll("a:avg<10; *:errorRate<1% ;b:throughput>=5").size());
+  }
+
+  @Test
+  public void testBreachProducesFailingTestCaseAndAborts() {
+    AtomicInteger aborts = new AtomicInteger();
+    SlaEvaluator evaluator =
+        new SlaEvaluator(
+            SlaRule.parseAll("login:p95<500;*:errorRate<10"), 6000L, 5L, aborts::incrementAndGet);
+    long start = 1_700_000_000_000L;
+    for (int i = 0; i < 200; i++) {
+      // first half fast, second half slow
+      long elapsed = i < 100 ? 100 : 900;
+      evaluator.onSample(sample("login", start + i * 100L, elapsed, true));
+      evaluator.onSample(sample("search", start + i * 100L, 50, true));
+    }
+    assertTrue(evaluator.isBreached());
+    assertEquals(1, aborts.get());
+
+    AnalysisReport report = new AnalysisReport();
+    evaluator.contribute(report);
+    JtlRecord latency = null;
+    for (JtlRecord record : report.getTestCases()) {
+      if (record.getLabel().equals("SLA login p95<500")) {
+        latency = record;
+      } else {
+        assertTrue(record.getLabel() + " should pass", record.isSuccess());
+      }
+    }
+    assertFalse(latency.isSuccess());
+    assertTrue(latency.getFailureMessage(), latency.getFailureMessage().contains("worst"));
+    assertEquals("breached", report.getLaunchAttributes().get("sla"));
+    assertEquals("true", report.getLaunchAttributes().get("slaAborted"));
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 Prasant Mohanty.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.github.prasantmohanty.jmeter.backendlistener.junit.transform.JtlRecord;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.jmeter.samplers.SampleResult;
+import org.junit.jupiter.api.Test;
+
+public class TestSloEvaluator {
+
+  private static SampleResult sample(String label, long end, long elapsed, boolean success) {
+    SampleResult sr = SampleResult.createTestSample(end - elapsed, end);
+    sr.setSampleLabel(label);
+    sr.setSuccessful(success);
+    return sr;
+  }
+
+  private static Map<String, JtlRecord> testCases(AnalysisReport report) {
+    Map<String, JtlRecord> testCases = new HashMap<>();
+    for (JtlRecord testCase : report.getTestCases()) {
+      testCases.put(testCase.getLabel(), testCase);
+    }
+    return testCases;
+  }
+
+  @Test
+  public void testApdexPerLabel() {
+    assertEquals(300_000L, SloEvaluator.parseDuration("5m"));
+    assertEquals(
+        2000L, SloEvaluator.parseApdexThresholds("*:500;login:300/2s").get("login").tolerated);
+    SloEvaluator evaluator =
+        new SloEvaluator("*:1s;checkout:100", 0, Collections.emptyList(), 5);
+    long end = 1_700_000_000_000L;
+    long[] elapsed = {50, 50, 50, 50, 50, 50, 200, 200, 1000};
+    for (long time : elapsed) {
+      evaluator.onSample(sample("checkout", end += 100, time, true));
+      evaluator.onSample(sample("home", end, time, true));
+    }
+    evaluator.onSample(sample("checkout", end += 100, 10, false));
+    AnalysisReport report = new AnalysisReport();
+    evaluator.contribute(report);
+
+    JtlRecord checkout = testCases(report).get("SLO checkout");
+    assertTrue(checkout.isSuccess());
+    assertTrue(
+        checkout.getResponseMessage(),
+        checkout
+            .getResponseMessage()
+            .startsWith(
+                "Apdex 0.70 [T 100 ms, F 400 ms]: 6 satisfied, 2 tolerating, 2 frustrated of 10"));
+    assertEquals("0.70", report.getLaunchAttributes().get("apdex.checkout"));
+    assertEquals("1.00", report.getLaunchAttributes().get("apdex.home"));
+    assertEquals("0.84", report.getLaunchAttributes().get("apdex"));
+    assertFalse(report.getLaunchAttributes().containsKey("errorBudgetBurn"));
+  }
+
+  @Test
+  public void testFastBurnFailsTestCase() {
+    SloEvaluator evaluator =
+        new SloEvaluator(
+            "", 99, SloEvaluator.BurnWindow.parseAll("fast=60s/300s@10;slow=120s/600s@20"), 10);
+    long start = 1_700_000_000_000L;
+    for (int second = 0; second < 600; second++) {
+      long end = start + second * 1000L;
+      // half of the requests fail for one minute: 50x on the short, 10x on the long window
+      boolean failing = second >= 300 && second < 360 && second % 2 == 0;
+      evaluator.onSample(sample("payment", end, 20, !failing));
+      evaluator.onSample(sample("catalog", end, 20, true));
+    }
+    AnalysisReport report = new AnalysisReport();
+    evaluator.contribute(report);
+
+    Map<String, JtlRecord> testCases = testCases(report);
+    JtlRecord payment = testCases.get("SLO payment");
+    assertFalse(payment.isSuccess());
+    assertTrue(
+        payment.getFailureMessage(),
+        payment.getFailureMessage().startsWith("fast 60s/300s burn rate reached 10."));
+    assertFalse(payment.getFailureMessage().contains("slow"));
+    assertTrue(testCases.get("SLO catalog").isSuccess());
+    assertTrue(testCases.get("SLO " + SloEvaluator.ALL_LABELS).isSuccess());
+    assertEquals("1", report.getLaunchAttributes().get("errorBudgetAlerts"));
+    assertEquals("250%", report.getLaunchAttributes().get("errorBudgetConsumed"));
+    assertTrue(report.getLaunchAttributes().get("errorBudgetBurn").startsWith("fast 5."));
+    assertFalse(report.getLaunchAttributes().containsKey("apdex"));
+  }
+}
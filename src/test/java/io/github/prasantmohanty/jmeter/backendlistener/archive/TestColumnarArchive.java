@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 Prasant Mohanty.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.archive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.github.prasantmohanty.jmeter.backendlistener.junit.transform.JtlRecord;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.jmeter.samplers.SampleResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TestColumnarArchive {
+
+  private static final long START = 1767225600000L;
+  private static final String[] LABELS = {"login", "search", "checkout"};
+
+  private static File write(File dir, int samples) throws Exception {
+    File file = new File(dir, ColumnarArchiveWriter.fileName("Checkout flow", "42", START));
+    try (ColumnarArchiveWriter writer = new ColumnarArchiveWriter(file, 4096)) {
+      for (int i = 0; i < samples; i++) {
+        long timestamp = START + i * 5L + (i % 7);
+        SampleResult sr = SampleResult.createTestSample(timestamp, timestamp + 20 + i % 300);
+        sr.setSampleLabel(LABELS[i % LABELS.length]);
+        sr.setThreadName("Thread Group 1-" + (i % 50));
+        sr.setSuccessful(i % 100 != 0);
+        sr.setResponseCode(i % 100 != 0 ? "200" : "500");
+        sr.setResponseMessage(i % 100 != 0 ? "OK" : "Internal Server Error");
+        sr.setURL(new URL("https://shop.example.com/" + LABELS[i % LABELS.length]));
+        sr.setBytes(1024L + i % 16);
+        sr.setLatency(10 + i % 100);
+        writer.append(sr);
+      }
+      assertEquals(samples, writer.getRows());
+    }
+    return file;
+  }
+
+  @Test
+  public void testRoundTripThroughJtlRecordProcessor(@TempDir File dir) throws Exception {
+    File file = write(dir, 40000);
+    assertEquals("Checkout_flow-42-" + START + ".jca", file.getName());
+    // a CSV JTL line of these samples takes well over 100 bytes
+    assertTrue("archive is " + file.length() + " bytes", file.length() < 40000 * 10);
+
+    List<JtlRecord> records = new ArrayList<>();
+    new ColumnarArchiveReader().parseArchive(file.getPath(), records::add);
+    assertEquals(40000, records.size());
+    assertEquals("search", records.get(1).getLabel());
+    assertFalse(records.get(100).isSuccess());
+    assertEquals("500", records.get(100).getResponseCode());
+    assertEquals("Internal Server Error", records.get(100).getResponseMessage());
+    assertTrue(records.get(101).isSuccess());
+
+    AtomicLong row = new AtomicLong();
+    AtomicLong elapsed = new AtomicLong();
+    new ColumnarArchiveReader()
+        .scan(
+            file,
+            ColumnarArchiveReader.ALL_ROW_GROUPS,
+            sample -> {
+              if (row.getAndIncrement() == 12345) {
+                elapsed.set(sample.getElapsed());
+                assertEquals("https://shop.example.com/login", sample.getUrl());
+                assertEquals("Thread Group 1-45", sample.getThreadName());
+                assertEquals(1024L + 12345 % 16, sample.getBytes());
+              }
+            });
+    assertEquals(20 + 12345 % 300, elapsed.get());
+  }
+
+  @Test
+  public void testRowGroupSkippingAndTruncation(@TempDir File dir) throws Exception {
+    File file = write(dir, 40000);
+    List<RowGroupStats> seen = new ArrayList<>();
+    long from = START + 20000 * 5L;
+    long rows =
+        new ColumnarArchiveReader()
+            .scan(
+                file,
+                stats -> {
+                  seen.add(stats);
+                  return stats.overlaps(from, from + 1000) && stats.containsLabel("login");
+                },
+                sample -> {});
+    assertEquals(10, seen.size());
+    assertEquals(4096, rows);
+    assertEquals(4096, seen.get(0).getRows());
+    assertEquals(41, seen.get(0).getErrors());
+
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.setLength(raf.length() - 10);
+    }
+    long remaining =
+        new ColumnarArchiveReader().scan(file, ColumnarArchiveReader.ALL_ROW_GROUPS, sample -> {});
+    assertEquals(9 * 4096, remaining);
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Prasant Mohanty.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.baseline;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import io.github.prasantmohanty.jmeter.backendlistener.analysis.AnalysisReport;
+import io.github.prasantmohanty.jmeter.backendlistener.analysis.RegressionAnalyzer;
+import io.github.prasantmohanty.jmeter.backendlistener.junit.transform.JtlRecord;
+import io.github.prasantmohanty.jmeter.backendlistener.metrics.SampleStatistics;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Collections;
+import java.util.List;
+import org.apache.jmeter.samplers.SampleResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TestBaselineStore {
+
+  private static RunSummary run(String build, long p95) {
+    return new RunSummary(
+        "checkout",
+        build,
+        System.currentTimeMillis(),
+        Collections.singletonList(
+            new LabelSummary("login", 100, 1, p95 / 2d, p95 / 2, p95 - 10, p95, p95 + 10, 25d)));
+  }
+
+  @Test
+  public void testAppendReopenAndRecover(@TempDir File dir) throws Exception {
+    BaselineStore store = new BaselineStore(dir);
+    for (int build = 1; build <= 20; build++) {
+      store.append(run(Integer.toString(build), 100 + build));
+    }
+    // simulate a crash: torn data record after the last indexed one and a lost index
+    File data = new File(dir, BaselineStore.DATA_FILE);
+    try (FileOutputStream out = new FileOutputStream(data, true)) {
+      out.write(new byte[] {0x52, 0x50, 0x42, 0x31, 0, 0, 1});
+    }
+    assertTrue(new File(dir, BaselineStore.INDEX_FILE).delete());
+
+    BaselineStore reopened = new BaselineStore(dir);
+    assertEquals(20, reopened.size());
+    assertEquals(107, reopened.find("checkout", "7").getLabels().get("login").getP95());
+    assertNull(reopened.find("checkout", "99"));
+
+    List<RunSummary> latest = reopened.findLatest("checkout", 3, "20");
+    assertEquals(3, latest.size());
+    assertEquals("19", latest.get(0).getBuildNumber());
+    assertEquals("17", latest.get(2).getBuildNumber());
+  }
+
+  @Test
+  public void testRegressionAgainstLastRuns(@TempDir File dir) throws Exception {
+    BaselineStore store = new BaselineStore(dir);
+    for (int build = 1; build <= 5; build++) {
+      store.append(run(Integer.toString(build), 200 + build));
+    }
+    SampleStatistics statistics = new SampleStatistics();
+    for (int i = 0; i < 100; i++) {
+      SampleResult sr = SampleResult.createTestSample(i * 40L, i * 40L + 400);
+      sr.setSampleLabel("login");
+      sr.setSuccessful(true);
+      statistics.record(sr);
+    }
+    AnalysisReport report = new AnalysisReport();
+    new RegressionAnalyzer(store, statistics, "checkout", "6", "last:5", "p95=10%;minSamples=50")
+        .contribute(report);
+
+    List<JtlRecord> testCases = report.getTestCases();
+    assertEquals(1, testCases.size());
+    assertEquals("Regression login p95", testCases.get(0).getLabel());
+    assertFalse(testCases.get(0).isSuccess());
+    assertEquals("1", report.getLaunchAttributes().get("regressions"));
+    assertTrue(report.getLaunchAttributes().get("regression.login.p95").startsWith("+"));
+    assertEquals(6, new BaselineStore(dir).size());
+  }
+}
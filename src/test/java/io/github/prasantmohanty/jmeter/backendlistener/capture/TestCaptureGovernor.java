@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 Prasant Mohanty.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.capture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.github.prasantmohanty.jmeter.backendlistener.analysis.AnalysisReport;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.jmeter.samplers.SampleResult;
+import org.junit.jupiter.api.Test;
+
+public class TestCaptureGovernor {
+
+  private final AtomicLong now = new AtomicLong(1767225600000L);
+
+  private List<SampleResult> batch(int size, long ageMillis) {
+    List<SampleResult> results = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      long end = now.get() - ageMillis;
+      results.add(SampleResult.createTestSample(end - 10, end));
+    }
+    return results;
+  }
+
+  /** Run a batch which takes {@code busyMillis}, then idle until the next one. */
+  private CaptureTier run(CaptureGovernor governor, List<SampleResult> batch, long busyMillis) {
+    CaptureTier tier = governor.beforeBatch(batch);
+    now.addAndGet(busyMillis);
+    governor.afterBatch();
+    now.addAndGet(1000 - busyMillis);
+    return tier;
+  }
+
+  @Test
+  public void testStepsDownUnderPressureAndRecovers() {
+    CaptureGovernor governor = new CaptureGovernor(5000, 2000, 30000, now::get);
+    assertEquals(CaptureTier.FULL, run(governor, batch(100, 50), 100));
+
+    // lagging: one step per maxLag interval
+    assertEquals(CaptureTier.FAILURE_PAYLOADS, run(governor, batch(100, 5000), 100));
+    assertEquals(CaptureTier.FAILURE_PAYLOADS, run(governor, batch(100, 5000), 100));
+    assertEquals(CaptureTier.METRICS_ONLY, run(governor, batch(100, 5000), 100));
+    now.addAndGet(2000);
+    // queue more than half full
+    assertEquals(CaptureTier.AGGREGATES_ONLY, run(governor, batch(3000, 0), 100));
+    now.addAndGet(2000);
+    // busy all the time and falling behind
+    run(governor, batch(10, 1500), 1000);
+    assertEquals(CaptureTier.AGGREGATES_ONLY, run(governor, batch(10, 0), 100));
+
+    int batches = 0;
+    while (governor.getTier() != CaptureTier.FULL && batches++ < 1000) {
+      run(governor, batch(10, 0), 10);
+    }
+    // three steps up, each after 30 calm seconds
+    assertTrue("took " + batches + " batches", batches >= 90 && batches <= 100);
+
+    AnalysisReport report = new AnalysisReport();
+    governor.contribute(report);
+    Map<String, String> attributes = report.getLaunchAttributes();
+    assertEquals("6", attributes.get("captureTierChanges"));
+    assertEquals("AGGREGATES_ONLY", attributes.get("captureTierLowest"));
+    assertTrue(attributes.get("captureTier.1").endsWith("Z FAILURE_PAYLOADS"));
+    assertTrue(attributes.get("captureTier.6").endsWith("Z FULL"));
+    assertEquals("3310", attributes.get("captureAggregatedSamples"));
+  }
+
+  @Test
+  public void testBusyListenerKeepingUpStaysAtFull() {
+    CaptureGovernor governor = new CaptureGovernor(5000, 2000, 30000, now::get);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(CaptureTier.FULL, run(governor, batch(100, 1), 1000));
+    }
+    // busy and the lag building up: a step down before the lag limit is reached
+    assertEquals(CaptureTier.FAILURE_PAYLOADS, run(governor, batch(100, 1500), 1000));
+  }
+
+  @Test
+  public void testTiers() {
+    assertTrue(CaptureTier.FULL.capturesPayloads(true));
+    assertFalse(CaptureTier.FAILURE_PAYLOADS.capturesPayloads(true));
+    assertTrue(CaptureTier.FAILURE_PAYLOADS.capturesPayloads(false));
+    assertFalse(CaptureTier.METRICS_ONLY.capturesPayloads(false));
+    assertTrue(CaptureTier.METRICS_ONLY.capturesSamples());
+    assertFalse(CaptureTier.AGGREGATES_ONLY.capturesSamples());
+
+    CaptureGovernor governor = new CaptureGovernor(5000, 2000, 30000, now::get);
+    run(governor, Collections.<SampleResult>emptyList(), 0);
+    AnalysisReport report = new AnalysisReport();
+    governor.contribute(report);
+    assertTrue(report.getLaunchAttributes().isEmpty());
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 Prasant Mohanty.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.capture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.github.prasantmohanty.jmeter.backendlistener.analysis.AnalysisReport;
+import org.junit.jupiter.api.Test;
+
+public class TestHeapBudget {
+
+  @Test
+  public void testParseBudget() {
+    assertEquals(250, HeapBudget.parseBudget("25%", 1000));
+    assertEquals(512L << 20, HeapBudget.parseBudget(" 512m", 1000));
+    assertEquals(2L << 30, HeapBudget.parseBudget("2G", 1000));
+    assertEquals(4096, HeapBudget.parseBudget("4096", 1000));
+    assertEquals(0, HeapBudget.parseBudget("", 1000));
+    assertEquals(HeapBudget.Action.DROP_PAYLOADS, HeapBudget.Action.parse("drop-payloads"));
+    try {
+      HeapBudget.parseBudget("120%", 1000);
+      throw new AssertionError("accepted 120%");
+    } catch (IllegalArgumentException expected) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testCeilingPerAction() {
+    HeapBudget drop = new HeapBudget(1000, HeapBudget.Action.DROP_PAYLOADS);
+    drop.reserve(999);
+    assertEquals(CaptureTier.FULL, drop.ceiling());
+    drop.reserve(1);
+    assertTrue(drop.isTripped());
+    assertEquals(CaptureTier.METRICS_ONLY, drop.ceiling());
+    drop.release(500);
+    assertFalse(drop.isExceeded());
+    // stays tripped for the run
+    assertEquals(CaptureTier.METRICS_ONLY, drop.ceiling());
+    assertEquals(CaptureTier.AGGREGATES_ONLY, drop.limit(CaptureTier.AGGREGATES_ONLY));
+    drop.reserve(800);
+    assertEquals(CaptureTier.AGGREGATES_ONLY, drop.ceiling());
+
+    HeapBudget spill = new HeapBudget(1000, HeapBudget.Action.SPILL);
+    spill.reserve(1000);
+    assertEquals(CaptureTier.FULL, spill.ceiling());
+    spill.spillFailed(new java.io.IOException("disk full"));
+    assertFalse(spill.canSpill());
+    assertEquals(CaptureTier.AGGREGATES_ONLY, spill.ceiling());
+  }
+
+  @Test
+  public void testSafetyNetAndAttributes() {
+    HeapBudget budget = new HeapBudget(1000, HeapBudget.Action.AGGREGATES_ONLY);
+    budget.installSafetyNet();
+    try {
+      assertFalse(budget.isLowMemory());
+      AnalysisReport report = new AnalysisReport();
+      budget.contribute(report);
+      assertTrue(report.getLaunchAttributes().isEmpty());
+      budget.reserve(1500);
+      budget.release(1500);
+      budget.contribute(report);
+      assertEquals("1000 AGGREGATES_ONLY", report.getLaunchAttributes().get("heapBudget"));
+      assertEquals("1500", report.getLaunchAttributes().get("heapBudgetPeak"));
+    } finally {
+      budget.close();
+    }
+  }
+}
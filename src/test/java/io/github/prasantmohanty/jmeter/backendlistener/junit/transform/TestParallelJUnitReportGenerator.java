@@ -0,0 +1,151 @@
+/*
+ * Copyright 2026 Prasant Mohanty.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.junit.transform;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import io.github.prasantmohanty.jmeter.backendlistener.model.Payload;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+public class TestParallelJUnitReportGenerator {
+
+  private static List<Integer> samples(int count) {
+    List<Integer> samples = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      samples.add(i);
+    }
+    return samples;
+  }
+
+  private static JtlRecord record(int i) {
+    if (i % 1000 == 999) {
+      return null;
+    }
+    boolean success = i % 10 != 0;
+    return new JtlRecord(
+        "label-" + (i % 5),
+        success,
+        i % 20 == 0 ? "Internal <Server> Error" : "OK",
+        !success && i % 20 != 0 ? "expected \"ok\"\u0001" : "",
+        "Accept: */*",
+        "body ]]> " + i,
+        "",
+        "",
+        success ? "200" : "500");
+  }
+
+  private static Document parse(File file) throws Exception {
+    return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file);
+  }
+
+  @Test
+  public void testSingleSuiteIsDeterministicAndValid(@TempDir File dir) throws Exception {
+    List<JtlRecord> extra =
+        Collections.singletonList(new JtlRecord("SLA login p95<800", false, "", "p95 was 900"));
+    File serial = new File(dir, "serial.xml");
+    File parallel = new File(dir, "parallel.xml");
+    int written =
+        new ParallelJUnitReportGenerator(1, false)
+            .generate(
+                samples(10000), TestParallelJUnitReportGenerator::record, extra, "suite", serial);
+    new ParallelJUnitReportGenerator(4, false)
+        .generate(
+            samples(10000), TestParallelJUnitReportGenerator::record, extra, "suite", parallel);
+
+    assertEquals(9991, written);
+    assertArrayEquals(Files.readAllBytes(serial.toPath()), Files.readAllBytes(parallel.toPath()));
+
+    Element suite = parse(parallel).getDocumentElement();
+    assertEquals("testsuite", suite.getTagName());
+    assertEquals("9991", suite.getAttribute("tests"));
+    assertEquals("501", suite.getAttribute("failures"));
+    assertEquals("500", suite.getAttribute("errors"));
+    NodeList testCases = suite.getElementsByTagName("testcase");
+    assertEquals("label-1", ((Element) testCases.item(1)).getAttribute("name"));
+    assertEquals("SLA login p95<800", ((Element) testCases.item(9990)).getAttribute("name"));
+    Element error = (Element) ((Element) testCases.item(0)).getElementsByTagName("error").item(0);
+    assertEquals("Internal <Server> Error", error.getAttribute("message"));
+    String systemOut =
+        ((Element) testCases.item(3)).getElementsByTagName("system-out").item(0).getTextContent();
+    assertTrue(systemOut.contains("body ]]> 3"));
+  }
+
+  @Test
+  public void testSuitePerLabel(@TempDir File dir) throws Exception {
+    File file = new File(dir, "labels.xml");
+    new ParallelJUnitReportGenerator(3, true)
+        .generate(
+            samples(5000),
+            TestParallelJUnitReportGenerator::record,
+            Collections.<JtlRecord>emptyList(),
+            "suite",
+            file);
+
+    Element root = parse(file).getDocumentElement();
+    assertEquals("testsuites", root.getTagName());
+    assertEquals("4995", root.getAttribute("tests"));
+    NodeList suites = root.getElementsByTagName("testsuite");
+    assertEquals(5, suites.getLength());
+    Element first = (Element) suites.item(0);
+    assertEquals("label-0", first.getAttribute("name"));
+    assertEquals("1000", first.getAttribute("tests"));
+    assertEquals(
+        "label-0",
+        ((Element) first.getElementsByTagName("testcase").item(0)).getAttribute("classname"));
+  }
+
+  @Test
+  public void testRawPayloads(@TempDir File dir) throws Exception {
+    byte[] latin1 = "caf\u00e9 ]]]>\u0007 done".getBytes(StandardCharsets.ISO_8859_1);
+    byte[] png = {(byte) 0x89, 'P', 'N', 'G', 0, 0, 0, 13};
+    List<JtlRecord> records =
+        Arrays.asList(
+            record("text", new Payload(latin1, "ISO-8859-1", "text/plain", false)),
+            record("omitted", new Payload(png, "UTF-8", "image/png", true)));
+    File file = new File(dir, "payloads.xml");
+    new ParallelJUnitReportGenerator(2, false, false)
+        .generate(records, r -> r, Collections.<JtlRecord>emptyList(), "suite", file);
+    File base64 = new File(dir, "base64.xml");
+    new ParallelJUnitReportGenerator(2, false, true)
+        .generate(records, r -> r, Collections.<JtlRecord>emptyList(), "suite", base64);
+
+    NodeList out = parse(file).getElementsByTagName("system-out");
+    assertTrue(out.item(0).getTextContent().contains("Response Body:\ncaf\u00e9 ]]]> done\n"));
+    assertTrue(out.item(1).getTextContent().contains("[binary payload: 8 bytes, image/png]"));
+    String encoded = parse(base64).getElementsByTagName("system-out").item(1).getTextContent();
+    assertTrue(encoded.contains(Base64.getMimeEncoder().encodeToString(png)));
+  }
+
+  private static JtlRecord record(String label, Payload payload) {
+    return new JtlRecord(label, true, "OK", "", "", "", "", null, "200", payload);
+  }
+}
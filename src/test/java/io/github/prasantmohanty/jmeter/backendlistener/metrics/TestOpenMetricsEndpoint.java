@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 Prasant Mohanty.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import org.apache.jmeter.samplers.SampleResult;
+import org.junit.jupiter.api.Test;
+
+public class TestOpenMetricsEndpoint {
+
+  private static SampleResult sample(String label, long elapsed, boolean success) {
+    SampleResult sr = SampleResult.createTestSample(1000L, 1000L + elapsed);
+    sr.setSampleLabel(label);
+    sr.setSuccessful(success);
+    sr.setThreadName("Thread Group 1-1");
+    sr.setAllThreads(4);
+    sr.setGroupThreads(2);
+    return sr;
+  }
+
+  @Test
+  public void testHistogramPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i);
+    }
+    assertEquals(1000, histogram.count());
+    assertEquals(50, histogram.countAtOrBelow(50));
+    // the bucket of 1000 ms spans 992-1007 ms
+    assertEquals(991, histogram.countAtOrBelow(1000));
+    long p95 = histogram.percentile(95);
+    assertTrue("p95 was " + p95, p95 >= 950 && p95 <= 950 * 1.04);
+  }
+
+  @Test
+  public void testBucketsHoldSamplesUpToTheirBound() {
+    SampleStatistics statistics = new SampleStatistics();
+    statistics.record(sample("checkout", 100, true));
+    statistics.record(sample("checkout", 250, true));
+    statistics.record(sample("checkout", 1000, true));
+    statistics.record(sample("checkout", 1007, true));
+    statistics.record(sample("checkout", 5000, true));
+    statistics.record(sample("checkout", 5050, true));
+
+    String body = OpenMetricsFormatter.format(statistics);
+    String bucket = "jmeter_response_time_seconds_bucket{label=\"checkout\",le=";
+    assertTrue(body.contains(bucket + "\"0.05\"} 0\n"));
+    assertTrue(body.contains(bucket + "\"0.1\"} 1\n"));
+    assertTrue(body.contains(bucket + "\"0.25\"} 2\n"));
+    assertTrue(body.contains(bucket + "\"1.0\"} 3\n"));
+    assertTrue(body.contains(bucket + "\"2.5\"} 4\n"));
+    assertTrue(body.contains(bucket + "\"5.0\"} 5\n"));
+    assertTrue(body.contains(bucket + "\"10.0\"} 6\n"));
+  }
+
+  @Test
+  public void testScrapeEndpoint() throws Exception {
+    SampleStatistics statistics = new SampleStatistics();
+    statistics.record(sample("login", 20, true));
+    statistics.record(sample("login", 300, false));
+    statistics.record(sample("search \"x\"", 7, true));
+
+    OpenMetricsEndpoint endpoint = new OpenMetricsEndpoint("127.0.0.1", 0, statistics);
+    endpoint.start();
+    try {
+      HttpURLConnection conn =
+          (HttpURLConnection)
+              new URL("http://127.0.0.1:" + endpoint.getPort() + "/metrics").openConnection();
+      assertEquals(200, conn.getResponseCode());
+      String body;
+      try (InputStream in = conn.getInputStream()) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+          out.write(buffer, 0, n);
+        }
+        body = new String(out.toByteArray(), StandardCharsets.UTF_8);
+      }
+      assertTrue(body.contains("jmeter_samples_total{label=\"login\"} 2\n"));
+      assertTrue(body.contains("jmeter_errors_total{label=\"login\"} 1\n"));
+      assertTrue(body.contains("jmeter_error_ratio{label=\"login\"} 0.5\n"));
+      assertTrue(body.contains("jmeter_active_threads 4\n"));
+      assertTrue(body.contains("jmeter_group_active_threads{group=\"Thread Group\"} 2\n"));
+      assertTrue(
+          body.contains("jmeter_response_time_seconds_bucket{label=\"login\",le=\"0.025\"} 1"));
+      assertTrue(body.contains("jmeter_samples_total{label=\"search \\\"x\\\"\"} 1\n"));
+      assertTrue(body.endsWith("# EOF\n"));
+    } finally {
+      endpoint.stop();
+    }
+  }
+}
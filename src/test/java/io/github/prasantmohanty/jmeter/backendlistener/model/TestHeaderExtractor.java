@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Prasant Mohanty.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class TestHeaderExtractor {
+
+  private static final String RESPONSE_HEADERS =
+      "HTTP/1.1 200 OK\n"
+          + "Content-Type: application/json\n"
+          + "X-Request-Id:  abc-123 \n"
+          + "Server-Timing: cache;desc=\"Cache Read\";dur=23.2, db;dur=53, app;dur=bad\n"
+          + "X-Cache: HIT from edge\n"
+          + "Traceparent: 00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01\n"
+          + "X-Retry-Count: 3\n";
+
+  @Test
+  public void testExtractConfiguredHeaders() {
+    HeaderExtractor extractor =
+        HeaderExtractor.compile(HeaderExtractor.DEFAULT_HEADERS + ";x-retry-count=Retries");
+    Map<String, Object> out = new HashMap<>();
+    extractor.extract(RESPONSE_HEADERS, out);
+
+    assertEquals("abc-123", out.get("RequestId"));
+    assertEquals(23.2d, out.get("ServerTiming.cache"));
+    assertEquals(53d, out.get("ServerTiming.db"));
+    assertNull(out.get("ServerTiming.app"));
+    assertEquals("HIT from edge", out.get("CacheStatus"));
+    assertEquals(Boolean.TRUE, out.get("CacheHit"));
+    assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", out.get("TraceId"));
+    assertEquals(3L, out.get("Retries"));
+    assertFalse(out.containsKey("Content-Type"));
+  }
+
+  @Test
+  public void testRenamedWellKnownHeaders() {
+    HeaderExtractor extractor =
+        HeaderExtractor.compile("traceparent=Upstream;x-cache=EdgeStatus;server-timing=Timing");
+    Map<String, Object> out = new HashMap<>();
+    extractor.extract(RESPONSE_HEADERS, out);
+
+    assertEquals("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01", out.get("Upstream"));
+    assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", out.get("UpstreamTraceId"));
+    assertEquals("HIT from edge", out.get("EdgeStatus"));
+    assertEquals(Boolean.TRUE, out.get("EdgeHit"));
+    assertEquals(53d, out.get("Timing.db"));
+    assertFalse(out.containsKey("TraceId"));
+    assertFalse(out.containsKey("CacheStatus"));
+    assertFalse(out.containsKey("CacheHit"));
+  }
+
+  @Test
+  public void testBlankSpecificationDisablesExtraction() {
+    assertNull(HeaderExtractor.compile(" ; "));
+    assertNull(HeaderExtractor.compile(null));
+  }
+}
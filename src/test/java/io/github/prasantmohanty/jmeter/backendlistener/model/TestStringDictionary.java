@@ -0,0 +1,69 @@
+/*
+ * Copyright 2026 Prasant Mohanty.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.apache.jmeter.samplers.SampleResult;
+import org.junit.jupiter.api.Test;
+
+public class TestStringDictionary {
+
+  @Test
+  public void testDenseIdsSurviveGrowth() {
+    StringDictionary dictionary = new StringDictionary();
+    for (int i = 0; i < 10_000; i++) {
+      assertEquals(i, dictionary.id("label " + i));
+    }
+    assertEquals(10_000, dictionary.size());
+    for (int i = 0; i < 10_000; i++) {
+      // equal but not identical instances resolve to the same id
+      assertEquals(i, dictionary.id(new String("label " + i)));
+      assertEquals("label " + i, dictionary.value(i));
+    }
+    assertEquals(StringDictionary.NONE, dictionary.find("label 10000"));
+    assertEquals(10_000, dictionary.id(null));
+    assertEquals(10_000, dictionary.find(""));
+    // "Aa" and "BB" share a hash code
+    assertEquals(10_001, dictionary.id("Aa"));
+    assertEquals(10_002, dictionary.id("BB"));
+    assertEquals(10_001, dictionary.find("Aa"));
+  }
+
+  @Test
+  public void testSampleLabelAndThreadIds() {
+    SampleDictionary dictionary = new SampleDictionary();
+    SampleResult login = SampleResult.createTestSample(0, 10);
+    login.setSampleLabel("login");
+    login.setThreadName("Users 1-1");
+    SampleResult home = SampleResult.createTestSample(10, 20);
+    home.setSampleLabel("home");
+    home.setThreadName("Users 1-1");
+
+    assertEquals(0, dictionary.labelId(login));
+    assertEquals(1, dictionary.labelId(home));
+    assertEquals(0, dictionary.threadId(login));
+    assertEquals(0, dictionary.threadId(home));
+    SampleResult again = SampleResult.createTestSample(20, 30);
+    again.setSampleLabel("login");
+    assertEquals(0, dictionary.labelId(again));
+    assertEquals(2, dictionary.labelCount());
+    assertSame(login.getSampleLabel(), dictionary.label(0));
+    assertEquals("Users 1-1", dictionary.threadName(0));
+  }
+}
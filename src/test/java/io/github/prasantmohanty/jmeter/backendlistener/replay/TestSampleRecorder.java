@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 Prasant Mohanty.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.replay;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.jmeter.assertions.AssertionResult;
+import org.apache.jmeter.samplers.SampleResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TestSampleRecorder {
+
+  @TempDir File dir;
+
+  @Test
+  public void testRoundTripWithBodies() throws Exception {
+    File file = new File(dir, SampleRecorder.fileName("Checkout test", "7", 1L));
+    assertEquals("Checkout_test-7-1.jsr", file.getName());
+    long start = System.currentTimeMillis();
+    SampleResult page = sample("checkout", start, 120, true);
+    page.setURL(new URL("https://shop.example.com/checkout"));
+    page.setResponseData("{\"order\":42}", "UTF-8");
+    page.setContentType("application/json");
+    page.setRequestHeaders("Accept: application/json");
+    page.setResponseHeaders("HTTP/1.1 200 OK");
+    page.setSamplerData("POST https://shop.example.com/checkout");
+    page.storeSubResult(sample("checkout / css", start + 10, 30, true), false);
+    SampleResult failed = sample("login", start + 500, 80, false);
+    AssertionResult assertion = new AssertionResult("status");
+    assertion.setFailure(true);
+    assertion.setFailureMessage("expected 200 but was 503");
+    failed.addAssertionResult(assertion);
+
+    try (SampleRecorder recorder = new SampleRecorder(file, true)) {
+      recorder.record(Arrays.asList(page, failed));
+      recorder.record(Arrays.asList(sample("login", start + 900, 60, true)));
+      assertEquals(3, recorder.getSamples());
+      assertEquals(2, recorder.getBatches());
+    }
+
+    List<List<SampleResult>> batches = new ArrayList<>();
+    try (SampleReplayer replayer = new SampleReplayer(file)) {
+      assertTrue(replayer.hasBodies());
+      assertEquals(3, replayer.replay(batches::add, SampleReplayer.MAX_SPEED));
+    }
+    assertEquals(2, batches.size());
+    SampleResult replayed = batches.get(0).get(0);
+    assertEquals("checkout", replayed.getSampleLabel());
+    assertEquals(120, replayed.getTime());
+    assertEquals(20, replayed.getLatency());
+    assertEquals(5, replayed.getConnectTime());
+    assertEquals(page.getBytesAsLong(), replayed.getBytesAsLong());
+    assertEquals(7, replayed.getAllThreads());
+    assertEquals("200", replayed.getResponseCode());
+    assertEquals("https://shop.example.com/checkout", replayed.getUrlAsString());
+    assertEquals("application/json", replayed.getContentType());
+    assertEquals("Accept: application/json", replayed.getRequestHeaders());
+    assertEquals("POST https://shop.example.com/checkout", replayed.getSamplerData());
+    assertArrayEquals(
+        "{\"order\":42}".getBytes(StandardCharsets.UTF_8), replayed.getResponseData());
+    assertEquals(1, replayed.getSubResults().length);
+    assertEquals("checkout / css", replayed.getSubResults()[0].getSampleLabel());
+    assertEquals(10, replayed.getSubResults()[0].getTimeStamp() - replayed.getTimeStamp());
+
+    SampleResult replayedFailure = batches.get(0).get(1);
+    assertFalse(replayedFailure.isSuccessful());
+    assertEquals(500, replayedFailure.getTimeStamp() - replayed.getTimeStamp());
+    assertEquals(1, replayedFailure.getAssertionResults().length);
+    assertTrue(replayedFailure.getAssertionResults()[0].isFailure());
+    assertEquals(
+        "expected 200 but was 503", replayedFailure.getAssertionResults()[0].getFailureMessage());
+    assertEquals("login", batches.get(1).get(0).getSampleLabel());
+  }
+
+  @Test
+  public void testCrashedRecordingReplaysCompleteBatches() throws Exception {
+    File file = new File(dir, "crashed.jsr");
+    long start = System.currentTimeMillis();
+    SampleRecorder recorder = new SampleRecorder(file, false);
+    SampleResult page = sample("home", start, 40, true);
+    page.setResponseData("not recorded", "UTF-8");
+    recorder.record(Arrays.asList(page, sample("home", start + 5, 50, true)));
+    recorder.record(Arrays.asList(sample("search", start + 300, 90, true)));
+    // never closed, as after a crash of the JVM
+
+    List<SampleResult> samples = new ArrayList<>();
+    try (SampleReplayer replayer = new SampleReplayer(file)) {
+      assertFalse(replayer.hasBodies());
+      assertEquals(3, replayer.replay(samples::addAll, 2));
+    }
+    assertEquals("search", samples.get(2).getSampleLabel());
+    assertEquals(0, samples.get(0).getResponseData().length);
+    assertEquals(page.getBytesAsLong(), samples.get(0).getBytesAsLong());
+    // time stamps are compressed along with the pace
+    assertEquals(150, samples.get(2).getTimeStamp() - samples.get(0).getTimeStamp(), 1);
+  }
+
+  @Test
+  public void testParseSpeed() {
+    assertEquals(1, SampleReplayer.parseSpeed("original"), 0);
+    assertEquals(SampleReplayer.MAX_SPEED, SampleReplayer.parseSpeed("MAX"), 0);
+    assertEquals(2.5, SampleReplayer.parseSpeed("2.5x"), 0);
+    assertEquals(2, SampleReplayer.run("--speed", "-1", "missing.jsr"));
+  }
+
+  private static SampleResult sample(String label, long timestamp, long elapsed, boolean success) {
+    SampleResult sr = new SampleResult();
+    sr.setSampleLabel(label);
+    sr.setStampAndTime(timestamp, elapsed);
+    sr.setLatency(20);
+    sr.setConnectTime(5);
+    sr.setBytes(2048L);
+    sr.setAllThreads(7);
+    sr.setGroupThreads(7);
+    sr.setThreadName("Thread Group 1-1");
+    sr.setSuccessful(success);
+    sr.setResponseCode(success ? "200" : "503");
+    return sr;
+  }
+}
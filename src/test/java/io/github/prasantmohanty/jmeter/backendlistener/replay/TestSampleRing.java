@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 Prasant Mohanty.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.replay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.jmeter.config.Arguments;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.visualizers.backend.AbstractBackendListenerClient;
+import org.apache.jmeter.visualizers.backend.BackendListenerContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TestSampleRing {
+
+  @TempDir File dir;
+
+  @Test
+  public void testBatchesWrapAroundAndOverflowIsDropped() throws Exception {
+    File file = new File(dir, SampleRingWriter.fileName("Checkout test", "7"));
+    assertEquals("Checkout_test-7.ring", file.getName());
+    assertEquals(1 << 16, SampleRingWriter.parseCapacity("64k"));
+    assertEquals(1 << 17, SampleRingWriter.parseCapacity("100000"));
+
+    try (SampleRingWriter writer = new SampleRingWriter(file, 1 << 16, false);
+        SampleRingReader reader = new SampleRingReader(file)) {
+      assertNull(reader.poll());
+      assertTrue(reader.isProducerAlive());
+      long start = System.currentTimeMillis();
+      // a few times round the ring, read as it is written
+      for (int i = 0; i < 2000; i++) {
+        List<SampleResult> written = batch("checkout-" + i, start + i, 3);
+        assertTrue(writer.write(written));
+        List<SampleResult> read = reader.poll();
+        assertEquals(3, read.size());
+        assertEquals("checkout-" + i, read.get(0).getSampleLabel());
+        assertEquals(written.get(0).getTimeStamp(), read.get(0).getTimeStamp());
+        assertEquals(42, read.get(2).getTime());
+        assertEquals(1, read.get(0).getSubResults().length);
+        assertFalse(read.get(2).isSuccessful());
+      }
+      assertNull(reader.poll());
+
+      // nobody reading: the ring fills up and later batches are dropped, not blocked on
+      int written = 0;
+      while (writer.write(batch("login", start, 3))) {
+        written++;
+      }
+      assertEquals(3, writer.getDroppedSamples());
+      assertEquals(1, reader.getDroppedBatches());
+      for (int i = 0; i < written; i++) {
+        assertEquals("login", reader.poll().get(0).getSampleLabel());
+      }
+      assertNull(reader.poll());
+      assertTrue(writer.write(batch("logout", start, 1)));
+      assertEquals("logout", reader.poll().get(0).getSampleLabel());
+      assertFalse(reader.isClosed());
+    }
+  }
+
+  @Test
+  public void testConsumeUntilClosed() throws Exception {
+    File file = new File(dir, "run.ring");
+    CountingClient client = new CountingClient();
+    SampleRingReader reader;
+    try (SampleRingWriter writer = new SampleRingWriter(file, 1 << 16, false)) {
+      reader = new SampleRingReader(file);
+      writer.write(batch("checkout", System.currentTimeMillis(), 3));
+      writer.write(batch("login", System.currentTimeMillis(), 2));
+    }
+    assertTrue(reader.isClosed());
+    assertFalse(reader.isProducerAlive());
+    long samples =
+        PublisherSidecar.consume(reader, client, new BackendListenerContext(new Arguments()));
+    assertEquals(5, samples);
+    assertEquals(Arrays.asList("setup", "checkout", "login", "teardown"), client.calls);
+  }
+
+  private static List<SampleResult> batch(String label, long timeStamp, int size) {
+    List<SampleResult> batch = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      SampleResult sr = SampleResult.createTestSample(timeStamp, timeStamp + 40 + i);
+      sr.setSampleLabel(label);
+      sr.setSuccessful(i < 2);
+      sr.setResponseCode(i < 2 ? "200" : "503");
+      if (i == 0) {
+        SampleResult sub = SampleResult.createTestSample(timeStamp, timeStamp + 10);
+        sub.setSampleLabel(label + " / css");
+        sr.storeSubResult(sub, false);
+      }
+      batch.add(sr);
+    }
+    return batch;
+  }
+
+  private static class CountingClient extends AbstractBackendListenerClient {
+    final List<String> calls = new ArrayList<>();
+
+    @Override
+    public void setupTest(BackendListenerContext context) {
+      calls.add("setup");
+    }
+
+    @Override
+    public void handleSampleResults(List<SampleResult> results, BackendListenerContext context) {
+      calls.add(results.get(0).getSampleLabel());
+    }
+
+    @Override
+    public void teardownTest(BackendListenerContext context) {
+      calls.add("teardown");
+    }
+  }
+}
@@ -0,0 +1,469 @@
+/*
+ * Copyright 2026 Prasant Mohanty.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.reportportal;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.visualizers.backend.BackendListenerContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Capacity harness for {@link ReportPortalJMeterBackendClient}: drives a listener through
+ * setupTest, handleSampleResults and teardownTest with synthetic sample batches offered at a fixed
+ * rate, publishing to a local ReportPortal stand-in, and measures what it costs.
+ *
+ * <p>Per scenario the report has the listener lag (how late the listener started on a batch that
+ * was ready, worst and at the end), the CPU time of the listener thread, the heap high-water mark
+ * over the baseline, GC count and time, the teardown duration and the bytes uploaded. A scenario is
+ * sustained when the lag at the end stays below {@link #SUSTAINED_LAG_MILLIS}; the highest
+ * sustained rate is the capacity of the listener on the machine.
+ *
+ * <p>Scenarios are given as {@code rate:seconds:payload[:errorPercent]}, comma separated, with
+ * payload one of {@code none}, {@code small} (1 KiB JSON), {@code large} (64 KiB JSON) or {@code
+ * binary} (16 KiB PNG). Run the matrix of the {@code capacity} profile with {@code mvn test
+ * -Pcapacity}, or pick scenarios with {@code -Dcapacity.scenarios=...}; the report is written to
+ * {@code target/capacity/listener-capacity.csv}.
+ */
+public class ListenerCapacityHarness {
+
+  private static final Logger logger = LoggerFactory.getLogger(ListenerCapacityHarness.class);
+
+  static final long SUSTAINED_LAG_MILLIS = 1000;
+
+  static final int BATCH_SIZE = 100;
+
+  private static final String[] LABELS = new String[20];
+
+  static {
+    for (int i = 0; i < LABELS.length; i++) {
+      LABELS[i] = "GET /api/resource/" + i;
+    }
+  }
+
+  /** Response payload of the synthetic samples. */
+  enum PayloadProfile {
+    NONE(0, "application/json"),
+    SMALL(1024, "application/json"),
+    LARGE(64 * 1024, "application/json"),
+    BINARY(16 * 1024, "image/png");
+
+    final int size;
+    final String contentType;
+
+    PayloadProfile(int size, String contentType) {
+      this.size = size;
+      this.contentType = contentType;
+    }
+
+    byte[] bytes() {
+      byte[] bytes = new byte[size];
+      if (this == BINARY) {
+        new Random(42).nextBytes(bytes);
+        return bytes;
+      }
+      byte[] unit =
+          "{\"id\":12345,\"name\":\"item\",\"tags\":[\"a\",\"b\"]},"
+              .getBytes(StandardCharsets.UTF_8);
+      for (int i = 0; i < size; i++) {
+        bytes[i] = unit[i % unit.length];
+      }
+      return bytes;
+    }
+  }
+
+  /** Offered load of one run. */
+  static final class Scenario {
+    final int rate;
+    final int seconds;
+    final PayloadProfile payload;
+    final double errorPercent;
+
+    Scenario(int rate, int seconds, PayloadProfile payload, double errorPercent) {
+      this.rate = rate;
+      this.seconds = seconds;
+      this.payload = payload;
+      this.errorPercent = errorPercent;
+    }
+
+    static List<Scenario> parseAll(String spec) {
+      List<Scenario> scenarios = new ArrayList<>();
+      for (String entry : spec.split(",")) {
+        if (entry.trim().isEmpty()) {
+          continue;
+        }
+        String[] parts = entry.trim().split(":");
+        if (parts.length < 3) {
+          throw new IllegalArgumentException(
+              "Expected rate:seconds:payload[:errorPercent]: " + entry);
+        }
+        scenarios.add(
+            new Scenario(
+                Integer.parseInt(parts[0]),
+                Integer.parseInt(parts[1]),
+                PayloadProfile.valueOf(parts[2].toUpperCase(Locale.ROOT)),
+                parts.length > 3 ? Double.parseDouble(parts[3]) : 0d));
+      }
+      return scenarios;
+    }
+
+    long samples() {
+      return (long) rate * seconds;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          Locale.ROOT,
+          "%d:%d:%s:%s",
+          rate,
+          seconds,
+          payload.name().toLowerCase(Locale.ROOT),
+          errorPercent);
+    }
+  }
+
+  /** Measurements of one run. */
+  static final class Result {
+    Scenario scenario;
+    long samples;
+    double achievedRate;
+    long maxLagMillis;
+    long finalLagMillis;
+    long listenerCpuMillis;
+    long heapBaselineBytes;
+    long heapPeakBytes;
+    long gcCount;
+    long gcMillis;
+    long teardownMillis;
+    int uploads;
+    long uploadBytes;
+
+    boolean isSustained() {
+      return finalLagMillis < SUSTAINED_LAG_MILLIS;
+    }
+  }
+
+  /** ReportPortal stand-in accepting every import and counting what it receives. */
+  static final class MockReportPortal implements AutoCloseable {
+    final HttpServer server;
+    final ExecutorService executor = Executors.newCachedThreadPool();
+    final AtomicInteger imports = new AtomicInteger();
+    final AtomicLong bytes = new AtomicLong();
+
+    MockReportPortal() throws IOException {
+      server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+      server.setExecutor(executor);
+      server.createContext(
+          "/",
+          exchange -> {
+            byte[] buffer = new byte[64 * 1024];
+            long received = 0;
+            try (InputStream in = exchange.getRequestBody()) {
+              for (int n; (n = in.read(buffer)) > 0; ) {
+                received += n;
+              }
+            }
+            if (exchange.getRequestURI().getPath().endsWith("/junit/import")) {
+              imports.incrementAndGet();
+              bytes.addAndGet(received);
+            }
+            byte[] body =
+                "{\"message\":\"Launch is successfully imported\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+              out.write(body);
+            }
+          });
+      server.start();
+    }
+
+    String apiBase() {
+      return "http://127.0.0.1:" + server.getAddress().getPort() + "/api";
+    }
+
+    @Override
+    public void close() {
+      server.stop(0);
+      executor.shutdownNow();
+    }
+  }
+
+  /** Tracks the highest heap usage seen while a run is in progress. */
+  private static final class HeapSampler extends Thread {
+    volatile boolean running = true;
+    volatile long peak;
+
+    HeapSampler() {
+      super("capacity-heap-sampler");
+      setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+      while (running) {
+        sample();
+        try {
+          Thread.sleep(20);
+        } catch (InterruptedException e) {
+          return;
+        }
+      }
+    }
+
+    void sample() {
+      peak = Math.max(peak, ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+    }
+  }
+
+  private final File workDir;
+
+  /**
+   * @param workDir directory for the reports the listener writes
+   */
+  ListenerCapacityHarness(File workDir) {
+    this.workDir = workDir;
+  }
+
+  /**
+   * Run a scenario on the calling thread, which plays the listener thread of JMeter.
+   *
+   * @param scenario offered load
+   * @return the measurements
+   * @throws Exception if the listener fails
+   */
+  Result run(Scenario scenario) throws Exception {
+    try (MockReportPortal reportPortal = new MockReportPortal()) {
+      ReportPortalJMeterBackendClient client = new ReportPortalJMeterBackendClient();
+      Map<String, String> parameters =
+          new HashMap<>(client.getDefaultParameters().getArgumentsAsMap());
+      parameters.put("ReportPortalAPIBase", reportPortal.apiBase());
+      parameters.put("ProjectName", "capacity");
+      parameters.put("TestName", "capacity " + scenario);
+      parameters.put("OutboxDir", "");
+      parameters.put("ReportDir", workDir.getPath());
+      BackendListenerContext context = new BackendListenerContext(parameters);
+      SampleFactory factory = new SampleFactory(scenario);
+
+      Result result = new Result();
+      result.scenario = scenario;
+      System.gc();
+      result.heapBaselineBytes = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+      long[] gc = gc();
+      ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+      long cpu = threads.getCurrentThreadCpuTime();
+      HeapSampler heap = new HeapSampler();
+      heap.start();
+      try {
+        client.setupTest(context);
+        long start = System.nanoTime();
+        long sent = 0;
+        long lag = 0;
+        while (sent < scenario.samples()) {
+          int size = (int) Math.min(BATCH_SIZE, scenario.samples() - sent);
+          List<SampleResult> batch = factory.next(size);
+          // a batch is ready once its last sample has been offered
+          long due = start + (long) ((sent + size) * 1e9 / scenario.rate);
+          long now = System.nanoTime();
+          if (now < due) {
+            TimeUnit.NANOSECONDS.sleep(due - now);
+            lag = 0;
+          } else {
+            lag = TimeUnit.NANOSECONDS.toMillis(now - due);
+            result.maxLagMillis = Math.max(result.maxLagMillis, lag);
+          }
+          client.handleSampleResults(batch, context);
+          sent += size;
+        }
+        long elapsed = System.nanoTime() - start;
+        result.samples = sent;
+        result.finalLagMillis = lag;
+        result.achievedRate = sent * 1e9 / elapsed;
+        long teardown = System.nanoTime();
+        client.teardownTest(context);
+        result.teardownMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - teardown);
+      } finally {
+        heap.running = false;
+        heap.join();
+      }
+      heap.sample();
+      result.listenerCpuMillis =
+          TimeUnit.NANOSECONDS.toMillis(threads.getCurrentThreadCpuTime() - cpu);
+      result.heapPeakBytes = heap.peak;
+      long[] gcAfter = gc();
+      result.gcCount = gcAfter[0] - gc[0];
+      result.gcMillis = gcAfter[1] - gc[1];
+      result.uploads = reportPortal.imports.get();
+      result.uploadBytes = reportPortal.bytes.get();
+      logger.info(
+          "Scenario {}: {} samples at {}/s, max lag {} ms, final lag {} ms, teardown {} ms",
+          scenario,
+          result.samples,
+          String.format(Locale.ROOT, "%.0f", result.achievedRate),
+          result.maxLagMillis,
+          result.finalLagMillis,
+          result.teardownMillis);
+      return result;
+    }
+  }
+
+  /** @return collection count and time summed over all collectors */
+  private static long[] gc() {
+    long[] total = new long[2];
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      total[0] += Math.max(0, collector.getCollectionCount());
+      total[1] += Math.max(0, collector.getCollectionTime());
+    }
+    return total;
+  }
+
+  /**
+   * Write the results as CSV, one row per scenario, with the machine they ran on.
+   *
+   * @param results results
+   * @param file report file
+   * @throws IOException if the report cannot be written
+   */
+  static void writeReport(List<Result> results, File file) throws IOException {
+    Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+    Runtime runtime = Runtime.getRuntime();
+    String machine =
+        String.format(
+            Locale.ROOT,
+            "%s,%d,%d",
+            System.getProperty("java.version"),
+            runtime.availableProcessors(),
+            runtime.maxMemory() >> 20);
+    try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file.toPath()))) {
+      out.println(
+          "scenario,rate,seconds,payload,errorPercent,samples,achievedRate,maxLagMs,finalLagMs,"
+              + "sustained,listenerCpuMs,heapBaselineMb,heapPeakMb,gcCount,gcMs,teardownMs,"
+              + "uploads,uploadBytes,javaVersion,processors,maxHeapMb");
+      for (Result result : results) {
+        Scenario scenario = result.scenario;
+        out.println(
+            String.format(
+                Locale.ROOT,
+                "%s,%d,%d,%s,%.1f,%d,%.0f,%d,%d,%b,%d,%d,%d,%d,%d,%d,%d,%d,%s",
+                scenario,
+                scenario.rate,
+                scenario.seconds,
+                scenario.payload.name().toLowerCase(Locale.ROOT),
+                scenario.errorPercent,
+                result.samples,
+                result.achievedRate,
+                result.maxLagMillis,
+                result.finalLagMillis,
+                result.isSustained(),
+                result.listenerCpuMillis,
+                result.heapBaselineBytes >> 20,
+                result.heapPeakBytes >> 20,
+                result.gcCount,
+                result.gcMillis,
+                result.teardownMillis,
+                result.uploads,
+                result.uploadBytes,
+                machine));
+      }
+    }
+  }
+
+  /**
+   * Run the scenarios of {@code capacity.scenarios} and write the report to {@code
+   * capacity.report}.
+   */
+  public static void main(String[] args) throws Exception {
+    File report =
+        new File(System.getProperty("capacity.report", "target/capacity/listener-capacity.csv"));
+    List<Scenario> scenarios =
+        Scenario.parseAll(
+            args.length > 0 ? args[0] : System.getProperty("capacity.scenarios", "5000:10:small"));
+    ListenerCapacityHarness harness =
+        new ListenerCapacityHarness(new File(report.getAbsoluteFile().getParentFile(), "reports"));
+    List<Result> results = new ArrayList<>();
+    for (Scenario scenario : scenarios) {
+      results.add(harness.run(scenario));
+    }
+    writeReport(results, report);
+  }
+
+  /** Builds sample batches like a load test of a small REST API would produce. */
+  static final class SampleFactory {
+    private final Scenario scenario;
+    private final byte[] payload;
+    private long sequence;
+
+    SampleFactory(Scenario scenario) {
+      this.scenario = scenario;
+      // one shared array, as JMeter does not modify response data once sampled
+      this.payload = scenario.payload.bytes();
+    }
+
+    List<SampleResult> next(int size) {
+      List<SampleResult> batch = new ArrayList<>(size);
+      long end = System.currentTimeMillis();
+      for (int i = 0; i < size; i++) {
+        long n = sequence++;
+        long elapsed = 20 + n % 180;
+        SampleResult sr = SampleResult.createTestSample(end - elapsed, end);
+        sr.setSampleLabel(LABELS[(int) (n % LABELS.length)]);
+        sr.setThreadName("Users 1-" + (n % 50 + 1));
+        sr.setAllThreads(50);
+        sr.setGroupThreads(50);
+        sr.setConnectTime(n % 10);
+        sr.setLatency(elapsed / 2);
+        boolean failed = (n % 1000) < scenario.errorPercent * 10;
+        sr.setSuccessful(!failed);
+        sr.setResponseCode(failed ? "500" : "200");
+        sr.setResponseMessage(failed ? "Internal Server Error" : "OK");
+        sr.setRequestHeaders("Accept: application/json\nUser-Agent: capacity-harness");
+        sr.setResponseHeaders("HTTP/1.1 200 OK\nContent-Type: " + scenario.payload.contentType);
+        if (payload.length > 0) {
+          sr.setResponseData(payload);
+          sr.setContentType(scenario.payload.contentType);
+          sr.setDataType(
+              scenario.payload == PayloadProfile.BINARY ? SampleResult.BINARY : SampleResult.TEXT);
+        }
+        batch.add(sr);
+      }
+      return batch;
+    }
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026 Prasant Mohanty.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.reportportal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TestBackgroundPublisher {
+
+  private static ReportPortalMetricPublisher publisher(File dir) {
+    Map<String, String> configs = new HashMap<>();
+    // nothing listens on port 1, the import fails at once
+    configs.put("ReportPortalAPIBase", "http://127.0.0.1:1/api");
+    configs.put("ProjectName", "my_project");
+    configs.put("BearerToken", "my_token");
+    configs.put("TestName", "my_test");
+    configs.put("BuildNumber", "7");
+    ReportPortalMetricPublisher publisher = new ReportPortalMetricPublisher(configs);
+    publisher.setReportDir(dir);
+    publisher.addToList("{\"SampleLabel\":\"login\",\"ThreadName\":\"users 1-1\"}");
+    return publisher;
+  }
+
+  private static String launchRequest(File report) throws Exception {
+    return new String(
+        Files.readAllBytes(Outbox.launchFile(report).toPath()), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testFailedImportIsKeptInOutbox(@TempDir File dir) throws Exception {
+    ReportPortalMetricPublisher publisher = publisher(dir);
+    Outbox outbox = new Outbox(new File(dir, "outbox"));
+    BackgroundPublisher background = new BackgroundPublisher(publisher, outbox);
+    background.armShutdownHook();
+    background.start(60_000);
+
+    assertTrue(background.await(30_000));
+    assertFalse(background.isImported());
+    assertEquals(0, publisher.getListSize());
+    assertTrue(publisher.getProgress().startsWith("kept in outbox as "));
+    File[] reports = outbox.getDir().listFiles((d, name) -> name.endsWith(".xml"));
+    assertEquals(1, reports.length);
+    assertTrue(launchRequest(reports[0]).contains("\"bulk-import\""));
+    assertFalse(launchRequest(reports[0]).contains("partial"));
+  }
+
+  @Test
+  public void testPartialResultsAreFlushedToOutbox(@TempDir File dir) throws Exception {
+    ReportPortalMetricPublisher publisher = publisher(dir);
+    Outbox outbox = new Outbox(new File(dir, "outbox"));
+
+    File report = publisher.flushToOutbox(outbox);
+    assertEquals(outbox.getDir(), report.getParentFile());
+    String xml = new String(Files.readAllBytes(report.toPath()), StandardCharsets.UTF_8);
+    assertTrue(xml.contains("name=\"login\""));
+    assertTrue(launchRequest(report).contains("\"partial\""));
+
+    publisher.clearList();
+    assertNull(publisher.flushToOutbox(new Outbox(new File(dir, "empty"))));
+  }
+}
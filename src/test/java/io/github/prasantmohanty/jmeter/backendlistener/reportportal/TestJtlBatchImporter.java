@@ -0,0 +1,253 @@
+/*
+ * Copyright 2026 Prasant Mohanty.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.reportportal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.prasantmohanty.jmeter.backendlistener.model.LaunchImportRq;
+import java.io.File;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TestJtlBatchImporter {
+
+  private static final String HEADER =
+      "timeStamp,elapsed,label,responseCode,responseMessage,threadName,dataType,success,"
+          + "failureMessage,bytes,sentBytes,grpThreads,allThreads,URL,Latency,IdleTime,Connect\n";
+
+  private static File jtl(File dir, String name, String... rows) throws Exception {
+    File file = new File(dir, name);
+    file.getParentFile().mkdirs();
+    StringBuilder sb = new StringBuilder(HEADER);
+    for (String row : rows) {
+      sb.append(row).append('\n');
+    }
+    Files.write(file.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+    return file;
+  }
+
+  @Test
+  public void testBackfillResumesFromCheckpoint(@TempDir File dir) throws Exception {
+    File results = new File(dir, "results");
+    jtl(
+        results,
+        "a.jtl",
+        "1700000000000,12,login,200,OK,users 1-1,text,true,,100,10,1,1,http://x/login,5,0,1",
+        "1700000060000,30,search,500,Internal,users 1-1,text,false,boom,100,10,1,1,"
+            + "http://x/search,5,0,1");
+    jtl(
+        new File(results, "nightly"),
+        "b.jtl",
+        "1700000000000,12,login,200,OK,users 1-1,text,true,,100,10,1,1,http://x/login,5,0,1");
+    Outbox outbox = new Outbox(new File(results, "outbox"));
+    File report = outbox.newReportFile("junit");
+    Files.write(
+        report.toPath(), "<testsuite name=\"kept\"/>\n".getBytes(StandardCharsets.UTF_8));
+    outbox.put(report, new LaunchImportRq().setName("kept_launch"));
+
+    Queue<String> requests = new ConcurrentLinkedQueue<>();
+    HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(
+        "/",
+        exchange -> {
+          requests.add(
+              new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+          byte[] body = "{\"message\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+          exchange.sendResponseHeaders(200, body.length);
+          try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+          }
+          exchange.close();
+        });
+    server.start();
+    try {
+      String[] args = {
+        "--api-base", "http://127.0.0.1:" + server.getAddress().getPort() + "/api",
+        "--project", "backfill",
+        "--token", "token",
+        "--launch-name", "{dir}-{name}",
+        "--requests-per-second", "100",
+        "--work-dir", new File(dir, "work").getPath(),
+        "--checkpoint", new File(dir, "checkpoint").getPath(),
+        results.getPath()
+      };
+      assertEquals(0, JtlBatchImporter.run(args));
+      assertEquals(3, requests.size());
+      String all = String.join("\n", requests);
+      assertTrue(all.contains("\"name\":\"results-a\""));
+      assertTrue(all.contains("\"name\":\"nightly-b\""));
+      assertTrue(all.contains("\"name\":\"kept_launch\""));
+      assertTrue(all.contains("\"startTime\":\"2023-11-14T22:13:20Z\""));
+      assertTrue(all.contains("{\"key\":\"errors\",\"value\":\"1\""));
+      assertTrue(all.contains("<testsuite name=\"a\""));
+      assertTrue(all.contains("<failure message=\"boom\"/>"));
+      assertFalse(report.exists());
+      assertFalse(Outbox.launchFile(report).exists());
+      assertEquals(0, new File(dir, "work").list().length);
+      assertEquals(3, Files.readAllLines(new File(dir, "checkpoint").toPath()).size());
+
+      // a second run finds everything in the checkpoint
+      assertEquals(0, JtlBatchImporter.run(args));
+      assertEquals(3, requests.size());
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  @Test
+  public void testCollectExpandsGlobs(@TempDir File dir) throws Exception {
+    File first = jtl(new File(dir, "2025-01"), "run.jtl");
+    File second = jtl(new File(dir, "2025-02"), "run.jtl");
+    jtl(new File(dir, "2024-12"), "run.jtl");
+    Files.write(new File(dir, "2025-01/notes.txt").toPath(), new byte[0]);
+
+    List<File> files =
+        JtlBatchImporter.collect(
+            Collections.singletonList(dir.getPath() + File.separator + "2025-*/*.jtl"));
+    assertEquals(Arrays.asList(first, second), files);
+    assertEquals(
+        Arrays.asList(first), JtlBatchImporter.collect(Collections.singletonList(first.getPath())));
+    assertTrue(JtlBatchImporter.collect(Collections.singletonList("no-such-dir")).isEmpty());
+  }
+
+  @Test
+  public void testInterruptAbortsUploadsInFlight(@TempDir File dir) throws Exception {
+    List<File> files = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      files.add(
+          jtl(
+              dir,
+              "run" + i + ".jtl",
+              "1700000000000,12,login,200,OK,users 1-1,text,true,,100,10,1,1,http://x/login,5,0,1"));
+    }
+    AtomicInteger uploads = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.createContext(
+        "/",
+        exchange -> {
+          exchange.getRequestBody().readAllBytes();
+          uploads.incrementAndGet();
+          started.countDown();
+          try {
+            release.await(10, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          exchange.sendResponseHeaders(200, -1);
+          exchange.close();
+        });
+    server.start();
+    try {
+      Map<String, String> options = new HashMap<>();
+      options.put("api-base", "http://127.0.0.1:" + server.getAddress().getPort() + "/api");
+      options.put("project", "interrupted");
+      options.put("token", "token");
+      options.put("threads", "1");
+      options.put("concurrency", "1");
+      options.put("requests-per-second", "0");
+      options.put("work-dir", new File(dir, "work").getPath());
+      options.put("checkpoint", new File(dir, "checkpoint").getPath());
+      JtlBatchImporter importer = new JtlBatchImporter(options);
+      AtomicBoolean interrupted = new AtomicBoolean();
+      Thread thread =
+          new Thread(
+              () -> {
+                try {
+                  importer.importAll(files);
+                } catch (InterruptedException e) {
+                  interrupted.set(true);
+                }
+              });
+      thread.start();
+      assertTrue(started.await(10, TimeUnit.SECONDS));
+      thread.interrupt();
+      thread.join(10_000);
+      assertTrue(interrupted.get());
+
+      // the upload in flight is aborted and the queued ones never start
+      release.countDown();
+      Thread.sleep(500);
+      assertEquals(1, uploads.get());
+    } finally {
+      release.countDown();
+      server.stop(0);
+    }
+  }
+
+  @Test
+  public void testUploadFailingToStartReleasesItsSlot(@TempDir File dir) throws Exception {
+    List<File> files = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      files.add(
+          jtl(
+              dir,
+              "run" + i + ".jtl",
+              "1700000000000,12,login,200,OK,users 1-1,text,true,,100,10,1,1,http://x/login,5,0,1"));
+    }
+    Map<String, String> options = new HashMap<>();
+    options.put("api-base", "http://127.0.0.1:1/api");
+    options.put("project", "unstarted");
+    options.put("token", "token");
+    options.put("threads", "1");
+    options.put("concurrency", "1");
+    options.put("requests-per-second", "0");
+    options.put("work-dir", new File(dir, "work").getPath());
+    options.put("checkpoint", new File(dir, "checkpoint").getPath());
+    JtlBatchImporter importer =
+        new JtlBatchImporter(options) {
+          @Override
+          CompletableFuture<String> upload(File report, LaunchImportRq rq) {
+            throw new IllegalArgumentException("Report " + report + " is gone");
+          }
+        };
+
+    // more files than slots, so a slot that is never returned hangs the run
+    Future<Boolean> run =
+        Executors.newSingleThreadExecutor().submit(() -> importer.importAll(files));
+    assertFalse(run.get(30, TimeUnit.SECONDS));
+    List<String> checkpoint = Files.readAllLines(new File(dir, "checkpoint").toPath());
+    assertEquals(4, checkpoint.size());
+    assertTrue(checkpoint.stream().allMatch(line -> line.startsWith("failed\t")));
+    File[] leftovers = new File(dir, "work").listFiles();
+    assertEquals(0, leftovers == null ? 0 : leftovers.length);
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 Prasant Mohanty.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.reportportal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Runs the capacity harness on a short scenario, or on the scenarios of {@code
+ * capacity.scenarios} when set (see the {@code capacity} profile).
+ */
+public class TestListenerCapacityHarness {
+
+  @Test
+  public void testCapacityReport(@TempDir File dir) throws Exception {
+    String spec = System.getProperty("capacity.scenarios", "2000:2:small:5");
+    File report =
+        System.getProperty("capacity.report") != null
+            ? new File(System.getProperty("capacity.report"))
+            : new File(dir, "listener-capacity.csv");
+    ListenerCapacityHarness harness = new ListenerCapacityHarness(new File(dir, "reports"));
+    List<ListenerCapacityHarness.Result> results = new ArrayList<>();
+    for (ListenerCapacityHarness.Scenario scenario :
+        ListenerCapacityHarness.Scenario.parseAll(spec)) {
+      ListenerCapacityHarness.Result result = harness.run(scenario);
+      assertEquals(scenario.samples(), result.samples);
+      assertEquals(1, result.uploads);
+      assertTrue(result.uploadBytes > 0);
+      assertTrue(result.heapPeakBytes > 0);
+      results.add(result);
+    }
+    ListenerCapacityHarness.writeReport(results, report);
+
+    List<String> lines = Files.readAllLines(report.toPath());
+    assertEquals(results.size() + 1, lines.size());
+    assertTrue(lines.get(0), lines.get(0).startsWith("scenario,rate,seconds,payload,"));
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 Prasant Mohanty.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.reportportal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.Gson;
+import io.github.prasantmohanty.jmeter.backendlistener.model.Payload;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TestPayloadStore {
+
+  @TempDir File dir;
+
+  @Test
+  public void testXxh64() {
+    assertEquals(0xEF46DB3751D8E999L, PayloadStore.xxh64(new byte[0]));
+    assertEquals(0x44BC2CF5AD770999L, PayloadStore.xxh64(utf8("abc")));
+    assertEquals(
+        0xFBCEA83C8A378BF1L, PayloadStore.xxh64(utf8("Nobody inspects the spammish repetition")));
+  }
+
+  @Test
+  public void testIdenticalPayloadsAreWrittenOnce() throws Exception {
+    String headers = "Content-Type: application/json\nCache-Control: no-store\nServer: nginx/1.25";
+    char[] filler = new char[4096];
+    Arrays.fill(filler, 'x');
+    byte[] body = ("{\"config\":\"" + new String(filler) + "\"}").getBytes(StandardCharsets.UTF_8);
+    ReportPortalMetricPublisher pub =
+        new ReportPortalMetricPublisher(Collections.singletonMap("TestName", "dedup"));
+    try (PayloadStore store = new PayloadStore(dir)) {
+      pub.setPayloadStore(store);
+      for (int i = 0; i < 50; i++) {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("SampleLabel", "config");
+        metrics.put(
+            "RequestHeaders",
+            "Accept: application/json\nAccept-Encoding: gzip\nUser-Agent: Apache-HttpClient/4.5");
+        metrics.put("RequestBody", "GET /config");
+        metrics.put("ResponseHeaders", headers);
+        Payload response =
+            store.intern(
+                metrics, new Payload(body.clone(), "UTF-8", "application/json", false), "config");
+        assertNull(response);
+        assertEquals("GET /config", metrics.get("RequestBody"));
+        pub.addToList(new Gson().toJson(metrics), response);
+      }
+      // same length, other content
+      store.intern(new HashMap<>(), new Payload(new byte[body.length], "UTF-8", null, true), "png");
+      assertEquals(4, store.getBlobCount());
+      assertEquals(151, store.getOffered());
+      assertTrue(store.getStoredBytes() * 20 < store.getOfferedBytes());
+      assertArrayEquals(body, store.get(2).getData());
+
+      File report = pub.flushToOutbox(new Outbox(new File(dir, "outbox")));
+      String xml = new String(Files.readAllBytes(report.toPath()), StandardCharsets.UTF_8);
+      assertEquals(50, count(xml, "<testcase "));
+      assertEquals(1, count(xml, new String(filler)));
+      assertEquals(1, count(xml, "Server: nginx/1.25"));
+      assertEquals(49 * 3, count(xml, "[identical to the payload first seen in 'config'"));
+    }
+  }
+
+  private static int count(String text, String part) {
+    int count = 0;
+    for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + part.length())) {
+      count++;
+    }
+    return count;
+  }
+
+  private static byte[] utf8(String text) {
+    return text.getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 Prasant Mohanty.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.reportportal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import io.github.prasantmohanty.jmeter.backendlistener.reportportal.PublishingEngine.Settings;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TestPublishingEngine {
+
+  private static ReportPortalMetricPublisher publisher(String testName, String threadName) {
+    Map<String, String> configs = new HashMap<>();
+    configs.put("ReportPortalAPIBase", "http://127.0.0.1:1/api");
+    configs.put("ProjectName", "my_project");
+    configs.put("BearerToken", "my_token");
+    configs.put("TestName", testName);
+    configs.put("BuildNumber", "7");
+    ReportPortalMetricPublisher publisher = new ReportPortalMetricPublisher(configs);
+    publisher.addToList(
+        "{\"SampleLabel\":\"login\",\"ThreadName\":\"" + threadName + "\",\"Success\":true}");
+    return publisher;
+  }
+
+  @Test
+  public void testListenersOfALaunchShareOneEngine() {
+    ReportPortalMetricPublisher first = publisher("shared_launch", "users 1-1");
+    ReportPortalMetricPublisher second = publisher("shared_launch", "admins 1-1");
+    ReportPortalMetricPublisher other = publisher("other_launch", "users 1-1");
+
+    PublishingEngine engine = PublishingEngine.join(first, null, Settings.SYNC);
+    // the settings of a later listener do not change those of the launch
+    assertSame(engine, PublishingEngine.join(second, null, new Settings(true, 1000, 60_000)));
+    PublishingEngine otherEngine = PublishingEngine.join(other, null, Settings.SYNC);
+    assertNotSame(engine, otherEngine);
+
+    assertSame(first, engine.getLead());
+    assertSame(Settings.SYNC, engine.getSettings());
+    assertEquals(2, engine.getMemberCount());
+    assertEquals(2, first.getMembersListSize());
+    assertFalse(engine.leave());
+    assertTrue(engine.leave());
+    assertTrue(otherEngine.leave());
+
+    // the next run starts a new engine
+    PublishingEngine next = PublishingEngine.join(second, null, Settings.SYNC);
+    assertNotSame(engine, next);
+    assertTrue(next.leave());
+  }
+
+  @Test
+  public void testOneReportWithASuitePerListener(@TempDir File dir) throws Exception {
+    ReportPortalMetricPublisher first = publisher("report_launch", "users 1-1");
+    ReportPortalMetricPublisher second = publisher("report_launch", "admins 1-1");
+    ReportPortalMetricPublisher third = publisher("report_launch", "users 1-1");
+    first.setReportDir(dir);
+    PublishingEngine engine = PublishingEngine.join(first, null, Settings.SYNC);
+    PublishingEngine.join(second, null, Settings.SYNC);
+    PublishingEngine.join(third, null, Settings.SYNC);
+    first.getAnalysisReport().addLaunchAttribute("first", "1");
+    second.getAnalysisReport().addLaunchAttribute("second", "2");
+    engine.leave();
+    engine.leave();
+    assertTrue(engine.leave());
+
+    File report = first.flushToOutbox(new Outbox(new File(dir, "outbox")));
+    String xml = new String(Files.readAllBytes(report.toPath()), StandardCharsets.UTF_8);
+    assertTrue(xml.contains("<testsuites"));
+    assertTrue(xml.contains("<testsuite name=\"users 1-1\""));
+    assertTrue(xml.contains("<testsuite name=\"admins 1-1\""));
+    assertTrue(xml.contains("<testsuite name=\"users 1-1 (2)\""));
+    String launch =
+        new String(
+            Files.readAllBytes(Outbox.launchFile(report).toPath()), StandardCharsets.UTF_8);
+    assertTrue(launch.contains("\"first\""));
+    assertTrue(launch.contains("\"second\""));
+
+    first.clearList();
+    assertEquals(0, first.getMembersListSize());
+  }
+}
@@ -18,9 +18,14 @@ package io.github.prasantmohanty.jmeter.backendlistener.reportportal;
 
 import static org.junit.Assert.assertNotNull;
 
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
 import org.apache.jmeter.config.Arguments;
+import org.apache.jmeter.visualizers.backend.BackendListenerContext;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 public class TestReportPortalBackendClient {
 
@@ -36,4 +41,21 @@ public class TestReportPortalBackendClient {
     Arguments args = client.getDefaultParameters();
     assertNotNull(args);
   }
+
+  @Test
+  public void testInvalidAnalysisSettingsDoNotFailSetup(@TempDir File dir) throws Exception {
+    ReportPortalJMeterBackendClient listener = new ReportPortalJMeterBackendClient();
+    Map<String, String> parameters =
+        new HashMap<>(listener.getDefaultParameters().getArgumentsAsMap());
+    parameters.put("ReportPortalAPIBase", "http://127.0.0.1:1/api");
+    parameters.put("TestName", "invalid_settings");
+    parameters.put("ReportDir", dir.getPath());
+    parameters.put("ErrorBudgetTarget", "99.9%");
+    parameters.put("ChangePointDetection", "true");
+    parameters.put("ChangePointThreshold", "5 sigma");
+    BackendListenerContext context = new BackendListenerContext(parameters);
+
+    listener.setupTest(context);
+    listener.teardownTest(context);
+  }
 }
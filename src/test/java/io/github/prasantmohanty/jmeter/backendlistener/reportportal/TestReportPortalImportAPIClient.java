@@ -0,0 +1,147 @@
+/*
+ * Copyright 2026 Prasant Mohanty.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.reportportal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.prasantmohanty.jmeter.backendlistener.model.LaunchImportRq;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TestReportPortalImportAPIClient {
+
+  @TempDir File dir;
+
+  private HttpServer server;
+  private final AtomicInteger imports = new AtomicInteger();
+  /** Imports of launches named "slow" wait for this. */
+  private final CountDownLatch slow = new CountDownLatch(1);
+
+  @BeforeEach
+  public void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.createContext(
+        "/",
+        exchange -> {
+          String request =
+              new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+          if (request.contains("\"slow\"")) {
+            try {
+              slow.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          }
+          String launch = request.replaceAll("(?s).*\"name\":\"([^\"]*)\".*", "$1");
+          byte[] body = ("{\"launch\":\"" + launch + "\"}").getBytes(StandardCharsets.UTF_8);
+          if (exchange.getRequestURI().getPath().endsWith("/import")) {
+            imports.incrementAndGet();
+          }
+          exchange.sendResponseHeaders(200, body.length);
+          try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+          }
+          exchange.close();
+        });
+    server.start();
+  }
+
+  @AfterEach
+  public void stopServer() {
+    slow.countDown();
+    server.stop(0);
+  }
+
+  private ReportPortalImportAPIClient client(String project, int maxInFlight) {
+    Map<String, String> configs = new HashMap<>();
+    configs.put("ReportPortalAPIBase", "http://127.0.0.1:" + server.getAddress().getPort());
+    configs.put("ProjectName", project);
+    configs.put("BearerToken", "token");
+    configs.put("TestName", "test");
+    configs.put("BuildNumber", "1");
+    configs.put(ReportPortalRateLimiter.REQUESTS_PER_SECOND, "0");
+    configs.put(ReportPortalRateLimiter.MAX_IN_FLIGHT, Integer.toString(maxInFlight));
+    return new ReportPortalImportAPIClient(configs, 0);
+  }
+
+  private File report() throws IOException {
+    File report = new File(dir, "junit.xml");
+    Files.write(report.toPath(), "<testsuite/>".getBytes(StandardCharsets.UTF_8));
+    return report;
+  }
+
+  @Test
+  public void testFanOutKeepsOrderWithinTheSlots() throws Exception {
+    ReportPortalImportAPIClient client = client("fan_out_project", 2);
+    assertTrue(client.pingAsync().get(10, TimeUnit.SECONDS));
+    File report = report();
+    List<CompletableFuture<String>> calls = new ArrayList<>();
+    for (String launch : Arrays.asList("a", "b", "c", "d", "e")) {
+      calls.add(client.importLaunchAsync(report, new LaunchImportRq().setName(launch)));
+    }
+    List<String> responses = ReportPortalImportAPIClient.allOf(calls).get(10, TimeUnit.SECONDS);
+    assertEquals(5, responses.size());
+    assertEquals("{\"launch\":\"a\"}", responses.get(0));
+    assertEquals("{\"launch\":\"e\"}", responses.get(4));
+    assertEquals(5, imports.get());
+  }
+
+  @Test
+  public void testCancelAndDeadlineFreeTheSlot() throws Exception {
+    ReportPortalImportAPIClient client = client("cancel_project", 1);
+    File report = report();
+    CompletableFuture<String> stuck =
+        client.importLaunchAsync(report, new LaunchImportRq().setName("slow"));
+    CompletableFuture<String> queued =
+        client.importLaunchAsync(report, new LaunchImportRq().setName("queued"), 200);
+    try {
+      queued.get(10, TimeUnit.SECONDS);
+      throw new AssertionError("waited past the deadline for a slot");
+    } catch (ExecutionException expected) {
+      assertTrue(expected.getCause() instanceof IOException);
+    }
+
+    // the blocked upload is aborted and its slot serves the next call
+    stuck.cancel(true);
+    assertTrue(stuck.isCancelled());
+    assertEquals(
+        "{\"launch\":\"next\"}",
+        client.importLaunch(report, new LaunchImportRq().setName("next")));
+  }
+}
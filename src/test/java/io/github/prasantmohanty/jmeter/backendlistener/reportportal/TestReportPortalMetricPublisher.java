@@ -1,12 +1,54 @@
+/*
+ * Copyright 2026 Prasant Mohanty.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
 package io.github.prasantmohanty.jmeter.backendlistener.reportportal;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
+import io.github.prasantmohanty.jmeter.backendlistener.capture.HeapBudget;
+import io.github.prasantmohanty.jmeter.backendlistener.model.Payload;
+import io.github.prasantmohanty.jmeter.backendlistener.reportportal.ReportPortalMetricPublisher.BufferedMetric;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 public class TestReportPortalMetricPublisher {
 
+  @Test
+  public void testWarmUpToleratesInvalidSettings() throws Exception {
+    Map<String, String> configs =
+        Map.of(
+            "ReportPortalAPIBase", "not a url",
+            "ProjectName", "my_project",
+            "BearerToken", "my_token",
+            "TestName", "my_test",
+            "BuildNumber", "123");
+    assertFalse(new ReportPortalMetricPublisher(configs).warmUp().get());
+    assertFalse(new ReportPortalMetricPublisher(Collections.emptyMap()).warmUp().get());
+  }
+
   @Test
   public void testMetricList() {
     Map<String, String> configs =
@@ -23,4 +65,62 @@ public class TestReportPortalMetricPublisher {
     pub.clearList();
     assertEquals(pub.getListSize(), 0);
   }
+
+  @Test
+  public void testHeapBudgetSpillsBufferedMetrics() {
+    HeapBudget budget = new HeapBudget(4096, HeapBudget.Action.SPILL);
+    ReportPortalMetricPublisher pub = new ReportPortalMetricPublisher(Collections.emptyMap());
+    pub.setHeapBudget(budget);
+    byte[] body = new byte[512];
+    for (int i = 0; i < 20; i++) {
+      pub.addToList("{\"SampleLabel\":\"s" + i + "\"}", new Payload(body, "UTF-8", null, false));
+    }
+    assertTrue(budget.isTripped());
+    assertTrue(pub.getSpilledCount() > 0);
+    assertEquals(20, pub.getListSize());
+    assertTrue(budget.getRetainedBytes() < budget.getBudgetBytes());
+
+    pub.clearList();
+    assertEquals(0, pub.getListSize());
+    assertEquals(0, budget.getRetainedBytes());
+  }
+
+  @Test
+  public void testHeapBudgetDropsPayloads() {
+    HeapBudget budget = new HeapBudget(4096, HeapBudget.Action.DROP_PAYLOADS);
+    ReportPortalMetricPublisher pub = new ReportPortalMetricPublisher(Collections.emptyMap());
+    pub.setHeapBudget(budget);
+    for (int i = 0; i < 10; i++) {
+      pub.addToList("{}", new Payload(new byte[1024], "UTF-8", null, false));
+    }
+    assertEquals(0, pub.getSpilledCount());
+    assertEquals(10, pub.getListSize());
+    assertFalse(budget.isExceeded());
+  }
+
+  @Test
+  public void testMetricSpillRoundTrip(@TempDir File dir) throws Exception {
+    byte[] png = {(byte) 0x89, 'P', 'N', 'G'};
+    List<BufferedMetric> inMemory = new ArrayList<>();
+    inMemory.add(new BufferedMetric("{\"n\":3}", null));
+    try (MetricSpill spill = new MetricSpill(dir)) {
+      spill.append(new BufferedMetric("{\"n\":\"\u00e9\"}", null));
+      spill.append(new BufferedMetric("{\"n\":1}", new Payload(png, "UTF-8", "image/png", true)));
+      spill.append(new BufferedMetric("{\"n\":2}", null));
+      spill.truncate(2);
+      spill.flush();
+      List<BufferedMetric> all = spill.followedBy(inMemory);
+
+      assertEquals(3, all.size());
+      assertEquals("{\"n\":\"\u00e9\"}", all.get(0).json);
+      assertNull(all.get(0).responseData);
+      Payload payload = all.get(1).responseData;
+      assertArrayEquals(png, payload.getData());
+      assertEquals("image/png", payload.getContentType());
+      assertTrue(payload.isBinary());
+      assertEquals("{\"n\":3}", all.get(2).json);
+      assertTrue(spill.getFile().length() > "{\"n\":1}".getBytes(StandardCharsets.UTF_8).length);
+    }
+    assertEquals(0, dir.listFiles().length);
+  }
 }
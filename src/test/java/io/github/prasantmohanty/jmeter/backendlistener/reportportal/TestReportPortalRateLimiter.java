@@ -0,0 +1,187 @@
+/*
+ * Copyright 2026 Prasant Mohanty.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.prasantmohanty.jmeter.backendlistener.reportportal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.prasantmohanty.jmeter.backendlistener.model.LaunchImportRq;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TestReportPortalRateLimiter {
+
+  private final AtomicLong clock = new AtomicLong(1_000_000);
+  private final AtomicLong slept = new AtomicLong();
+
+  private ReportPortalRateLimiter limiter(double requests, double bytes, int maxInFlight) {
+    return new ReportPortalRateLimiter(
+        requests,
+        bytes,
+        maxInFlight,
+        3,
+        clock::get,
+        millis -> {
+          slept.addAndGet(millis);
+          clock.addAndGet(millis);
+        });
+  }
+
+  @Test
+  public void testTokenBuckets() throws Exception {
+    ReportPortalRateLimiter limiter = limiter(10, 1000, 100);
+    for (int i = 0; i < 10; i++) {
+      assertTrue(limiter.acquireAsync(Long.MAX_VALUE).isDone());
+      limiter.release();
+    }
+    // the eleventh request waits a tenth of a second for its token, on the timer
+    CompletableFuture<Void> eleventh = limiter.acquireAsync(Long.MAX_VALUE);
+    assertFalse(eleventh.isDone());
+    eleventh.get(5, TimeUnit.SECONDS);
+    limiter.release();
+
+    clock.addAndGet(1000);
+    limiter.acquireBytes(1000, Long.MAX_VALUE);
+    assertEquals(0, slept.get());
+    limiter.acquireBytes(500, Long.MAX_VALUE);
+    assertEquals(500, slept.get());
+  }
+
+  @Test
+  public void testThrottlingPausesAndBacksOff() throws Exception {
+    ReportPortalRateLimiter limiter = limiter(10, 0, 1);
+    assertEquals(2000, limiter.throttled("2", 0));
+    assertEquals(0.5, limiter.currentFactor(), 1e-9);
+    // paused: the caller waits, and gives its slot back when it gives up
+    CompletableFuture<Void> paused = limiter.acquireAsync(Long.MAX_VALUE);
+    assertFalse(paused.isDone());
+    paused.cancel(false);
+    clock.addAndGet(2000);
+    assertTrue(limiter.acquireAsync(Long.MAX_VALUE).isDone());
+    limiter.release();
+    for (int i = 0; i < 5; i++) {
+      limiter.succeeded();
+    }
+    assertEquals(1.0, limiter.currentFactor(), 1e-9);
+
+    long backoff = limiter.throttled(null, 2);
+    assertTrue("backoff " + backoff, backoff >= 2000 && backoff < 6000);
+    CompletableFuture<Void> late = limiter.acquireAsync(clock.get() + 1000);
+    try {
+      late.get(5, TimeUnit.SECONDS);
+      throw new AssertionError("waited past the deadline");
+    } catch (ExecutionException expected) {
+      assertTrue(expected.getCause() instanceof IOException);
+    }
+    // the failed caller gave its slot back
+    clock.addAndGet(backoff);
+    assertTrue(limiter.acquireAsync(Long.MAX_VALUE).isDone());
+  }
+
+  @Test
+  public void testAsyncCallersQueueForSlots() throws Exception {
+    ReportPortalRateLimiter limiter = limiter(0, 0, 1);
+    CompletableFuture<Void> first = limiter.acquireAsync(Long.MAX_VALUE);
+    assertTrue(first.isDone());
+    CompletableFuture<Void> cancelled = limiter.acquireAsync(Long.MAX_VALUE);
+    CompletableFuture<Void> expired = limiter.acquireAsync(clock.get() + 50);
+    CompletableFuture<Void> second = limiter.acquireAsync(Long.MAX_VALUE);
+    assertFalse(cancelled.isDone() || expired.isDone() || second.isDone());
+    cancelled.cancel(false);
+    try {
+      expired.get(5, TimeUnit.SECONDS);
+      throw new AssertionError("waited past the deadline for a slot");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof IOException);
+    }
+
+    // the slot passes over the callers that left the queue to the next one
+    limiter.release();
+    second.get(5, TimeUnit.SECONDS);
+    limiter.release();
+    assertTrue(limiter.acquireAsync(Long.MAX_VALUE).isDone());
+    limiter.release();
+  }
+
+  @Test
+  public void testParsing() {
+    long now = 1445412480000L; // Wed, 21 Oct 2015 07:28:00 GMT
+    assertEquals(
+        3000, ReportPortalRateLimiter.parseRetryAfter("Wed, 21 Oct 2015 07:28:03 GMT", now));
+    assertEquals(120000, ReportPortalRateLimiter.parseRetryAfter(" 120 ", now));
+    assertEquals(-1, ReportPortalRateLimiter.parseRetryAfter("soon", now));
+    assertEquals(8 << 20, ReportPortalRateLimiter.parseBytes("8m"), 0);
+  }
+
+  @Test
+  public void testImportRetriesThrottledRequest(@TempDir File dir) throws Exception {
+    AtomicInteger requests = new AtomicInteger();
+    HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(
+        "/",
+        exchange -> {
+          exchange.getRequestBody().readAllBytes();
+          byte[] body = "{\"message\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+          if (requests.incrementAndGet() == 1) {
+            exchange.getResponseHeaders().add("Retry-After", "0");
+            exchange.sendResponseHeaders(429, -1);
+          } else {
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+              out.write(body);
+            }
+          }
+          exchange.close();
+        });
+    server.start();
+    try {
+      Map<String, String> configs = new HashMap<>();
+      configs.put("ReportPortalAPIBase", "http://127.0.0.1:" + server.getAddress().getPort());
+      configs.put("ProjectName", "throttled_project");
+      configs.put("BearerToken", "token");
+      configs.put("TestName", "test");
+      configs.put("BuildNumber", "1");
+      configs.put(ReportPortalRateLimiter.BYTES_PER_SECOND, "1m");
+      File report = new File(dir, "junit.xml");
+      Files.write(report.toPath(), "<testsuite/>".getBytes(StandardCharsets.UTF_8));
+
+      String response =
+          new ReportPortalImportAPIClient(configs, 30_000)
+              .importLaunch(report, new LaunchImportRq().setName("test"));
+      assertEquals("{\"message\":\"ok\"}", response);
+      assertEquals(2, requests.get());
+      assertEquals(1, ReportPortalRateLimiter.forProject(configs).getThrottled());
+    } finally {
+      server.stop(0);
+    }
+  }
+}